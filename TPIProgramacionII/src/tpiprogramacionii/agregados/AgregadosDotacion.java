@@ -0,0 +1,344 @@
+package tpiprogramacionii.agregados;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import tpiprogramacionii.dao.EmpleadoDAO;
+import tpiprogramacionii.entities.Empleado;
+import tpiprogramacionii.entities.Estado;
+import tpiprogramacionii.entities.Legajo;
+import tpiprogramacionii.service.ObservadorEmpleado;
+import tpiprogramacionii.service.ObservadorLegajo;
+
+/**
+ * Dotación en memoria: cantidad de empleados activos por área, por categoría y por estado del legajo.
+ * Se carga una vez recorriendo la tabla y después se actualiza con los avisos de EmpleadoService
+ * (altas, bajas, cambios de área y de categoría) y de LegajoService (categoría, estado y bajas de legajos),
+ * así los tableros leen los totales sin hacer GROUP BY sobre la base.
+ * Cada total es un LongAdder: la suma se reparte en celdas y los hilos que escriben a la vez no compiten.
+ * De cada empleado se guarda su fila (área y legajo con categoría y estado); un cambio resta uno a los
+ * valores anteriores y suma uno a los nuevos. Por categoría y estado solo cuentan los empleados con legajo activo.
+ * Una tarea periódica compara los totales con la base (ver reconciliar) y corrige las diferencias que persisten.
+ */
+public class AgregadosDotacion implements ObservadorEmpleado, ObservadorLegajo {
+
+    private static final Logger LOGGER = Logger.getLogger(AgregadosDotacion.class.getName());
+    private static final int PAGINA_CARGA = 5000;
+
+    /** Clave de los empleados sin área, o con legajo sin categoría. */
+    public static final String SIN_ASIGNAR = "(sin asignar)";
+
+    /** Criterios por los que se agrupa la dotación. */
+    public enum Dimension { AREA, CATEGORIA, ESTADO }
+
+    // dimensión -> valor -> cantidad de empleados
+    private final Map<Dimension, ConcurrentHashMap<String, LongAdder>> totales = new EnumMap<>(Dimension.class);
+    // id de empleado -> fila con los valores que está sumando
+    private final ConcurrentHashMap<Long, Fila> filas = new ConcurrentHashMap<>();
+    // id de legajo -> id de empleado (los avisos de LegajoService vienen por legajo)
+    private final ConcurrentHashMap<Long, Long> empleadoPorLegajo = new ConcurrentHashMap<>();
+
+    // diferencias con la base de la última reconciliación que todavía no se corrigieron
+    private Map<Clave, Long> diferenciasAnteriores = Map.of();
+    private final Object lockReconciliacion = new Object();
+    private ScheduledExecutorService reconciliador;
+
+    public AgregadosDotacion() {
+        for (Dimension dimension : Dimension.values()) {
+            totales.put(dimension, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Carga la dotación recorriendo la tabla por páginas.
+     * Conviene registrar el objeto como observador de los dos servicios antes de llamarlo: los empleados
+     * que lleguen por un aviso mientras se carga no se vuelven a sumar. Lo que cambie entre la lectura de
+     * una página y su carga lo corrige la reconciliación.
+     * @param empleadoDAO DAO del que se leen áreas y legajos
+     * @return cantidad de empleados cargados
+     * @throws Exception si falla la lectura de alguna página
+     */
+    public long construir(EmpleadoDAO empleadoDAO) throws Exception {
+        long despuesDe = 0;
+        long cargados = 0;
+        List<Empleado> pagina;
+        do {
+            pagina = empleadoDAO.leerDotacionPagina(despuesDe, PAGINA_CARGA);
+            for (Empleado empleado : pagina) {
+                agregar(empleado);
+            }
+            if (!pagina.isEmpty()) {
+                cargados += pagina.size();
+                despuesDe = pagina.get(pagina.size() - 1).getId();
+            }
+        } while (pagina.size() == PAGINA_CARGA);
+        return cargados;
+    }
+
+    //AVISOS -------------------------------------------------------------------------------------------------------
+
+    @Override
+    public void empleadoInsertado(Empleado empleado) {
+        agregar(empleado);
+    }
+
+    @Override
+    public void empleadoEliminado(Long id) {
+        Fila fila = filas.remove(id);
+        if (fila == null) {
+            return;
+        }
+        synchronized (fila) {
+            sumar(fila, -1);
+            fila.eliminada = true;
+            if (fila.legajoId != 0) {
+                empleadoPorLegajo.remove(fila.legajoId, id);
+            }
+        }
+    }
+
+    @Override
+    public void areaActualizada(Long id, String area) {
+        modificar(filas.get(id), fila -> fila.area = area);
+    }
+
+    @Override
+    public void categoriaLegajoActualizada(Long id, String categoria) {
+        modificar(filas.get(id), fila -> fila.categoria = categoria);
+    }
+
+    @Override
+    public void categoriaActualizada(Long idLegajo, String categoria) {
+        modificar(filaDeLegajo(idLegajo), fila -> fila.categoria = categoria);
+    }
+
+    @Override
+    public void estadoActualizado(Long idLegajo, Estado estado) {
+        modificar(filaDeLegajo(idLegajo), fila -> fila.estado = estado.name());
+    }
+
+    @Override
+    public void legajoEliminado(Long idLegajo) {
+        modificar(filaDeLegajo(idLegajo), fila -> {
+            fila.legajoId = 0;
+            fila.categoria = null;
+            fila.estado = null;
+        });
+        empleadoPorLegajo.remove(idLegajo);
+    }
+
+    //CONSULTAS ----------------------------------------------------------------------------------------------------
+
+    /**
+     * @param dimension criterio de agrupación
+     * @return valor -> cantidad de empleados, ordenado por valor (sin los valores que quedaron en cero)
+     */
+    public Map<String, Long> getTotales(Dimension dimension) {
+        if (dimension == null) {
+            throw new IllegalArgumentException("La dimensión no puede ser null");
+        }
+        Map<String, Long> resultado = new TreeMap<>();
+        totales.get(dimension).forEach((valor, contador) -> {
+            long cantidad = contador.sum();
+            if (cantidad != 0) {
+                resultado.put(valor, cantidad);
+            }
+        });
+        return resultado;
+    }
+
+    /**
+     * @return cantidad de empleados activos (suma de la dotación por área)
+     */
+    public long getTotal() {
+        long total = 0;
+        for (LongAdder contador : totales.get(Dimension.AREA).values()) {
+            total += contador.sum();
+        }
+        return total;
+    }
+
+    //RECONCILIACIÓN -----------------------------------------------------------------------------------------------
+
+    /**
+     * Compara los totales con los GROUP BY de la base.
+     * Una diferencia puede deberse a una escritura que ya se confirmó pero todavía no avisó (o al revés),
+     * así que solo se corrige cuando la misma diferencia aparece en dos reconciliaciones seguidas;
+     * la corrección suma la diferencia al total. Las diferencias se registran en el log.
+     * @param empleadoDAO DAO con las consultas de conteo
+     * @return cantidad de totales que tenían diferencias
+     * @throws Exception si falla alguna consulta
+     */
+    public int reconciliar(EmpleadoDAO empleadoDAO) throws Exception {
+        synchronized (lockReconciliacion) {
+            Map<Clave, Long> diferencias = new HashMap<>();
+            comparar(Dimension.AREA, empleadoDAO.contarPorArea(), diferencias);
+            comparar(Dimension.CATEGORIA, empleadoDAO.contarPorCategoria(), diferencias);
+            comparar(Dimension.ESTADO, empleadoDAO.contarPorEstado(), diferencias);
+
+            Map<Clave, Long> pendientes = new HashMap<>();
+            for (Map.Entry<Clave, Long> diferencia : diferencias.entrySet()) {
+                Clave clave = diferencia.getKey();
+                long cantidad = diferencia.getValue();
+                if (Objects.equals(diferenciasAnteriores.get(clave), cantidad)) {
+                    contador(clave.dimension(), clave.valor()).add(cantidad);
+                    LOGGER.log(Level.WARNING, "Dotación corregida: {0} {1} ({2} respecto de la base)",
+                            new Object[]{clave.dimension(), clave.valor(), cantidad});
+                } else {
+                    pendientes.put(clave, cantidad);
+                    LOGGER.log(Level.WARNING, "Diferencia de dotación: {0} {1} ({2} respecto de la base)",
+                            new Object[]{clave.dimension(), clave.valor(), cantidad});
+                }
+            }
+            diferenciasAnteriores = pendientes;
+            if (diferencias.isEmpty()) {
+                LOGGER.log(Level.INFO, "Dotación reconciliada sin diferencias ({0} empleados)", getTotal());
+            }
+            return diferencias.size();
+        }
+    }
+
+    /**
+     * Programa la reconciliación periódica en un hilo daemon (no impide que la aplicación termine).
+     * Un error en una ejecución se registra y no cancela las siguientes.
+     * @param empleadoDAO DAO con las consultas de conteo
+     * @param periodo tiempo entre el fin de una reconciliación y el inicio de la siguiente
+     * @param unidad unidad del período
+     */
+    public synchronized void iniciarReconciliacion(EmpleadoDAO empleadoDAO, long periodo, TimeUnit unidad) {
+        if (empleadoDAO == null) {
+            throw new IllegalArgumentException("EmpleadoDAO no puede ser null");
+        }
+        if (periodo <= 0) {
+            throw new IllegalArgumentException("El período de reconciliación debe ser mayor a 0");
+        }
+        if (reconciliador != null) {
+            throw new IllegalStateException("La reconciliación periódica ya está iniciada");
+        }
+        reconciliador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "reconciliacion-dotacion");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        reconciliador.scheduleWithFixedDelay(() -> {
+            try {
+                reconciliar(empleadoDAO);
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "No se pudo reconciliar la dotación con la base", e);
+            }
+        }, periodo, periodo, unidad);
+    }
+
+    /**
+     * Detiene la reconciliación periódica (si estaba iniciada).
+     */
+    public synchronized void detener() {
+        if (reconciliador != null) {
+            reconciliador.shutdownNow();
+            reconciliador = null;
+        }
+    }
+
+    //AUXILIARES ---------------------------------------------------------------------------------------------------
+
+    /**
+     * Agrega un empleado si todavía no estaba (un alta avisada durante la carga inicial no se suma dos veces).
+     * La fila se publica y se suma con su monitor tomado, así un cambio que la encuentre espera a que esté sumada.
+     */
+    private void agregar(Empleado empleado) {
+        Fila fila = new Fila();
+        fila.area = empleado.getArea();
+        Legajo legajo = empleado.getLegajo();
+        if (legajo != null && legajo.getId() != null && legajo.getId() > 0) {
+            fila.legajoId = legajo.getId();
+            fila.categoria = legajo.getCategoria();
+            fila.estado = legajo.getEstado() != null ? legajo.getEstado().name() : Estado.ACTIVO.name();
+        }
+        synchronized (fila) {
+            if (filas.putIfAbsent(empleado.getId(), fila) == null) {
+                if (fila.legajoId != 0) {
+                    empleadoPorLegajo.put(fila.legajoId, empleado.getId());
+                }
+                sumar(fila, 1);
+            }
+        }
+    }
+
+    /**
+     * Aplica un cambio a la fila: resta sus valores actuales, cambia y suma los nuevos.
+     * Los cambios de empleados que no están cargados (o ya se dieron de baja) se ignoran.
+     */
+    private void modificar(Fila fila, Consumer<Fila> cambio) {
+        if (fila == null) {
+            return;
+        }
+        synchronized (fila) {
+            if (fila.eliminada) {
+                return;
+            }
+            sumar(fila, -1);
+            cambio.accept(fila);
+            sumar(fila, 1);
+        }
+    }
+
+    private Fila filaDeLegajo(Long idLegajo) {
+        Long idEmpleado = empleadoPorLegajo.get(idLegajo);
+        return idEmpleado == null ? null : filas.get(idEmpleado);
+    }
+
+    private void sumar(Fila fila, int signo) {
+        contador(Dimension.AREA, fila.area).add(signo);
+        if (fila.legajoId != 0) {
+            contador(Dimension.CATEGORIA, fila.categoria).add(signo);
+            contador(Dimension.ESTADO, fila.estado).add(signo);
+        }
+    }
+
+    private LongAdder contador(Dimension dimension, String valor) {
+        return totales.get(dimension).computeIfAbsent(valor == null ? SIN_ASIGNAR : valor, v -> new LongAdder());
+    }
+
+    /**
+     * Agrega a diferencias, para cada valor, base - memoria cuando no coinciden.
+     */
+    private void comparar(Dimension dimension, Map<String, Long> enBase, Map<Clave, Long> diferencias) {
+        Map<String, Long> base = new HashMap<>();
+        enBase.forEach((valor, cantidad) -> base.merge(valor == null ? SIN_ASIGNAR : valor, cantidad, Long::sum));
+        Map<String, Long> memoria = getTotales(dimension);
+        Set<String> valores = new HashSet<>(base.keySet());
+        valores.addAll(memoria.keySet());
+        for (String valor : valores) {
+            long diferencia = base.getOrDefault(valor, 0L) - memoria.getOrDefault(valor, 0L);
+            if (diferencia != 0) {
+                diferencias.put(new Clave(dimension, valor), diferencia);
+            }
+        }
+    }
+
+    /**
+     * Valores que suma un empleado. Se modifica solo con su monitor tomado.
+     */
+    private static final class Fila {
+        String area;
+        long legajoId;      // 0 si no tiene legajo activo
+        String categoria;
+        String estado;      // nombre del Estado
+        boolean eliminada;
+    }
+
+    private record Clave(Dimension dimension, String valor) {}
+}
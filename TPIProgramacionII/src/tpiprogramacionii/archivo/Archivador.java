@@ -0,0 +1,177 @@
+package tpiprogramacionii.archivo;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import tpiprogramacionii.dao.ArchivoDAO;
+import tpiprogramacionii.utils.Fragmentos;
+
+/**
+ * Archivador de bajas: pasa a las tablas de archivo los pares empleado/legajo dados de baja hace más
+ * que la retención, para que las tablas activas (y sus índices) no acumulen filas muertas.
+ * Recorre cada fragmento en orden de ID con lotes chicos, cada uno en su propia transacción,
+ * y hace una pausa entre lotes para no competir con la carga normal.
+ *
+ * Las bajas archivadas dejan de aparecer en la lectura incremental (leerCambiadosDesde), así que la
+ * retención tiene que ser mayor que el tiempo máximo entre dos sincronizaciones de un cliente.
+ */
+public class Archivador {
+
+    private static final Logger LOGGER = Logger.getLogger(Archivador.class.getName());
+
+    /** Empleados archivados por transacción. */
+    public static final int TAMANIO_LOTE = 200;
+
+    /** Pausa entre lotes, en milisegundos. */
+    public static final long PAUSA_MS = 50;
+
+    private final ArchivoDAO archivoDAO;
+    private final Duration retencion;
+    private final int tamanioLote;
+    private final long pausaMs;
+    private final Object lockProceso = new Object();
+    private ScheduledExecutorService ejecutor;
+    // true desde que falla una pasada periódica hasta que una vuelve a funcionar (para no repetir el aviso)
+    private volatile boolean fallando;
+
+    /**
+     * Archivador con el tamaño de lote y la pausa por defecto.
+     * @param archivoDAO DAO del archivo
+     * @param retencion antigüedad mínima de una baja para archivarla
+     */
+    public Archivador(ArchivoDAO archivoDAO, Duration retencion) {
+        this(archivoDAO, retencion, TAMANIO_LOTE, PAUSA_MS);
+    }
+
+    /**
+     * @param archivoDAO DAO del archivo
+     * @param retencion antigüedad mínima de una baja para archivarla
+     * @param tamanioLote empleados archivados por transacción
+     * @param pausaMs pausa entre lotes en milisegundos (0 para no esperar)
+     */
+    public Archivador(ArchivoDAO archivoDAO, Duration retencion, int tamanioLote, long pausaMs) {
+        if (archivoDAO == null) {
+            throw new IllegalArgumentException("ArchivoDAO no puede ser null");
+        }
+        if (retencion == null || retencion.isNegative()) {
+            throw new IllegalArgumentException("La retención no puede ser null ni negativa");
+        }
+        if (tamanioLote <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser mayor a 0");
+        }
+        if (pausaMs < 0) {
+            throw new IllegalArgumentException("La pausa entre lotes no puede ser negativa");
+        }
+        this.archivoDAO = archivoDAO;
+        this.retencion = retencion;
+        this.tamanioLote = tamanioLote;
+        this.pausaMs = pausaMs;
+    }
+
+    /**
+     * Retención configurada con la propiedad del sistema archivo.retencion.dias (por defecto 90 días).
+     */
+    public static Duration retencionPorDefecto() {
+        String valor = System.getProperty("archivo.retencion.dias", "90").trim();
+        try {
+            return Duration.ofDays(Long.parseLong(valor));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("archivo.retencion.dias debe ser un número entero: " + valor);
+        }
+    }
+
+    /**
+     * Archiva todas las bajas más antiguas que la retención, fragmento por fragmento.
+     * Si el hilo se interrumpe durante una pausa termina después del último lote confirmado.
+     * @return cantidad de empleados archivados
+     * @throws Exception si falla un lote (los anteriores quedan archivados)
+     */
+    public int archivarPendientes() throws Exception {
+        synchronized (lockProceso) {
+            Timestamp corte = Timestamp.from(Instant.now().minus(retencion));
+            int archivados = 0;
+            for (int fragmento = 0; fragmento < Fragmentos.cantidad(); fragmento++) {
+                long desde = 0;
+                ArchivoDAO.Lote lote;
+                do {
+                    try {
+                        lote = archivoDAO.archivarLote(fragmento, corte, desde, tamanioLote);
+                    } catch (Exception e) {
+                        throw new Exception("Error al archivar las bajas del fragmento " + fragmento + ": " + e.getMessage(), e);
+                    }
+                    archivados += lote.archivados();
+                    desde = lote.ultimoId();
+                    if (lote.archivados() == tamanioLote && !pausar()) {
+                        return archivados;
+                    }
+                } while (lote.archivados() == tamanioLote);
+            }
+            return archivados;
+        }
+    }
+
+    /**
+     * Archiva periódicamente en un hilo daemon. Un error se reintenta en la pasada siguiente;
+     * se registra la primera vez y cuando se recupera, no en cada reintento.
+     * @param periodo tiempo entre el fin de una pasada y el inicio de la siguiente
+     * @param unidad unidad del período
+     */
+    public synchronized void iniciar(long periodo, TimeUnit unidad) {
+        if (periodo <= 0) {
+            throw new IllegalArgumentException("El período del archivador debe ser mayor a 0");
+        }
+        if (ejecutor != null) {
+            throw new IllegalStateException("El archivador ya está iniciado");
+        }
+        ejecutor = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "archivador-bajas");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        ejecutor.scheduleWithFixedDelay(() -> {
+            try {
+                int archivados = archivarPendientes();
+                if (fallando) {
+                    fallando = false;
+                    LOGGER.log(Level.INFO, "El archivador de bajas volvió a funcionar");
+                }
+                if (archivados > 0) {
+                    LOGGER.log(Level.INFO, "Bajas archivadas: {0}", archivados);
+                }
+            } catch (Exception e) {
+                if (!fallando) {
+                    fallando = true;
+                    LOGGER.log(Level.WARNING, "No se pudieron archivar las bajas (se reintenta)", e);
+                }
+            }
+        }, periodo, periodo, unidad);
+    }
+
+    /**
+     * Detiene el archivado periódico (si estaba iniciado).
+     */
+    public synchronized void detener() {
+        if (ejecutor != null) {
+            ejecutor.shutdownNow();
+            ejecutor = null;
+        }
+    }
+
+    private boolean pausar() {
+        if (pausaMs == 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pausaMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package tpiprogramacionii.archivo;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import tpiprogramacionii.dao.CompresionObservaciones;
+import tpiprogramacionii.dao.LegajoDAO;
+import tpiprogramacionii.utils.Fragmentos;
+
+/**
+ * Compresor de las observaciones ya guardadas: recorre cada fragmento en orden de ID con lotes chicos,
+ * cada uno en su propia transacción, y comprime las observaciones de al menos CompresionObservaciones.umbral()
+ * caracteres que todavía están sin comprimir. Hace una pausa entre lotes para no competir con la carga normal.
+ * Las filas nuevas ya se guardan comprimidas (LegajoDAO con observaciones.comprimir), así que después de la
+ * primera pasada completa cada pasada solo revisa las pocas que no convenía comprimir.
+ *
+ * No cambia actualizado_en: la compresión no es un cambio del legajo para la sincronización incremental.
+ */
+public class CompresorObservaciones {
+
+    private static final Logger LOGGER = Logger.getLogger(CompresorObservaciones.class.getName());
+
+    /** Legajos revisados por transacción. */
+    public static final int TAMANIO_LOTE = 100;
+
+    /** Pausa entre lotes, en milisegundos. */
+    public static final long PAUSA_MS = 50;
+
+    private final LegajoDAO legajoDAO;
+    private final int tamanioLote;
+    private final long pausaMs;
+    private final Object lockProceso = new Object();
+    private ScheduledExecutorService ejecutor;
+    // true desde que falla una pasada periódica hasta que una vuelve a funcionar (para no repetir el aviso)
+    private volatile boolean fallando;
+
+    // Acumulados desde la creación
+    private final AtomicLong comprimidos = new AtomicLong();
+    private final AtomicLong bytesAntes = new AtomicLong();
+    private final AtomicLong bytesDespues = new AtomicLong();
+
+    /**
+     * Compresor con el tamaño de lote y la pausa por defecto.
+     * @param legajoDAO DAO de Legajo
+     */
+    public CompresorObservaciones(LegajoDAO legajoDAO) {
+        this(legajoDAO, TAMANIO_LOTE, PAUSA_MS);
+    }
+
+    /**
+     * @param legajoDAO DAO de Legajo
+     * @param tamanioLote legajos revisados por transacción
+     * @param pausaMs pausa entre lotes en milisegundos (0 para no esperar)
+     */
+    public CompresorObservaciones(LegajoDAO legajoDAO, int tamanioLote, long pausaMs) {
+        if (legajoDAO == null) {
+            throw new IllegalArgumentException("LegajoDAO no puede ser null");
+        }
+        if (tamanioLote <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser mayor a 0");
+        }
+        if (pausaMs < 0) {
+            throw new IllegalArgumentException("La pausa entre lotes no puede ser negativa");
+        }
+        this.legajoDAO = legajoDAO;
+        this.tamanioLote = tamanioLote;
+        this.pausaMs = pausaMs;
+    }
+
+    /**
+     * Comprime todas las observaciones pendientes, fragmento por fragmento.
+     * Si el hilo se interrumpe durante una pausa termina después del último lote confirmado.
+     * @return cantidad de legajos comprimidos en esta pasada
+     * @throws Exception si falla un lote (los anteriores quedan comprimidos)
+     */
+    public int comprimirPendientes() throws Exception {
+        synchronized (lockProceso) {
+            int umbral = CompresionObservaciones.umbral();
+            int comprimidosPasada = 0;
+            for (int fragmento = 0; fragmento < Fragmentos.cantidad(); fragmento++) {
+                long desde = 0;
+                CompresionObservaciones.Lote lote;
+                do {
+                    try {
+                        lote = legajoDAO.comprimirObservacionesLote(fragmento, desde, tamanioLote, umbral);
+                    } catch (Exception e) {
+                        throw new Exception("Error al comprimir las observaciones del fragmento " + fragmento + ": " + e.getMessage(), e);
+                    }
+                    comprimidosPasada += lote.comprimidos();
+                    comprimidos.addAndGet(lote.comprimidos());
+                    bytesAntes.addAndGet(lote.bytesAntes());
+                    bytesDespues.addAndGet(lote.bytesDespues());
+                    desde = lote.ultimoId();
+                    if (lote.revisados() == tamanioLote && !pausar()) {
+                        return comprimidosPasada;
+                    }
+                } while (lote.revisados() == tamanioLote);
+            }
+            return comprimidosPasada;
+        }
+    }
+
+    /**
+     * Comprime periódicamente en un hilo daemon, empezando ahora. Un error se reintenta en la pasada siguiente;
+     * se registra la primera vez y cuando se recupera, no en cada reintento.
+     * @param periodo tiempo entre el fin de una pasada y el inicio de la siguiente
+     * @param unidad unidad del período
+     */
+    public synchronized void iniciar(long periodo, TimeUnit unidad) {
+        if (periodo <= 0) {
+            throw new IllegalArgumentException("El período del compresor debe ser mayor a 0");
+        }
+        if (ejecutor != null) {
+            throw new IllegalStateException("El compresor de observaciones ya está iniciado");
+        }
+        ejecutor = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "compresor-observaciones");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        ejecutor.scheduleWithFixedDelay(() -> {
+            try {
+                int comprimidosPasada = comprimirPendientes();
+                if (fallando) {
+                    fallando = false;
+                    LOGGER.log(Level.INFO, "El compresor de observaciones volvió a funcionar");
+                }
+                if (comprimidosPasada > 0) {
+                    LOGGER.log(Level.INFO, "Observaciones comprimidas: {0} ({1})", new Object[]{comprimidosPasada, getEstadisticas()});
+                }
+            } catch (Exception e) {
+                if (!fallando) {
+                    fallando = true;
+                    LOGGER.log(Level.WARNING, "No se pudieron comprimir las observaciones (se reintenta)", e);
+                }
+            }
+        }, 0, periodo, unidad);
+    }
+
+    /**
+     * Detiene la compresión periódica (si estaba iniciada).
+     */
+    public synchronized void detener() {
+        if (ejecutor != null) {
+            ejecutor.shutdownNow();
+            ejecutor = null;
+        }
+    }
+
+    /**
+     * @return legajos comprimidos por este compresor desde su creación y bytes antes y después
+     */
+    public Estadisticas getEstadisticas() {
+        return new Estadisticas(comprimidos.get(), bytesAntes.get(), bytesDespues.get());
+    }
+
+    /**
+     * @param comprimidos legajos comprimidos
+     * @param bytesAntes bytes UTF-8 de sus observaciones antes de comprimirlas
+     * @param bytesDespues bytes de sus observaciones comprimidas
+     */
+    public record Estadisticas(long comprimidos, long bytesAntes, long bytesDespues) {
+
+        @Override
+        public String toString() {
+            return String.format("comprimidos=%d antes=%d bytes después=%d bytes ahorro=%d bytes",
+                    comprimidos, bytesAntes, bytesDespues, bytesAntes - bytesDespues);
+        }
+    }
+
+    private boolean pausar() {
+        if (pausaMs == 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pausaMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
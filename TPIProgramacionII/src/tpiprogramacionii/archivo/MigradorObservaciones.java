@@ -0,0 +1,173 @@
+package tpiprogramacionii.archivo;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import tpiprogramacionii.dao.ObservacionDAO;
+import tpiprogramacionii.utils.Fragmentos;
+
+/**
+ * Migración de legajo.observaciones al historial legajo_observacion (ver ObservacionDAO): recorre cada fragmento
+ * en orden de ID con lotes chicos, cada uno en su propia transacción, leyendo solo los legajos que todavía
+ * tienen texto en la columna. Hace una pausa entre lotes para no competir con la carga normal.
+ * Después de la primera pasada completa cada pasada solo mueve las observaciones de los legajos dados de alta
+ * desde la anterior (el alta todavía las guarda en la columna).
+ * Vaciar la columna es visible para todos los lectores del legajo, así que el migrador periódico solo se inicia
+ * con la propiedad observaciones.migrar (ver activado()).
+ */
+public class MigradorObservaciones {
+
+    private static final Logger LOGGER = Logger.getLogger(MigradorObservaciones.class.getName());
+
+    /** Legajos migrados por transacción. */
+    public static final int TAMANIO_LOTE = 100;
+
+    /** Pausa entre lotes, en milisegundos. */
+    public static final long PAUSA_MS = 50;
+
+    private final ObservacionDAO observacionDAO;
+    private final int tamanioLote;
+    private final long pausaMs;
+    private final Object lockProceso = new Object();
+    private ScheduledExecutorService ejecutor;
+    // true desde que falla una pasada periódica hasta que una vuelve a funcionar (para no repetir el aviso)
+    private volatile boolean fallando;
+
+    // Legajos migrados desde la creación
+    private final AtomicLong migrados = new AtomicLong();
+
+    /**
+     * Migración periódica activada con la propiedad del sistema observaciones.migrar.
+     */
+    public static boolean activado() {
+        return Boolean.getBoolean("observaciones.migrar");
+    }
+
+    /**
+     * Migrador con el tamaño de lote y la pausa por defecto.
+     * @param observacionDAO DAO del historial de observaciones
+     */
+    public MigradorObservaciones(ObservacionDAO observacionDAO) {
+        this(observacionDAO, TAMANIO_LOTE, PAUSA_MS);
+    }
+
+    /**
+     * @param observacionDAO DAO del historial de observaciones
+     * @param tamanioLote legajos migrados por transacción
+     * @param pausaMs pausa entre lotes en milisegundos (0 para no esperar)
+     */
+    public MigradorObservaciones(ObservacionDAO observacionDAO, int tamanioLote, long pausaMs) {
+        if (observacionDAO == null) {
+            throw new IllegalArgumentException("ObservacionDAO no puede ser null");
+        }
+        if (tamanioLote <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser mayor a 0");
+        }
+        if (pausaMs < 0) {
+            throw new IllegalArgumentException("La pausa entre lotes no puede ser negativa");
+        }
+        this.observacionDAO = observacionDAO;
+        this.tamanioLote = tamanioLote;
+        this.pausaMs = pausaMs;
+    }
+
+    /**
+     * Migra todas las observaciones pendientes, fragmento por fragmento.
+     * Si el hilo se interrumpe durante una pausa termina después del último lote confirmado.
+     * @return cantidad de legajos migrados en esta pasada
+     * @throws Exception si falla un lote (los anteriores quedan migrados)
+     */
+    public int migrarPendientes() throws Exception {
+        synchronized (lockProceso) {
+            int migradosPasada = 0;
+            for (int fragmento = 0; fragmento < Fragmentos.cantidad(); fragmento++) {
+                long desde = 0;
+                ObservacionDAO.Lote lote;
+                do {
+                    try {
+                        lote = observacionDAO.migrarLote(fragmento, desde, tamanioLote);
+                    } catch (Exception e) {
+                        throw new Exception("Error al migrar las observaciones del fragmento " + fragmento + ": " + e.getMessage(), e);
+                    }
+                    migradosPasada += lote.migrados();
+                    migrados.addAndGet(lote.migrados());
+                    desde = lote.ultimoId();
+                    if (lote.revisados() == tamanioLote && !pausar()) {
+                        return migradosPasada;
+                    }
+                } while (lote.revisados() == tamanioLote);
+            }
+            return migradosPasada;
+        }
+    }
+
+    /**
+     * Migra periódicamente en un hilo daemon, empezando ahora. Un error se reintenta en la pasada siguiente;
+     * se registra la primera vez y cuando se recupera, no en cada reintento.
+     * @param periodo tiempo entre el fin de una pasada y el inicio de la siguiente
+     * @param unidad unidad del período
+     */
+    public synchronized void iniciar(long periodo, TimeUnit unidad) {
+        if (periodo <= 0) {
+            throw new IllegalArgumentException("El período del migrador debe ser mayor a 0");
+        }
+        if (ejecutor != null) {
+            throw new IllegalStateException("El migrador de observaciones ya está iniciado");
+        }
+        ejecutor = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "migrador-observaciones");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        ejecutor.scheduleWithFixedDelay(() -> {
+            try {
+                int migradosPasada = migrarPendientes();
+                if (fallando) {
+                    fallando = false;
+                    LOGGER.log(Level.INFO, "El migrador de observaciones volvió a funcionar");
+                }
+                if (migradosPasada > 0) {
+                    LOGGER.log(Level.INFO, "Observaciones migradas al historial: {0} (total {1})", new Object[]{migradosPasada, getMigrados()});
+                }
+            } catch (Exception e) {
+                if (!fallando) {
+                    fallando = true;
+                    LOGGER.log(Level.WARNING, "No se pudieron migrar las observaciones (se reintenta)", e);
+                }
+            }
+        }, 0, periodo, unidad);
+    }
+
+    /**
+     * Detiene la migración periódica (si estaba iniciada).
+     */
+    public synchronized void detener() {
+        if (ejecutor != null) {
+            ejecutor.shutdownNow();
+            ejecutor = null;
+        }
+    }
+
+    /**
+     * @return legajos migrados por este migrador desde su creación
+     */
+    public long getMigrados() {
+        return migrados.get();
+    }
+
+    private boolean pausar() {
+        if (pausaMs == 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pausaMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
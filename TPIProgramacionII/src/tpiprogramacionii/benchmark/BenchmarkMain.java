@@ -0,0 +1,62 @@
+package tpiprogramacionii.benchmark;
+
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Punto de entrada de los benchmarks.
+ *
+ * Argumentos (todos opcionales):
+ * -json archivo       exporta los resultados a JSON (por defecto benchmark-resultados.json)
+ * -tamanios a,b,c     tamaños de la base para los benchmarks de servicio (por defecto 1000,10000,100000)
+ * -calentamiento n    iteraciones de calentamiento (por defecto 3)
+ * -iteraciones n      iteraciones de medición (por defecto 5)
+ * -duracion ms        duración de cada iteración (por defecto 1000)
+ * -sinBD              solo ejecuta los benchmarks que no usan base de datos
+ */
+public class BenchmarkMain {
+
+    // Referencia fuerte: si el logger se recolecta, se pierde el nivel configurado
+    private static final Logger LOGGER_APLICACION = Logger.getLogger("tpiprogramacionii");
+
+    public static void main(String[] args) throws Exception {
+        String json = "benchmark-resultados.json";
+        int[] tamanios = {1_000, 10_000, 100_000};
+        int calentamiento = 3;
+        int iteraciones = 5;
+        long duracion = 1_000;
+        boolean sinBD = false;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-json" -> json = args[++i];
+                case "-tamanios" -> tamanios = Arrays.stream(args[++i].split(",")).mapToInt(Integer::parseInt).sorted().toArray();
+                case "-calentamiento" -> calentamiento = Integer.parseInt(args[++i]);
+                case "-iteraciones" -> iteraciones = Integer.parseInt(args[++i]);
+                case "-duracion" -> duracion = Long.parseLong(args[++i]);
+                case "-sinBD" -> sinBD = true;
+                default -> throw new IllegalArgumentException("Argumento desconocido: " + args[i]);
+            }
+        }
+
+        // Los servicios registran cada operación en INFO; eso mediría la consola, no el código
+        LOGGER_APLICACION.setLevel(Level.WARNING);
+
+        EjecutorBenchmarks ejecutor = new EjecutorBenchmarks(calentamiento, iteraciones, duracion);
+        BenchmarksMapeo.registrar(ejecutor);
+        BenchmarksValidacion.registrar(ejecutor);
+        BenchmarksBusqueda.registrar(ejecutor);
+        BenchmarksBusquedaDifusa.registrar(ejecutor);
+        BenchmarksLotes.registrar(ejecutor);
+        BenchmarksCodec.registrar(ejecutor);
+        if (!sinBD) {
+            BenchmarksConexion.registrar(ejecutor);
+            BenchmarksServicio.registrar(ejecutor, tamanios);
+        }
+
+        ejecutor.escribirJson(Paths.get(json));
+        System.out.println("Resultados guardados en " + json);
+    }
+}
@@ -0,0 +1,55 @@
+package tpiprogramacionii.benchmark;
+
+import java.util.Map;
+import tpiprogramacionii.busqueda.IndiceNombres;
+import tpiprogramacionii.entities.Empleado;
+
+/**
+ * Benchmarks de la búsqueda por nombre.
+ * Compara el índice en memoria (prefijo y trigramas) con un recorrido completo que verifica
+ * cada nombre con contains, que es lo que haría la base con LIKE '%texto%'.
+ * Con pocas coincidencias (o ninguna) el recorrido tiene que leer todos los nombres; el índice no.
+ */
+public class BenchmarksBusqueda {
+
+    private static final int EMPLEADOS = 100_000;
+    private static final int LIMITE = 20;
+
+    private BenchmarksBusqueda() {}
+
+    public static void registrar(EjecutorBenchmarks ejecutor) throws Exception {
+        GeneradorDatos generador = new GeneradorDatos(42);
+        IndiceNombres indice = new IndiceNombres();
+        String[] textos = new String[EMPLEADOS];
+        for (int i = 0; i < EMPLEADOS; i++) {
+            Empleado empleado = generador.generarEmpleado(i);
+            indice.agregar(i + 1, empleado.getNombre(), empleado.getApellido());
+            textos[i] = IndiceNombres.normalizar(empleado.getApellido() + " " + empleado.getNombre());
+        }
+
+        Map<String, String> parametros = Map.of("empleados", String.valueOf(EMPLEADOS));
+        for (String consulta : new String[]{"GO", "GONZ", "RRER", "MARIA GOMEZ", "SIN COINCIDENCIA"}) {
+            String nombre = consulta.replace(' ', '+');
+            ejecutor.medir("busqueda", "indice." + nombre, parametros, () -> indice.buscar(consulta, LIMITE));
+            ejecutor.medir("busqueda", "recorrido." + nombre, parametros, () -> recorrer(textos, consulta));
+        }
+    }
+
+    /**
+     * Recorrido completo: verifica cada nombre hasta juntar LIMITE coincidencias.
+     */
+    private static int recorrer(String[] textos, String consulta) {
+        String[] terminos = IndiceNombres.normalizar(consulta).split(" ");
+        int encontrados = 0;
+        for (String texto : textos) {
+            boolean coincide = true;
+            for (String termino : terminos) {
+                coincide &= texto.contains(termino);
+            }
+            if (coincide && ++encontrados == LIMITE) {
+                break;
+            }
+        }
+        return encontrados;
+    }
+}
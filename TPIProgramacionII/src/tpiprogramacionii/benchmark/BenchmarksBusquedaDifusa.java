@@ -0,0 +1,140 @@
+package tpiprogramacionii.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import tpiprogramacionii.busqueda.IndiceDifuso;
+import tpiprogramacionii.busqueda.IndiceNombres;
+import tpiprogramacionii.entities.Empleado;
+
+/**
+ * Benchmarks de la búsqueda aproximada (tolerante a errores de tipeo).
+ * Indexa un millón de empleados generados y consulta apellidos con errores introducidos al azar
+ * (reemplazo, borrado, inserción o transposición de letras; una edición hasta 5 letras, hasta dos después).
+ * Mide la latencia de corregir una palabra y de buscar empleados, y el recall: qué proporción de las
+ * consultas devuelve el apellido original como primera sugerencia (recall@1) o entre las cinco primeras (recall@5).
+ * Se corre dos veces: con el vocabulario del generador (pocas palabras muy repetidas) y con apellidos
+ * sintéticos que llevan el vocabulario a decenas de miles de palabras, que es donde trabaja el filtro de trigramas.
+ */
+public class BenchmarksBusquedaDifusa {
+
+    private static final int EMPLEADOS = 1_000_000;
+    private static final int APELLIDOS_SINTETICOS = 50_000;
+    private static final int CONSULTAS = 2_000;
+    private static final int LIMITE = 20;
+    private static final String LETRAS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private static final String[] SILABAS = {
+        "BA", "CA", "DA", "GA", "LA", "MA", "NA", "RA", "SA", "TA", "BE", "CE", "DE", "LE", "ME", "NE", "RE", "SE",
+        "TE", "BI", "CI", "DI", "LI", "MI", "NI", "RI", "SI", "TI", "BO", "CO", "DO", "GO", "LO", "MO", "NO", "RO",
+        "SO", "TO", "BU", "CU", "DU", "GU", "LU", "MU", "NU", "RU", "SU", "TU", "VI", "ZA", "ZE", "RR", "LL", "CH"
+    };
+
+    private BenchmarksBusquedaDifusa() {}
+
+    public static void registrar(EjecutorBenchmarks ejecutor) throws Exception {
+        medirVocabulario(ejecutor, "generador", null);
+        medirVocabulario(ejecutor, "sintetico", apellidosSinteticos(APELLIDOS_SINTETICOS));
+    }
+
+    /**
+     * Arma el índice, calcula el recall sobre CONSULTAS apellidos con errores y mide las dos operaciones.
+     * @param apellidos apellidos a usar en lugar de los del generador (null para usar los del generador)
+     */
+    private static void medirVocabulario(EjecutorBenchmarks ejecutor, String nombre, String[] apellidos) throws Exception {
+        GeneradorDatos generador = new GeneradorDatos(42);
+        SplittableRandom azar = new SplittableRandom(7);
+        IndiceDifuso indice = new IndiceDifuso();
+        String[] originales = new String[CONSULTAS];
+        String[] nombres = new String[CONSULTAS];
+        for (int i = 0; i < EMPLEADOS; i++) {
+            Empleado empleado = generador.generarEmpleado(i);
+            String apellido = apellidos == null ? empleado.getApellido() : apellidos[azar.nextInt(apellidos.length)];
+            indice.agregar(i + 1, empleado.getNombre(), apellido, empleado.getArea());
+            if (i < CONSULTAS) {
+                originales[i] = IndiceNombres.normalizar(apellido);
+                nombres[i] = empleado.getNombre();
+            }
+        }
+
+        String[] consultas = new String[CONSULTAS];
+        String[] consultasEmpleado = new String[CONSULTAS];
+        int primero = 0;
+        int entreCinco = 0;
+        for (int i = 0; i < CONSULTAS; i++) {
+            consultas[i] = conErrores(originales[i], azar);
+            consultasEmpleado[i] = consultas[i] + " " + nombres[i];
+            List<IndiceDifuso.Coincidencia> sugerencias = indice.sugerir(consultas[i], 5);
+            for (int j = 0; j < sugerencias.size(); j++) {
+                if (sugerencias.get(j).palabra().equals(originales[i])) {
+                    primero += j == 0 ? 1 : 0;
+                    entreCinco++;
+                    break;
+                }
+            }
+        }
+
+        Map<String, String> parametros = new LinkedHashMap<>();
+        parametros.put("empleados", String.valueOf(EMPLEADOS));
+        parametros.put("palabras", String.valueOf(indice.getPalabras()));
+        parametros.put("recall@1", String.format(Locale.ROOT, "%.3f", (double) primero / CONSULTAS));
+        parametros.put("recall@5", String.format(Locale.ROOT, "%.3f", (double) entreCinco / CONSULTAS));
+        System.out.printf("busqueda-difusa %s: %d palabras, recall@1 %s, recall@5 %s%n",
+                nombre, indice.getPalabras(), parametros.get("recall@1"), parametros.get("recall@5"));
+
+        int[] siguiente = {0};
+        ejecutor.medir("busqueda-difusa", nombre + ".sugerir", parametros,
+                () -> indice.sugerir(consultas[siguiente[0]++ % CONSULTAS], 5));
+        ejecutor.medir("busqueda-difusa", nombre + ".buscar", parametros,
+                () -> indice.buscar(consultasEmpleado[siguiente[0]++ % CONSULTAS], LIMITE));
+    }
+
+    /**
+     * Introduce errores de tipeo: uno en palabras de hasta 5 letras, uno o dos en las más largas.
+     */
+    private static String conErrores(String palabra, SplittableRandom azar) {
+        int errores = IndiceDifuso.distanciaPermitida(palabra.length()) == 1 ? 1 : 1 + azar.nextInt(2);
+        StringBuilder texto = new StringBuilder(palabra);
+        for (int e = 0; e < errores; e++) {
+            int pos = azar.nextInt(texto.length());
+            char letra = LETRAS.charAt(azar.nextInt(LETRAS.length()));
+            switch (azar.nextInt(4)) {
+                case 0 -> texto.setCharAt(pos, letra);
+                case 1 -> texto.deleteCharAt(pos);
+                case 2 -> texto.insert(pos, letra);
+                default -> {
+                    if (pos + 1 < texto.length()) {
+                        char actual = texto.charAt(pos);
+                        texto.setCharAt(pos, texto.charAt(pos + 1));
+                        texto.setCharAt(pos + 1, actual);
+                    }
+                }
+            }
+        }
+        return texto.toString();
+    }
+
+    /**
+     * Apellidos inventados de 2 a 4 sílabas, todos distintos.
+     */
+    private static String[] apellidosSinteticos(int cantidad) {
+        SplittableRandom azar = new SplittableRandom(11);
+        List<String> apellidos = new ArrayList<>(cantidad);
+        Set<String> vistos = new HashSet<>();
+        while (apellidos.size() < cantidad) {
+            StringBuilder apellido = new StringBuilder();
+            int silabas = 2 + azar.nextInt(3);
+            for (int i = 0; i < silabas; i++) {
+                apellido.append(SILABAS[azar.nextInt(SILABAS.length)]);
+            }
+            if (vistos.add(apellido.toString())) {
+                apellidos.add(apellido.toString());
+            }
+        }
+        return apellidos.toArray(new String[0]);
+    }
+}
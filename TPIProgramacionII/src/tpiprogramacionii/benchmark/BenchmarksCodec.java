@@ -0,0 +1,211 @@
+package tpiprogramacionii.benchmark;
+
+import java.io.CharArrayWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import tpiprogramacionii.binario.CodecBinario;
+import tpiprogramacionii.binario.Diccionario;
+import tpiprogramacionii.entities.Empleado;
+import tpiprogramacionii.entities.Legajo;
+import tpiprogramacionii.http.EscritorJson;
+import tpiprogramacionii.http.LectorJson;
+
+/**
+ * Benchmarks de la codificación binaria (CodecBinario) comparada con JSON, sin base de datos.
+ * Antes de medir verifica la ida y vuelta de EMPLEADOS empleados generados (todos los campos, con y sin
+ * diccionarios) y calcula los bytes por empleado de cada formato. Mide codificar y decodificar un empleado
+ * con su legajo; para JSON, escribirlo con EscritorJson y leerlo con LectorJson en el formato plano de la instantánea
+ * (LectorJson solo lee objetos planos, así que el JSON decodificado ni siquiera llega a armar la entidad).
+ */
+public class BenchmarksCodec {
+
+    private static final int EMPLEADOS = 10_000;
+
+    private BenchmarksCodec() {}
+
+    public static void registrar(EjecutorBenchmarks ejecutor) throws Exception {
+        GeneradorDatos generador = new GeneradorDatos(42);
+        List<Empleado> empleados = new ArrayList<>(EMPLEADOS);
+        List<String> areas = new ArrayList<>();
+        List<String> categorias = new ArrayList<>();
+        for (int i = 0; i < EMPLEADOS; i++) {
+            Empleado empleado = generador.generarEmpleado(i);
+            empleado.setId(i + 1L);
+            empleado.getLegajo().setId(i + 1L);
+            empleados.add(empleado);
+            areas.add(empleado.getArea());
+            categorias.add(empleado.getLegajo().getCategoria());
+        }
+        // Un empleado sin legajo y con valores nulos o fuera del diccionario, para la ida y vuelta
+        Empleado raro = new Empleado(null, "ÑANDÚ", "O'NEIL 😀", "1");
+        raro.setArea("ÁREA NUEVA");
+        empleados.add(raro);
+
+        CodecBinario sinDiccionario = new CodecBinario();
+        CodecBinario codec = new CodecBinario(new Diccionario(areas), new Diccionario(categorias));
+        CodecBinario leido = verificarEsquema(codec);
+
+        Map<String, String> parametros = new LinkedHashMap<>();
+        parametros.put("empleados", String.valueOf(EMPLEADOS));
+        parametros.put("bytesBinario", String.format(Locale.ROOT, "%.1f", verificarIdaYVuelta(codec, leido, empleados)));
+        parametros.put("bytesSinDiccionario", String.format(Locale.ROOT, "%.1f",
+                verificarIdaYVuelta(sinDiccionario, sinDiccionario, empleados)));
+        parametros.put("bytesJson", String.format(Locale.ROOT, "%.1f", bytesJson(empleados)));
+        System.out.printf("codec: bytes por empleado binario %s, sin diccionario %s, JSON %s%n",
+                parametros.get("bytesBinario"), parametros.get("bytesSinDiccionario"), parametros.get("bytesJson"));
+
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+        ByteBuffer directo = ByteBuffer.allocateDirect(1 << 16);
+        int[] siguiente = {0};
+        ejecutor.medir("codec", "binario.codificar", parametros, () -> {
+            buffer.clear();
+            codec.escribir(empleados.get(siguiente[0]++ % EMPLEADOS), buffer);
+            return buffer.position();
+        });
+
+        ByteBuffer[] codificados = codificados(codec, empleados, false);
+        ByteBuffer[] codificadosDirectos = codificados(codec, empleados, true);
+        ejecutor.medir("codec", "binario.decodificar", parametros,
+                () -> codec.leerEmpleado(codificados[siguiente[0]++ % EMPLEADOS].rewind()));
+        ejecutor.medir("codec", "binario.decodificar[directo]", parametros,
+                () -> codec.leerEmpleado(codificadosDirectos[siguiente[0]++ % EMPLEADOS].rewind()));
+        ejecutor.medir("codec", "binario.codificar[directo]", parametros, () -> {
+            directo.clear();
+            codec.escribir(empleados.get(siguiente[0]++ % EMPLEADOS), directo);
+            return directo.position();
+        });
+
+        CharArrayWriter texto = new CharArrayWriter(4096);
+        EscritorJson json = new EscritorJson(texto);
+        ejecutor.medir("codec", "json.codificar", parametros, () -> {
+            texto.reset();
+            json.nuevoDocumento().empleado(empleados.get(siguiente[0]++ % EMPLEADOS));
+            return texto.size();
+        });
+
+        String[] lineas = new String[EMPLEADOS];
+        for (int i = 0; i < EMPLEADOS; i++) {
+            lineas[i] = lineaPlana(empleados.get(i));
+        }
+        ejecutor.medir("codec", "json.leerObjeto", parametros,
+                () -> LectorJson.leerObjeto(lineas[siguiente[0]++ % EMPLEADOS]));
+    }
+
+    /**
+     * El codec armado con leerEsquema tiene que decodificar igual que el original.
+     */
+    private static CodecBinario verificarEsquema(CodecBinario codec) {
+        ByteBuffer esquema = ByteBuffer.allocate(codec.tamanioEsquema());
+        codec.escribirEsquema(esquema);
+        if (esquema.hasRemaining()) {
+            throw new IllegalStateException("tamanioEsquema no coincide con lo escrito");
+        }
+        return CodecBinario.leerEsquema(esquema.flip());
+    }
+
+    /**
+     * Codifica todos los empleados en un solo buffer (dimensionado con tamanio), los decodifica con el otro codec
+     * y compara campo por campo.
+     * @return bytes medios por empleado
+     */
+    private static double verificarIdaYVuelta(CodecBinario escritor, CodecBinario lector, List<Empleado> empleados) {
+        int total = 0;
+        for (Empleado empleado : empleados) {
+            total += escritor.tamanio(empleado);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(total);
+        for (Empleado empleado : empleados) {
+            escritor.escribir(empleado, buffer);
+        }
+        if (buffer.hasRemaining()) {
+            throw new IllegalStateException("tamanio no coincide con lo escrito: sobran " + buffer.remaining() + " bytes");
+        }
+        buffer.flip();
+        for (Empleado original : empleados) {
+            Empleado copia = lector.leerEmpleado(buffer);
+            if (!iguales(original, copia)) {
+                throw new IllegalStateException("La ida y vuelta cambió el empleado " + original + ": " + copia);
+            }
+        }
+        return (double) total / empleados.size();
+    }
+
+    private static ByteBuffer[] codificados(CodecBinario codec, List<Empleado> empleados, boolean directos) {
+        ByteBuffer[] codificados = new ByteBuffer[EMPLEADOS];
+        for (int i = 0; i < EMPLEADOS; i++) {
+            int tamanio = codec.tamanio(empleados.get(i));
+            codificados[i] = directos ? ByteBuffer.allocateDirect(tamanio) : ByteBuffer.allocate(tamanio);
+            codec.escribir(empleados.get(i), codificados[i]);
+        }
+        return codificados;
+    }
+
+    private static double bytesJson(List<Empleado> empleados) throws Exception {
+        CharArrayWriter texto = new CharArrayWriter(4096);
+        EscritorJson json = new EscritorJson(texto);
+        long total = 0;
+        for (Empleado empleado : empleados) {
+            texto.reset();
+            json.nuevoDocumento().empleado(empleado);
+            total += texto.toString().getBytes(StandardCharsets.UTF_8).length;
+        }
+        return (double) total / empleados.size();
+    }
+
+    // Mismo formato plano que las líneas de la instantánea
+    private static String lineaPlana(Empleado e) throws Exception {
+        CharArrayWriter texto = new CharArrayWriter(4096);
+        Legajo l = e.getLegajo();
+        new EscritorJson(texto).inicioObjeto()
+            .campo("id", e.getId())
+            .campo("nombre", e.getNombre())
+            .campo("apellido", e.getApellido())
+            .campo("dni", e.getDni())
+            .campo("email", e.getEmail())
+            .campo("fechaIngreso", e.getFechaIngreso())
+            .campo("area", e.getArea())
+            .campo("legajoId", l != null ? l.getId() : null)
+            .campo("nroLegajo", l != null ? l.getNroLegajo() : null)
+            .campo("categoria", l != null ? l.getCategoria() : null)
+            .campo("estado", l != null && l.getEstado() != null ? l.getEstado().name() : null)
+            .campo("fechaAlta", l != null ? l.getFechaAlta() : null)
+            .campo("observaciones", l != null ? l.getObservaciones() : null)
+            .finObjeto();
+        return texto.toString();
+    }
+
+    private static boolean iguales(Empleado a, Empleado b) {
+        return Objects.equals(a.getId(), b.getId())
+                && Objects.equals(a.getNombre(), b.getNombre())
+                && Objects.equals(a.getApellido(), b.getApellido())
+                && Objects.equals(a.getDni(), b.getDni())
+                && Objects.equals(a.getEmail(), b.getEmail())
+                && Objects.equals(texto(a.getFechaIngreso()), texto(b.getFechaIngreso()))
+                && Objects.equals(a.getArea(), b.getArea())
+                && a.isEliminado() == b.isEliminado()
+                && iguales(a.getLegajo(), b.getLegajo());
+    }
+
+    private static boolean iguales(Legajo a, Legajo b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return Objects.equals(a.getId(), b.getId())
+                && Objects.equals(a.getNroLegajo(), b.getNroLegajo())
+                && Objects.equals(a.getCategoria(), b.getCategoria())
+                && a.getEstado() == b.getEstado()
+                && Objects.equals(texto(a.getFechaAlta()), texto(b.getFechaAlta()))
+                && Objects.equals(a.getObservaciones(), b.getObservaciones())
+                && a.isEliminado() == b.isEliminado();
+    }
+
+    private static String texto(java.util.Date fecha) {
+        return fecha != null ? new java.sql.Date(fecha.getTime()).toString() : null;
+    }
+}
@@ -0,0 +1,22 @@
+package tpiprogramacionii.benchmark;
+
+import java.sql.Connection;
+import java.util.Collections;
+import tpiprogramacionii.utils.DataBaseConnection;
+
+/**
+ * Benchmark de la obtención de conexiones a través de DataBaseConnection
+ * (lectura de db.properties + DriverManager + cierre).
+ */
+public class BenchmarksConexion {
+
+    private BenchmarksConexion() {}
+
+    public static void registrar(EjecutorBenchmarks ejecutor) throws Exception {
+        ejecutor.medir("conexion", "getConnection+close", Collections.emptyMap(), () -> {
+            try (Connection conex = DataBaseConnection.getConnection()) {
+                return conex.getAutoCommit();
+            }
+        });
+    }
+}
@@ -0,0 +1,145 @@
+package tpiprogramacionii.benchmark;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import tpiprogramacionii.entities.Empleado;
+import tpiprogramacionii.service.CargadorLotes;
+
+/**
+ * Benchmarks del agrupamiento de getById en consultas por lotes (CargadorLotes), sin base de datos.
+ * La base se simula con un mapa de empleados generados, una latencia fija por consulta y un límite de
+ * consultas simultáneas (el pool de conexiones), que es lo que hace que las consultas por segundo sean el cuello de botella.
+ * Cada operación es una ráfaga de CONCURRENTES getById de IDs al azar, cada uno en su hilo virtual, como las
+ * peticiones simultáneas del servidor HTTP. Se compara una consulta por getById con el cargador por lotes.
+ */
+public class BenchmarksLotes {
+
+    private static final int EMPLEADOS = 10_000;
+    private static final int CONCURRENTES = 64;
+    private static final int CONEXIONES = 8;
+    private static final long LATENCIA_MICROS = 300;
+    private static final int RAFAGAS_CONTEO = 200;
+
+    private BenchmarksLotes() {}
+
+    /**
+     * Lectura por ID a medir (con o sin cargador).
+     */
+    @FunctionalInterface
+    private interface Lectura {
+        Empleado leer(long id) throws Exception;
+    }
+
+    public static void registrar(EjecutorBenchmarks ejecutor) throws Exception {
+        GeneradorDatos generador = new GeneradorDatos(42);
+        Map<Long, Empleado> base = new HashMap<>(EMPLEADOS * 2);
+        for (int i = 0; i < EMPLEADOS; i++) {
+            Empleado empleado = generador.generarEmpleado(i);
+            empleado.setId(i + 1L);
+            base.put(empleado.getId(), empleado);
+        }
+        BaseSimulada simulada = new BaseSimulada(base);
+
+        medir(ejecutor, "directo", simulada, id -> simulada.consultar(List.of(id)).get(id));
+        for (int maximo : new int[]{16, CargadorLotes.TAMANIO_MAXIMO}) {
+            CargadorLotes<Long, Empleado> cargador = new CargadorLotes<>("benchmark", simulada::consultar,
+                    Empleado::new, CargadorLotes.VENTANA_MICROS, maximo);
+            try {
+                medir(ejecutor, "lotes-max" + maximo, simulada, cargador::obtener);
+            } finally {
+                cargador.detener();
+            }
+        }
+    }
+
+    /**
+     * Cuenta las consultas por getById en RAFAGAS_CONTEO ráfagas y después mide la duración de una ráfaga.
+     */
+    private static void medir(EjecutorBenchmarks ejecutor, String nombre, BaseSimulada base, Lectura lectura) throws Exception {
+        long consultasAntes = base.consultas.sum();
+        for (int i = 0; i < RAFAGAS_CONTEO; i++) {
+            rafaga(lectura);
+        }
+        double consultasPorLectura = (double) (base.consultas.sum() - consultasAntes) / (RAFAGAS_CONTEO * CONCURRENTES);
+
+        Map<String, String> parametros = new LinkedHashMap<>();
+        parametros.put("concurrentes", String.valueOf(CONCURRENTES));
+        parametros.put("conexiones", String.valueOf(CONEXIONES));
+        parametros.put("latenciaMicros", String.valueOf(LATENCIA_MICROS));
+        parametros.put("consultasPorLectura", String.format(Locale.ROOT, "%.3f", consultasPorLectura));
+
+        EjecutorBenchmarks.ResultadoBenchmark resultado = ejecutor.medir("lotes", nombre, parametros, () -> rafaga(lectura));
+        double lecturasPorSegundo = resultado.getOperacionesPorSegundo() * CONCURRENTES;
+        System.out.printf(Locale.ROOT, "lotes %s: %.3f consultas por getById, %.0f getById/s, %.0f consultas/s%n",
+                nombre, consultasPorLectura, lecturasPorSegundo, lecturasPorSegundo * consultasPorLectura);
+    }
+
+    /**
+     * Lanza CONCURRENTES getById de IDs al azar y espera a que terminen todos.
+     * @return cantidad de empleados encontrados (para que la lectura no se descarte)
+     */
+    private static Object rafaga(Lectura lectura) throws Exception {
+        Thread[] hilos = new Thread[CONCURRENTES];
+        LongAdder encontrados = new LongAdder();
+        LongAdder errores = new LongAdder();
+        for (int i = 0; i < CONCURRENTES; i++) {
+            long id = 1 + ThreadLocalRandom.current().nextInt(EMPLEADOS);
+            hilos[i] = Thread.ofVirtual().start(() -> {
+                try {
+                    if (lectura.leer(id) != null) {
+                        encontrados.increment();
+                    }
+                } catch (Exception e) {
+                    errores.increment();
+                }
+            });
+        }
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+        if (errores.sum() > 0) {
+            throw new IllegalStateException(errores.sum() + " lecturas fallaron");
+        }
+        return encontrados.sum();
+    }
+
+    /**
+     * Base simulada: cada consulta (de uno o de varios IDs) ocupa una de las CONEXIONES durante LATENCIA_MICROS.
+     */
+    private static final class BaseSimulada {
+
+        private final Map<Long, Empleado> empleados;
+        private final Semaphore conexiones = new Semaphore(CONEXIONES, true);
+        private final LongAdder consultas = new LongAdder();
+
+        private BaseSimulada(Map<Long, Empleado> empleados) {
+            this.empleados = empleados;
+        }
+
+        private Map<Long, Empleado> consultar(List<Long> ids) throws InterruptedException {
+            conexiones.acquire();
+            try {
+                consultas.increment();
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(LATENCIA_MICROS));
+                Map<Long, Empleado> encontrados = new HashMap<>(ids.size() * 2);
+                for (Long id : ids) {
+                    Empleado empleado = empleados.get(id);
+                    if (empleado != null) {
+                        encontrados.put(id, new Empleado(empleado));
+                    }
+                }
+                return encontrados;
+            } finally {
+                conexiones.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package tpiprogramacionii.benchmark;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import tpiprogramacionii.dao.DAOGenerico;
+import tpiprogramacionii.dao.DescriptorEntidad;
+import tpiprogramacionii.dao.EmpleadoDAO;
+import tpiprogramacionii.dao.LegajoDAO;
+import tpiprogramacionii.entities.Estado;
+import tpiprogramacionii.entities.Legajo;
+
+/**
+ * Benchmarks del mapeo de filas a entidades (sin base de datos).
+ * Miden mapResultSetToEmpleado (con legajo unido), mapResultSetToLegajo y, para comparar,
+ * el mapeo de DAOGenerico con un descriptor de legajo equivalente.
+ */
+public class BenchmarksMapeo {
+
+    private BenchmarksMapeo() {}
+
+    public static void registrar(EjecutorBenchmarks ejecutor) throws Exception {
+        LegajoDAO legajoDAO = new LegajoDAO();
+        EmpleadoDAO empleadoDAO = new EmpleadoDAO(legajoDAO);
+
+        ResultSet filaEmpleado = ResultSetSimulado.crear(filaEmpleadoConLegajo());
+        ResultSet filaLegajo = ResultSetSimulado.crear(filaLegajo());
+
+        ejecutor.medir("mapeo", "mapResultSetToEmpleado", Collections.emptyMap(),
+                () -> empleadoDAO.mapResultSetToEmpleado(filaEmpleado));
+        ejecutor.medir("mapeo", "mapResultSetToLegajo", Collections.emptyMap(),
+                () -> legajoDAO.mapResultSetToLegajo(filaLegajo));
+
+        DAOGenerico<Legajo> legajoGenerico = new DAOGenerico<>(descriptorLegajo());
+        ejecutor.medir("mapeo", "DAOGenerico.mapear[legajo]", Collections.emptyMap(),
+                () -> legajoGenerico.mapear(filaLegajo));
+    }
+
+    /**
+     * Fila típica de SEARCH_BY_ID / SELECT_ALL_ACTIVE de EmpleadoDAO.
+     */
+    static Map<String, Object> filaEmpleadoConLegajo() {
+        Map<String, Object> fila = new HashMap<>();
+        fila.put("id", 1234L);
+        fila.put("nombre", "MARIA");
+        fila.put("apellido", "GONZALEZ");
+        fila.put("dni", "30123456");
+        fila.put("email", "maria.gonzalez@empresa.com");
+        fila.put("fecha_ingreso", Date.valueOf("2019-03-01"));
+        fila.put("area", "SISTEMAS");
+        fila.put("legajo_id", 1234L);
+        fila.put("nro_legajo", "LEG001234");
+        fila.put("categoria", "SENIOR");
+        fila.put("estado", "ACTIVO");
+        fila.put("fecha_alta", Date.valueOf("2019-03-01"));
+        fila.put("observaciones", "Sin observaciones");
+        return fila;
+    }
+
+    /**
+     * Descriptor de la tabla legajo con las mismas columnas que mapea LegajoDAO.
+     */
+    static DescriptorEntidad<Legajo> descriptorLegajo() {
+        return DescriptorEntidad.de("legajo", Legajo::new)
+                .texto("nro_legajo", Legajo::getNroLegajo, Legajo::setNroLegajo)
+                .texto("categoria", Legajo::getCategoria, Legajo::setCategoria)
+                .enumerado("estado", Estado.class, Legajo::getEstado, Legajo::setEstado)
+                .fecha("fecha_alta", Legajo::getFechaAlta, Legajo::setFechaAlta)
+                .texto("observaciones", Legajo::getObservaciones, Legajo::setObservaciones);
+    }
+
+    /**
+     * Fila típica de SEARCH_BY_ID / SELECT_ALL_ACTIVE de LegajoDAO.
+     */
+    static Map<String, Object> filaLegajo() {
+        Map<String, Object> fila = new HashMap<>();
+        fila.put("id", 1234L);
+        fila.put("nro_legajo", "LEG001234");
+        fila.put("categoria", "SENIOR");
+        fila.put("estado", "ACTIVO");
+        fila.put("fecha_alta", Date.valueOf("2019-03-01"));
+        fila.put("observaciones", "Sin observaciones");
+        return fila;
+    }
+}
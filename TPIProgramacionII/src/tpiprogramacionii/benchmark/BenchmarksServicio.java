@@ -0,0 +1,67 @@
+package tpiprogramacionii.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import tpiprogramacionii.dao.EmpleadoDAO;
+import tpiprogramacionii.dao.LegajoDAO;
+import tpiprogramacionii.entities.Empleado;
+import tpiprogramacionii.service.EmpleadoService;
+import tpiprogramacionii.utils.InicializadorEsquema;
+
+/**
+ * Benchmarks de los caminos completos de EmpleadoService (insertar, getById, getAll)
+ * contra la base configurada, sembrada con distintos tamaños.
+ * Pensado para correr contra una base embebida (-Ddb.url=...): crea las tablas si no existen
+ * y va agregando filas hasta alcanzar cada tamaño pedido, de menor a mayor.
+ * insertar agrega filas en cada iteración, así que se mide una sola vez al final, con la cantidad
+ * de filas que tiene la tabla en ese momento (si se midiera en cada tamaño, los siguientes tendrían más filas).
+ */
+public class BenchmarksServicio {
+
+    private static final long SEMILLA = 42;
+    private static final int TAMANIO_LOTE = 5_000;
+
+    // GeneradorDatos deja libre el rango 90.000.000+; el generador de carga usa 95.000.000+
+    private static final AtomicLong SIGUIENTE_DNI_INSERTAR = new AtomicLong(90_000_000L);
+
+    private BenchmarksServicio() {}
+
+    public static void registrar(EjecutorBenchmarks ejecutor, int[] tamanios) throws Exception {
+        LegajoDAO legajoDAO = new LegajoDAO();
+        EmpleadoService servicio = new EmpleadoService(new EmpleadoDAO(legajoDAO), legajoDAO);
+
+        InicializadorEsquema.crearTablas();
+
+        for (int tamanio : tamanios) {
+            sembrarHasta(tamanio);
+            Map<String, String> parametros = Map.of("filas", String.valueOf(tamanio));
+
+            ejecutor.medir("servicio", "EmpleadoService.getById", parametros, () -> {
+                long id = 1 + ThreadLocalRandom.current().nextLong(tamanio);
+                return servicio.getById(id);
+            });
+            ejecutor.medir("servicio", "EmpleadoService.getAll", parametros, servicio::getAll);
+        }
+
+        Map<String, String> parametros = Map.of("filas", String.valueOf(GeneradorDatos.contarEmpleados()));
+        ejecutor.medir("servicio", "EmpleadoService.insertar", parametros, () -> {
+            long dni = SIGUIENTE_DNI_INSERTAR.getAndIncrement();
+            Empleado empleado = new Empleado(0L, "BENCH", "INSERTAR", String.valueOf(dni));
+            empleado.setArea("BENCHMARK");
+            servicio.insertar(empleado);
+            return empleado;
+        });
+    }
+
+    /**
+     * Agrega empleados generados por GeneradorDatos hasta que la tabla tenga al menos el tamaño pedido.
+     */
+    static void sembrarHasta(int tamanio) throws Exception {
+        long actuales = GeneradorDatos.contarEmpleados();
+        if (actuales < tamanio) {
+            new GeneradorDatos(SEMILLA).cargar(actuales, tamanio - actuales,
+                    Runtime.getRuntime().availableProcessors(), TAMANIO_LOTE);
+        }
+    }
+}
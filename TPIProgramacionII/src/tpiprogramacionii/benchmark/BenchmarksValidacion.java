@@ -0,0 +1,113 @@
+package tpiprogramacionii.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import tpiprogramacionii.dao.EmpleadoDAO;
+import tpiprogramacionii.dao.LegajoDAO;
+import tpiprogramacionii.entities.Empleado;
+import tpiprogramacionii.service.EmpleadoService;
+import tpiprogramacionii.service.MotorValidacion;
+import tpiprogramacionii.service.ResultadoValidacion;
+
+/**
+ * Benchmarks de validación de empleados.
+ * Compara la validación de EmpleadoService.insertar (regex de DNI y email, trims, excepción en el primer error)
+ * con MotorValidacion (verificadores escritos a mano, sin objetos, acumula todos los errores),
+ * registro a registro y sobre un lote de importación.
+ * La validación del servicio se mide a través de insertar con registros inválidos, que se rechazan antes de
+ * llegar a la base; un registro válido seguiría hasta la base, así que el caso válido solo se mide con el motor.
+ */
+public class BenchmarksValidacion {
+
+    private static final int TAMANIO_LOTE = 100_000;
+
+    private BenchmarksValidacion() {}
+
+    public static void registrar(EjecutorBenchmarks ejecutor) throws Exception {
+        LegajoDAO legajoDAO = new LegajoDAO();
+        EmpleadoService servicio = new EmpleadoService(new EmpleadoDAO(legajoDAO), legajoDAO);
+        MotorValidacion motor = new MotorValidacion();
+        ResultadoValidacion resultado = new ResultadoValidacion();
+
+        Empleado valido = new Empleado(0L, "MARIA", "GONZALEZ", "30123456");
+        valido.setEmail("maria.gonzalez@empresa.com");
+        valido.setArea("SISTEMAS");
+
+        Empleado invalido = new Empleado(0L, "MARIA", "GONZALEZ", "30123456");
+        invalido.setEmail("maria.gonzalez@empresa");
+
+        ejecutor.medir("validacion", "insertar.emailInvalido", Collections.emptyMap(), () -> {
+            try {
+                servicio.insertar(invalido);
+                throw new IllegalStateException("insertar aceptó un email inválido");
+            } catch (IllegalArgumentException e) {
+                return e;
+            }
+        });
+        ejecutor.medir("validacion", "motor.valido", Collections.emptyMap(),
+                () -> motor.validar(valido, resultado));
+        ejecutor.medir("validacion", "motor.emailInvalido", Collections.emptyMap(),
+                () -> motor.validar(invalido, resultado));
+
+        List<Empleado> lote = loteImportacion();
+        Map<String, String> parametros = Map.of("registros", String.valueOf(TAMANIO_LOTE));
+        List<Empleado> loteInvalidos = new ArrayList<>();
+        for (Empleado empleado : lote) {
+            if (!motor.validar(empleado, resultado)) {
+                loteInvalidos.add(empleado);
+            }
+        }
+        Map<String, String> parametrosInvalidos = Map.of("registros", String.valueOf(loteInvalidos.size()));
+        ejecutor.medir("validacion", "lote.insertarInvalidos", parametrosInvalidos, () -> {
+            int rechazados = 0;
+            for (Empleado empleado : loteInvalidos) {
+                try {
+                    servicio.insertar(empleado);
+                } catch (IllegalArgumentException e) {
+                    rechazados++;
+                }
+            }
+            return rechazados;
+        });
+        ejecutor.medir("validacion", "lote.motorInvalidos", parametrosInvalidos, () -> {
+            int invalidos = 0;
+            for (Empleado empleado : loteInvalidos) {
+                if (!motor.validar(empleado, resultado)) {
+                    invalidos++;
+                }
+            }
+            return invalidos;
+        });
+        ejecutor.medir("validacion", "lote.motorSecuencial", parametros, () -> {
+            int invalidos = 0;
+            for (Empleado empleado : lote) {
+                if (!motor.validar(empleado, resultado)) {
+                    invalidos++;
+                }
+            }
+            return invalidos;
+        });
+        ejecutor.medir("validacion", "lote.motorParalelo", parametros,
+                () -> motor.validarLote(lote).getInvalidos());
+    }
+
+    /**
+     * Lote de empleados generados con un 10% de registros inválidos (DNI o email mal formados).
+     */
+    private static List<Empleado> loteImportacion() {
+        GeneradorDatos generador = new GeneradorDatos(42);
+        List<Empleado> lote = new ArrayList<>(TAMANIO_LOTE);
+        for (int i = 0; i < TAMANIO_LOTE; i++) {
+            Empleado empleado = generador.generarEmpleado(i);
+            if (i % 20 == 0) {
+                empleado.setDni(empleado.getDni() + "X");
+            } else if (i % 20 == 1) {
+                empleado.setEmail(empleado.getEmail().replace(".com.ar", ""));
+            }
+            lote.add(empleado);
+        }
+        return lote;
+    }
+}
@@ -0,0 +1,214 @@
+package tpiprogramacionii.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import tpiprogramacionii.dao.EmpleadoDAO;
+import tpiprogramacionii.dao.LegajoDAO;
+import tpiprogramacionii.http.ServidorHttp;
+import tpiprogramacionii.service.EmpleadoService;
+import tpiprogramacionii.service.LegajoService;
+import tpiprogramacionii.utils.DataBaseConnection;
+import tpiprogramacionii.utils.Fragmentos;
+import tpiprogramacionii.utils.InicializadorEsquema;
+
+/**
+ * Prueba de carga del servidor HTTP/JSON.
+ * Levanta el servidor en el mismo proceso (contra la base configurada, que puede ser una base
+ * local de prueba indicada con -Ddb.url=...) o ataca uno ya levantado con -url.
+ * N clientes en hilos virtuales envían peticiones según una mezcla fija; al terminar informa
+ * peticiones por segundo y percentiles de latencia por endpoint.
+ *
+ * Argumentos (todos opcionales):
+ * -clientes n    clientes concurrentes (por defecto 50)
+ * -duracion s    duración de la prueba en segundos (por defecto 30)
+ * -filas n       filas mínimas con las que se siembra la base (por defecto 10000)
+ * -url base      URL de un servidor ya levantado, ej: http://localhost:8080 (no se siembra la base)
+ */
+public class CargaHttp {
+
+    // Referencia fuerte: si el logger se recolecta, se pierde el nivel configurado
+    private static final Logger LOGGER_APLICACION = Logger.getLogger("tpiprogramacionii");
+    private static final String SELECT_ACTIVOS = "SELECT id, dni FROM empleado WHERE eliminado = FALSE";
+
+    /**
+     * Endpoints ejercitados, con su peso en la mezcla.
+     */
+    enum Endpoint {
+        GET_ID("GET /empleados/{id}", 50),
+        GET_DNI("GET /empleados/dni/{dni}", 25),
+        PAGINA("GET /empleados?limite=50", 15),
+        POST("POST /empleados", 10);
+
+        private final String descripcion;
+        private final int peso;
+
+        Endpoint(String descripcion, int peso) {
+            this.descripcion = descripcion;
+            this.peso = peso;
+        }
+    }
+
+    private final HttpClient cliente = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+    private final String base;
+    private final long[] ids;
+    private final String[] dnis;
+    private final Endpoint[] tablaMezcla;
+    private final AtomicLong siguienteDni = new AtomicLong(97_000_000L);
+
+    private final HistogramaLatencia[] latencias = new HistogramaLatencia[Endpoint.values().length];
+    private final LongAdder[] errores = new LongAdder[Endpoint.values().length];
+
+    CargaHttp(String base, long[] ids, String[] dnis) {
+        this.base = base;
+        this.ids = ids;
+        this.dnis = dnis;
+
+        List<Endpoint> tabla = new ArrayList<>();
+        for (Endpoint endpoint : Endpoint.values()) {
+            for (int i = 0; i < endpoint.peso; i++) {
+                tabla.add(endpoint);
+            }
+            latencias[endpoint.ordinal()] = new HistogramaLatencia();
+            errores[endpoint.ordinal()] = new LongAdder();
+        }
+        this.tablaMezcla = tabla.toArray(new Endpoint[0]);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clientes = 50;
+        int duracionSeg = 30;
+        int filas = 10_000;
+        String url = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-clientes" -> clientes = Integer.parseInt(args[++i]);
+                case "-duracion" -> duracionSeg = Integer.parseInt(args[++i]);
+                case "-filas" -> filas = Integer.parseInt(args[++i]);
+                case "-url" -> url = args[++i];
+                default -> throw new IllegalArgumentException("Argumento desconocido: " + args[i]);
+            }
+        }
+
+        LOGGER_APLICACION.setLevel(Level.WARNING);
+
+        ServidorHttp servidor = null;
+        if (url == null) {
+            InicializadorEsquema.crearTablas();
+            BenchmarksServicio.sembrarHasta(filas);
+
+            LegajoDAO legajoDAO = new LegajoDAO();
+            servidor = new ServidorHttp(0, new EmpleadoService(new EmpleadoDAO(legajoDAO), legajoDAO),
+                    new LegajoService(legajoDAO));
+            servidor.iniciar();
+            url = "http://localhost:" + servidor.getPuerto();
+        }
+
+        List<Long> ids = new ArrayList<>();
+        List<String> dnis = new ArrayList<>();
+        for (int f = 0; f < Fragmentos.cantidad(); f++) {
+            try (Connection conex = DataBaseConnection.getConnection(f);
+                 PreparedStatement stmt = conex.prepareStatement(SELECT_ACTIVOS);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
+                    dnis.add(rs.getString(2));
+                }
+            }
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("No hay empleados activos para consultar");
+        }
+
+        try {
+            new CargaHttp(url, ids.stream().mapToLong(Long::longValue).toArray(), dnis.toArray(new String[0]))
+                    .ejecutar(clientes, duracionSeg);
+        } finally {
+            if (servidor != null) {
+                servidor.detener();
+            }
+        }
+    }
+
+    void ejecutar(int clientes, int duracionSeg) {
+        System.out.printf("Servidor: %s  Clientes: %d  Duración: %ds  Empleados activos: %d%n",
+                base, clientes, duracionSeg, ids.length);
+
+        long inicio = System.nanoTime();
+        long fin = inicio + duracionSeg * 1_000_000_000L;
+        SplittableRandom raiz = new SplittableRandom(42);
+        try (ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clientes; i++) {
+                SplittableRandom azar = raiz.split();
+                ejecutor.submit(() -> operar(azar, fin));
+            }
+        }
+        imprimirResumen((System.nanoTime() - inicio) / 1_000_000_000.0);
+    }
+
+    private void operar(SplittableRandom azar, long fin) {
+        while (System.nanoTime() < fin) {
+            Endpoint endpoint = tablaMezcla[azar.nextInt(tablaMezcla.length)];
+            long inicio = System.nanoTime();
+            try {
+                HttpResponse<Void> respuesta = cliente.send(peticion(endpoint, azar), HttpResponse.BodyHandlers.discarding());
+                if (respuesta.statusCode() >= 400) {
+                    errores[endpoint.ordinal()].increment();
+                }
+            } catch (Exception e) {
+                errores[endpoint.ordinal()].increment();
+            }
+            latencias[endpoint.ordinal()].registrar(System.nanoTime() - inicio);
+        }
+    }
+
+    private HttpRequest peticion(Endpoint endpoint, SplittableRandom azar) {
+        int i = azar.nextInt(ids.length);
+        return switch (endpoint) {
+            case GET_ID -> HttpRequest.newBuilder(URI.create(base + "/empleados/" + ids[i])).build();
+            case GET_DNI -> HttpRequest.newBuilder(URI.create(base + "/empleados/dni/" + dnis[i])).build();
+            case PAGINA -> HttpRequest.newBuilder(URI.create(base + "/empleados?limite=50&despuesDe=" + ids[i])).build();
+            case POST -> HttpRequest.newBuilder(URI.create(base + "/empleados"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"nombre\":\"CARGA\",\"apellido\":\"HTTP\",\"dni\":\""
+                            + siguienteDni.getAndIncrement() + "\",\"area\":\"CARGA\"}"))
+                    .build();
+        };
+    }
+
+    private void imprimirResumen(double segundos) {
+        long total = 0;
+        for (HistogramaLatencia h : latencias) {
+            total += h.getTotal();
+        }
+        System.out.println();
+        System.out.printf("Total: %d peticiones en %.1fs (%.1f req/s)%n", total, segundos, total / segundos);
+        System.out.println();
+        System.out.println("endpoint                      total    errores     req/s   media(ms)   p50(ms)   p99(ms)  p99.9(ms)   max(ms)");
+        for (Endpoint endpoint : Endpoint.values()) {
+            HistogramaLatencia h = latencias[endpoint.ordinal()];
+            if (h.getTotal() == 0) {
+                continue;
+            }
+            System.out.printf("%-26s %9d %10d %9.1f %11.2f %9.2f %9.2f %10.2f %9.2f%n",
+                    endpoint.descripcion, h.getTotal(), errores[endpoint.ordinal()].sum(), h.getTotal() / segundos,
+                    h.getMediaMicros() / 1_000.0, h.percentilMicros(50) / 1_000.0,
+                    h.percentilMicros(99) / 1_000.0, h.percentilMicros(99.9) / 1_000.0,
+                    h.getMaximoMicros() / 1_000.0);
+        }
+    }
+}
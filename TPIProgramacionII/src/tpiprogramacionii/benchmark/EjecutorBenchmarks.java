@@ -0,0 +1,196 @@
+package tpiprogramacionii.benchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Arnés mínimo de benchmarks (estilo JMH) para el proyecto.
+ * Cada benchmark se ejecuta en iteraciones de duración fija: primero las de calentamiento
+ * (para que el JIT compile el código medido) y luego las de medición.
+ * Los resultados se imprimen por consola y se pueden exportar a JSON para comparar corridas.
+ */
+public class EjecutorBenchmarks {
+
+    /**
+     * Operación a medir. El valor devuelto se consume para que el JIT no elimine el trabajo.
+     */
+    @FunctionalInterface
+    public interface Operacion {
+        Object ejecutar() throws Exception;
+    }
+
+    // Sumidero de resultados: evita que el JIT descarte operaciones cuyo resultado no se usa
+    private static volatile Object sumidero;
+
+    private final int iteracionesCalentamiento;
+    private final int iteracionesMedicion;
+    private final long duracionIteracionNanos;
+    private final List<ResultadoBenchmark> resultados = new ArrayList<>();
+
+    /**
+     * @param iteracionesCalentamiento iteraciones descartadas antes de medir
+     * @param iteracionesMedicion iteraciones que se promedian en el resultado
+     * @param duracionIteracionMs duración de cada iteración en milisegundos
+     */
+    public EjecutorBenchmarks(int iteracionesCalentamiento, int iteracionesMedicion, long duracionIteracionMs) {
+        if (iteracionesMedicion <= 0 || duracionIteracionMs <= 0) {
+            throw new IllegalArgumentException("Las iteraciones y la duración deben ser mayores a 0");
+        }
+        this.iteracionesCalentamiento = iteracionesCalentamiento;
+        this.iteracionesMedicion = iteracionesMedicion;
+        this.duracionIteracionNanos = duracionIteracionMs * 1_000_000L;
+    }
+
+    /**
+     * Mide una operación y guarda el resultado.
+     * @param grupo grupo al que pertenece (mapeo, validacion, conexion, servicio...)
+     * @param nombre nombre del benchmark dentro del grupo
+     * @param parametros parámetros de la corrida (por ejemplo, tamaño de la base); puede ser vacío
+     * @param operacion operación a medir
+     * @return resultado de la medición
+     * @throws Exception si la operación falla
+     */
+    public ResultadoBenchmark medir(String grupo, String nombre, Map<String, String> parametros,
+                                    Operacion operacion) throws Exception {
+        for (int i = 0; i < iteracionesCalentamiento; i++) {
+            ejecutarIteracion(operacion);
+        }
+
+        double[] nanosPorOp = new double[iteracionesMedicion];
+        long totalOperaciones = 0;
+        for (int i = 0; i < iteracionesMedicion; i++) {
+            long[] iteracion = ejecutarIteracion(operacion);
+            totalOperaciones += iteracion[0];
+            nanosPorOp[i] = (double) iteracion[1] / iteracion[0];
+        }
+
+        ResultadoBenchmark resultado = new ResultadoBenchmark(grupo, nombre, new LinkedHashMap<>(parametros),
+                nanosPorOp, totalOperaciones);
+        resultados.add(resultado);
+        System.out.println(resultado);
+        return resultado;
+    }
+
+    /**
+     * Ejecuta la operación durante una iteración.
+     * @return {operaciones realizadas, nanosegundos transcurridos}
+     */
+    private long[] ejecutarIteracion(Operacion operacion) throws Exception {
+        long operaciones = 0;
+        long inicio = System.nanoTime();
+        long fin = inicio + duracionIteracionNanos;
+        long ahora;
+        do {
+            sumidero = operacion.ejecutar();
+            operaciones++;
+            ahora = System.nanoTime();
+        } while (ahora < fin);
+        return new long[]{operaciones, ahora - inicio};
+    }
+
+    /**
+     * @return resultados medidos hasta el momento
+     */
+    public List<ResultadoBenchmark> getResultados() {
+        return resultados;
+    }
+
+    /**
+     * Exporta todos los resultados a un archivo JSON.
+     * @param archivo ruta de salida
+     * @throws IOException si no se puede escribir el archivo
+     */
+    public void escribirJson(Path archivo) throws IOException {
+        try (Writer out = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8)) {
+            out.write("{\n  \"jvm\": \"" + System.getProperty("java.vm.version") + "\",\n");
+            out.write("  \"iteracionesCalentamiento\": " + iteracionesCalentamiento + ",\n");
+            out.write("  \"iteracionesMedicion\": " + iteracionesMedicion + ",\n");
+            out.write("  \"duracionIteracionMs\": " + duracionIteracionNanos / 1_000_000L + ",\n");
+            out.write("  \"resultados\": [\n");
+            for (int i = 0; i < resultados.size(); i++) {
+                out.write("    " + resultados.get(i).toJson());
+                out.write(i < resultados.size() - 1 ? ",\n" : "\n");
+            }
+            out.write("  ]\n}\n");
+        }
+    }
+
+    /**
+     * Resultado de un benchmark: promedio y desvío de ns/op entre iteraciones.
+     */
+    public static final class ResultadoBenchmark {
+        private final String grupo;
+        private final String nombre;
+        private final Map<String, String> parametros;
+        private final double nanosPorOperacion;
+        private final double desvio;
+        private final long operaciones;
+
+        ResultadoBenchmark(String grupo, String nombre, Map<String, String> parametros,
+                           double[] nanosPorOpIteracion, long operaciones) {
+            this.grupo = grupo;
+            this.nombre = nombre;
+            this.parametros = parametros;
+            this.operaciones = operaciones;
+
+            double suma = 0;
+            for (double v : nanosPorOpIteracion) {
+                suma += v;
+            }
+            this.nanosPorOperacion = suma / nanosPorOpIteracion.length;
+
+            double cuadrados = 0;
+            for (double v : nanosPorOpIteracion) {
+                cuadrados += (v - nanosPorOperacion) * (v - nanosPorOperacion);
+            }
+            this.desvio = Math.sqrt(cuadrados / nanosPorOpIteracion.length);
+        }
+
+        public String getGrupo() {
+            return grupo;
+        }
+
+        public String getNombre() {
+            return nombre;
+        }
+
+        public double getNanosPorOperacion() {
+            return nanosPorOperacion;
+        }
+
+        public double getOperacionesPorSegundo() {
+            return 1_000_000_000.0 / nanosPorOperacion;
+        }
+
+        String toJson() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("{\"grupo\": \"").append(grupo)
+              .append("\", \"nombre\": \"").append(nombre)
+              .append("\", \"parametros\": {");
+            int i = 0;
+            for (Map.Entry<String, String> p : parametros.entrySet()) {
+                sb.append(i++ > 0 ? ", " : "").append('"').append(p.getKey()).append("\": \"").append(p.getValue()).append('"');
+            }
+            sb.append("}, \"nsPorOp\": ").append(String.format(Locale.ROOT, "%.2f", nanosPorOperacion))
+              .append(", \"desvio\": ").append(String.format(Locale.ROOT, "%.2f", desvio))
+              .append(", \"opsPorSeg\": ").append(String.format(Locale.ROOT, "%.1f", getOperacionesPorSegundo()))
+              .append(", \"operaciones\": ").append(operaciones).append('}');
+            return sb.toString();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-12s %-32s %-20s %14.1f ns/op  +/- %10.1f  %14.1f ops/s",
+                    grupo, nombre, parametros.isEmpty() ? "" : parametros.toString(),
+                    nanosPorOperacion, desvio, getOperacionesPorSegundo());
+        }
+    }
+}
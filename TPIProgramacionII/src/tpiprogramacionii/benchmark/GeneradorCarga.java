@@ -0,0 +1,281 @@
+package tpiprogramacionii.benchmark;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import tpiprogramacionii.dao.EmpleadoDAO;
+import tpiprogramacionii.dao.LegajoDAO;
+import tpiprogramacionii.entities.Empleado;
+import tpiprogramacionii.entities.Estado;
+import tpiprogramacionii.service.EmpleadoService;
+import tpiprogramacionii.service.LegajoService;
+import tpiprogramacionii.utils.DataBaseConnection;
+import tpiprogramacionii.utils.Fragmentos;
+import tpiprogramacionii.utils.InicializadorEsquema;
+
+/**
+ * Generador de carga concurrente que ejercita EmpleadoService y LegajoService de punta a punta.
+ * Simula N operadores, cada uno en su propio hilo virtual, que eligen operaciones al azar
+ * según una mezcla configurable. Cada segundo informa throughput, errores y espera de conexiones;
+ * al terminar muestra percentiles de latencia por operación.
+ *
+ * Argumentos (todos opcionales):
+ * -operadores n     operadores concurrentes (por defecto 50)
+ * -duracion s       duración de la prueba en segundos (por defecto 30)
+ * -filas n          filas mínimas con las que se siembra la base antes de empezar (por defecto 10000)
+ * -mezcla lista     pesos por operación, ej: insertar=10,getById=40,buscarDni=20,listar=1,area=10,estado=10,eliminar=9
+ * -semilla n        semilla para la elección de operaciones (por defecto 42)
+ */
+public class GeneradorCarga {
+
+    // Referencia fuerte: si el logger se recolecta, se pierde el nivel configurado
+    private static final Logger LOGGER_APLICACION = Logger.getLogger("tpiprogramacionii");
+    private static final String SELECT_ACTIVOS = "SELECT id, dni, legajo_id FROM empleado WHERE eliminado = FALSE";
+
+    /**
+     * Operaciones que puede realizar un operador.
+     */
+    enum Operacion {
+        INSERTAR("insertar"),
+        GET_BY_ID("getById"),
+        BUSCAR_DNI("buscarDni"),
+        LISTAR("listar"),
+        AREA("area"),
+        ESTADO("estado"),
+        ELIMINAR("eliminar");
+
+        private final String clave;
+
+        Operacion(String clave) {
+            this.clave = clave;
+        }
+
+        static Operacion desdeClave(String clave) {
+            for (Operacion op : values()) {
+                if (op.clave.equalsIgnoreCase(clave)) {
+                    return op;
+                }
+            }
+            throw new IllegalArgumentException("Operación desconocida: " + clave);
+        }
+    }
+
+    private final EmpleadoService empleadoService;
+    private final LegajoService legajoService;
+    private final Operacion[] tablaMezcla;
+    private final long[] ids;
+    private final String[] dnis;
+    private final long[] idsLegajo;
+    // Solo se eliminan empleados creados por la prueba, para no vaciar los datos sembrados
+    private final ConcurrentLinkedQueue<Long> insertados = new ConcurrentLinkedQueue<>();
+    private final AtomicLong siguienteDni = new AtomicLong(95_000_000L);
+
+    private final Map<Operacion, HistogramaLatencia> latencias = new EnumMap<>(Operacion.class);
+    private final Map<Operacion, LongAdder> errores = new EnumMap<>(Operacion.class);
+    private final LongAdder completadas = new LongAdder();
+    private final LongAdder fallidas = new LongAdder();
+
+    GeneradorCarga(Map<Operacion, Integer> pesos, long[] ids, String[] dnis, long[] idsLegajo) {
+        LegajoDAO legajoDAO = new LegajoDAO();
+        this.empleadoService = new EmpleadoService(new EmpleadoDAO(legajoDAO), legajoDAO);
+        this.legajoService = new LegajoService(legajoDAO);
+        this.ids = ids;
+        this.dnis = dnis;
+        this.idsLegajo = idsLegajo;
+
+        List<Operacion> tabla = new ArrayList<>();
+        for (Map.Entry<Operacion, Integer> peso : pesos.entrySet()) {
+            for (int i = 0; i < peso.getValue(); i++) {
+                tabla.add(peso.getKey());
+            }
+        }
+        if (tabla.isEmpty()) {
+            throw new IllegalArgumentException("La mezcla de operaciones no puede estar vacía");
+        }
+        this.tablaMezcla = tabla.toArray(new Operacion[0]);
+
+        for (Operacion op : Operacion.values()) {
+            latencias.put(op, new HistogramaLatencia());
+            errores.put(op, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int operadores = 50;
+        int duracionSeg = 30;
+        int filas = 10_000;
+        long semilla = 42;
+        Map<Operacion, Integer> pesos = parsearMezcla("insertar=10,getById=40,buscarDni=20,listar=1,area=10,estado=10,eliminar=9");
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-operadores" -> operadores = Integer.parseInt(args[++i]);
+                case "-duracion" -> duracionSeg = Integer.parseInt(args[++i]);
+                case "-filas" -> filas = Integer.parseInt(args[++i]);
+                case "-mezcla" -> pesos = parsearMezcla(args[++i]);
+                case "-semilla" -> semilla = Long.parseLong(args[++i]);
+                default -> throw new IllegalArgumentException("Argumento desconocido: " + args[i]);
+            }
+        }
+
+        LOGGER_APLICACION.setLevel(Level.WARNING);
+
+        InicializadorEsquema.crearTablas();
+        BenchmarksServicio.sembrarHasta(filas);
+
+        List<long[]> activos = new ArrayList<>();
+        List<String> dnisActivos = new ArrayList<>();
+        for (int f = 0; f < Fragmentos.cantidad(); f++) {
+            try (Connection conex = DataBaseConnection.getConnection(f);
+                 PreparedStatement stmt = conex.prepareStatement(SELECT_ACTIVOS);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    activos.add(new long[]{rs.getLong(1), rs.getLong(3)});
+                    dnisActivos.add(rs.getString(2));
+                }
+            }
+        }
+        long[] ids = new long[activos.size()];
+        long[] idsLegajo = new long[activos.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = activos.get(i)[0];
+            idsLegajo[i] = activos.get(i)[1];
+        }
+
+        GeneradorCarga generador = new GeneradorCarga(pesos, ids, dnisActivos.toArray(new String[0]), idsLegajo);
+        generador.ejecutar(operadores, duracionSeg, semilla);
+    }
+
+    /**
+     * Lanza los operadores, informa el avance cada segundo y muestra el resumen final.
+     */
+    void ejecutar(int operadores, int duracionSeg, long semilla) throws InterruptedException {
+        System.out.printf("Operadores: %d  Duración: %ds  Empleados activos: %d%n", operadores, duracionSeg, ids.length);
+        System.out.println("seg      ops/s   errores   conexiones/s   espera media conexión (ms)");
+
+        long inicio = System.nanoTime();
+        long fin = inicio + duracionSeg * 1_000_000_000L;
+        SplittableRandom raiz = new SplittableRandom(semilla);
+
+        try (ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < operadores; i++) {
+                SplittableRandom azar = raiz.split();
+                ejecutor.submit(() -> operar(azar, fin));
+            }
+
+            long opsPrevias = 0;
+            long erroresPrevios = 0;
+            long conexionesPrevias = DataBaseConnection.getConexionesEntregadas();
+            long esperaPrevia = DataBaseConnection.getNanosEsperaConexion();
+            for (int seg = 1; System.nanoTime() < fin; seg++) {
+                Thread.sleep(1_000);
+                long ops = completadas.sum();
+                long errs = fallidas.sum();
+                long conexiones = DataBaseConnection.getConexionesEntregadas();
+                long espera = DataBaseConnection.getNanosEsperaConexion();
+                long nuevasConexiones = conexiones - conexionesPrevias;
+                System.out.printf("%3d %10d %9d %14d %14.2f%n", seg, ops - opsPrevias, errs - erroresPrevios, nuevasConexiones,
+                        nuevasConexiones == 0 ? 0.0 : (espera - esperaPrevia) / 1_000_000.0 / nuevasConexiones);
+                opsPrevias = ops;
+                erroresPrevios = errs;
+                conexionesPrevias = conexiones;
+                esperaPrevia = espera;
+            }
+        }
+
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+        imprimirResumen(segundos);
+    }
+
+    /**
+     * Bucle de un operador: elige una operación según la mezcla y mide su latencia.
+     */
+    private void operar(SplittableRandom azar, long fin) {
+        while (System.nanoTime() < fin) {
+            Operacion op = tablaMezcla[azar.nextInt(tablaMezcla.length)];
+            long inicio = System.nanoTime();
+            try {
+                ejecutarOperacion(op, azar);
+                completadas.increment();
+            } catch (Exception e) {
+                errores.get(op).increment();
+                fallidas.increment();
+            }
+            latencias.get(op).registrar(System.nanoTime() - inicio);
+        }
+    }
+
+    private void ejecutarOperacion(Operacion op, SplittableRandom azar) throws Exception {
+        int i = azar.nextInt(ids.length);
+        switch (op) {
+            case INSERTAR -> insertar();
+            case GET_BY_ID -> empleadoService.getById(ids[i]);
+            case BUSCAR_DNI -> empleadoService.buscarPorDni(dnis[i]);
+            case LISTAR -> empleadoService.getAll();
+            case AREA -> {
+                Empleado empleado = new Empleado(ids[i], null, null, null);
+                empleado.setArea(azar.nextBoolean() ? "SISTEMAS" : "VENTAS");
+                empleadoService.actualizar(empleado);
+            }
+            case ESTADO -> legajoService.cambiarEstado(idsLegajo[i], azar.nextInt(10) == 0 ? Estado.INACTIVO : Estado.ACTIVO);
+            case ELIMINAR -> {
+                Long id = insertados.poll();
+                if (id == null) {
+                    insertar();
+                } else {
+                    empleadoService.eliminar(id);
+                }
+            }
+        }
+    }
+
+    private void insertar() throws Exception {
+        Empleado empleado = new Empleado(0L, "CARGA", "OPERADOR", String.valueOf(siguienteDni.getAndIncrement()));
+        empleado.setArea("CARGA");
+        empleadoService.insertar(empleado);
+        insertados.add(empleado.getId());
+    }
+
+    private void imprimirResumen(double segundos) {
+        System.out.println();
+        System.out.printf("Total: %d operaciones en %.1fs (%.1f ops/s), %d errores%n",
+                completadas.sum(), segundos, completadas.sum() / segundos, fallidas.sum());
+        System.out.printf("Conexiones pedidas: %d, espera total: %.1f ms%n",
+                DataBaseConnection.getConexionesEntregadas(), DataBaseConnection.getNanosEsperaConexion() / 1_000_000.0);
+        System.out.println();
+        System.out.println("operación        total    errores     ops/s   media(ms)   p50(ms)   p90(ms)   p99(ms)  p99.9(ms)   max(ms)");
+        for (Operacion op : Operacion.values()) {
+            HistogramaLatencia h = latencias.get(op);
+            if (h.getTotal() == 0) {
+                continue;
+            }
+            System.out.printf("%-12s %9d %10d %9.1f %11.2f %9.2f %9.2f %9.2f %10.2f %9.2f%n",
+                    op.clave, h.getTotal(), errores.get(op).sum(), h.getTotal() / segundos,
+                    h.getMediaMicros() / 1_000.0,
+                    h.percentilMicros(50) / 1_000.0, h.percentilMicros(90) / 1_000.0,
+                    h.percentilMicros(99) / 1_000.0, h.percentilMicros(99.9) / 1_000.0,
+                    h.getMaximoMicros() / 1_000.0);
+        }
+    }
+
+    private static Map<Operacion, Integer> parsearMezcla(String mezcla) {
+        Map<Operacion, Integer> pesos = new EnumMap<>(Operacion.class);
+        for (String par : mezcla.split(",")) {
+            String[] partes = par.split("=");
+            pesos.put(Operacion.desdeClave(partes[0].trim()), Integer.parseInt(partes[1].trim()));
+        }
+        return pesos;
+    }
+}
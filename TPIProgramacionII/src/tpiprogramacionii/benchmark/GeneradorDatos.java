@@ -0,0 +1,374 @@
+package tpiprogramacionii.benchmark;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import tpiprogramacionii.dao.CompresionObservaciones;
+import tpiprogramacionii.entities.Empleado;
+import tpiprogramacionii.entities.Estado;
+import tpiprogramacionii.entities.Legajo;
+import tpiprogramacionii.utils.DataBaseConnection;
+import tpiprogramacionii.utils.Fragmentos;
+import tpiprogramacionii.utils.InicializadorEsquema;
+
+/**
+ * Generador determinístico de empleados y legajos sintéticos.
+ * La fila i depende solo de la semilla y de i, así que el resultado es el mismo
+ * sin importar cuántos hilos carguen ni en qué orden.
+ *
+ * Características de los datos:
+ * - DNI únicos de 7 u 8 dígitos (permutación del índice, hasta 89 millones de filas) y emails únicos
+ * - área y categoría con distribución sesgada (pocas áreas concentran la mayoría)
+ * - 85% de legajos ACTIVO, 5% de filas con baja lógica
+ * - 10% de legajos con observaciones largas (1 a 4 KB)
+ * Con varios fragmentos (db.shards) cada empleado y su legajo se cargan en el fragmento de su DNI.
+ *
+ * Argumentos del main (todos opcionales):
+ * -filas n         cantidad de empleados a generar (por defecto 1000000)
+ * -desde n         índice de la primera fila, para cargas incrementales (por defecto, los empleados existentes)
+ * -semilla n       semilla (por defecto 42)
+ * -hilos n         conexiones que cargan en paralelo (por defecto, procesadores disponibles)
+ * -lote n          filas por lote/transacción (por defecto 5000)
+ */
+public class GeneradorDatos {
+
+    private static final String INSERT_LEGAJO = "INSERT INTO legajo (nro_legajo, categoria, estado, fecha_alta, observaciones, eliminado) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_EMPLEADO = "INSERT INTO empleado (nombre, apellido, dni, email, fecha_ingreso, area, legajo_id, eliminado) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String COUNT_EMPLEADOS = "SELECT COUNT(*) FROM empleado";
+
+    // DNI = DNI_MIN + (i * DNI_MULTIPLICADOR) mod DNI_RANGO: biyección porque el multiplicador es coprimo con el rango.
+    // El rango 90.000.000-99.999.999 queda libre para los DNI que insertan los benchmarks y el generador de carga.
+    private static final long DNI_MIN = 1_000_000L;
+    private static final long DNI_RANGO = 89_000_000L;
+    private static final long DNI_MULTIPLICADOR = 48_271L;
+
+    private static final String[] NOMBRES = {
+        "MARIA", "JUAN", "ANA", "CARLOS", "LUCIA", "JOSE", "SOFIA", "MARTIN", "VALENTINA", "DIEGO",
+        "CAMILA", "PABLO", "FLORENCIA", "JAVIER", "MARTINA", "LUCAS", "AGUSTINA", "NICOLAS", "JULIETA", "MATIAS",
+        "ROCIO", "FEDERICO", "MILAGROS", "GONZALO", "PAULA", "SEBASTIAN", "CAROLINA", "FACUNDO", "MARIANELA", "TOMAS"
+    };
+    private static final String[] APELLIDOS = {
+        "GONZALEZ", "RODRIGUEZ", "GOMEZ", "FERNANDEZ", "LOPEZ", "DIAZ", "MARTINEZ", "PEREZ", "GARCIA", "SANCHEZ",
+        "ROMERO", "SOSA", "ALVAREZ", "TORRES", "RUIZ", "RAMIREZ", "FLORES", "BENITEZ", "ACOSTA", "MEDINA",
+        "HERRERA", "SUAREZ", "AGUIRRE", "GIMENEZ", "GUTIERREZ", "PEREYRA", "ROJAS", "MOLINA", "CASTRO", "ORTIZ",
+        "ALBRIGI", "BOHORQUEZ", "BONANNO", "NOWELL", "SILVA", "NUÑEZ", "LUNA", "JUAREZ", "CABRERA", "RIOS"
+    };
+    // Ordenadas de mayor a menor peso: el área k tiene peso proporcional a 1/(k+1) (Zipf)
+    private static final String[] AREAS = {
+        "VENTAS", "OPERACIONES", "SISTEMAS", "ADMINISTRACION", "LOGISTICA", "ATENCION AL CLIENTE",
+        "RECURSOS HUMANOS", "MARKETING", "FINANZAS", "LEGALES", "COMPRAS", "CALIDAD", "AUDITORIA", "DIRECCION"
+    };
+    private static final String[] CATEGORIAS = {"JUNIOR", "SEMI SENIOR", "SENIOR", "LIDER", "GERENTE"};
+    private static final int[] PESOS_CATEGORIA = {50, 28, 15, 5, 2};
+    private static final String[] FRASES_OBSERVACIONES = {
+        "Evaluación de desempeño satisfactoria. ",
+        "Solicitó cambio de turno por motivos personales. ",
+        "Completó la capacitación obligatoria de seguridad e higiene. ",
+        "Licencia por enfermedad con certificado médico presentado en término. ",
+        "Se registró llegada tarde reiterada durante el mes. ",
+        "Participó del proyecto de migración de sistemas con muy buenos resultados. ",
+        "Actualizó datos de contacto y domicilio. ",
+        "Se acordó plan de carrera con revisión semestral. "
+    };
+    // Fechas de ingreso entre 1990-01-01 y 2025-12-31 (en días desde la época)
+    private static final long FECHA_MIN = java.time.LocalDate.of(1990, 1, 1).toEpochDay();
+    private static final long FECHA_RANGO = java.time.LocalDate.of(2025, 12, 31).toEpochDay() - FECHA_MIN;
+
+    private static final double[] ACUMULADO_AREAS = acumuladoZipf(AREAS.length);
+    private static final double[] ACUMULADO_CATEGORIAS = acumulado(PESOS_CATEGORIA);
+
+    private final long semilla;
+
+    public GeneradorDatos(long semilla) {
+        this.semilla = semilla;
+    }
+
+    public static void main(String[] args) throws Exception {
+        long filas = 1_000_000L;
+        long desde = -1;
+        long semilla = 42;
+        int hilos = Runtime.getRuntime().availableProcessors();
+        int lote = 5_000;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-filas" -> filas = Long.parseLong(args[++i]);
+                case "-desde" -> desde = Long.parseLong(args[++i]);
+                case "-semilla" -> semilla = Long.parseLong(args[++i]);
+                case "-hilos" -> hilos = Integer.parseInt(args[++i]);
+                case "-lote" -> lote = Integer.parseInt(args[++i]);
+                default -> throw new IllegalArgumentException("Argumento desconocido: " + args[i]);
+            }
+        }
+
+        InicializadorEsquema.crearTablas();
+        if (desde < 0) {
+            desde = contarEmpleados();
+        }
+
+        long inicio = System.nanoTime();
+        new GeneradorDatos(semilla).cargar(desde, filas, hilos, lote);
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+        System.out.printf("Cargados %d empleados con su legajo en %.1fs (%.0f filas/s)%n", filas, segundos, filas / segundos);
+    }
+
+    /**
+     * Genera el empleado de índice i, con su legajo asociado.
+     * @param indice índice global de la fila (determina DNI, email y el resto de los valores)
+     * @return empleado sin id (el id lo asigna la base)
+     */
+    public Empleado generarEmpleado(long indice) {
+        Azar azar = new Azar(semilla, indice);
+
+        String nombre = NOMBRES[azar.entero(NOMBRES.length)];
+        String apellido = APELLIDOS[azar.entero(APELLIDOS.length)];
+        Empleado empleado = new Empleado(null, nombre, apellido, dni(indice));
+        empleado.setEmail(nombre.toLowerCase() + "." + apellido.replace('Ñ', 'N').toLowerCase() + "." + indice + "@empresa.com.ar");
+        java.sql.Date fechaIngreso = java.sql.Date.valueOf(java.time.LocalDate.ofEpochDay(FECHA_MIN + azar.entero((int) FECHA_RANGO)));
+        empleado.setFechaIngreso(fechaIngreso);
+        empleado.setArea(AREAS[elegir(ACUMULADO_AREAS, azar.decimal())]);
+        boolean eliminado = azar.entero(100) < 5;
+        empleado.setEliminado(eliminado);
+
+        Legajo legajo = new Legajo(null, "GEN" + indice, CATEGORIAS[elegir(ACUMULADO_CATEGORIAS, azar.decimal())]);
+        legajo.setEstado(azar.entero(100) < 85 ? Estado.ACTIVO : Estado.INACTIVO);
+        legajo.setFechaAlta(fechaIngreso);
+        legajo.setEliminado(eliminado);
+        if (azar.entero(100) < 10) {
+            legajo.setObservaciones(observacionesLargas(azar));
+        }
+        empleado.setLegajo(legajo);
+        return empleado;
+    }
+
+    /**
+     * Carga en la base configurada los empleados [desde, desde + cantidad) en paralelo.
+     * Cada hilo usa su propia conexión (una por fragmento) y toma lotes de un contador compartido;
+     * cada lote se inserta con executeBatch en una transacción (por fragmento).
+     * @param desde índice de la primera fila
+     * @param cantidad cantidad de empleados
+     * @param hilos conexiones en paralelo
+     * @param tamanioLote filas por lote
+     * @throws Exception si falla algún lote
+     */
+    public void cargar(long desde, long cantidad, int hilos, int tamanioLote) throws Exception {
+        long hasta = desde + cantidad;
+        AtomicLong siguiente = new AtomicLong(desde);
+        AtomicLong cargadas = new AtomicLong();
+        long informarCada = Math.max(tamanioLote, cantidad / 20);
+
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+        try {
+            List<Future<Void>> tareas = new ArrayList<>();
+            for (int h = 0; h < hilos; h++) {
+                tareas.add(ejecutor.submit(() -> {
+                    Connection[] conexiones = new Connection[Fragmentos.cantidad()];
+                    try {
+                        for (int f = 0; f < conexiones.length; f++) {
+                            conexiones[f] = DataBaseConnection.getConnection(f);
+                            conexiones[f].setAutoCommit(false);
+                        }
+                        long inicioLote;
+                        while ((inicioLote = siguiente.getAndAdd(tamanioLote)) < hasta) {
+                            int filas = (int) Math.min(tamanioLote, hasta - inicioLote);
+                            cargarLote(conexiones, inicioLote, filas);
+                            long total = cargadas.addAndGet(filas);
+                            if (total / informarCada != (total - filas) / informarCada) {
+                                System.out.printf("  %d / %d%n", total, cantidad);
+                            }
+                        }
+                    } finally {
+                        for (Connection conex : conexiones) {
+                            if (conex != null) {
+                                conex.close();
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<Void> tarea : tareas) {
+                try {
+                    tarea.get();
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                }
+            }
+        } finally {
+            ejecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Genera un lote y lo reparte por fragmento (según el DNI); cada parte se inserta y confirma en el suyo.
+     */
+    private void cargarLote(Connection[] conexiones, long desde, int filas) throws SQLException {
+        List<Empleado> empleados = new ArrayList<>(filas);
+        for (int i = 0; i < filas; i++) {
+            empleados.add(generarEmpleado(desde + i));
+        }
+        for (Map.Entry<Integer, List<Empleado>> grupo : Fragmentos.agrupar(empleados, e -> Fragmentos.deClave(e.getDni())).entrySet()) {
+            Connection conex = conexiones[grupo.getKey()];
+            insertarLote(conex, grupo.getValue());
+            conex.commit();
+        }
+    }
+
+    /**
+     * Inserta un lote: primero los legajos (recuperando sus ids) y luego los empleados que los referencian.
+     */
+    private static void insertarLote(Connection conex, List<Empleado> empleados) throws SQLException {
+
+        try (PreparedStatement stmt = conex.prepareStatement(INSERT_LEGAJO, Statement.RETURN_GENERATED_KEYS)) {
+            for (Empleado empleado : empleados) {
+                Legajo legajo = empleado.getLegajo();
+                stmt.setString(1, legajo.getNroLegajo());
+                stmt.setString(2, legajo.getCategoria());
+                stmt.setString(3, legajo.getEstado().name());
+                stmt.setDate(4, (java.sql.Date) legajo.getFechaAlta());
+                if (legajo.getObservaciones() != null) {
+                    stmt.setString(5, CompresionObservaciones.paraGuardar(legajo.getObservaciones()));
+                } else {
+                    stmt.setNull(5, Types.VARCHAR);
+                }
+                stmt.setBoolean(6, legajo.isEliminado());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                for (Empleado empleado : empleados) {
+                    if (!keys.next()) {
+                        throw new SQLException("No se obtuvieron los ids de todos los legajos del lote");
+                    }
+                    empleado.getLegajo().setId(keys.getLong(1));
+                }
+            }
+        }
+
+        try (PreparedStatement stmt = conex.prepareStatement(INSERT_EMPLEADO)) {
+            for (Empleado empleado : empleados) {
+                stmt.setString(1, empleado.getNombre());
+                stmt.setString(2, empleado.getApellido());
+                stmt.setString(3, empleado.getDni());
+                stmt.setString(4, empleado.getEmail());
+                stmt.setDate(5, (java.sql.Date) empleado.getFechaIngreso());
+                stmt.setString(6, empleado.getArea());
+                stmt.setLong(7, empleado.getLegajo().getId());
+                stmt.setBoolean(8, empleado.isEliminado());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * @return cantidad de empleados (incluidos los eliminados) sumando todos los fragmentos
+     */
+    static long contarEmpleados() throws SQLException {
+        long total = 0;
+        for (long parcial : Fragmentos.enTodos(fragmento -> {
+            try (Connection conex = DataBaseConnection.getConnection(fragmento)) {
+                return contarEmpleados(conex);
+            }
+        })) {
+            total += parcial;
+        }
+        return total;
+    }
+
+    /**
+     * @return cantidad de empleados (incluidos los eliminados) en la base
+     */
+    static long contarEmpleados(Connection conex) throws SQLException {
+        try (Statement stmt = conex.createStatement();
+             ResultSet rs = stmt.executeQuery(COUNT_EMPLEADOS)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static String dni(long indice) {
+        return String.valueOf(DNI_MIN + Math.floorMod(indice * DNI_MULTIPLICADOR, DNI_RANGO));
+    }
+
+    private static String observacionesLargas(Azar azar) {
+        int largo = 1_024 + azar.entero(3 * 1_024);
+        StringBuilder sb = new StringBuilder(largo + 80);
+        while (sb.length() < largo) {
+            sb.append(FRASES_OBSERVACIONES[azar.entero(FRASES_OBSERVACIONES.length)]);
+        }
+        return sb.toString();
+    }
+
+    private static int elegir(double[] acumulado, double valor) {
+        for (int i = 0; i < acumulado.length - 1; i++) {
+            if (valor < acumulado[i]) {
+                return i;
+            }
+        }
+        return acumulado.length - 1;
+    }
+
+    private static double[] acumuladoZipf(int n) {
+        int[] pesos = new int[n];
+        for (int k = 0; k < n; k++) {
+            pesos[k] = 10_000 / (k + 1);
+        }
+        return acumulado(pesos);
+    }
+
+    private static double[] acumulado(int[] pesos) {
+        double total = 0;
+        for (int p : pesos) {
+            total += p;
+        }
+        double[] acumulado = new double[pesos.length];
+        double suma = 0;
+        for (int i = 0; i < pesos.length; i++) {
+            suma += pesos[i];
+            acumulado[i] = suma / total;
+        }
+        return acumulado;
+    }
+
+    /**
+     * Generador SplitMix64 inicializado a partir de (semilla, índice de fila).
+     */
+    private static final class Azar {
+        private long estado;
+
+        Azar(long semilla, long indice) {
+            this.estado = mezclar(semilla * 0x9E3779B97F4A7C15L + indice);
+        }
+
+        long siguiente() {
+            estado += 0x9E3779B97F4A7C15L;
+            return mezclar(estado);
+        }
+
+        int entero(int limite) {
+            return (int) Math.floorMod(siguiente(), (long) limite);
+        }
+
+        double decimal() {
+            return (siguiente() >>> 11) * 0x1.0p-53;
+        }
+
+        private static long mezclar(long z) {
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+    }
+}
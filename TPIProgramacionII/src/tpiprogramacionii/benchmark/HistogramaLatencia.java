@@ -0,0 +1,103 @@
+package tpiprogramacionii.benchmark;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias concurrente y de tamaño fijo.
+ * Usa cubetas logarítmicas (potencias de 2 en microsegundos) subdivididas en 16 partes,
+ * lo que da un error relativo menor al 7% en los percentiles sin guardar cada muestra.
+ * Pueden registrar muestras varios hilos a la vez sin bloqueos.
+ */
+public class HistogramaLatencia {
+
+    private static final int SUBCUBETAS_BITS = 4;
+    private static final int SUBCUBETAS = 1 << SUBCUBETAS_BITS;
+    // 40 potencias de 2 en microsegundos alcanzan para cualquier latencia razonable
+    private static final int CUBETAS = 40 * SUBCUBETAS;
+
+    private final AtomicLongArray conteos = new AtomicLongArray(CUBETAS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sumaMicros = new LongAdder();
+    private volatile long maximoMicros;
+
+    /**
+     * Registra una latencia.
+     * @param nanos duración en nanosegundos
+     */
+    public void registrar(long nanos) {
+        long micros = Math.max(0, nanos / 1_000);
+        conteos.incrementAndGet(indice(micros));
+        total.increment();
+        sumaMicros.add(micros);
+        if (micros > maximoMicros) {
+            synchronized (this) {
+                if (micros > maximoMicros) {
+                    maximoMicros = micros;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return cantidad de muestras registradas
+     */
+    public long getTotal() {
+        return total.sum();
+    }
+
+    /**
+     * @return latencia media en microsegundos
+     */
+    public double getMediaMicros() {
+        long n = total.sum();
+        return n == 0 ? 0 : (double) sumaMicros.sum() / n;
+    }
+
+    /**
+     * @return latencia máxima en microsegundos
+     */
+    public long getMaximoMicros() {
+        return maximoMicros;
+    }
+
+    /**
+     * Calcula un percentil aproximado (límite superior de la cubeta que lo contiene).
+     * @param percentil valor entre 0 y 100
+     * @return latencia en microsegundos
+     */
+    public long percentilMicros(double percentil) {
+        long n = total.sum();
+        if (n == 0) {
+            return 0;
+        }
+        long objetivo = (long) Math.ceil(n * percentil / 100.0);
+        long acumulado = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            acumulado += conteos.get(i);
+            if (acumulado >= objetivo) {
+                return Math.min(limiteSuperior(i), maximoMicros);
+            }
+        }
+        return maximoMicros;
+    }
+
+    private static int indice(long micros) {
+        if (micros < SUBCUBETAS) {
+            return (int) micros;
+        }
+        int exponente = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = (int) (micros >>> (exponente - SUBCUBETAS_BITS)) & (SUBCUBETAS - 1);
+        int indice = (exponente - SUBCUBETAS_BITS + 1) * SUBCUBETAS + sub;
+        return Math.min(indice, CUBETAS - 1);
+    }
+
+    private static long limiteSuperior(int indice) {
+        if (indice < SUBCUBETAS) {
+            return indice;
+        }
+        int exponente = indice / SUBCUBETAS + SUBCUBETAS_BITS - 1;
+        int sub = indice % SUBCUBETAS;
+        return ((long) (SUBCUBETAS + sub + 1) << (exponente - SUBCUBETAS_BITS)) - 1;
+    }
+}
@@ -0,0 +1,329 @@
+package tpiprogramacionii.benchmark;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.Map;
+
+/**
+ * ResultSet en memoria con una única fila repetida, para medir los mapeos
+ * (mapResultSetToEmpleado / mapResultSetToLegajo / DAOGenerico.mapear) sin el costo de la base de datos.
+ * Los valores están en dos arreglos (nombres y valores de las columnas) y un getter busca la columna
+ * recorriendo los nombres, sin reflexión ni mapas, así lo medido es el mapeo y no el ResultSet. Implementa solo los getters por nombre de columna que usan los DAOs; el resto lanza
+ * SQLFeatureNotSupportedException.
+ */
+public final class ResultSetSimulado implements ResultSet {
+
+    private final String[] columnas;
+    private final Object[] valores;
+    private boolean ultimoNulo;
+
+    private ResultSetSimulado(String[] columnas, Object[] valores) {
+        this.columnas = columnas;
+        this.valores = valores;
+    }
+
+    /**
+     * Crea un ResultSet cuyos getters devuelven los valores de la fila indicada.
+     * @param fila valores por nombre de columna (los ausentes se tratan como NULL)
+     * @return ResultSet con esa fila
+     */
+    public static ResultSet crear(Map<String, Object> fila) {
+        String[] columnas = new String[fila.size()];
+        Object[] valores = new Object[fila.size()];
+        int i = 0;
+        for (Map.Entry<String, Object> columna : fila.entrySet()) {
+            columnas[i] = columna.getKey();
+            valores[i] = columna.getValue();
+            i++;
+        }
+        return new ResultSetSimulado(columnas, valores);
+    }
+
+    @Override
+    public int findColumn(String columna) throws SQLException {
+        for (int i = 0; i < columnas.length; i++) {
+            if (columnas[i].equals(columna)) {
+                return i + 1;
+            }
+        }
+        throw new SQLException("Columna inexistente: " + columna);
+    }
+
+    // Valor de la columna (null si no está en la fila) y registro para wasNull()
+    private Object valor(String columna) {
+        Object valor = null;
+        for (int i = 0; i < columnas.length; i++) {
+            if (columnas[i].equals(columna)) {
+                valor = valores[i];
+                break;
+            }
+        }
+        ultimoNulo = valor == null;
+        return valor;
+    }
+
+    private static SQLException noSoportada() {
+        return new SQLFeatureNotSupportedException("Operación no soportada por ResultSetSimulado");
+    }
+
+    //GETTERS USADOS POR LOS DAOS -------------------------------------------------------------------------------------
+
+    @Override
+    public void close() throws SQLException {
+        // Nada que liberar
+    }
+
+    @Override
+    public boolean getBoolean(String columna) throws SQLException {
+        Object valor = valor(columna);
+        return valor != null && (Boolean) valor;
+    }
+
+    @Override
+    public Date getDate(String columna) throws SQLException {
+        return (Date) valor(columna);
+    }
+
+    @Override
+    public int getInt(String columna) throws SQLException {
+        Object valor = valor(columna);
+        return valor == null ? 0 : ((Number) valor).intValue();
+    }
+
+    @Override
+    public long getLong(String columna) throws SQLException {
+        Object valor = valor(columna);
+        return valor == null ? 0L : ((Number) valor).longValue();
+    }
+
+    @Override
+    public Object getObject(String columna) throws SQLException {
+        return valor(columna);
+    }
+
+    @Override
+    public String getString(String columna) throws SQLException {
+        return (String) valor(columna);
+    }
+
+    @Override
+    public Timestamp getTimestamp(String columna) throws SQLException {
+        return (Timestamp) valor(columna);
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean next() throws SQLException {
+        return true;
+    }
+
+    @Override
+    public boolean wasNull() throws SQLException {
+        return ultimoNulo;
+    }
+
+    //NO SOPORTADAS ---------------------------------------------------------------------------------------------------
+
+    @Override public boolean absolute(int p0) throws SQLException { throw noSoportada(); }
+    @Override public void afterLast() throws SQLException { throw noSoportada(); }
+    @Override public void beforeFirst() throws SQLException { throw noSoportada(); }
+    @Override public void cancelRowUpdates() throws SQLException { throw noSoportada(); }
+    @Override public void clearWarnings() throws SQLException { throw noSoportada(); }
+    @Override public void deleteRow() throws SQLException { throw noSoportada(); }
+    @Override public boolean first() throws SQLException { throw noSoportada(); }
+    @Override public Array getArray(String p0) throws SQLException { throw noSoportada(); }
+    @Override public Array getArray(int p0) throws SQLException { throw noSoportada(); }
+    @Override public InputStream getAsciiStream(String p0) throws SQLException { throw noSoportada(); }
+    @Override public InputStream getAsciiStream(int p0) throws SQLException { throw noSoportada(); }
+    @Deprecated @Override public BigDecimal getBigDecimal(String p0, int p1) throws SQLException { throw noSoportada(); }
+    @Override public BigDecimal getBigDecimal(String p0) throws SQLException { throw noSoportada(); }
+    @Deprecated @Override public BigDecimal getBigDecimal(int p0, int p1) throws SQLException { throw noSoportada(); }
+    @Override public BigDecimal getBigDecimal(int p0) throws SQLException { throw noSoportada(); }
+    @Override public InputStream getBinaryStream(String p0) throws SQLException { throw noSoportada(); }
+    @Override public InputStream getBinaryStream(int p0) throws SQLException { throw noSoportada(); }
+    @Override public Blob getBlob(String p0) throws SQLException { throw noSoportada(); }
+    @Override public Blob getBlob(int p0) throws SQLException { throw noSoportada(); }
+    @Override public boolean getBoolean(int p0) throws SQLException { throw noSoportada(); }
+    @Override public byte getByte(String p0) throws SQLException { throw noSoportada(); }
+    @Override public byte getByte(int p0) throws SQLException { throw noSoportada(); }
+    @Override public byte[] getBytes(String p0) throws SQLException { throw noSoportada(); }
+    @Override public byte[] getBytes(int p0) throws SQLException { throw noSoportada(); }
+    @Override public Reader getCharacterStream(String p0) throws SQLException { throw noSoportada(); }
+    @Override public Reader getCharacterStream(int p0) throws SQLException { throw noSoportada(); }
+    @Override public Clob getClob(String p0) throws SQLException { throw noSoportada(); }
+    @Override public Clob getClob(int p0) throws SQLException { throw noSoportada(); }
+    @Override public int getConcurrency() throws SQLException { throw noSoportada(); }
+    @Override public String getCursorName() throws SQLException { throw noSoportada(); }
+    @Override public Date getDate(String p0, Calendar p1) throws SQLException { throw noSoportada(); }
+    @Override public Date getDate(int p0, Calendar p1) throws SQLException { throw noSoportada(); }
+    @Override public Date getDate(int p0) throws SQLException { throw noSoportada(); }
+    @Override public double getDouble(String p0) throws SQLException { throw noSoportada(); }
+    @Override public double getDouble(int p0) throws SQLException { throw noSoportada(); }
+    @Override public int getFetchDirection() throws SQLException { throw noSoportada(); }
+    @Override public int getFetchSize() throws SQLException { throw noSoportada(); }
+    @Override public float getFloat(String p0) throws SQLException { throw noSoportada(); }
+    @Override public float getFloat(int p0) throws SQLException { throw noSoportada(); }
+    @Override public int getHoldability() throws SQLException { throw noSoportada(); }
+    @Override public int getInt(int p0) throws SQLException { throw noSoportada(); }
+    @Override public long getLong(int p0) throws SQLException { throw noSoportada(); }
+    @Override public ResultSetMetaData getMetaData() throws SQLException { throw noSoportada(); }
+    @Override public Reader getNCharacterStream(String p0) throws SQLException { throw noSoportada(); }
+    @Override public Reader getNCharacterStream(int p0) throws SQLException { throw noSoportada(); }
+    @Override public NClob getNClob(String p0) throws SQLException { throw noSoportada(); }
+    @Override public NClob getNClob(int p0) throws SQLException { throw noSoportada(); }
+    @Override public String getNString(String p0) throws SQLException { throw noSoportada(); }
+    @Override public String getNString(int p0) throws SQLException { throw noSoportada(); }
+    @Override public <T> T getObject(String p0, Class<T> p1) throws SQLException { throw noSoportada(); }
+    @Override public Object getObject(String p0, Map<String, Class<?>> p1) throws SQLException { throw noSoportada(); }
+    @Override public <T> T getObject(int p0, Class<T> p1) throws SQLException { throw noSoportada(); }
+    @Override public Object getObject(int p0, Map<String, Class<?>> p1) throws SQLException { throw noSoportada(); }
+    @Override public Object getObject(int p0) throws SQLException { throw noSoportada(); }
+    @Override public Ref getRef(String p0) throws SQLException { throw noSoportada(); }
+    @Override public Ref getRef(int p0) throws SQLException { throw noSoportada(); }
+    @Override public int getRow() throws SQLException { throw noSoportada(); }
+    @Override public RowId getRowId(String p0) throws SQLException { throw noSoportada(); }
+    @Override public RowId getRowId(int p0) throws SQLException { throw noSoportada(); }
+    @Override public SQLXML getSQLXML(String p0) throws SQLException { throw noSoportada(); }
+    @Override public SQLXML getSQLXML(int p0) throws SQLException { throw noSoportada(); }
+    @Override public short getShort(String p0) throws SQLException { throw noSoportada(); }
+    @Override public short getShort(int p0) throws SQLException { throw noSoportada(); }
+    @Override public Statement getStatement() throws SQLException { throw noSoportada(); }
+    @Override public String getString(int p0) throws SQLException { throw noSoportada(); }
+    @Override public Time getTime(String p0, Calendar p1) throws SQLException { throw noSoportada(); }
+    @Override public Time getTime(String p0) throws SQLException { throw noSoportada(); }
+    @Override public Time getTime(int p0, Calendar p1) throws SQLException { throw noSoportada(); }
+    @Override public Time getTime(int p0) throws SQLException { throw noSoportada(); }
+    @Override public Timestamp getTimestamp(String p0, Calendar p1) throws SQLException { throw noSoportada(); }
+    @Override public Timestamp getTimestamp(int p0, Calendar p1) throws SQLException { throw noSoportada(); }
+    @Override public Timestamp getTimestamp(int p0) throws SQLException { throw noSoportada(); }
+    @Override public int getType() throws SQLException { throw noSoportada(); }
+    @Override public URL getURL(String p0) throws SQLException { throw noSoportada(); }
+    @Override public URL getURL(int p0) throws SQLException { throw noSoportada(); }
+    @Deprecated @Override public InputStream getUnicodeStream(String p0) throws SQLException { throw noSoportada(); }
+    @Deprecated @Override public InputStream getUnicodeStream(int p0) throws SQLException { throw noSoportada(); }
+    @Override public SQLWarning getWarnings() throws SQLException { throw noSoportada(); }
+    @Override public void insertRow() throws SQLException { throw noSoportada(); }
+    @Override public boolean isAfterLast() throws SQLException { throw noSoportada(); }
+    @Override public boolean isBeforeFirst() throws SQLException { throw noSoportada(); }
+    @Override public boolean isFirst() throws SQLException { throw noSoportada(); }
+    @Override public boolean isLast() throws SQLException { throw noSoportada(); }
+    @Override public boolean isWrapperFor(Class<?> p0) throws SQLException { throw noSoportada(); }
+    @Override public boolean last() throws SQLException { throw noSoportada(); }
+    @Override public void moveToCurrentRow() throws SQLException { throw noSoportada(); }
+    @Override public void moveToInsertRow() throws SQLException { throw noSoportada(); }
+    @Override public boolean previous() throws SQLException { throw noSoportada(); }
+    @Override public void refreshRow() throws SQLException { throw noSoportada(); }
+    @Override public boolean relative(int p0) throws SQLException { throw noSoportada(); }
+    @Override public boolean rowDeleted() throws SQLException { throw noSoportada(); }
+    @Override public boolean rowInserted() throws SQLException { throw noSoportada(); }
+    @Override public boolean rowUpdated() throws SQLException { throw noSoportada(); }
+    @Override public void setFetchDirection(int p0) throws SQLException { throw noSoportada(); }
+    @Override public void setFetchSize(int p0) throws SQLException { throw noSoportada(); }
+    @Override public <T> T unwrap(Class<T> p0) throws SQLException { throw noSoportada(); }
+    @Override public void updateArray(String p0, Array p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateArray(int p0, Array p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateAsciiStream(String p0, InputStream p1, int p2) throws SQLException { throw noSoportada(); }
+    @Override public void updateAsciiStream(String p0, InputStream p1, long p2) throws SQLException { throw noSoportada(); }
+    @Override public void updateAsciiStream(String p0, InputStream p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateAsciiStream(int p0, InputStream p1, int p2) throws SQLException { throw noSoportada(); }
+    @Override public void updateAsciiStream(int p0, InputStream p1, long p2) throws SQLException { throw noSoportada(); }
+    @Override public void updateAsciiStream(int p0, InputStream p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateBigDecimal(String p0, BigDecimal p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateBigDecimal(int p0, BigDecimal p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateBinaryStream(String p0, InputStream p1, int p2) throws SQLException { throw noSoportada(); }
+    @Override public void updateBinaryStream(String p0, InputStream p1, long p2) throws SQLException { throw noSoportada(); }
+    @Override public void updateBinaryStream(String p0, InputStream p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateBinaryStream(int p0, InputStream p1, int p2) throws SQLException { throw noSoportada(); }
+    @Override public void updateBinaryStream(int p0, InputStream p1, long p2) throws SQLException { throw noSoportada(); }
+    @Override public void updateBinaryStream(int p0, InputStream p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateBlob(String p0, InputStream p1, long p2) throws SQLException { throw noSoportada(); }
+    @Override public void updateBlob(String p0, InputStream p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateBlob(String p0, Blob p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateBlob(int p0, InputStream p1, long p2) throws SQLException { throw noSoportada(); }
+    @Override public void updateBlob(int p0, InputStream p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateBlob(int p0, Blob p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateBoolean(String p0, boolean p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateBoolean(int p0, boolean p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateByte(String p0, byte p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateByte(int p0, byte p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateBytes(String p0, byte[] p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateBytes(int p0, byte[] p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateCharacterStream(String p0, Reader p1, int p2) throws SQLException { throw noSoportada(); }
+    @Override public void updateCharacterStream(String p0, Reader p1, long p2) throws SQLException { throw noSoportada(); }
+    @Override public void updateCharacterStream(String p0, Reader p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateCharacterStream(int p0, Reader p1, int p2) throws SQLException { throw noSoportada(); }
+    @Override public void updateCharacterStream(int p0, Reader p1, long p2) throws SQLException { throw noSoportada(); }
+    @Override public void updateCharacterStream(int p0, Reader p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateClob(String p0, Reader p1, long p2) throws SQLException { throw noSoportada(); }
+    @Override public void updateClob(String p0, Reader p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateClob(String p0, Clob p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateClob(int p0, Reader p1, long p2) throws SQLException { throw noSoportada(); }
+    @Override public void updateClob(int p0, Reader p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateClob(int p0, Clob p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateDate(String p0, Date p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateDate(int p0, Date p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateDouble(String p0, double p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateDouble(int p0, double p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateFloat(String p0, float p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateFloat(int p0, float p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateInt(String p0, int p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateInt(int p0, int p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateLong(String p0, long p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateLong(int p0, long p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateNCharacterStream(String p0, Reader p1, long p2) throws SQLException { throw noSoportada(); }
+    @Override public void updateNCharacterStream(String p0, Reader p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateNCharacterStream(int p0, Reader p1, long p2) throws SQLException { throw noSoportada(); }
+    @Override public void updateNCharacterStream(int p0, Reader p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateNClob(String p0, Reader p1, long p2) throws SQLException { throw noSoportada(); }
+    @Override public void updateNClob(String p0, Reader p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateNClob(String p0, NClob p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateNClob(int p0, Reader p1, long p2) throws SQLException { throw noSoportada(); }
+    @Override public void updateNClob(int p0, Reader p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateNClob(int p0, NClob p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateNString(String p0, String p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateNString(int p0, String p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateNull(String p0) throws SQLException { throw noSoportada(); }
+    @Override public void updateNull(int p0) throws SQLException { throw noSoportada(); }
+    @Override public void updateObject(String p0, Object p1, int p2) throws SQLException { throw noSoportada(); }
+    @Override public void updateObject(String p0, Object p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateObject(int p0, Object p1, int p2) throws SQLException { throw noSoportada(); }
+    @Override public void updateObject(int p0, Object p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateRef(String p0, Ref p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateRef(int p0, Ref p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateRow() throws SQLException { throw noSoportada(); }
+    @Override public void updateRowId(String p0, RowId p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateRowId(int p0, RowId p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateSQLXML(String p0, SQLXML p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateSQLXML(int p0, SQLXML p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateShort(String p0, short p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateShort(int p0, short p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateString(String p0, String p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateString(int p0, String p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateTime(String p0, Time p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateTime(int p0, Time p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateTimestamp(String p0, Timestamp p1) throws SQLException { throw noSoportada(); }
+    @Override public void updateTimestamp(int p0, Timestamp p1) throws SQLException { throw noSoportada(); }
+}
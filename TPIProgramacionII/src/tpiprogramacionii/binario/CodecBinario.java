@@ -0,0 +1,588 @@
+package tpiprogramacionii.binario;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Date;
+import tpiprogramacionii.entities.Empleado;
+import tpiprogramacionii.entities.Estado;
+import tpiprogramacionii.entities.Legajo;
+
+/**
+ * Codificación binaria compacta de Empleado y Legajo para cachés, instantáneas y enlaces entre procesos.
+ * Escribe y lee directamente sobre un ByteBuffer, sin armar arreglos ni textos intermedios al codificar.
+ *
+ * Formato (versión 1), en el orden en que se escribe:
+ * - un byte con la versión;
+ * - una máscara (varint) con los campos presentes: los null no ocupan lugar;
+ * - los campos presentes: IDs como varint sin signo, fechas como varint zigzag de días desde 1970-01-01,
+ *   textos como largo en bytes (varint) seguido del UTF-8, área y categoría como referencia al diccionario
+ *   (posición + 1, o 0 seguido del texto si no está), el estado como código de un byte;
+ * - en un empleado, su legajo a continuación con su propia máscara (0 si no tiene legajo).
+ *
+ * Los diccionarios son parte del esquema: el que lee tiene que usar los mismos que el que escribió.
+ * escribirEsquema/leerEsquema los transportan (una vez por archivo o por conexión, no por registro).
+ * Un legajo de carga perezosa se carga al codificarlo (se leen sus getters).
+ */
+public final class CodecBinario {
+
+    /** Versión del formato; se escribe al principio de cada registro. */
+    public static final byte VERSION = 1;
+
+    // Máscara de campos del empleado
+    private static final int E_ID = 1;
+    private static final int E_NOMBRE = 1 << 1;
+    private static final int E_APELLIDO = 1 << 2;
+    private static final int E_DNI = 1 << 3;
+    private static final int E_EMAIL = 1 << 4;
+    private static final int E_FECHA_INGRESO = 1 << 5;
+    private static final int E_AREA = 1 << 6;
+    private static final int E_ELIMINADO = 1 << 7;
+
+    // Máscara de campos del legajo (0 = sin legajo, por eso PRESENTE)
+    private static final int L_PRESENTE = 1;
+    private static final int L_ID = 1 << 1;
+    private static final int L_NRO_LEGAJO = 1 << 2;
+    private static final int L_CATEGORIA = 1 << 3;
+    private static final int L_ESTADO = 1 << 4;
+    private static final int L_FECHA_ALTA = 1 << 5;
+    private static final int L_OBSERVACIONES = 1 << 6;
+    private static final int L_ELIMINADO = 1 << 7;
+
+    private final Diccionario areas;
+    private final Diccionario categorias;
+
+    /**
+     * Codec sin diccionarios: área y categoría se escriben como texto.
+     */
+    public CodecBinario() {
+        this(Diccionario.VACIO, Diccionario.VACIO);
+    }
+
+    /**
+     * @param areas diccionario de áreas de los empleados
+     * @param categorias diccionario de categorías de los legajos
+     */
+    public CodecBinario(Diccionario areas, Diccionario categorias) {
+        if (areas == null || categorias == null) {
+            throw new IllegalArgumentException("Los diccionarios no pueden ser null (usar Diccionario.VACIO)");
+        }
+        this.areas = areas;
+        this.categorias = categorias;
+    }
+
+    //ESQUEMA ------------------------------------------------------------------------------------------------------
+
+    /**
+     * Escribe la versión y los diccionarios, para que el que lea arme el mismo codec con leerEsquema.
+     */
+    public void escribirEsquema(ByteBuffer out) {
+        out.put(VERSION);
+        areas.escribir(out);
+        categorias.escribir(out);
+    }
+
+    /**
+     * Lee un esquema escrito con escribirEsquema.
+     * @throws IllegalArgumentException si la versión no es soportada
+     */
+    public static CodecBinario leerEsquema(ByteBuffer in) {
+        verificarVersion(in);
+        Diccionario areas = Diccionario.leer(in);
+        Diccionario categorias = Diccionario.leer(in);
+        return new CodecBinario(areas, categorias);
+    }
+
+    /**
+     * @return bytes que ocupa escribirEsquema
+     */
+    public int tamanioEsquema() {
+        return 1 + areas.tamanioCodificado() + categorias.tamanioCodificado();
+    }
+
+    //EMPLEADO -----------------------------------------------------------------------------------------------------
+
+    /**
+     * Escribe el empleado con su legajo a partir de la posición actual del buffer.
+     * @throws java.nio.BufferOverflowException si no entra (ver tamanio); la posición queda en un punto intermedio
+     */
+    public void escribir(Empleado empleado, ByteBuffer out) {
+        if (empleado == null) {
+            throw new IllegalArgumentException("El empleado no puede ser null");
+        }
+        out.put(VERSION);
+        escribirVarint(mascara(empleado), out);
+        if (empleado.getId() != null) {
+            escribirVarint(empleado.getId(), out);
+        }
+        if (empleado.getNombre() != null) {
+            escribirTexto(empleado.getNombre(), out);
+        }
+        if (empleado.getApellido() != null) {
+            escribirTexto(empleado.getApellido(), out);
+        }
+        if (empleado.getDni() != null) {
+            escribirTexto(empleado.getDni(), out);
+        }
+        if (empleado.getEmail() != null) {
+            escribirTexto(empleado.getEmail(), out);
+        }
+        if (empleado.getFechaIngreso() != null) {
+            escribirFecha(empleado.getFechaIngreso(), out);
+        }
+        if (empleado.getArea() != null) {
+            escribirReferencia(areas, empleado.getArea(), out);
+        }
+        escribirCamposLegajo(empleado.getLegajo(), out);
+    }
+
+    /**
+     * Lee un empleado (con su legajo) escrito con escribir, desde la posición actual del buffer.
+     * @throws IllegalArgumentException si la versión no es soportada o los datos están truncados o corruptos
+     */
+    public Empleado leerEmpleado(ByteBuffer in) {
+        try {
+            verificarVersion(in);
+            int mascara = (int) leerVarint(in);
+            Empleado empleado = new Empleado();
+            if ((mascara & E_ID) != 0) {
+                empleado.setId(leerVarint(in));
+            }
+            if ((mascara & E_NOMBRE) != 0) {
+                empleado.setNombre(leerTexto(in));
+            }
+            if ((mascara & E_APELLIDO) != 0) {
+                empleado.setApellido(leerTexto(in));
+            }
+            if ((mascara & E_DNI) != 0) {
+                empleado.setDni(leerTexto(in));
+            }
+            if ((mascara & E_EMAIL) != 0) {
+                empleado.setEmail(leerTexto(in));
+            }
+            if ((mascara & E_FECHA_INGRESO) != 0) {
+                empleado.setFechaIngreso(leerFecha(in));
+            }
+            if ((mascara & E_AREA) != 0) {
+                empleado.setArea(leerReferencia(areas, in));
+            }
+            empleado.setEliminado((mascara & E_ELIMINADO) != 0);
+            empleado.setLegajo(leerCamposLegajo(in));
+            return empleado;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Empleado codificado truncado", e);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Fecha fuera de rango en el empleado codificado", e);
+        }
+    }
+
+    /**
+     * @return bytes exactos que ocupa el empleado codificado (para dimensionar el buffer)
+     */
+    public int tamanio(Empleado empleado) {
+        int bytes = 1 + tamanioVarint(mascara(empleado));
+        if (empleado.getId() != null) {
+            bytes += tamanioVarint(empleado.getId());
+        }
+        if (empleado.getNombre() != null) {
+            bytes += tamanioTexto(empleado.getNombre());
+        }
+        if (empleado.getApellido() != null) {
+            bytes += tamanioTexto(empleado.getApellido());
+        }
+        if (empleado.getDni() != null) {
+            bytes += tamanioTexto(empleado.getDni());
+        }
+        if (empleado.getEmail() != null) {
+            bytes += tamanioTexto(empleado.getEmail());
+        }
+        if (empleado.getFechaIngreso() != null) {
+            bytes += tamanioVarint(zigzag(diaEpoca(empleado.getFechaIngreso())));
+        }
+        if (empleado.getArea() != null) {
+            bytes += tamanioReferencia(areas, empleado.getArea());
+        }
+        return bytes + tamanioCamposLegajo(empleado.getLegajo());
+    }
+
+    //LEGAJO -------------------------------------------------------------------------------------------------------
+
+    /**
+     * Escribe un legajo suelto (con la versión al principio). Un legajo null se escribe y se lee como null.
+     * @throws java.nio.BufferOverflowException si no entra (ver tamanio)
+     */
+    public void escribir(Legajo legajo, ByteBuffer out) {
+        out.put(VERSION);
+        escribirCamposLegajo(legajo, out);
+    }
+
+    /**
+     * Lee un legajo escrito con escribir(Legajo, ByteBuffer).
+     * @throws IllegalArgumentException si la versión no es soportada o los datos están truncados o corruptos
+     */
+    public Legajo leerLegajo(ByteBuffer in) {
+        try {
+            verificarVersion(in);
+            return leerCamposLegajo(in);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Legajo codificado truncado", e);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Fecha fuera de rango en el legajo codificado", e);
+        }
+    }
+
+    /**
+     * @return bytes exactos que ocupa el legajo codificado suelto
+     */
+    public int tamanio(Legajo legajo) {
+        return 1 + tamanioCamposLegajo(legajo);
+    }
+
+    //ESTADO -------------------------------------------------------------------------------------------------------
+
+    /**
+     * Código estable del estado en el formato (no depende del orden de declaración del enum).
+     */
+    public static int codigo(Estado estado) {
+        return switch (estado) {
+            case ACTIVO -> 1;
+            case INACTIVO -> 2;
+        };
+    }
+
+    /**
+     * @throws IllegalArgumentException si el código no corresponde a ningún estado
+     */
+    public static Estado estado(int codigo) {
+        return switch (codigo) {
+            case 1 -> Estado.ACTIVO;
+            case 2 -> Estado.INACTIVO;
+            default -> throw new IllegalArgumentException("Código de estado desconocido: " + codigo);
+        };
+    }
+
+    //--------------------------------------------------------------------------------------------------------------
+
+    private void escribirCamposLegajo(Legajo legajo, ByteBuffer out) {
+        int mascara = mascara(legajo);
+        escribirVarint(mascara, out);
+        if (legajo == null) {
+            return;
+        }
+        if ((mascara & L_ID) != 0) {
+            escribirVarint(legajo.getId(), out);
+        }
+        if ((mascara & L_NRO_LEGAJO) != 0) {
+            escribirTexto(legajo.getNroLegajo(), out);
+        }
+        if ((mascara & L_CATEGORIA) != 0) {
+            escribirReferencia(categorias, legajo.getCategoria(), out);
+        }
+        if ((mascara & L_ESTADO) != 0) {
+            out.put((byte) codigo(legajo.getEstado()));
+        }
+        if ((mascara & L_FECHA_ALTA) != 0) {
+            escribirFecha(legajo.getFechaAlta(), out);
+        }
+        if ((mascara & L_OBSERVACIONES) != 0) {
+            escribirTexto(legajo.getObservaciones(), out);
+        }
+    }
+
+    private Legajo leerCamposLegajo(ByteBuffer in) {
+        int mascara = (int) leerVarint(in);
+        if (mascara == 0) {
+            return null;
+        }
+        Legajo legajo = new Legajo();
+        if ((mascara & L_ID) != 0) {
+            legajo.setId(leerVarint(in));
+        }
+        if ((mascara & L_NRO_LEGAJO) != 0) {
+            legajo.setNroLegajo(leerTexto(in));
+        }
+        if ((mascara & L_CATEGORIA) != 0) {
+            legajo.setCategoria(leerReferencia(categorias, in));
+        }
+        if ((mascara & L_ESTADO) != 0) {
+            legajo.setEstado(estado(in.get()));
+        }
+        if ((mascara & L_FECHA_ALTA) != 0) {
+            legajo.setFechaAlta(leerFecha(in));
+        }
+        if ((mascara & L_OBSERVACIONES) != 0) {
+            legajo.setObservaciones(leerTexto(in));
+        }
+        legajo.setEliminado((mascara & L_ELIMINADO) != 0);
+        return legajo;
+    }
+
+    private int tamanioCamposLegajo(Legajo legajo) {
+        int mascara = mascara(legajo);
+        int bytes = tamanioVarint(mascara);
+        if (legajo == null) {
+            return bytes;
+        }
+        if ((mascara & L_ID) != 0) {
+            bytes += tamanioVarint(legajo.getId());
+        }
+        if ((mascara & L_NRO_LEGAJO) != 0) {
+            bytes += tamanioTexto(legajo.getNroLegajo());
+        }
+        if ((mascara & L_CATEGORIA) != 0) {
+            bytes += tamanioReferencia(categorias, legajo.getCategoria());
+        }
+        if ((mascara & L_ESTADO) != 0) {
+            bytes++;
+        }
+        if ((mascara & L_FECHA_ALTA) != 0) {
+            bytes += tamanioVarint(zigzag(diaEpoca(legajo.getFechaAlta())));
+        }
+        if ((mascara & L_OBSERVACIONES) != 0) {
+            bytes += tamanioTexto(legajo.getObservaciones());
+        }
+        return bytes;
+    }
+
+    private static int mascara(Empleado e) {
+        int mascara = 0;
+        mascara |= e.getId() != null ? E_ID : 0;
+        mascara |= e.getNombre() != null ? E_NOMBRE : 0;
+        mascara |= e.getApellido() != null ? E_APELLIDO : 0;
+        mascara |= e.getDni() != null ? E_DNI : 0;
+        mascara |= e.getEmail() != null ? E_EMAIL : 0;
+        mascara |= e.getFechaIngreso() != null ? E_FECHA_INGRESO : 0;
+        mascara |= e.getArea() != null ? E_AREA : 0;
+        mascara |= e.isEliminado() ? E_ELIMINADO : 0;
+        return mascara;
+    }
+
+    private static int mascara(Legajo l) {
+        if (l == null) {
+            return 0;
+        }
+        int mascara = L_PRESENTE;
+        mascara |= l.getId() != null ? L_ID : 0;
+        mascara |= l.getNroLegajo() != null ? L_NRO_LEGAJO : 0;
+        mascara |= l.getCategoria() != null ? L_CATEGORIA : 0;
+        mascara |= l.getEstado() != null ? L_ESTADO : 0;
+        mascara |= l.getFechaAlta() != null ? L_FECHA_ALTA : 0;
+        mascara |= l.getObservaciones() != null ? L_OBSERVACIONES : 0;
+        mascara |= l.isEliminado() ? L_ELIMINADO : 0;
+        return mascara;
+    }
+
+    private static void verificarVersion(ByteBuffer in) {
+        byte version = in.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Versión de codificación no soportada: " + version);
+        }
+    }
+
+    //PRIMITIVAS (también las usa Diccionario) ---------------------------------------------------------------------
+
+    static void escribirVarint(long valor, ByteBuffer out) {
+        while ((valor & ~0x7FL) != 0) {
+            out.put((byte) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        out.put((byte) valor);
+    }
+
+    static long leerVarint(ByteBuffer in) {
+        long valor = 0;
+        for (int desplazamiento = 0; desplazamiento < 64; desplazamiento += 7) {
+            byte b = in.get();
+            valor |= (long) (b & 0x7F) << desplazamiento;
+            if (b >= 0) {
+                return valor;
+            }
+        }
+        throw new IllegalArgumentException("Varint de más de 10 bytes");
+    }
+
+    static int tamanioVarint(long valor) {
+        int bytes = 1;
+        while ((valor & ~0x7FL) != 0) {
+            bytes++;
+            valor >>>= 7;
+        }
+        return bytes;
+    }
+
+    // Los caracteres se codifican uno a uno sobre el buffer (sin getBytes); un sustituto suelto se escribe
+    // como '?', igual que String.getBytes(UTF_8). Con un buffer respaldado por un arreglo se escribe sobre el arreglo
+    static void escribirTexto(String texto, ByteBuffer out) {
+        int bytes = largoUtf8(texto);
+        escribirVarint(bytes, out);
+        if (out.remaining() < bytes) {
+            throw new BufferOverflowException();
+        }
+        if (out.hasArray()) {
+            int inicio = out.arrayOffset() + out.position();
+            int fin = utf8(texto, bytes, out.array(), inicio);
+            out.position(out.position() + (fin - inicio));
+            return;
+        }
+        int largo = texto.length();
+        if (bytes == largo) {
+            for (int i = 0; i < largo; i++) {
+                out.put((byte) texto.charAt(i));
+            }
+            return;
+        }
+        byte[] a = new byte[4];
+        for (int i = 0; i < largo; i++) {
+            char c = texto.charAt(i);
+            if (c < 0x80) {
+                out.put((byte) c);
+            } else {
+                int n = caracterUtf8(texto, i, a, 0);
+                out.put(a, 0, n);
+                if (n == 4) {
+                    i++;
+                }
+            }
+        }
+    }
+
+    // Escribe el texto completo en el arreglo desde pos; devuelve la posición siguiente
+    private static int utf8(String texto, int bytes, byte[] destino, int pos) {
+        int largo = texto.length();
+        if (bytes == largo) {
+            for (int i = 0; i < largo; i++) {
+                destino[pos++] = (byte) texto.charAt(i);
+            }
+            return pos;
+        }
+        for (int i = 0; i < largo; i++) {
+            char c = texto.charAt(i);
+            if (c < 0x80) {
+                destino[pos++] = (byte) c;
+            } else {
+                int n = caracterUtf8(texto, i, destino, pos);
+                pos += n;
+                if (n == 4) {
+                    i++;
+                }
+            }
+        }
+        return pos;
+    }
+
+    // Escribe el caracter no ASCII de la posición i (o el par sustituto que empieza ahí); devuelve los bytes escritos
+    private static int caracterUtf8(String texto, int i, byte[] destino, int pos) {
+        char c = texto.charAt(i);
+        if (c < 0x800) {
+            destino[pos] = (byte) (0xC0 | (c >> 6));
+            destino[pos + 1] = (byte) (0x80 | (c & 0x3F));
+            return 2;
+        }
+        if (Character.isSurrogate(c)) {
+            if (Character.isHighSurrogate(c) && i + 1 < texto.length() && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                int punto = Character.toCodePoint(c, texto.charAt(i + 1));
+                destino[pos] = (byte) (0xF0 | (punto >> 18));
+                destino[pos + 1] = (byte) (0x80 | ((punto >> 12) & 0x3F));
+                destino[pos + 2] = (byte) (0x80 | ((punto >> 6) & 0x3F));
+                destino[pos + 3] = (byte) (0x80 | (punto & 0x3F));
+                return 4;
+            }
+            destino[pos] = (byte) '?';
+            return 1;
+        }
+        destino[pos] = (byte) (0xE0 | (c >> 12));
+        destino[pos + 1] = (byte) (0x80 | ((c >> 6) & 0x3F));
+        destino[pos + 2] = (byte) (0x80 | (c & 0x3F));
+        return 3;
+    }
+
+    // Con un buffer respaldado por un arreglo el String se arma directamente desde él; un buffer directo se copia
+    static String leerTexto(ByteBuffer in) {
+        long bytes = leerVarint(in);
+        if (bytes > in.remaining()) {
+            throw new IllegalArgumentException("Texto truncado: " + bytes + " bytes, quedan " + in.remaining());
+        }
+        int largo = (int) bytes;
+        String texto;
+        if (in.hasArray()) {
+            texto = new String(in.array(), in.arrayOffset() + in.position(), largo, StandardCharsets.UTF_8);
+            in.position(in.position() + largo);
+        } else {
+            byte[] copia = new byte[largo];
+            in.get(copia);
+            texto = new String(copia, StandardCharsets.UTF_8);
+        }
+        return texto;
+    }
+
+    static int tamanioTexto(String texto) {
+        int bytes = largoUtf8(texto);
+        return tamanioVarint(bytes) + bytes;
+    }
+
+    private static int largoUtf8(String texto) {
+        int largo = texto.length();
+        int bytes = largo;
+        for (int i = 0; i < largo; i++) {
+            char c = texto.charAt(i);
+            if (c >= 0x80) {
+                if (c < 0x800) {
+                    bytes++;
+                } else if (Character.isHighSurrogate(c) && i + 1 < largo && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                    // Par sustituto: 2 chars, 4 bytes
+                    bytes += 2;
+                    i++;
+                } else if (!Character.isSurrogate(c)) {
+                    bytes += 2;
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private static void escribirReferencia(Diccionario diccionario, String valor, ByteBuffer out) {
+        int posicion = diccionario.posicion(valor);
+        escribirVarint(posicion + 1L, out);
+        if (posicion < 0) {
+            escribirTexto(valor, out);
+        }
+    }
+
+    private static String leerReferencia(Diccionario diccionario, ByteBuffer in) {
+        long referencia = leerVarint(in);
+        if (referencia == 0) {
+            return leerTexto(in);
+        }
+        if (referencia > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Referencia fuera del diccionario: " + referencia);
+        }
+        return diccionario.valor((int) referencia - 1);
+    }
+
+    private static int tamanioReferencia(Diccionario diccionario, String valor) {
+        int posicion = diccionario.posicion(valor);
+        return posicion < 0 ? 1 + tamanioTexto(valor) : tamanioVarint(posicion + 1L);
+    }
+
+    // Día calendario de la fecha en la zona local, el mismo que escribe EscritorJson
+    private static long diaEpoca(Date fecha) {
+        java.sql.Date dia = fecha instanceof java.sql.Date sql ? sql : new java.sql.Date(fecha.getTime());
+        return dia.toLocalDate().toEpochDay();
+    }
+
+    private static void escribirFecha(Date fecha, ByteBuffer out) {
+        escribirVarint(zigzag(diaEpoca(fecha)), out);
+    }
+
+    private static java.sql.Date leerFecha(ByteBuffer in) {
+        long zigzag = leerVarint(in);
+        return java.sql.Date.valueOf(LocalDate.ofEpochDay((zigzag >>> 1) ^ -(zigzag & 1)));
+    }
+
+    private static long zigzag(long valor) {
+        return (valor << 1) ^ (valor >> 63);
+    }
+}
@@ -0,0 +1,94 @@
+package tpiprogramacionii.binario;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Diccionario de valores repetidos (áreas, categorías) para CodecBinario: un valor que está en el diccionario
+ * se codifica con su posición (un byte para los primeros 127) en lugar del texto.
+ * Es inmutable; el que codifica y el que decodifica tienen que usar el mismo (ver CodecBinario.escribirEsquema).
+ */
+public final class Diccionario {
+
+    /** Diccionario sin valores: todo se codifica como texto. */
+    public static final Diccionario VACIO = new Diccionario(Collections.emptyList());
+
+    private final List<String> valores;
+    private final Map<String, Integer> posiciones;
+
+    /**
+     * @param valores valores del diccionario en orden (los repetidos y los null se ignoran)
+     */
+    public Diccionario(Collection<String> valores) {
+        LinkedHashSet<String> distintos = new LinkedHashSet<>(valores);
+        distintos.remove(null);
+        this.valores = List.copyOf(distintos);
+        this.posiciones = new HashMap<>(this.valores.size() * 2);
+        for (int i = 0; i < this.valores.size(); i++) {
+            posiciones.put(this.valores.get(i), i);
+        }
+    }
+
+    /**
+     * @return posición del valor, o -1 si no está
+     */
+    public int posicion(String valor) {
+        Integer posicion = posiciones.get(valor);
+        return posicion != null ? posicion : -1;
+    }
+
+    /**
+     * @throws IllegalArgumentException si la posición no existe (datos codificados con otro diccionario)
+     */
+    public String valor(int posicion) {
+        if (posicion < 0 || posicion >= valores.size()) {
+            throw new IllegalArgumentException("Referencia fuera del diccionario: " + posicion + " (tiene " + valores.size() + " valores)");
+        }
+        return valores.get(posicion);
+    }
+
+    public int tamanio() {
+        return valores.size();
+    }
+
+    /**
+     * Escribe la cantidad de valores y cada valor como texto.
+     * @throws java.nio.BufferOverflowException si no entra en el buffer
+     */
+    public void escribir(ByteBuffer out) {
+        CodecBinario.escribirVarint(valores.size(), out);
+        for (String valor : valores) {
+            CodecBinario.escribirTexto(valor, out);
+        }
+    }
+
+    /**
+     * Lee un diccionario escrito con escribir().
+     */
+    public static Diccionario leer(ByteBuffer in) {
+        long cantidad = CodecBinario.leerVarint(in);
+        // Cada valor ocupa al menos un byte (su largo)
+        if (cantidad > in.remaining()) {
+            throw new IllegalArgumentException("Diccionario truncado: " + cantidad + " valores en " + in.remaining() + " bytes");
+        }
+        List<String> valores = new ArrayList<>((int) cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            valores.add(CodecBinario.leerTexto(in));
+        }
+        return new Diccionario(valores);
+    }
+
+    int tamanioCodificado() {
+        int bytes = CodecBinario.tamanioVarint(valores.size());
+        for (String valor : valores) {
+            bytes += CodecBinario.tamanioTexto(valor);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,568 @@
+package tpiprogramacionii.busqueda;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import tpiprogramacionii.dao.EmpleadoDAO;
+import tpiprogramacionii.entities.Empleado;
+import tpiprogramacionii.service.ObservadorEmpleado;
+
+/**
+ * Índice en memoria para búsquedas tolerantes a errores de tipeo sobre nombre, apellido y área.
+ * Trabaja sobre el vocabulario (cada palabra distinta se guarda una sola vez) y no sobre los empleados:
+ * - cada palabra se indexa por sus trigramas con relleno ("  GOMEZ " -> "  G", " GO", "GOM", ...);
+ * - una consulta cuenta cuántos trigramas comparte con cada palabra y descarta las que no pueden
+ *   estar a la distancia permitida (por largo o porque comparten muy pocos trigramas);
+ * - las que más trigramas comparten se reordenan por distancia de edición acotada (Damerau-Levenshtein),
+ *   cortando el cálculo en cuanto se supera el máximo.
+ * Cada palabra tiene la lista de empleados que la usan, así que una vez corregidas las palabras
+ * de la consulta los empleados salen directamente de esas listas.
+ * Se arma recorriendo la tabla al iniciar y se actualiza con los avisos de EmpleadoService
+ * (altas, bajas y cambios de área). Es seguro para usar desde varios hilos.
+ */
+public class IndiceDifuso implements ObservadorEmpleado {
+
+    // Distancia máxima que se tolera en una palabra (ver distanciaPermitida)
+    public static final int DISTANCIA_MAXIMA = 2;
+    private static final int PAGINA_CARGA = 5000;
+    // Correcciones que se consideran por cada palabra de la consulta
+    private static final int CORRECCIONES_POR_PALABRA = 8;
+    // Candidatas (las que más trigramas comparten con la consulta) a las que se les calcula la distancia de edición
+    private static final int CANDIDATAS_REVISADAS = 64;
+
+    /**
+     * Palabra del vocabulario parecida a la buscada.
+     * @param palabra palabra encontrada (normalizada)
+     * @param distancia cantidad de ediciones respecto de la buscada
+     * @param empleados cantidad de empleados activos que la usan
+     */
+    public record Coincidencia(String palabra, int distancia, int empleados) {}
+
+    // id de palabra -> palabra. Las palabras no se borran del vocabulario: si nadie las usa se ignoran
+    private final List<Palabra> vocabulario = new ArrayList<>();
+    private final Map<String, Integer> idsPalabra = new HashMap<>();
+    // id de palabra -> largo, aparte para filtrar candidatas sin recorrer los objetos del vocabulario
+    private final ListaEnteros largos = new ListaEnteros();
+    // trigrama (3 chars empaquetados en un long) -> ids de palabra, en orden creciente
+    private final Map<Long, ListaEnteros> trigramas = new HashMap<>();
+    // id empleado -> [cantidad de palabras del nombre, ids de palabras del nombre..., ids de palabras del área...]
+    private final Map<Long, int[]> palabrasEmpleado = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Carga en el índice todos los empleados activos, leyendo la tabla por páginas.
+     * Conviene registrar el índice como observador de EmpleadoService antes de llamarlo.
+     * @param empleadoDAO DAO del que se leen nombres y áreas
+     * @return cantidad de empleados indexados
+     * @throws Exception si falla la lectura de alguna página
+     */
+    public long construir(EmpleadoDAO empleadoDAO) throws Exception {
+        long despuesDe = 0;
+        long cargados = 0;
+        List<Empleado> pagina;
+        do {
+            pagina = empleadoDAO.leerNombresPagina(despuesDe, PAGINA_CARGA);
+            for (Empleado empleado : pagina) {
+                agregar(empleado.getId(), empleado.getNombre(), empleado.getApellido(), empleado.getArea());
+            }
+            if (!pagina.isEmpty()) {
+                cargados += pagina.size();
+                despuesDe = pagina.get(pagina.size() - 1).getId();
+            }
+        } while (pagina.size() == PAGINA_CARGA);
+        return cargados;
+    }
+
+    @Override
+    public void empleadoInsertado(Empleado empleado) {
+        agregar(empleado.getId(), empleado.getNombre(), empleado.getApellido(), empleado.getArea());
+    }
+
+    @Override
+    public void empleadoEliminado(Long id) {
+        quitar(id);
+    }
+
+    @Override
+    public void areaActualizada(Long id, String area) {
+        cambiarArea(id, area);
+    }
+
+    /**
+     * Agrega (o reemplaza) un empleado en el índice.
+     */
+    public void agregar(long id, String nombre, String apellido, String area) {
+        String[] delNombre = palabras((apellido == null ? "" : apellido) + " " + (nombre == null ? "" : nombre));
+        String[] delArea = palabras(area);
+        lock.writeLock().lock();
+        try {
+            int[] nuevas = new int[1 + delNombre.length + delArea.length];
+            nuevas[0] = delNombre.length;
+            for (int i = 0; i < delNombre.length; i++) {
+                nuevas[1 + i] = idPalabra(delNombre[i]);
+            }
+            for (int i = 0; i < delArea.length; i++) {
+                nuevas[1 + delNombre.length + i] = idPalabra(delArea[i]);
+            }
+            reemplazar(id, palabrasEmpleado.get(id), nuevas);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Cambia el área de un empleado indexado (si no estaba, no hace nada).
+     */
+    public void cambiarArea(long id, String area) {
+        String[] delArea = palabras(area);
+        lock.writeLock().lock();
+        try {
+            int[] actuales = palabrasEmpleado.get(id);
+            if (actuales == null) {
+                return;
+            }
+            int[] nuevas = Arrays.copyOf(actuales, 1 + actuales[0] + delArea.length);
+            for (int i = 0; i < delArea.length; i++) {
+                nuevas[1 + actuales[0] + i] = idPalabra(delArea[i]);
+            }
+            reemplazar(id, actuales, nuevas);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quita un empleado del índice (si no estaba, no hace nada).
+     */
+    public void quitar(long id) {
+        lock.writeLock().lock();
+        try {
+            int[] actuales = palabrasEmpleado.remove(id);
+            if (actuales != null) {
+                for (int i = 1; i < actuales.length; i++) {
+                    vocabulario.get(actuales[i]).empleados.quitar(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca las palabras del vocabulario más parecidas a la recibida.
+     * Se ordenan por distancia, después por cantidad de empleados (la palabra más usada es la corrección
+     * más probable) y por último alfabéticamente.
+     * @param palabra palabra a corregir (no distingue mayúsculas ni tildes)
+     * @param limite cantidad máxima de resultados
+     * @return palabras a distancia permitida, incluida la propia palabra si existe
+     */
+    public List<Coincidencia> sugerir(String palabra, int limite) {
+        if (limite <= 0) {
+            throw new IllegalArgumentException("El límite debe ser mayor a 0");
+        }
+        String[] terminos = palabras(palabra);
+        List<Coincidencia> resultado = new ArrayList<>();
+        if (terminos.length == 0) {
+            return resultado;
+        }
+        lock.readLock().lock();
+        try {
+            for (Candidata candidata : corregir(terminos[0], limite)) {
+                Palabra encontrada = vocabulario.get(candidata.palabra);
+                resultado.add(new Coincidencia(encontrada.texto, candidata.distancia, encontrada.empleados.tamanio));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return resultado;
+    }
+
+    /**
+     * Busca empleados que tengan, para cada palabra de la consulta, una palabra parecida
+     * en su nombre, apellido o área. Los resultados se ordenan por la suma de las distancias
+     * (primero los que coinciden exacto) y la búsqueda se corta en cuanto junta el límite
+     * con la menor distancia que todavía se puede alcanzar.
+     * @param consulta texto a buscar (no distingue mayúsculas ni tildes)
+     * @param limite cantidad máxima de resultados
+     * @return IDs encontrados, en orden de relevancia
+     */
+    public long[] buscar(String consulta, int limite) {
+        if (limite <= 0) {
+            throw new IllegalArgumentException("El límite debe ser mayor a 0");
+        }
+        String[] terminos = palabras(consulta);
+        if (terminos.length == 0) {
+            return new long[0];
+        }
+        lock.readLock().lock();
+        try {
+            // Correcciones de cada palabra; si alguna no tiene ninguna no hay resultados
+            Candidata[][] correcciones = new Candidata[terminos.length][];
+            int guia = 0;
+            long menor = Long.MAX_VALUE;
+            int minimoResto = 0;
+            for (int i = 0; i < terminos.length; i++) {
+                correcciones[i] = corregir(terminos[i], CORRECCIONES_POR_PALABRA).toArray(new Candidata[0]);
+                if (correcciones[i].length == 0) {
+                    return new long[0];
+                }
+                minimoResto += correcciones[i][0].distancia;
+                long empleados = 0;
+                for (Candidata candidata : correcciones[i]) {
+                    empleados += vocabulario.get(candidata.palabra).empleados.tamanio;
+                }
+                if (empleados < menor) {
+                    menor = empleados;
+                    guia = i;
+                }
+            }
+            minimoResto -= correcciones[guia][0].distancia;
+
+            // Se recorren los empleados de las correcciones de la palabra con menos empleados y se verifica
+            // el resto de las palabras avanzando en paralelo sobre sus listas (todas ordenadas por ID)
+            int[][] cursores = new int[terminos.length][];
+            for (int t = 0; t < terminos.length; t++) {
+                cursores[t] = new int[correcciones[t].length];
+            }
+            List<long[]> encontrados = new ArrayList<>();
+            int[] porDistancia = new int[terminos.length * 2 * DISTANCIA_MAXIMA + 2];
+            Set<Long> vistos = new HashSet<>();
+            recorrido:
+            for (Candidata candidata : correcciones[guia]) {
+                // Ningún empleado de esta corrección ni de las siguientes puede quedar por debajo de esta cota
+                int cota = candidata.distancia + minimoResto;
+                if (acumulados(porDistancia, cota) >= limite) {
+                    break;
+                }
+                for (int[] cursor : cursores) {
+                    Arrays.fill(cursor, 0);
+                }
+                ListaIds ids = vocabulario.get(candidata.palabra).empleados;
+                for (int i = 0; i < ids.tamanio; i++) {
+                    long id = ids.ids[i];
+                    int distancia = distanciaEmpleado(id, correcciones, cursores, guia);
+                    if (distancia < 0 || !vistos.add(id)) {
+                        continue;
+                    }
+                    distancia += candidata.distancia;
+                    encontrados.add(new long[]{id, distancia});
+                    porDistancia[distancia]++;
+                    if (distancia <= cota && acumulados(porDistancia, cota) >= limite) {
+                        break recorrido;
+                    }
+                }
+            }
+
+            encontrados.sort(Comparator.<long[]>comparingLong(e -> e[1]).thenComparingLong(e -> e[0]));
+            long[] resultado = new long[Math.min(limite, encontrados.size())];
+            for (int i = 0; i < resultado.length; i++) {
+                resultado[i] = encontrados.get(i)[0];
+            }
+            return resultado;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return cantidad de empleados indexados
+     */
+    public int getTamanio() {
+        lock.readLock().lock();
+        try {
+            return palabrasEmpleado.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return cantidad de palabras distintas del vocabulario
+     */
+    public int getPalabras() {
+        lock.readLock().lock();
+        try {
+            return vocabulario.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cantidad máxima de ediciones que se toleran según el largo de la palabra:
+     * ninguna hasta 2 letras, una hasta 5 y dos a partir de 6.
+     * Entre una consulta y una palabra del vocabulario se usa el largo de la más larga.
+     */
+    public static int distanciaPermitida(int largo) {
+        return largo <= 2 ? 0 : largo <= 5 ? 1 : DISTANCIA_MAXIMA;
+    }
+
+    /**
+     * Distancia de edición entre dos palabras (inserción, borrado, reemplazo o transposición
+     * de dos letras vecinas). Deja de calcular en cuanto una fila entera supera el máximo.
+     * @return la distancia, o maximo + 1 si es mayor que maximo
+     */
+    public static int distanciaAcotada(String a, String b, int maximo) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > maximo) {
+            return maximo + 1;
+        }
+        int[] dosAtras = new int[m + 1];
+        int[] anterior = new int[m + 1];
+        int[] actual = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            anterior[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            actual[0] = i;
+            int minimoFila = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= m; j++) {
+                char cb = b.charAt(j - 1);
+                int valor = Math.min(Math.min(anterior[j] + 1, actual[j - 1] + 1), anterior[j - 1] + (ca == cb ? 0 : 1));
+                if (i > 1 && j > 1 && ca == b.charAt(j - 2) && a.charAt(i - 2) == cb) {
+                    valor = Math.min(valor, dosAtras[j - 2] + 1);
+                }
+                actual[j] = valor;
+                minimoFila = Math.min(minimoFila, valor);
+            }
+            if (minimoFila > maximo) {
+                return maximo + 1;
+            }
+            int[] libre = dosAtras;
+            dosAtras = anterior;
+            anterior = actual;
+            actual = libre;
+        }
+        return Math.min(anterior[m], maximo + 1);
+    }
+
+    /**
+     * Palabras del vocabulario a distancia permitida de la buscada, de la más parecida a la menos.
+     * Requiere el lock de lectura.
+     */
+    private List<Candidata> corregir(String termino, int limite) {
+        // Una eliminación acorta la consulta: se busca con la tolerancia de una palabra un poco más larga
+        int maximo = distanciaPermitida(termino.length() + 1);
+        List<Candidata> candidatas = new ArrayList<>();
+        Integer exacta = idsPalabra.get(termino);
+        if (exacta != null && vocabulario.get(exacta).empleados.tamanio > 0) {
+            candidatas.add(new Candidata(exacta, 0));
+        }
+        if (distanciaPermitida(termino.length()) > 0) {
+            long[] propios = trigramasPalabra(termino);
+            short[] comunes = new short[vocabulario.size()];
+            ListaEnteros tocadas = new ListaEnteros();
+            for (long trigrama : propios) {
+                ListaEnteros ids = trigramas.get(trigrama);
+                for (int i = 0; ids != null && i < ids.tamanio; i++) {
+                    if (comunes[ids.valores[i]]++ == 0) {
+                        tocadas.agregar(ids.valores[i]);
+                    }
+                }
+            }
+
+            // Una palabra a distancia <= maximo comparte al menos (trigramas propios - 4 * maximo) trigramas
+            // (una transposición rompe hasta cuatro). Las que pasan el filtro se agrupan por trigramas en común
+            int minimoComunes = Math.max(1, propios.length - 4 * maximo);
+            ListaEnteros[] porComunes = new ListaEnteros[propios.length + 1];
+            for (int i = 0; i < tocadas.tamanio; i++) {
+                int id = tocadas.valores[i];
+                if (comunes[id] >= minimoComunes && id != (exacta == null ? -1 : exacta)
+                        && Math.abs(largos.valores[id] - termino.length()) <= maximo) {
+                    if (porComunes[comunes[id]] == null) {
+                        porComunes[comunes[id]] = new ListaEnteros();
+                    }
+                    porComunes[comunes[id]].agregar(id);
+                }
+            }
+
+            // Solo las que más trigramas comparten se reordenan por distancia de edición
+            int revisadas = 0;
+            for (int c = propios.length; c >= minimoComunes && revisadas < CANDIDATAS_REVISADAS; c--) {
+                for (int i = 0; porComunes[c] != null && i < porComunes[c].tamanio && revisadas < CANDIDATAS_REVISADAS; i++) {
+                    int id = porComunes[c].valores[i];
+                    if (vocabulario.get(id).empleados.tamanio == 0) {
+                        continue;
+                    }
+                    String texto = vocabulario.get(id).texto;
+                    int permitida = distanciaPermitida(Math.max(termino.length(), texto.length()));
+                    int distancia = distanciaAcotada(termino, texto, permitida);
+                    if (distancia <= permitida) {
+                        candidatas.add(new Candidata(id, distancia));
+                    }
+                    revisadas++;
+                }
+            }
+        }
+        candidatas.sort(Comparator.<Candidata>comparingInt(c -> c.distancia)
+                .thenComparingInt(c -> -vocabulario.get(c.palabra).empleados.tamanio)
+                .thenComparing(c -> vocabulario.get(c.palabra).texto));
+        return candidatas.size() > limite ? candidatas.subList(0, limite) : candidatas;
+    }
+
+    /**
+     * Suma de las distancias con que el empleado cubre las palabras de la consulta distintas de la guía.
+     * Los cursores marcan hasta dónde se avanzó en cada lista; como los IDs llegan en orden creciente
+     * nunca retroceden.
+     * @return la suma o -1 si alguna palabra no tiene corrección entre las del empleado
+     */
+    private int distanciaEmpleado(long id, Candidata[][] correcciones, int[][] cursores, int guia) {
+        int total = 0;
+        for (int t = 0; t < correcciones.length; t++) {
+            if (t == guia) {
+                continue;
+            }
+            int mejor = -1;
+            for (int j = 0; j < correcciones[t].length && mejor < 0; j++) {
+                ListaIds lista = vocabulario.get(correcciones[t][j].palabra).empleados;
+                int pos = avanzar(lista, cursores[t][j], id);
+                cursores[t][j] = pos;
+                if (pos < lista.tamanio && lista.ids[pos] == id) {
+                    mejor = correcciones[t][j].distancia; // las correcciones están ordenadas por distancia
+                }
+            }
+            if (mejor < 0) {
+                return -1;
+            }
+            total += mejor;
+        }
+        return total;
+    }
+
+    /**
+     * Primera posición desde la indicada cuyo ID es mayor o igual al buscado.
+     * Avanza con saltos que se duplican y termina con una búsqueda binaria, así que saltear
+     * muchos IDs (listas largas contra listas cortas) no obliga a recorrerlos uno por uno.
+     */
+    private static int avanzar(ListaIds lista, int desde, long id) {
+        if (desde >= lista.tamanio || lista.ids[desde] >= id) {
+            return desde;
+        }
+        int anterior = desde;
+        int paso = 1;
+        int hasta = desde + 1;
+        while (hasta < lista.tamanio && lista.ids[hasta] < id) {
+            anterior = hasta;
+            paso <<= 1;
+            hasta = anterior + paso;
+        }
+        int pos = Arrays.binarySearch(lista.ids, anterior + 1, Math.min(hasta, lista.tamanio), id);
+        return pos >= 0 ? pos : -pos - 1;
+    }
+
+    private static int acumulados(int[] porDistancia, int hasta) {
+        int total = 0;
+        for (int i = 0; i <= hasta && i < porDistancia.length; i++) {
+            total += porDistancia[i];
+        }
+        return total;
+    }
+
+    /**
+     * Actualiza las listas de empleados de las palabras que cambiaron. Requiere el lock de escritura.
+     */
+    private void reemplazar(long id, int[] anteriores, int[] nuevas) {
+        if (anteriores != null) {
+            for (int i = 1; i < anteriores.length; i++) {
+                if (!contiene(nuevas, anteriores[i])) {
+                    vocabulario.get(anteriores[i]).empleados.quitar(id);
+                }
+            }
+        }
+        for (int i = 1; i < nuevas.length; i++) {
+            vocabulario.get(nuevas[i]).empleados.agregar(id);
+        }
+        palabrasEmpleado.put(id, nuevas);
+    }
+
+    private static boolean contiene(int[] palabras, int palabra) {
+        for (int i = 1; i < palabras.length; i++) {
+            if (palabras[i] == palabra) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Id de la palabra en el vocabulario; si es nueva la agrega e indexa sus trigramas.
+     * Requiere el lock de escritura.
+     */
+    private int idPalabra(String texto) {
+        Integer id = idsPalabra.get(texto);
+        if (id != null) {
+            return id;
+        }
+        int nuevo = vocabulario.size();
+        vocabulario.add(new Palabra(texto));
+        largos.agregar(texto.length());
+        idsPalabra.put(texto, nuevo);
+        for (long trigrama : trigramasPalabra(texto)) {
+            trigramas.computeIfAbsent(trigrama, t -> new ListaEnteros()).agregar(nuevo);
+        }
+        return nuevo;
+    }
+
+    /**
+     * Trigramas distintos de la palabra con dos espacios al principio y uno al final,
+     * para que el comienzo y el final de la palabra también cuenten.
+     */
+    private static long[] trigramasPalabra(String palabra) {
+        String texto = "  " + palabra + " ";
+        long[] resultado = new long[texto.length() - 2];
+        for (int i = 0; i < resultado.length; i++) {
+            resultado[i] = ((long) texto.charAt(i) << 32) | ((long) texto.charAt(i + 1) << 16) | texto.charAt(i + 2);
+        }
+        Arrays.sort(resultado);
+        int distintos = 0;
+        for (int i = 0; i < resultado.length; i++) {
+            if (i == 0 || resultado[i] != resultado[i - 1]) {
+                resultado[distintos++] = resultado[i];
+            }
+        }
+        return Arrays.copyOf(resultado, distintos);
+    }
+
+    private static String[] palabras(String texto) {
+        if (texto == null) {
+            return new String[0];
+        }
+        String normalizado = IndiceNombres.normalizar(texto);
+        return normalizado.isEmpty() ? new String[0] : normalizado.split(" ");
+    }
+
+    private record Candidata(int palabra, int distancia) {}
+
+    private static final class Palabra {
+        private final String texto;
+        // Empleados activos que usan la palabra en el nombre, el apellido o el área
+        private final ListaIds empleados = new ListaIds();
+
+        Palabra(String texto) {
+            this.texto = texto;
+        }
+    }
+
+    /**
+     * Lista de enteros que solo crece (ids de palabra de un trigrama, largos de las palabras).
+     */
+    private static final class ListaEnteros {
+        private int[] valores = new int[4];
+        private int tamanio;
+
+        void agregar(int valor) {
+            if (tamanio == valores.length) {
+                valores = Arrays.copyOf(valores, tamanio * 2);
+            }
+            valores[tamanio++] = valor;
+        }
+    }
+}
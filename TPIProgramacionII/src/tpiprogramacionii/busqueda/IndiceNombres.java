@@ -0,0 +1,272 @@
+package tpiprogramacionii.busqueda;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import tpiprogramacionii.dao.EmpleadoDAO;
+import tpiprogramacionii.entities.Empleado;
+import tpiprogramacionii.service.ObservadorEmpleado;
+
+/**
+ * Índice en memoria para buscar empleados por nombre y apellido.
+ * Mantiene dos estructuras sobre el texto normalizado "APELLIDO NOMBRE" (mayúsculas, sin tildes):
+ * - un mapa ordenado de palabras, para búsquedas por prefijo (rango del TreeMap);
+ * - un índice de trigramas, para búsquedas por subcadena (intersección de listas de IDs y verificación).
+ * Se arma recorriendo la tabla al iniciar y se actualiza con los avisos de EmpleadoService
+ * (altas y bajas), así las búsquedas no tocan la base de datos.
+ * Es seguro para usar desde varios hilos (lecturas concurrentes, escrituras exclusivas).
+ */
+public class IndiceNombres implements ObservadorEmpleado {
+
+    private static final int PAGINA_CARGA = 5000;
+
+    // id -> texto normalizado "APELLIDO NOMBRE"
+    private final Map<Long, String> textos = new HashMap<>();
+    // palabra -> IDs de los empleados que la contienen
+    private final TreeMap<String, ListaIds> palabras = new TreeMap<>();
+    // trigrama (3 chars empaquetados en un long) -> IDs
+    private final Map<Long, ListaIds> trigramas = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Carga en el índice todos los empleados activos, leyendo la tabla por páginas.
+     * Conviene registrar el índice como observador de EmpleadoService antes de llamarlo.
+     * @param empleadoDAO DAO del que se leen los nombres
+     * @return cantidad de empleados indexados
+     * @throws Exception si falla la lectura de alguna página
+     */
+    public long construir(EmpleadoDAO empleadoDAO) throws Exception {
+        long despuesDe = 0;
+        long cargados = 0;
+        List<Empleado> pagina;
+        do {
+            pagina = empleadoDAO.leerNombresPagina(despuesDe, PAGINA_CARGA);
+            for (Empleado empleado : pagina) {
+                agregar(empleado.getId(), empleado.getNombre(), empleado.getApellido());
+            }
+            if (!pagina.isEmpty()) {
+                cargados += pagina.size();
+                despuesDe = pagina.get(pagina.size() - 1).getId();
+            }
+        } while (pagina.size() == PAGINA_CARGA);
+        return cargados;
+    }
+
+    @Override
+    public void empleadoInsertado(Empleado empleado) {
+        agregar(empleado.getId(), empleado.getNombre(), empleado.getApellido());
+    }
+
+    @Override
+    public void empleadoEliminado(Long id) {
+        quitar(id);
+    }
+
+    /**
+     * Agrega (o reemplaza) un empleado en el índice.
+     */
+    public void agregar(long id, String nombre, String apellido) {
+        String texto = normalizar((apellido == null ? "" : apellido) + " " + (nombre == null ? "" : nombre));
+        lock.writeLock().lock();
+        try {
+            if (textos.containsKey(id)) {
+                quitarSinLock(id);
+            }
+            textos.put(id, texto);
+            for (String palabra : texto.split(" ")) {
+                if (!palabra.isEmpty()) {
+                    palabras.computeIfAbsent(palabra, p -> new ListaIds()).agregar(id);
+                }
+            }
+            for (int i = 0; i + 3 <= texto.length(); i++) {
+                trigramas.computeIfAbsent(trigrama(texto, i), t -> new ListaIds()).agregar(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quita un empleado del índice (si no estaba, no hace nada).
+     */
+    public void quitar(long id) {
+        lock.writeLock().lock();
+        try {
+            quitarSinLock(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void quitarSinLock(long id) {
+        String texto = textos.remove(id);
+        if (texto == null) {
+            return;
+        }
+        for (String palabra : texto.split(" ")) {
+            ListaIds ids = palabras.get(palabra);
+            if (ids != null && ids.quitar(id) && ids.tamanio == 0) {
+                palabras.remove(palabra);
+            }
+        }
+        for (int i = 0; i + 3 <= texto.length(); i++) {
+            Long clave = trigrama(texto, i);
+            ListaIds ids = trigramas.get(clave);
+            if (ids != null && ids.quitar(id) && ids.tamanio == 0) {
+                trigramas.remove(clave);
+            }
+        }
+    }
+
+    /**
+     * Busca empleados cuyo nombre completo contenga todas las palabras de la consulta.
+     * Primero se devuelven los que tienen una palabra que empieza con el término de búsqueda
+     * (en orden alfabético de esa palabra) y después las coincidencias dentro de una palabra (por ID).
+     * @param consulta texto a buscar (no distingue mayúsculas ni tildes)
+     * @param limite cantidad máxima de resultados
+     * @return IDs encontrados, en orden de relevancia
+     */
+    public long[] buscar(String consulta, int limite) {
+        if (limite <= 0) {
+            throw new IllegalArgumentException("El límite debe ser mayor a 0");
+        }
+        String[] terminos = terminos(consulta);
+        if (terminos.length == 0) {
+            return new long[0];
+        }
+        long[] resultado = new long[limite];
+        int encontrados = 0;
+        Set<Long> vistos = new HashSet<>();
+
+        lock.readLock().lock();
+        try {
+            // El término con menos palabras que empiecen con él guía la búsqueda; el resto se verifica sobre el texto
+            String guia = terminoMasSelectivo(terminos);
+
+            // 1) Palabras que empiezan con el término guía
+            NavigableMap<String, ListaIds> rango = palabras.subMap(guia, true, guia + Character.MAX_VALUE, false);
+            recorrido:
+            for (ListaIds ids : rango.values()) {
+                for (int i = 0; i < ids.tamanio; i++) {
+                    long id = ids.ids[i];
+                    if (contieneTodos(textos.get(id), terminos) && vistos.add(id)) {
+                        resultado[encontrados++] = id;
+                        if (encontrados == limite) {
+                            break recorrido;
+                        }
+                    }
+                }
+            }
+
+            // 2) Subcadenas: IDs presentes en todos los trigramas del término guía (se recorre la lista más corta)
+            ListaIds[] listas = encontrados < limite && guia.length() >= 3 ? listasTrigramas(guia) : null;
+            for (int i = 0; listas != null && i < listas[0].tamanio && encontrados < limite; i++) {
+                long id = listas[0].ids[i];
+                boolean enTodas = true;
+                for (int j = 1; j < listas.length && enTodas; j++) {
+                    enTodas = listas[j].contiene(id);
+                }
+                if (enTodas && !vistos.contains(id) && contieneTodos(textos.get(id), terminos)) {
+                    vistos.add(id);
+                    resultado[encontrados++] = id;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return Arrays.copyOf(resultado, encontrados);
+    }
+
+    /**
+     * @return cantidad de empleados indexados
+     */
+    public int getTamanio() {
+        lock.readLock().lock();
+        try {
+            return textos.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Elige el término con menos empleados que tengan una palabra que empiece con él.
+     * Deja de sumar un término en cuanto supera al mejor encontrado.
+     */
+    private String terminoMasSelectivo(String[] terminos) {
+        String mejor = terminos[0];
+        long menor = Long.MAX_VALUE;
+        for (String termino : terminos) {
+            long cantidad = 0;
+            for (ListaIds ids : palabras.subMap(termino, true, termino + Character.MAX_VALUE, false).values()) {
+                cantidad += ids.tamanio;
+                if (cantidad >= menor) {
+                    break;
+                }
+            }
+            if (cantidad < menor || (cantidad == menor && termino.length() > mejor.length())) {
+                menor = cantidad;
+                mejor = termino;
+            }
+        }
+        return mejor;
+    }
+
+    /**
+     * Listas de los trigramas del término, de la más corta a la más larga.
+     * @return listas ordenadas o null si algún trigrama no existe (no hay coincidencias)
+     */
+    private ListaIds[] listasTrigramas(String termino) {
+        ListaIds[] listas = new ListaIds[termino.length() - 2];
+        for (int i = 0; i < listas.length; i++) {
+            listas[i] = trigramas.get(trigrama(termino, i));
+            if (listas[i] == null) {
+                return null;
+            }
+        }
+        Arrays.sort(listas, (a, b) -> Integer.compare(a.tamanio, b.tamanio));
+        return listas;
+    }
+
+    private static boolean contieneTodos(String texto, String[] terminos) {
+        if (texto == null) {
+            return false;
+        }
+        for (String termino : terminos) {
+            if (!texto.contains(termino)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String[] terminos(String consulta) {
+        if (consulta == null) {
+            return new String[0];
+        }
+        String normalizada = normalizar(consulta);
+        return normalizada.isEmpty() ? new String[0] : normalizada.split(" ");
+    }
+
+    /**
+     * Mayúsculas, sin tildes ni diéresis y con un único espacio entre palabras.
+     * Es público para que otros índices normalicen igual que este.
+     */
+    public static String normalizar(String texto) {
+        String sinTildes = Normalizer.normalize(texto.trim().toUpperCase(Locale.ROOT), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "");
+        return sinTildes.replaceAll("\\s+", " ");
+    }
+
+    private static Long trigrama(String texto, int desde) {
+        return ((long) texto.charAt(desde) << 32) | ((long) texto.charAt(desde + 1) << 16) | texto.charAt(desde + 2);
+    }
+}
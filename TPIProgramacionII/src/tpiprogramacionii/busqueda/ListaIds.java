@@ -0,0 +1,41 @@
+package tpiprogramacionii.busqueda;
+
+import java.util.Arrays;
+
+/**
+ * Lista ordenada de IDs sobre un long[] (sin objetos por elemento).
+ * Los IDs nuevos suelen ser mayores que los existentes, así que agregar es casi siempre un append.
+ * No es segura para varios hilos: la protege el lock del índice que la usa.
+ */
+final class ListaIds {
+    long[] ids = new long[4];
+    int tamanio;
+
+    void agregar(long id) {
+        int pos = tamanio == 0 || ids[tamanio - 1] < id ? tamanio : Arrays.binarySearch(ids, 0, tamanio, id);
+        if (pos >= 0 && pos < tamanio) {
+            return; // ya estaba
+        }
+        pos = pos < 0 ? -pos - 1 : pos;
+        if (tamanio == ids.length) {
+            ids = Arrays.copyOf(ids, tamanio * 2);
+        }
+        System.arraycopy(ids, pos, ids, pos + 1, tamanio - pos);
+        ids[pos] = id;
+        tamanio++;
+    }
+
+    boolean quitar(long id) {
+        int pos = Arrays.binarySearch(ids, 0, tamanio, id);
+        if (pos < 0) {
+            return false;
+        }
+        System.arraycopy(ids, pos + 1, ids, pos, tamanio - pos - 1);
+        tamanio--;
+        return true;
+    }
+
+    boolean contiene(long id) {
+        return Arrays.binarySearch(ids, 0, tamanio, id) >= 0;
+    }
+}
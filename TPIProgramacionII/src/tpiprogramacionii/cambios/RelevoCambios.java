@@ -0,0 +1,175 @@
+package tpiprogramacionii.cambios;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import tpiprogramacionii.dao.CambioDAO;
+import tpiprogramacionii.entities.Cambio;
+import tpiprogramacionii.http.EscritorJson;
+
+/**
+ * Relevo de la bandeja de salida: lee los cambios pendientes por lotes y los publica.
+ * Por cada lote, en este orden:
+ * 1) agrega una línea JSON por cambio al archivo de cambios (solo se agrega, nunca se reescribe);
+ * 2) entrega el lote a los suscriptores registrados;
+ * 3) marca los cambios como publicados.
+ * Si algo falla antes del paso 3 el lote se vuelve a publicar en la próxima pasada (entrega "al menos una vez").
+ * Un solo hilo recorre la bandeja, así los cambios salen en orden de ID dentro de cada pasada
+ * (con varios fragmentos, en orden de ID dentro de cada fragmento; ver CambioDAO).
+ */
+public class RelevoCambios {
+
+    private static final Logger LOGGER = Logger.getLogger(RelevoCambios.class.getName());
+
+    /** Cambios leídos y publicados por vez. */
+    public static final int TAMANIO_LOTE = 500;
+
+    private final CambioDAO cambioDAO;
+    private final Path archivo;
+    private final List<SuscriptorCambios> suscriptores = new CopyOnWriteArrayList<>();
+    private final Object lockProceso = new Object();
+    private ScheduledExecutorService ejecutor;
+    // true desde que falla una pasada periódica hasta que una vuelve a funcionar (para no repetir el aviso)
+    private volatile boolean fallando;
+
+    /**
+     * @param cambioDAO DAO de la bandeja de salida
+     * @param archivo archivo de cambios (JSON Lines) al que se agregan los publicados; null para no escribir archivo
+     */
+    public RelevoCambios(CambioDAO cambioDAO, Path archivo) {
+        if (cambioDAO == null) {
+            throw new IllegalArgumentException("CambioDAO no puede ser null");
+        }
+        this.cambioDAO = cambioDAO;
+        this.archivo = archivo;
+    }
+
+    /**
+     * Archivo de cambios configurado con la propiedad del sistema cambios.archivo (por defecto cambios.jsonl).
+     */
+    public static Path archivoPorDefecto() {
+        return Path.of(System.getProperty("cambios.archivo", "cambios.jsonl"));
+    }
+
+    /**
+     * Registra un suscriptor que recibirá los lotes publicados desde ahora.
+     * @param suscriptor Suscriptor a registrar
+     */
+    public void suscribir(SuscriptorCambios suscriptor) {
+        if (suscriptor == null) {
+            throw new IllegalArgumentException("El suscriptor no puede ser null");
+        }
+        suscriptores.add(suscriptor);
+    }
+
+    /**
+     * Publica todos los cambios pendientes, de a TAMANIO_LOTE.
+     * @return cantidad de cambios publicados
+     * @throws Exception si falla la lectura de la bandeja, la escritura del archivo o la marca de publicados
+     */
+    public int procesarPendientes() throws Exception {
+        synchronized (lockProceso) {
+            int publicados = 0;
+            List<Cambio> lote;
+            do {
+                lote = cambioDAO.leerPendientes(TAMANIO_LOTE);
+                if (lote.isEmpty()) {
+                    break;
+                }
+                if (archivo != null) {
+                    agregarAlArchivo(lote);
+                }
+                for (SuscriptorCambios suscriptor : suscriptores) {
+                    try {
+                        suscriptor.cambiosPublicados(lote);
+                    } catch (RuntimeException e) {
+                        LOGGER.log(Level.WARNING, "Error al entregar un lote de cambios a un suscriptor", e);
+                    }
+                }
+                List<Long> ids = new ArrayList<>(lote.size());
+                for (Cambio cambio : lote) {
+                    ids.add(cambio.id());
+                }
+                cambioDAO.marcarPublicados(ids);
+                publicados += lote.size();
+            } while (lote.size() == TAMANIO_LOTE);
+            return publicados;
+        }
+    }
+
+    /**
+     * Revisa la bandeja periódicamente en un hilo daemon. Un error se reintenta en la pasada siguiente;
+     * se registra la primera vez y cuando se recupera, no en cada reintento.
+     * @param periodo tiempo entre el fin de una pasada y el inicio de la siguiente
+     * @param unidad unidad del período
+     */
+    public synchronized void iniciar(long periodo, TimeUnit unidad) {
+        if (periodo <= 0) {
+            throw new IllegalArgumentException("El período del relevo debe ser mayor a 0");
+        }
+        if (ejecutor != null) {
+            throw new IllegalStateException("El relevo de cambios ya está iniciado");
+        }
+        ejecutor = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "relevo-cambios");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        ejecutor.scheduleWithFixedDelay(() -> {
+            try {
+                int publicados = procesarPendientes();
+                if (fallando) {
+                    fallando = false;
+                    LOGGER.log(Level.INFO, "El relevo de cambios volvió a funcionar");
+                }
+                if (publicados > 0) {
+                    LOGGER.log(Level.INFO, "Cambios publicados: {0}", publicados);
+                }
+            } catch (Exception e) {
+                if (!fallando) {
+                    fallando = true;
+                    LOGGER.log(Level.WARNING, "No se pudieron publicar los cambios pendientes (se reintenta)", e);
+                }
+            }
+        }, 0, periodo, unidad);
+    }
+
+    /**
+     * Detiene el relevo periódico (si estaba iniciado).
+     */
+    public synchronized void detener() {
+        if (ejecutor != null) {
+            ejecutor.shutdownNow();
+            ejecutor = null;
+        }
+    }
+
+    private void agregarAlArchivo(List<Cambio> lote) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE)) {
+            EscritorJson json = new EscritorJson(out);
+            for (Cambio cambio : lote) {
+                json.nuevoDocumento().inicioObjeto()
+                    .campo("id", cambio.id())
+                    .campo("entidad", cambio.entidad().name())
+                    .campo("entidadId", cambio.entidadId())
+                    .campo("operacion", cambio.operacion().name())
+                    .campo("dato", cambio.dato())
+                    .campo("creadoEn", cambio.creadoEn() != null ? cambio.creadoEn().toInstant().toString() : null)
+                    .finObjeto();
+                out.newLine();
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package tpiprogramacionii.cambios;
+
+import java.util.List;
+import tpiprogramacionii.entities.Cambio;
+
+/**
+ * Componente de la aplicación que procesa los cambios publicados por RelevoCambios.
+ * La entrega es "al menos una vez": si el relevo se corta antes de marcar un lote como publicado,
+ * ese lote se vuelve a entregar, así que conviene descartar los IDs ya procesados.
+ */
+@FunctionalInterface
+public interface SuscriptorCambios {
+
+    /**
+     * Recibe un lote de cambios en orden de ID (dentro de cada fragmento, si hay varios).
+     * @param cambios Cambios publicados
+     */
+    void cambiosPublicados(List<Cambio> cambios);
+}
@@ -0,0 +1,95 @@
+-- Esquema usado por los DAOs (empleado / legajo).
+-- Compatible con MySQL 8 y con bases embebidas en modo MySQL (benchmarks y pruebas de carga).
+
+CREATE TABLE IF NOT EXISTS legajo (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    nro_legajo VARCHAR(50) UNIQUE,
+    categoria VARCHAR(100),
+    estado VARCHAR(20) NOT NULL,
+    fecha_alta DATE,
+    observaciones TEXT,
+    eliminado BOOLEAN NOT NULL DEFAULT FALSE,
+    -- Última modificación (la actualizan todas las escrituras de LegajoDAO, también la baja lógica)
+    actualizado_en TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    -- Lectura incremental (LegajoDAO.leerCambiadosDesde)
+    INDEX idx_legajo_actualizado (actualizado_en, id),
+    -- Filtros y órdenes de CriterioLegajo (el id al final sirve para la paginación por clave)
+    INDEX idx_legajo_estado (estado, id),
+    INDEX idx_legajo_categoria (categoria, id),
+    INDEX idx_legajo_fecha_alta (fecha_alta, id)
+);
+
+CREATE TABLE IF NOT EXISTS empleado (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    nombre VARCHAR(100) NOT NULL,
+    apellido VARCHAR(100) NOT NULL,
+    dni VARCHAR(20) NOT NULL UNIQUE,
+    email VARCHAR(150) UNIQUE,
+    fecha_ingreso DATE,
+    area VARCHAR(100),
+    legajo_id BIGINT,
+    eliminado BOOLEAN NOT NULL DEFAULT FALSE,
+    -- Última modificación (la actualizan todas las escrituras de EmpleadoDAO, también la baja lógica)
+    actualizado_en TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    FOREIGN KEY (legajo_id) REFERENCES legajo(id),
+    -- Lectura incremental (EmpleadoDAO.leerCambiadosDesde)
+    INDEX idx_empleado_actualizado (actualizado_en, id),
+    -- Filtros y órdenes de CriterioEmpleado
+    INDEX idx_empleado_area (area, id),
+    INDEX idx_empleado_apellido (apellido, id),
+    INDEX idx_empleado_fecha_ingreso (fecha_ingreso, id)
+);
+
+-- Historial de observaciones de cada legajo: solo se insertan notas (ver ObservacionDAO).
+-- Reemplaza a legajo.observaciones, que se migra acá por lotes (ver MigradorObservaciones).
+-- Cada nota queda en el fragmento de su legajo. El índice sirve para leer las últimas por clave.
+-- Sin FOREIGN KEY: el historial sigue siendo del mismo ID cuando el legajo pasa a legajo_archivado.
+CREATE TABLE IF NOT EXISTS legajo_observacion (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    legajo_id BIGINT NOT NULL,
+    texto TEXT NOT NULL,
+    creado_en TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    INDEX idx_legajo_observacion_legajo (legajo_id, id)
+);
+
+-- Bandeja de salida: un registro por modificación, escrito en la misma transacción (ver CambioDAO).
+-- El relevo lee los no publicados en orden de id y los marca al publicarlos.
+CREATE TABLE IF NOT EXISTS cambio (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    entidad VARCHAR(20) NOT NULL,
+    entidad_id BIGINT NOT NULL,
+    operacion VARCHAR(20) NOT NULL,
+    dato VARCHAR(100),
+    creado_en TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    publicado BOOLEAN NOT NULL DEFAULT FALSE,
+    INDEX idx_cambio_publicado (publicado, id)
+);
+
+-- Archivo de bajas: pares empleado/legajo dados de baja hace más que la retención (ver Archivador).
+-- Mismas columnas que las tablas activas, sin eliminado (todo lo archivado es baja) y sin UNIQUE,
+-- porque después de archivar el DNI y el número de legajo se pueden volver a usar.
+CREATE TABLE IF NOT EXISTS legajo_archivado (
+    id BIGINT PRIMARY KEY,
+    nro_legajo VARCHAR(50),
+    categoria VARCHAR(100),
+    estado VARCHAR(20) NOT NULL,
+    fecha_alta DATE,
+    observaciones TEXT,
+    actualizado_en TIMESTAMP(6) NOT NULL,
+    archivado_en TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS empleado_archivado (
+    id BIGINT PRIMARY KEY,
+    nombre VARCHAR(100) NOT NULL,
+    apellido VARCHAR(100) NOT NULL,
+    dni VARCHAR(20) NOT NULL,
+    email VARCHAR(150),
+    fecha_ingreso DATE,
+    area VARCHAR(100),
+    legajo_id BIGINT,
+    actualizado_en TIMESTAMP(6) NOT NULL,
+    archivado_en TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    -- Consulta de bajas por DNI (EmpleadoDAO.buscarPorDniConBajas)
+    INDEX idx_empleado_archivado_dni (dni)
+);
@@ -0,0 +1,142 @@
+package tpiprogramacionii.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import tpiprogramacionii.utils.DataBaseConnection;
+import tpiprogramacionii.utils.RegistroConsultasLentas;
+
+/**
+ * Traslado de las bajas lógicas viejas a las tablas de archivo (empleado_archivado, legajo_archivado).
+ * Se archivan pares empleado/legajo dados de baja antes de un corte (o empleados sin legajo);
+ * un legajo dado de baja cuyo empleado sigue activo queda donde está.
+ * Cada lote es una transacción corta sobre un fragmento: copia las filas al archivo y las borra
+ * de las tablas activas, así una fila está siempre en una sola de las dos.
+ */
+public class ArchivoDAO {
+
+    //QUERYS: --------------------------------------------------------------------------------------------------
+
+    //Próximos empleados a archivar, en orden de id a partir del último archivado (paginación por clave).
+    //El legajo tiene que estar dado de baja antes del corte y no estar asociado a otro empleado
+    private static final String SELECT_CANDIDATOS = "SELECT e.id, e.legajo_id FROM empleado e " +
+                                                    "LEFT JOIN legajo l ON e.legajo_id = l.id " +
+                                                    "WHERE e.eliminado = TRUE AND e.actualizado_en < ? AND e.id > ? " +
+                                                    "AND (l.id IS NULL OR (l.eliminado = TRUE AND l.actualizado_en < ? " +
+                                                    "AND NOT EXISTS (SELECT 1 FROM empleado o WHERE o.legajo_id = l.id AND o.id <> e.id))) " +
+                                                    "ORDER BY e.id LIMIT ?";
+
+    //Copiar al archivo (se completan con un marcador por ID)
+    private static final String INSERT_LEGAJOS = "INSERT INTO legajo_archivado " +
+                                                 "(id, nro_legajo, categoria, estado, fecha_alta, observaciones, actualizado_en) " +
+                                                 "SELECT id, nro_legajo, categoria, estado, fecha_alta, observaciones, actualizado_en " +
+                                                 "FROM legajo WHERE eliminado = TRUE AND id IN (";
+    private static final String INSERT_EMPLEADOS = "INSERT INTO empleado_archivado " +
+                                                   "(id, nombre, apellido, dni, email, fecha_ingreso, area, legajo_id, actualizado_en) " +
+                                                   "SELECT id, nombre, apellido, dni, email, fecha_ingreso, area, legajo_id, actualizado_en " +
+                                                   "FROM empleado WHERE eliminado = TRUE AND id IN (";
+
+    //Borrar de las tablas activas (primero el empleado, que referencia al legajo)
+    private static final String DELETE_EMPLEADOS = "DELETE FROM empleado WHERE eliminado = TRUE AND id IN (";
+    private static final String DELETE_LEGAJOS = "DELETE FROM legajo WHERE eliminado = TRUE AND id IN (";
+
+    /**
+     * Resultado de un lote.
+     * @param archivados empleados archivados en el lote
+     * @param ultimoId ID del último empleado del lote (desde dónde sigue el próximo); 0 si no hubo ninguno
+     */
+    public record Lote(int archivados, long ultimoId) {}
+
+    //CONSTRUCTOR ---------------------------------------------------------------------------------------------------
+    public ArchivoDAO() {}
+
+    //--------------------------------------------------------------------------------------------------------------
+
+    /**
+    * Archiva en una transacción hasta limite empleados dados de baja antes del corte, con su legajo.
+    * Si una fila cambió entre la selección y el borrado la transacción se deshace y el lote se reintenta después.
+    * @param fragmento fragmento a procesar
+    * @param corte se archivan las bajas modificadas por última vez antes de este instante
+    * @param despuesDeId ID del último empleado del lote anterior (0 para el primero)
+    * @param limite cantidad máxima de empleados del lote
+    * @return empleados archivados y último ID procesado; con menos de limite archivados no quedan más
+    * @throws SQLException en caso de error de conexión o de ejecución
+    */
+    public Lote archivarLote(int fragmento, Timestamp corte, long despuesDeId, int limite) throws SQLException {
+        try (Connection conex = DataBaseConnection.getConnection(fragmento)) {
+            conex.setAutoCommit(false);
+            try {
+                List<Long> empleados = new ArrayList<>(limite);
+                List<Long> legajos = new ArrayList<>(limite);
+                try (PreparedStatement stmt = conex.prepareStatement(SELECT_CANDIDATOS)) {
+                    stmt.setTimestamp(1, corte);
+                    stmt.setLong(2, despuesDeId);
+                    stmt.setTimestamp(3, corte);
+                    stmt.setInt(4, limite);
+
+                    long inicio = RegistroConsultasLentas.iniciar();
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            empleados.add(rs.getLong("id"));
+                            long legajoId = rs.getLong("legajo_id");
+                            if (!rs.wasNull()) {
+                                legajos.add(legajoId);
+                            }
+                        }
+                    }
+                    RegistroConsultasLentas.registrar("ArchivoDAO.SELECT_CANDIDATOS", inicio, empleados.size(), despuesDeId, limite);
+                }
+                if (empleados.isEmpty()) {
+                    conex.commit();
+                    return new Lote(0, 0);
+                }
+
+                ejecutar(conex, INSERT_LEGAJOS, "ArchivoDAO.INSERT_LEGAJOS", legajos);
+                int copiados = ejecutar(conex, INSERT_EMPLEADOS, "ArchivoDAO.INSERT_EMPLEADOS", empleados);
+                int borrados = ejecutar(conex, DELETE_EMPLEADOS, "ArchivoDAO.DELETE_EMPLEADOS", empleados);
+                int legajosBorrados = ejecutar(conex, DELETE_LEGAJOS, "ArchivoDAO.DELETE_LEGAJOS", legajos);
+                if (copiados != empleados.size() || borrados != empleados.size() || legajosBorrados != legajos.size()) {
+                    throw new SQLException("Las filas a archivar cambiaron durante el lote (se reintenta en la próxima pasada)");
+                }
+                conex.commit();
+                return new Lote(empleados.size(), empleados.get(empleados.size() - 1));
+            } catch (SQLException e) {
+                conex.rollback();
+                throw e;
+            }
+        }
+    }
+
+    //--------------------------------------------------------------------------------------------------------------
+
+    private int ejecutar(Connection conex, String sql, String nombre, List<Long> ids) throws SQLException {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        try (PreparedStatement stmt = conex.prepareStatement(sql + marcadores(ids.size()))) {
+            int i = 1;
+            for (Long id : ids) {
+                stmt.setLong(i++, id);
+            }
+            long inicio = RegistroConsultasLentas.iniciar();
+            int filas = stmt.executeUpdate();
+            RegistroConsultasLentas.registrar(nombre, inicio, filas, ids.size());
+            return filas;
+        }
+    }
+
+    /**
+    * Arma la lista de marcadores de una cláusula IN: "?, ?, ?)".
+    */
+    private static String marcadores(int cantidad) {
+        StringBuilder sb = new StringBuilder(cantidad * 3);
+        for (int i = 0; i < cantidad; i++) {
+            sb.append(i == 0 ? "?" : ", ?");
+        }
+        return sb.append(')').toString();
+    }
+}
@@ -0,0 +1,176 @@
+package tpiprogramacionii.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import tpiprogramacionii.entities.Cambio;
+import tpiprogramacionii.utils.DataBaseConnection;
+import tpiprogramacionii.utils.Fragmentos;
+import tpiprogramacionii.utils.RegistroConsultasLentas;
+
+/**
+ * Acceso a la tabla cambio (bandeja de salida de las modificaciones de empleados y legajos).
+ * Los servicios escriben con los métodos Tx, dentro de su transacción; el relevo lee los pendientes
+ * por lotes y los marca como publicados después de entregarlos.
+ * Con varios fragmentos cada cambio queda en la base de la fila modificada (misma transacción);
+ * el ID del cambio indica en qué fragmento está.
+ */
+public class CambioDAO {
+
+    //QUERYS: --------------------------------------------------------------------------------------------------
+
+    //Registrar un cambio (id y creado_en los asigna la base)
+    private static final String INSERT_SQL = "INSERT INTO cambio (entidad, entidad_id, operacion, dato) VALUES (?, ?, ?, ?)";
+
+    //Cambios todavía no publicados, en orden de escritura (usa idx_cambio_publicado)
+    private static final String SELECT_PENDIENTES = "SELECT id, entidad, entidad_id, operacion, dato, creado_en FROM cambio " +
+                                                    "WHERE publicado = FALSE ORDER BY id LIMIT ?";
+
+    //Marcar un cambio como publicado
+    private static final String UPDATE_PUBLICADO = "UPDATE cambio SET publicado = TRUE WHERE id = ?";
+
+    //Orden aproximado entre fragmentos (dentro de cada fragmento se respeta el orden de ID)
+    private static final Comparator<Cambio> POR_CREACION = Comparator.comparing(Cambio::creadoEn,
+                                                                   Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    //CONSTRUCTOR ---------------------------------------------------------------------------------------------------
+    public CambioDAO() {}
+
+    //--------------------------------------------------------------------------------------------------------------
+
+    /**
+    * Registra un cambio usando la conexión (y la transacción) de la modificación.
+    * @param cambio Cambio a registrar
+    * @param conex Conexión transaccional activa
+    * @throws SQLException si falla la inserción
+    */
+    public void insertarTx(Cambio cambio, Connection conex) throws SQLException {
+        try (PreparedStatement stmt = conex.prepareStatement(INSERT_SQL)) {
+            setCambioParameters(stmt, cambio);
+            long inicio = RegistroConsultasLentas.iniciar();
+            int filas = stmt.executeUpdate();
+            RegistroConsultasLentas.registrar("CambioDAO.INSERT_SQL", inicio, filas, cambio.entidad(), cambio.entidadId());
+        }
+    }
+
+    //--------------------------------------------------------------------------------------------------------------
+
+    /**
+    * Registra varios cambios con un único lote JDBC, usando la conexión de la modificación por lotes.
+    * @param cambios Cambios a registrar
+    * @param conex Conexión transaccional activa
+    * @throws SQLException si falla la inserción
+    */
+    public void insertarLoteTx(List<Cambio> cambios, Connection conex) throws SQLException {
+        try (PreparedStatement stmt = conex.prepareStatement(INSERT_SQL)) {
+            for (Cambio cambio : cambios) {
+                setCambioParameters(stmt, cambio);
+                stmt.addBatch();
+            }
+            long inicio = RegistroConsultasLentas.iniciar();
+            stmt.executeBatch();
+            RegistroConsultasLentas.registrar("CambioDAO.INSERT_SQL[lote]", inicio, cambios.size(), cambios.size());
+        }
+    }
+
+    //--------------------------------------------------------------------------------------------------------------
+
+    /**
+    * Recupera los cambios pendientes de publicar más antiguos.
+    * Con varios fragmentos los de cada uno se intercalan por fecha de creación.
+    * @param limite cantidad máxima de cambios
+    * @return cambios en orden de ID dentro de cada fragmento
+    * @throws Exception en caso de error de conexión o de ejecución de la consulta
+    */
+    public List<Cambio> leerPendientes(int limite) throws Exception {
+        try {
+            return Fragmentos.intercalar(Fragmentos.enTodos(fragmento -> leerPendientesFragmento(fragmento, limite)),
+                    POR_CREACION, limite);
+        } catch (SQLException e) {
+            throw new Exception("Error al obtener los cambios pendientes: " + e.getMessage(), e);
+        }
+    }
+
+    private List<Cambio> leerPendientesFragmento(int fragmento, int limite) throws SQLException {
+        List<Cambio> cambios = new ArrayList<>(limite);
+        try (Connection conex = DataBaseConnection.getConnection(fragmento);
+                PreparedStatement stmt = conex.prepareStatement(SELECT_PENDIENTES)) {
+            stmt.setInt(1, limite);
+
+            long inicio = RegistroConsultasLentas.iniciar();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    cambios.add(mapResultSetToCambio(rs));
+                }
+            }
+            RegistroConsultasLentas.registrar("CambioDAO.SELECT_PENDIENTES", inicio, cambios.size(), limite);
+        }
+        return cambios;
+    }
+
+    //--------------------------------------------------------------------------------------------------------------
+
+    /**
+    * Marca los cambios como publicados en una única transacción (una por fragmento si hay varios).
+    * @param ids IDs de los cambios ya entregados
+    * @throws Exception en caso de error de conexión o de ejecución
+    */
+    public void marcarPublicados(List<Long> ids) throws Exception {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Map<Integer, List<Long>> porFragmento = Fragmentos.agrupar(ids, Fragmentos::deId);
+        try {
+            Fragmentos.enFragmentos(porFragmento.keySet(), fragmento -> marcarPublicadosFragmento(fragmento, porFragmento.get(fragmento)));
+        } catch (SQLException e) {
+            throw new Exception("Error al marcar cambios como publicados: " + e.getMessage(), e);
+        }
+    }
+
+    private Void marcarPublicadosFragmento(int fragmento, List<Long> ids) throws SQLException {
+        try (Connection conex = DataBaseConnection.getConnection(fragmento)) {
+            conex.setAutoCommit(false);
+            try (PreparedStatement stmt = conex.prepareStatement(UPDATE_PUBLICADO)) {
+                for (Long id : ids) {
+                    stmt.setLong(1, id);
+                    stmt.addBatch();
+                }
+                long inicio = RegistroConsultasLentas.iniciar();
+                stmt.executeBatch();
+                conex.commit();
+                RegistroConsultasLentas.registrar("CambioDAO.UPDATE_PUBLICADO[lote]", inicio, ids.size(), ids.size());
+            } catch (SQLException e) {
+                conex.rollback();
+                throw e;
+            }
+        }
+        return null;
+    }
+
+    //--------------------------------------------------------------------------------------------------------------
+
+    private Cambio mapResultSetToCambio(ResultSet rs) throws SQLException {
+        java.sql.Timestamp creadoEn = rs.getTimestamp("creado_en");
+        return new Cambio(
+            rs.getLong("id"),
+            Cambio.Entidad.valueOf(rs.getString("entidad")),
+            rs.getLong("entidad_id"),
+            Cambio.Operacion.valueOf(rs.getString("operacion")),
+            rs.getString("dato"),
+            creadoEn != null ? new Date(creadoEn.getTime()) : null
+        );
+    }
+
+    private void setCambioParameters(PreparedStatement stmt, Cambio cambio) throws SQLException {
+        stmt.setString(1, cambio.entidad().name());
+        stmt.setLong(2, cambio.entidadId());
+        stmt.setString(3, cambio.operacion().name());
+        stmt.setString(4, cambio.dato());
+    }
+}
@@ -0,0 +1,206 @@
+package tpiprogramacionii.dao;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import tpiprogramacionii.entities.Legajo;
+
+/**
+ * Compresión de legajo.observaciones (TEXT) en la base.
+ * Un valor comprimido se guarda como texto: MARCA, el largo original en bytes UTF-8, ':' y el Deflate del texto
+ * en Base64. Cualquier valor guardado que empiece con MARCA está comprimido (un texto que empieza con MARCA
+ * se comprime siempre, aunque no convenga), así que conviven filas comprimidas y sin comprimir.
+ *
+ * Al guardar se comprime solo con la compresión activada (propiedad observaciones.comprimir), si el texto
+ * tiene al menos umbral() caracteres y si el resultado es más corto. Al leer, el texto se descomprime
+ * recién en el primer getObservaciones del legajo (ver Legajo.setObservacionesDiferidas).
+ */
+public final class CompresionObservaciones {
+
+    /** Prefijo de los valores comprimidos (el separador de unidad ASCII no aparece en texto escrito a mano). */
+    public static final String MARCA = "\u001Fz1:";
+
+    /** Caracteres mínimos para comprimir, por defecto (propiedad observaciones.umbral). */
+    public static final int UMBRAL = 512;
+
+    private CompresionObservaciones() {}
+
+    /**
+     * Resultado de un lote de LegajoDAO.comprimirObservacionesLote.
+     * @param revisados legajos leídos en el lote
+     * @param comprimidos legajos cuyas observaciones se comprimieron
+     * @param bytesAntes bytes UTF-8 de las observaciones comprimidas, antes
+     * @param bytesDespues bytes de las mismas observaciones, comprimidas
+     * @param ultimoId ID del último legajo revisado (desde dónde sigue el próximo lote); 0 si no hubo ninguno
+     */
+    public record Lote(int revisados, int comprimidos, long bytesAntes, long bytesDespues, long ultimoId) {}
+
+    /**
+     * Informe del espacio que ocupan las observaciones en la base.
+     * @param filas legajos con observaciones
+     * @param comprimidas legajos con las observaciones comprimidas
+     * @param bytesGuardados bytes que ocupan en la columna
+     * @param bytesOriginales bytes que ocuparían sin comprimir
+     */
+    public record Informe(long filas, long comprimidas, long bytesGuardados, long bytesOriginales) {
+
+        public Informe sumar(Informe otro) {
+            return new Informe(filas + otro.filas, comprimidas + otro.comprimidas,
+                    bytesGuardados + otro.bytesGuardados, bytesOriginales + otro.bytesOriginales);
+        }
+
+        /**
+         * @return bytes ahorrados por la compresión
+         */
+        public long ahorrados() {
+            return bytesOriginales - bytesGuardados;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("observaciones=%d comprimidas=%d guardados=%d bytes originales=%d bytes ahorro=%d bytes (%.1f%%)",
+                    filas, comprimidas, bytesGuardados, bytesOriginales, ahorrados(),
+                    bytesOriginales > 0 ? 100.0 * ahorrados() / bytesOriginales : 0.0);
+        }
+    }
+
+    /**
+     * Compresión al guardar activada con la propiedad del sistema observaciones.comprimir.
+     */
+    public static boolean activada() {
+        return Boolean.getBoolean("observaciones.comprimir");
+    }
+
+    /**
+     * Umbral configurado con la propiedad del sistema observaciones.umbral (por defecto UMBRAL).
+     */
+    public static int umbral() {
+        return Integer.getInteger("observaciones.umbral", UMBRAL);
+    }
+
+    /**
+     * Valor a escribir en la columna: comprimido si la compresión está activada y conviene
+     * (o si el texto empieza con MARCA), si no el texto tal cual.
+     */
+    public static String paraGuardar(String observaciones) {
+        if (observaciones == null) {
+            return null;
+        }
+        if (esComprimido(observaciones)) {
+            // Guardado tal cual se leería como comprimido
+            return comprimir(observaciones);
+        }
+        if (!activada() || observaciones.length() < umbral()) {
+            return observaciones;
+        }
+        String comprimido = comprimir(observaciones);
+        return comprimido.length() < observaciones.length() ? comprimido : observaciones;
+    }
+
+    /**
+     * Asigna al legajo las observaciones leídas de la columna; si están comprimidas se descomprimen
+     * en el primer getObservaciones.
+     */
+    public static void asignar(Legajo legajo, String guardadas) {
+        if (guardadas != null && esComprimido(guardadas)) {
+            legajo.setObservacionesDiferidas(() -> descomprimir(guardadas));
+        } else {
+            legajo.setObservaciones(guardadas);
+        }
+    }
+
+    public static boolean esComprimido(String guardadas) {
+        return guardadas.startsWith(MARCA);
+    }
+
+    /**
+     * Comprime siempre (aunque el resultado sea más largo).
+     */
+    public static String comprimir(String observaciones) {
+        byte[] texto = observaciones.getBytes(StandardCharsets.UTF_8);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(texto);
+            deflater.finish();
+            ByteArrayOutputStream salida = new ByteArrayOutputStream(Math.max(64, texto.length / 3));
+            byte[] bloque = new byte[4096];
+            while (!deflater.finished()) {
+                salida.write(bloque, 0, deflater.deflate(bloque));
+            }
+            return MARCA + texto.length + ':' + Base64.getEncoder().encodeToString(salida.toByteArray());
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException si el valor no tiene el formato de comprimir (datos corruptos)
+     */
+    public static String descomprimir(String guardadas) {
+        int separador = guardadas.indexOf(':', MARCA.length());
+        if (!esComprimido(guardadas) || separador < 0) {
+            throw new IllegalArgumentException("Observaciones sin el formato comprimido");
+        }
+        Inflater inflater = new Inflater();
+        try {
+            int largo = largoOriginal(guardadas, separador);
+            // Deflate no comprime más de ~1032 a 1: un largo mayor es un dato corrupto (y evita reservar de más)
+            if (largo > (long) (guardadas.length() - separador) * 1100) {
+                throw new IllegalArgumentException("Largo inválido en las observaciones comprimidas: " + largo);
+            }
+            if (largo == 0) {
+                return "";
+            }
+            byte[] texto = new byte[largo];
+            inflater.setInput(Base64.getDecoder().decode(guardadas.substring(separador + 1)));
+            int leidos = 0;
+            while (leidos < texto.length && !inflater.finished()) {
+                int n = inflater.inflate(texto, leidos, texto.length - leidos);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                leidos += n;
+            }
+            if (leidos != texto.length || !inflater.finished()) {
+                throw new IllegalArgumentException("Observaciones comprimidas truncadas o corruptas");
+            }
+            return new String(texto, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Observaciones comprimidas corruptas: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Largo original en bytes UTF-8 de un valor comprimido, leído de su cabecera (sin descomprimir).
+     * @param cabecera el valor guardado, o al menos su principio hasta el ':' que sigue al largo
+     * @return el largo, o -1 si la cabecera no tiene el formato esperado
+     */
+    public static long largoOriginal(String cabecera) {
+        int separador = cabecera.indexOf(':', MARCA.length());
+        if (!esComprimido(cabecera) || separador < 0) {
+            return -1;
+        }
+        try {
+            return largoOriginal(cabecera, separador);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private static int largoOriginal(String guardadas, int separador) {
+        try {
+            int largo = Integer.parseInt(guardadas, MARCA.length(), separador, 10);
+            if (largo < 0) {
+                throw new NumberFormatException();
+            }
+            return largo;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Largo inválido en las observaciones comprimidas", e);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package tpiprogramacionii.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import tpiprogramacionii.entities.Base;
+import tpiprogramacionii.utils.Fragmentos;
+
+/**
+ * Base de los criterios de búsqueda (filtros, orden y paginación) que arman SQL parametrizado.
+ * Reglas que mantienen las consultas aprovechables por los índices:
+ * - los filtros comparan la columna tal cual (sin UPPER() ni otras funciones sobre ella);
+ *   los valores se normalizan del lado de Java antes de enlazarlos;
+ * - solo se puede ordenar por los campos que define cada criterio (no se concatena texto del usuario);
+ * - la paginación es por clave: se pide la página siguiente a partir del último elemento leído
+ *   (valor del campo de orden + ID), nunca con OFFSET.
+ * El SQL depende solo de la forma de la consulta (qué filtros hay, orden y si tiene cursor),
+ * así que se arma una vez por forma y se reutiliza; los valores van siempre como parámetros.
+ *
+ * @param <E> entidad que devuelve la consulta
+ * @param <C> tipo concreto del criterio (para encadenar los métodos)
+ */
+public abstract class Criterio<E extends Base, C extends Criterio<E, C>> {
+
+    public static final int LIMITE_MAXIMO = 1000;
+    public static final int LIMITE_POR_DEFECTO = 100;
+
+    // forma de la consulta -> SQL generado
+    private static final Map<String, String> SQL_POR_FORMA = new ConcurrentHashMap<>();
+
+    /**
+     * Campo por el que se puede ordenar. Cada criterio los define en un enum.
+     * @param <E> entidad de la que se toma el valor para el cursor
+     */
+    public interface CampoOrden<E> {
+        /** Nombre del campo (lo implementan los enum); forma parte de la forma de la consulta. */
+        String name();
+
+        /** Columna (con alias de tabla si corresponde) usada en ORDER BY y en la condición del cursor. */
+        String columna();
+
+        /** Indica si la columna puede ser NULL (cambia la condición del cursor). */
+        boolean admiteNulos();
+
+        /** Tipo del valor (con varios fragmentos no se ordena por textos, ver ordenarPor). */
+        Class<?> tipo();
+
+        /** Valor del campo en la entidad, para continuar la paginación después de ella. */
+        Object valor(E entidad);
+    }
+
+    // clave del filtro -> condición. Ordenado por clave para que la forma no dependa del orden de las llamadas
+    private final Map<String, Condicion> condiciones = new TreeMap<>();
+    private CampoOrden<E> orden;
+    private boolean descendente;
+    private boolean conCursor;
+    private Object cursorValor;
+    private long cursorId;
+    private int limite = LIMITE_POR_DEFECTO;
+
+    protected Criterio(CampoOrden<E> ordenInicial) {
+        this.orden = ordenInicial;
+    }
+
+    protected abstract C self();
+
+    /** SELECT ... FROM ... WHERE con la condición fija (por ejemplo, eliminado = FALSE). */
+    protected abstract String consultaBase();
+
+    /** Columna del ID, que desempata el orden y completa el cursor. */
+    protected abstract String columnaId();
+
+    /**
+     * Agrega (o reemplaza) un filtro.
+     * @param clave identifica el filtro dentro de la forma de la consulta
+     * @param sql condición con marcadores ? (por ejemplo "e.area = ?")
+     * @param valores valores de los marcadores, en orden
+     */
+    protected C filtrar(String clave, String sql, Object... valores) {
+        for (Object valor : valores) {
+            if (valor == null) {
+                throw new IllegalArgumentException("El valor del filtro " + clave + " no puede ser null");
+            }
+        }
+        condiciones.put(clave, new Condicion(sql, valores));
+        return self();
+    }
+
+    /**
+     * Valida un filtro de texto y lo pasa a mayúsculas, que es como la aplicación guarda
+     * áreas y categorías (así la columna se compara sin funciones y puede usar su índice).
+     */
+    protected static String mayusculas(String valor, String campo) {
+        if (valor == null || valor.trim().isEmpty()) {
+            throw new IllegalArgumentException("El filtro de " + campo + " no puede estar vacío");
+        }
+        return valor.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Define el orden de los resultados. A igual valor se ordena por ID en el mismo sentido.
+     * Cambiar el orden descarta el cursor, que solo vale para el orden con el que se tomó.
+     * Con varios fragmentos no se aceptan campos de texto: MySQL los ordena con la intercalación de la
+     * columna (sin distinguir mayúsculas ni acentos), que Java no reproduce al combinar los fragmentos,
+     * y las páginas podrían saltear o repetir filas.
+     */
+    public C ordenarPor(CampoOrden<E> campo, boolean descendente) {
+        if (campo == null) {
+            throw new IllegalArgumentException("El campo de orden no puede ser null");
+        }
+        if (campo.tipo() == String.class && Fragmentos.cantidad() > 1) {
+            throw new IllegalArgumentException("Con varios fragmentos no se puede ordenar por " + campo.name()
+                    + ": los textos solo se ordenan con una única base");
+        }
+        this.orden = campo;
+        this.descendente = descendente;
+        this.conCursor = false;
+        return self();
+    }
+
+    /**
+     * Pide la página que sigue a la entidad indicada (normalmente, la última de la página anterior).
+     * @param ultima entidad a partir de la cual continuar (requiere ID)
+     */
+    public C despuesDe(E ultima) {
+        if (ultima == null || ultima.getId() == null) {
+            throw new IllegalArgumentException("Para continuar la paginación se necesita una entidad con ID");
+        }
+        this.conCursor = true;
+        this.cursorValor = orden.valor(ultima);
+        this.cursorId = ultima.getId();
+        return self();
+    }
+
+    /**
+     * @param limite cantidad máxima de resultados (entre 1 y LIMITE_MAXIMO)
+     */
+    public C limite(int limite) {
+        if (limite <= 0 || limite > LIMITE_MAXIMO) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + LIMITE_MAXIMO);
+        }
+        this.limite = limite;
+        return self();
+    }
+
+    public int getLimite() {
+        return limite;
+    }
+
+    /**
+     * Forma de la consulta: tipo de criterio, filtros presentes, orden y tipo de cursor.
+     * Dos criterios con la misma forma generan el mismo SQL.
+     */
+    public String getForma() {
+        StringBuilder forma = new StringBuilder(getClass().getSimpleName()).append('[');
+        forma.append(String.join(",", condiciones.keySet()));
+        forma.append("|").append(orden.name()).append(descendente ? " DESC" : "");
+        if (conCursor) {
+            forma.append(cursorValor == null ? "|cursor nulo" : "|cursor");
+        }
+        return forma.append(']').toString();
+    }
+
+    /**
+     * SQL de la consulta (se genera una sola vez por forma).
+     */
+    public String getSql() {
+        return SQL_POR_FORMA.computeIfAbsent(getForma(), forma -> generarSql());
+    }
+
+    /**
+     * Enlaza los valores de los filtros, del cursor y el límite, en el mismo orden que getSql().
+     * @return los valores enlazados (para el registro de consultas lentas)
+     */
+    public Object[] asignarParametros(PreparedStatement stmt) throws SQLException {
+        List<Object> valores = new ArrayList<>();
+        for (Condicion condicion : condiciones.values()) {
+            valores.addAll(List.of(condicion.valores));
+        }
+        if (conCursor) {
+            if (orden.columna().equals(columnaId()) || (orden.admiteNulos() && cursorValor == null)) {
+                valores.add(cursorId);
+            } else {
+                valores.add(cursorValor);
+                valores.add(cursorValor);
+                valores.add(cursorId);
+            }
+        }
+        valores.add(limite);
+
+        int i = 1;
+        for (Object valor : valores) {
+            if (valor instanceof Date fecha) {
+                stmt.setDate(i++, new java.sql.Date(fecha.getTime()));
+            } else if (valor instanceof Enum<?> constante) {
+                stmt.setString(i++, constante.name());
+            } else {
+                stmt.setObject(i++, valor);
+            }
+        }
+        return valores.toArray();
+    }
+
+    /**
+     * El mismo orden que el SQL generado, del lado de Java: NULL primero en ascendente y último en
+     * descendente, e ID como desempate. Sirve para combinar los resultados de varios fragmentos
+     * (ver Fragmentos.intercalar). Los campos de texto no llegan acá con varios fragmentos (ver ordenarPor),
+     * así que los valores comparados (números y fechas) tienen el mismo orden en Java y en MySQL.
+     */
+    public Comparator<E> comparador() {
+        CampoOrden<E> campo = orden;
+        Comparator<E> comparador = Comparator.comparing(campo::valor, Comparator.nullsFirst(Criterio::compararValores));
+        comparador = comparador.thenComparing(Base::getId);
+        return descendente ? comparador.reversed() : comparador;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compararValores(Object a, Object b) {
+        return ((Comparable<Object>) a).compareTo(b);
+    }
+
+    /**
+     * @return cantidad de formas distintas generadas desde el arranque
+     */
+    public static int getFormasEnCache() {
+        return SQL_POR_FORMA.size();
+    }
+
+    private String generarSql() {
+        StringBuilder sql = new StringBuilder(consultaBase());
+        for (Condicion condicion : condiciones.values()) {
+            sql.append(" AND ").append(condicion.sql);
+        }
+        String columna = orden.columna();
+        String id = columnaId();
+        String sentido = descendente ? " DESC" : "";
+        String mayor = descendente ? " < ?" : " > ?";
+        if (conCursor) {
+            // Los NULL quedan primero en orden ascendente y últimos en descendente (MySQL)
+            if (columna.equals(id)) {
+                sql.append(" AND ").append(id).append(mayor);
+            } else if (orden.admiteNulos() && cursorValor == null) {
+                sql.append(descendente
+                        ? " AND (" + columna + " IS NULL AND " + id + mayor + ")"
+                        : " AND ((" + columna + " IS NULL AND " + id + mayor + ") OR " + columna + " IS NOT NULL)");
+            } else {
+                sql.append(" AND (").append(columna).append(mayor)
+                   .append(" OR (").append(columna).append(" = ? AND ").append(id).append(mayor).append(")")
+                   .append(orden.admiteNulos() && descendente ? " OR " + columna + " IS NULL" : "")
+                   .append(")");
+            }
+        }
+        sql.append(" ORDER BY ");
+        if (!columna.equals(id)) {
+            sql.append(columna).append(sentido).append(", ");
+        }
+        sql.append(id).append(sentido).append(" LIMIT ?");
+        return sql.toString();
+    }
+
+    private record Condicion(String sql, Object[] valores) {}
+}
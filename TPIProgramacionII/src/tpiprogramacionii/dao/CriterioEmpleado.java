@@ -0,0 +1,120 @@
+package tpiprogramacionii.dao;
+
+import java.util.Date;
+import java.util.function.Function;
+import tpiprogramacionii.entities.Empleado;
+import tpiprogramacionii.entities.Estado;
+
+/**
+ * Criterio de búsqueda de empleados activos (con su legajo).
+ * Ejemplo: los empleados de VENTAS con legajo ACTIVO, del ingreso más reciente al más antiguo:
+ * <pre>
+ * CriterioEmpleado criterio = new CriterioEmpleado()
+ *         .area("Ventas")
+ *         .estado(Estado.ACTIVO)
+ *         .ordenarPor(CriterioEmpleado.Orden.FECHA_INGRESO, true)
+ *         .limite(50);
+ * List&lt;Empleado&gt; pagina = empleadoService.buscar(criterio);
+ * // página siguiente
+ * criterio.despuesDe(pagina.get(pagina.size() - 1));
+ * </pre>
+ * Los textos se comparan en mayúsculas, que es como los guarda la aplicación.
+ */
+public class CriterioEmpleado extends Criterio<Empleado, CriterioEmpleado> {
+
+    private static final String SELECT_BASE = "SELECT e.id, e.nombre, e.apellido, e.dni, e.email, e.fecha_ingreso, e.area, " +
+                                              "l.id AS legajo_id, l.nro_legajo, l.categoria, l.estado, l.fecha_alta, l.observaciones " +
+                                              "FROM empleado e " +
+                                              "LEFT JOIN legajo l ON e.legajo_id = l.id " +
+                                              "WHERE e.eliminado = FALSE";
+
+    /**
+     * Campos por los que se puede ordenar.
+     */
+    public enum Orden implements CampoOrden<Empleado> {
+        ID("e.id", false, Long.class, Empleado::getId),
+        APELLIDO("e.apellido", false, String.class, Empleado::getApellido),
+        AREA("e.area", true, String.class, Empleado::getArea),
+        FECHA_INGRESO("e.fecha_ingreso", true, Date.class, Empleado::getFechaIngreso);
+
+        private final String columna;
+        private final boolean admiteNulos;
+        private final Class<?> tipo;
+        private final Function<Empleado, Object> valor;
+
+        Orden(String columna, boolean admiteNulos, Class<?> tipo, Function<Empleado, Object> valor) {
+            this.columna = columna;
+            this.admiteNulos = admiteNulos;
+            this.tipo = tipo;
+            this.valor = valor;
+        }
+
+        @Override
+        public String columna() {
+            return columna;
+        }
+
+        @Override
+        public boolean admiteNulos() {
+            return admiteNulos;
+        }
+
+        @Override
+        public Class<?> tipo() {
+            return tipo;
+        }
+
+        @Override
+        public Object valor(Empleado empleado) {
+            return valor.apply(empleado);
+        }
+    }
+
+    /**
+     * Criterio sin filtros, ordenado por ID.
+     */
+    public CriterioEmpleado() {
+        super(Orden.ID);
+    }
+
+    public CriterioEmpleado area(String area) {
+        return filtrar("area", "e.area = ?", mayusculas(area, "área"));
+    }
+
+    public CriterioEmpleado categoria(String categoria) {
+        return filtrar("categoria", "l.categoria = ?", mayusculas(categoria, "categoría"));
+    }
+
+    public CriterioEmpleado estado(Estado estado) {
+        return filtrar("estado", "l.estado = ?", estado);
+    }
+
+    /**
+     * @param desde fecha de ingreso mínima (inclusive)
+     */
+    public CriterioEmpleado fechaIngresoDesde(Date desde) {
+        return filtrar("fechaIngresoDesde", "e.fecha_ingreso >= ?", desde);
+    }
+
+    /**
+     * @param hasta fecha de ingreso máxima (inclusive)
+     */
+    public CriterioEmpleado fechaIngresoHasta(Date hasta) {
+        return filtrar("fechaIngresoHasta", "e.fecha_ingreso <= ?", hasta);
+    }
+
+    @Override
+    protected CriterioEmpleado self() {
+        return this;
+    }
+
+    @Override
+    protected String consultaBase() {
+        return SELECT_BASE;
+    }
+
+    @Override
+    protected String columnaId() {
+        return Orden.ID.columna();
+    }
+}
@@ -0,0 +1,102 @@
+package tpiprogramacionii.dao;
+
+import java.util.Date;
+import java.util.function.Function;
+import tpiprogramacionii.entities.Estado;
+import tpiprogramacionii.entities.Legajo;
+
+/**
+ * Criterio de búsqueda de legajos no eliminados (de cualquier estado, salvo que se filtre por estado).
+ * Se usa igual que CriterioEmpleado.
+ */
+public class CriterioLegajo extends Criterio<Legajo, CriterioLegajo> {
+
+    private static final String SELECT_BASE = "SELECT id, nro_legajo, categoria, estado, fecha_alta, observaciones " +
+                                              "FROM legajo WHERE eliminado = FALSE";
+
+    /**
+     * Campos por los que se puede ordenar.
+     */
+    public enum Orden implements CampoOrden<Legajo> {
+        ID("id", false, Long.class, Legajo::getId),
+        NRO_LEGAJO("nro_legajo", true, String.class, Legajo::getNroLegajo),
+        CATEGORIA("categoria", true, String.class, Legajo::getCategoria),
+        FECHA_ALTA("fecha_alta", true, Date.class, Legajo::getFechaAlta);
+
+        private final String columna;
+        private final boolean admiteNulos;
+        private final Class<?> tipo;
+        private final Function<Legajo, Object> valor;
+
+        Orden(String columna, boolean admiteNulos, Class<?> tipo, Function<Legajo, Object> valor) {
+            this.columna = columna;
+            this.admiteNulos = admiteNulos;
+            this.tipo = tipo;
+            this.valor = valor;
+        }
+
+        @Override
+        public String columna() {
+            return columna;
+        }
+
+        @Override
+        public boolean admiteNulos() {
+            return admiteNulos;
+        }
+
+        @Override
+        public Class<?> tipo() {
+            return tipo;
+        }
+
+        @Override
+        public Object valor(Legajo legajo) {
+            return valor.apply(legajo);
+        }
+    }
+
+    /**
+     * Criterio sin filtros, ordenado por ID.
+     */
+    public CriterioLegajo() {
+        super(Orden.ID);
+    }
+
+    public CriterioLegajo categoria(String categoria) {
+        return filtrar("categoria", "categoria = ?", mayusculas(categoria, "categoría"));
+    }
+
+    public CriterioLegajo estado(Estado estado) {
+        return filtrar("estado", "estado = ?", estado);
+    }
+
+    /**
+     * @param desde fecha de alta mínima (inclusive)
+     */
+    public CriterioLegajo fechaAltaDesde(Date desde) {
+        return filtrar("fechaAltaDesde", "fecha_alta >= ?", desde);
+    }
+
+    /**
+     * @param hasta fecha de alta máxima (inclusive)
+     */
+    public CriterioLegajo fechaAltaHasta(Date hasta) {
+        return filtrar("fechaAltaHasta", "fecha_alta <= ?", hasta);
+    }
+
+    @Override
+    protected CriterioLegajo self() {
+        return this;
+    }
+
+    @Override
+    protected String consultaBase() {
+        return SELECT_BASE;
+    }
+
+    @Override
+    protected String columnaId() {
+        return Orden.ID.columna();
+    }
+}
@@ -0,0 +1,349 @@
+package tpiprogramacionii.dao;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import tpiprogramacionii.entities.Base;
+import tpiprogramacionii.utils.DataBaseConnection;
+import tpiprogramacionii.utils.Fragmentos;
+import tpiprogramacionii.utils.RegistroConsultasLentas;
+
+/**
+ * GenericDAO armado a partir de un DescriptorEntidad, para entidades nuevas que no necesitan consultas
+ * propias. En el constructor se genera el SQL y se encadenan las columnas del descriptor en dos
+ * MethodHandles, uno que asigna todos los parámetros y otro que mapea una fila, así no se usa reflexión
+ * ni se recorre la lista de columnas por fila. Los handles quedan en los campos static final de una clase
+ * oculta propia del DAO (copia de MapeoGenerado), que el JIT trata como constantes: la cadena se inlinea
+ * como un mapeo escrito a mano (ver BenchmarksMapeo). En un campo de instancia no serían constantes y cada
+ * llamada pasaría por el handle sin inlinear.
+ * Mismo comportamiento que los DAOs escritos a mano:
+ * - eliminar es una baja lógica (eliminado = TRUE) y las lecturas solo devuelven filas activas;
+ * - actualizar y eliminar lanzan SQLException si no modifican ninguna fila;
+ * - con varios fragmentos el ID indica el fragmento de la fila y las altas van al de la clave del descriptor.
+ * En las consultas lentas las sentencias se registran como "tabla.INSERT_SQL", "tabla.SEARCH_BY_ID", etc.
+ * @param <T> entidad del DAO
+ */
+public class DAOGenerico<T extends Base> implements GenericDAO<T> {
+
+    private final DescriptorEntidad<T> descriptor;
+    private final List<DescriptorEntidad.Columna<T>> columnas;
+    private final String tabla;
+    // Instancia de la clase oculta generada para este descriptor
+    private final Mapeo mapeo;
+
+    /**
+     * Asignación de parámetros y mapeo de filas de un descriptor; lo implementan las clases ocultas
+     * definidas a partir de MapeoGenerado.
+     */
+    interface Mapeo {
+        void asignar(PreparedStatement stmt, Object entidad) throws Throwable;
+
+        Object mapear(ResultSet rs) throws Throwable;
+    }
+
+    // Bytes de MapeoGenerado, la plantilla de las clases ocultas (se leen una vez)
+    private static byte[] plantilla;
+
+    //QUERYS (generadas a partir del descriptor): -----------------------------------------------------------------------
+
+    private final String insertSql;
+    private final String updateSql;
+    private final String deleteSql;
+    private final String searchById;
+    private final String selectAllActive;
+
+    //CONSTRUCTOR
+    public DAOGenerico(DescriptorEntidad<T> descriptor) {
+        if (descriptor == null) {
+            throw new IllegalArgumentException("El descriptor no puede ser null");
+        }
+        this.descriptor = descriptor;
+        this.columnas = List.copyOf(descriptor.getColumnas());
+        if (columnas.isEmpty()) {
+            throw new IllegalArgumentException("La tabla " + descriptor.getTabla() + " no tiene columnas declaradas");
+        }
+        this.tabla = descriptor.getTabla();
+
+        StringJoiner nombres = new StringJoiner(", ");
+        StringJoiner marcadores = new StringJoiner(", ");
+        StringJoiner asignaciones = new StringJoiner(", ");
+        MethodHandle asignarTodas = null;
+        MethodHandle leerTodas = null;
+        for (int i = 0; i < columnas.size(); i++) {
+            DescriptorEntidad.Columna<T> columna = columnas.get(i);
+            nombres.add(columna.nombre());
+            marcadores.add("?");
+            asignaciones.add(columna.nombre() + " = ?");
+            //foldArguments(siguiente, anteriores): ejecuta las anteriores y después la siguiente con los mismos argumentos
+            asignarTodas = asignarTodas == null ? columna.asignacion(i + 1)
+                                                : MethodHandles.foldArguments(columna.asignacion(i + 1), asignarTodas);
+            leerTodas = leerTodas == null ? columna.lectura() : MethodHandles.foldArguments(columna.lectura(), leerTodas);
+        }
+        this.mapeo = definirMapeo(descriptor.creacion(), asignarTodas, leerTodas);
+        //Las lecturas solo devuelven filas activas: eliminado no se lee (queda en false)
+        String select = "SELECT id, " + nombres + " FROM " + tabla + " ";
+
+        this.insertSql = "INSERT INTO " + tabla + " (" + nombres + ") VALUES (" + marcadores + ")";
+        this.updateSql = "UPDATE " + tabla + " SET " + asignaciones + " WHERE id = ? AND eliminado = FALSE";
+        this.deleteSql = "UPDATE " + tabla + " SET eliminado = TRUE WHERE id = ? AND eliminado = FALSE";
+        this.searchById = select + "WHERE id = ? AND eliminado = FALSE";
+        this.selectAllActive = select + "WHERE eliminado = FALSE ORDER BY id";
+    }
+
+    /**
+     * Define una clase oculta con los bytes de MapeoGenerado y los handles del descriptor como datos de la clase,
+     * y devuelve una instancia. Cada DAO tiene su propia clase, así sus handles son constantes para el JIT.
+     */
+    private static Mapeo definirMapeo(MethodHandle creacion, MethodHandle asignacion, MethodHandle mapeo) {
+        try {
+            MethodHandles.Lookup oculta = MethodHandles.lookup()
+                    .defineHiddenClassWithClassData(plantilla(), List.of(creacion, asignacion, mapeo), true);
+            return (Mapeo) oculta.findConstructor(oculta.lookupClass(), MethodType.methodType(void.class)).invoke();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("No se pudo generar el mapeo: " + e.getMessage(), e);
+        }
+    }
+
+    private static synchronized byte[] plantilla() throws IOException {
+        if (plantilla == null) {
+            try (InputStream in = DAOGenerico.class.getResourceAsStream("MapeoGenerado.class")) {
+                if (in == null) {
+                    throw new IOException("No se encontró MapeoGenerado.class");
+                }
+                plantilla = in.readAllBytes();
+            }
+        }
+        return plantilla;
+    }
+
+    //MÉTODOS HEREDADOS --------------------------------------------------------------------------------------------------
+
+    /**
+    * Inserta la entidad (versión autónoma) en el fragmento de su clave y le asigna el ID generado.
+    * @param entidad a insertar
+    * @throws Exception si falla la inserción
+    */
+
+    @Override
+    public void insertar(T entidad) throws Exception {
+        int fragmento = Fragmentos.deClave(descriptor.claveFragmento(entidad));
+        try (Connection conex = DataBaseConnection.getConnection(fragmento)) {
+            insertTx(entidad, conex);
+            Fragmentos.verificarId(entidad.getId(), fragmento);
+        }
+    }
+
+    //--------------------------------------------------------------------------------------------------------------
+
+    /**
+    * Inserta la entidad usando una conexión existente (No la crea ni la cierra) y le asigna el ID generado.
+    * @param entidad a insertar
+    * @param conex Conexión transaccional activa
+    * @throws Exception si falla la inserción o no se obtiene el ID
+    */
+
+    @Override
+    public void insertTx(T entidad, Connection conex) throws Exception {
+        try (PreparedStatement stmt = conex.prepareStatement(insertSql, Statement.RETURN_GENERATED_KEYS)) {
+            asignarParametros(stmt, entidad);
+            long inicio = RegistroConsultasLentas.iniciar();
+            int filas = stmt.executeUpdate();
+            RegistroConsultasLentas.registrar(tabla + ".INSERT_SQL", inicio, filas, valores(entidad));
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    entidad.setId(generatedKeys.getLong(1));
+                } else {
+                    throw new SQLException("La inserción en " + tabla + " falló, no se obtuvo ID generado");
+                }
+            }
+        }
+    }
+
+    //--------------------------------------------------------------------------------------------------------------
+
+    /**
+    * Actualiza todas las columnas del descriptor de una entidad activa (versión autónoma).
+    * @param entidad con el ID de la fila a actualizar
+    * @throws Exception en caso de error de conexión o de ejecución
+    */
+
+    @Override
+    public void actualizar(T entidad) throws Exception {
+        try (Connection conex = DataBaseConnection.getConnection(Fragmentos.deId(entidad.getId()))) {
+            actualizarTx(entidad, conex);
+        }
+    }
+
+    //--------------------------------------------------------------------------------------------------------------
+
+    /**
+    * Actualiza todas las columnas del descriptor usando una conexión existente.
+    * @param entidad con el ID de la fila a actualizar
+    * @param conex Conexión transaccional activa
+    * @throws Exception si la fila no existe o está eliminada, o en caso de error de ejecución
+    */
+
+    @Override
+    public void actualizarTx(T entidad, Connection conex) throws Exception {
+        try (PreparedStatement stmt = conex.prepareStatement(updateSql)) {
+            asignarParametros(stmt, entidad);
+            stmt.setLong(columnas.size() + 1, entidad.getId());
+            long inicio = RegistroConsultasLentas.iniciar();
+            int rowsAffected = stmt.executeUpdate();
+            RegistroConsultasLentas.registrar(tabla + ".UPDATE_SQL", inicio, rowsAffected, entidad.getId());
+            if (rowsAffected == 0) {
+                throw new SQLException("No se pudo actualizar " + tabla + " con ID: " + entidad.getId());
+            }
+        }
+    }
+
+    //--------------------------------------------------------------------------------------------------------------
+
+    /**
+    * Elimina lógicamente una fila (versión autónoma).
+    * @param id de la fila a eliminar
+    * @throws Exception en caso de error de conexión o de ejecución
+    */
+
+    @Override
+    public void eliminar(Long id) throws Exception {
+        try (Connection conex = DataBaseConnection.getConnection(Fragmentos.deId(id))) {
+            eliminarTx(id, conex);
+        }
+    }
+
+    //--------------------------------------------------------------------------------------------------------------
+
+    /**
+    * Elimina lógicamente una fila usando una conexión existente.
+    * @param id de la fila a eliminar
+    * @param conex Conexión transaccional activa
+    * @throws Exception si ya estaba eliminada o no existe, o en caso de error de ejecución
+    */
+
+    @Override
+    public void eliminarTx(Long id, Connection conex) throws Exception {
+        try (PreparedStatement stmt = conex.prepareStatement(deleteSql)) {
+            stmt.setLong(1, id);
+            long inicio = RegistroConsultasLentas.iniciar();
+            int rowsAffected = stmt.executeUpdate();
+            RegistroConsultasLentas.registrar(tabla + ".DELETE_SQL", inicio, rowsAffected, id);
+            if (rowsAffected == 0) {
+                throw new SQLException("La fila de " + tabla + " con ID " + id + " ya estaba eliminada o no existe.");
+            }
+        }
+    }
+
+    //--------------------------------------------------------------------------------------------------------------
+
+    /**
+    * Obtiene una fila activa por su ID.
+    * @param id de la fila
+    * @return la entidad, o null si no existe o está eliminada
+    * @throws Exception en caso de error de conexión o de ejecución de la consulta
+    */
+
+    @Override
+    public T leer(Long id) throws Exception {
+        try (Connection conex = DataBaseConnection.getConnection(Fragmentos.deId(id));
+                PreparedStatement stmt = conex.prepareStatement(searchById)) {
+            stmt.setLong(1, id);
+
+            long inicio = RegistroConsultasLentas.iniciar();
+            try (ResultSet rs = stmt.executeQuery()) {
+                T entidad = rs.next() ? mapear(rs) : null;
+                RegistroConsultasLentas.registrar(tabla + ".SEARCH_BY_ID", inicio, entidad != null ? 1 : 0, id);
+                return entidad;
+            }
+        } catch (SQLException e) {
+            throw new Exception("Error al obtener " + tabla + " por ID: " + e.getMessage(), e);
+        }
+    }
+
+    //--------------------------------------------------------------------------------------------------------------
+
+    /**
+    * Recupera todas las filas activas, en orden de ID dentro de cada fragmento.
+    * @return lista de entidades activas
+    * @throws Exception en caso de error de conexión o de ejecución de la consulta
+    */
+
+    @Override
+    public List<T> leerTodos() throws Exception {
+        List<T> entidades = new ArrayList<>();
+        try {
+            for (List<T> parte : Fragmentos.enTodos(this::leerTodosFragmento)) {
+                entidades.addAll(parte);
+            }
+        } catch (SQLException e) {
+            throw new Exception("Error al obtener el listado de " + tabla + ": " + e.getMessage(), e);
+        }
+        return entidades;
+    }
+
+    private List<T> leerTodosFragmento(int fragmento) throws SQLException {
+        List<T> entidades = new ArrayList<>();
+        try (Connection conex = DataBaseConnection.getConnection(fragmento);
+                PreparedStatement stmt = conex.prepareStatement(selectAllActive)) {
+            long inicio = RegistroConsultasLentas.iniciar();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    entidades.add(mapear(rs));
+                }
+            }
+            RegistroConsultasLentas.registrar(tabla + ".SELECT_ALL_ACTIVE", inicio, entidades.size());
+        }
+        return entidades;
+    }
+
+    //--------------------------------------------------------------------------------------------------------------
+
+    /**
+    * Crea una entidad a partir de la fila actual (id y columnas del descriptor).
+    * Es público para poder medirlo desde los benchmarks.
+    * @param rs ResultSet posicionado en la fila
+    * @return entidad con sus valores
+    * @throws SQLException si falta una columna o no se puede convertir
+    */
+
+    @SuppressWarnings("unchecked")
+    public T mapear(ResultSet rs) throws SQLException {
+        try {
+            return (T) mapeo.mapear(rs);
+        } catch (SQLException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new SQLException("Error al mapear " + tabla + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void asignarParametros(PreparedStatement stmt, T entidad) throws SQLException {
+        try {
+            mapeo.asignar(stmt, entidad);
+        } catch (SQLException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new SQLException("Error al asignar los parámetros de " + tabla + ": " + e.getMessage(), e);
+        }
+    }
+
+    private Object[] valores(T entidad) {
+        Object[] valores = new Object[columnas.size()];
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = columnas.get(i).valor(entidad);
+        }
+        return valores;
+    }
+}
@@ -0,0 +1,249 @@
+package tpiprogramacionii.dao;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import tpiprogramacionii.entities.Base;
+
+/**
+ * Descripción de una tabla para DAOGenerico: nombre, cómo crear la entidad y sus columnas.
+ * Cada columna se declara con su getter y su setter (referencias a método); DAOGenerico los encadena
+ * una sola vez en MethodHandles, así asignar parámetros y mapear filas no usa reflexión.
+ * Las columnas de Base no se declaran: toda tabla tiene id (BIGINT AUTO_INCREMENT PRIMARY KEY)
+ * y eliminado (BOOLEAN NOT NULL DEFAULT FALSE, baja lógica).
+ * Ejemplo:
+ * <pre>
+ * DescriptorEntidad&lt;Legajo&gt; legajo = DescriptorEntidad.de("legajo", Legajo::new)
+ *         .texto("nro_legajo", Legajo::getNroLegajo, Legajo::setNroLegajo)
+ *         .texto("categoria", Legajo::getCategoria, Legajo::setCategoria)
+ *         .enumerado("estado", Estado.class, Legajo::getEstado, Legajo::setEstado)
+ *         .fecha("fecha_alta", Legajo::getFechaAlta, Legajo::setFechaAlta)
+ *         .texto("observaciones", Legajo::getObservaciones, Legajo::setObservaciones);
+ * GenericDAO&lt;Legajo&gt; dao = new DAOGenerico&lt;&gt;(legajo);
+ * </pre>
+ * @param <T> entidad descripta
+ */
+public final class DescriptorEntidad<T extends Base> {
+
+    // Los nombres se concatenan en el SQL: solo se aceptan identificadores simples
+    private static final Pattern IDENTIFICADOR = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    private final String tabla;
+    private final Supplier<T> fabrica;
+    private final List<Columna<T>> columnas = new ArrayList<>();
+    private Function<T, String> claveFragmento;
+
+    private DescriptorEntidad(String tabla, Supplier<T> fabrica) {
+        this.tabla = identificador(tabla);
+        this.fabrica = fabrica;
+    }
+
+    /**
+     * @param tabla nombre de la tabla
+     * @param fabrica crea una entidad vacía (por ejemplo Legajo::new)
+     */
+    public static <T extends Base> DescriptorEntidad<T> de(String tabla, Supplier<T> fabrica) {
+        if (fabrica == null) {
+            throw new IllegalArgumentException("La fábrica de la entidad no puede ser null");
+        }
+        return new DescriptorEntidad<>(tabla, fabrica);
+    }
+
+    /** Columna VARCHAR / TEXT. */
+    public DescriptorEntidad<T> texto(String columna, Function<T, String> getter, BiConsumer<T, String> setter) {
+        return agregar(columna, getter, setter, (stmt, i, v) -> stmt.setString(i, v), ResultSet::getString);
+    }
+
+    /** Columna BIGINT (NULL se lee como null). */
+    public DescriptorEntidad<T> entero(String columna, Function<T, Long> getter, BiConsumer<T, Long> setter) {
+        return agregar(columna, getter, setter, (stmt, i, v) -> {
+            if (v != null) {
+                stmt.setLong(i, v);
+            } else {
+                stmt.setNull(i, Types.BIGINT);
+            }
+        }, (rs, c) -> {
+            long v = rs.getLong(c);
+            return rs.wasNull() ? null : v;
+        });
+    }
+
+    /** Columna DATE. */
+    public DescriptorEntidad<T> fecha(String columna, Function<T, Date> getter, BiConsumer<T, Date> setter) {
+        return agregar(columna, getter, setter, (stmt, i, v) -> {
+            if (v != null) {
+                stmt.setDate(i, new java.sql.Date(v.getTime()));
+            } else {
+                stmt.setNull(i, Types.DATE);
+            }
+        }, ResultSet::getDate);
+    }
+
+    /** Columna BOOLEAN (NULL se lee como null). */
+    public DescriptorEntidad<T> booleano(String columna, Function<T, Boolean> getter, BiConsumer<T, Boolean> setter) {
+        return agregar(columna, getter, setter, (stmt, i, v) -> {
+            if (v != null) {
+                stmt.setBoolean(i, v);
+            } else {
+                stmt.setNull(i, Types.BOOLEAN);
+            }
+        }, (rs, c) -> {
+            boolean v = rs.getBoolean(c);
+            return rs.wasNull() ? null : v;
+        });
+    }
+
+    /** Enum guardado por nombre en una columna VARCHAR. */
+    public <E extends Enum<E>> DescriptorEntidad<T> enumerado(String columna, Class<E> tipo,
+                                                               Function<T, E> getter, BiConsumer<T, E> setter) {
+        if (tipo == null) {
+            throw new IllegalArgumentException("El tipo del enum no puede ser null");
+        }
+        return agregar(columna, getter, setter, (stmt, i, v) -> stmt.setString(i, v != null ? v.name() : null), (rs, c) -> {
+            String v = rs.getString(c);
+            return v != null ? Enum.valueOf(tipo, v) : null;
+        });
+    }
+
+    /**
+     * Clave que decide el fragmento de una fila nueva (ver Fragmentos.deClave). Sin clave, con varios
+     * fragmentos todas las altas van al fragmento 0.
+     */
+    public DescriptorEntidad<T> claveFragmento(Function<T, String> clave) {
+        this.claveFragmento = clave;
+        return this;
+    }
+
+    String getTabla() {
+        return tabla;
+    }
+
+    /**
+     * ()Object: crea una entidad vacía con la fábrica del descriptor (ver DAOGenerico).
+     */
+    MethodHandle creacion() {
+        return Columna.OBTENER.bindTo(fabrica);
+    }
+
+    List<Columna<T>> getColumnas() {
+        return Collections.unmodifiableList(columnas);
+    }
+
+    String claveFragmento(T entidad) {
+        return claveFragmento != null ? claveFragmento.apply(entidad) : null;
+    }
+
+    private <V> DescriptorEntidad<T> agregar(String columna, Function<T, V> getter, BiConsumer<T, V> setter,
+                                             Asignador<V> asignador, Lector<V> lector) {
+        String nombre = identificador(columna);
+        if (nombre.equalsIgnoreCase("id") || nombre.equalsIgnoreCase("eliminado")) {
+            throw new IllegalArgumentException("La columna " + nombre + " es de Base y no se declara");
+        }
+        for (Columna<T> existente : columnas) {
+            if (existente.nombre().equalsIgnoreCase(nombre)) {
+                throw new IllegalArgumentException("La columna " + nombre + " ya está declarada");
+            }
+        }
+        if (getter == null || setter == null) {
+            throw new IllegalArgumentException("La columna " + nombre + " necesita getter y setter");
+        }
+        columnas.add(new Columna<T>(nombre, getter, setter, asignador, lector));
+        return this;
+    }
+
+    private static String identificador(String nombre) {
+        if (nombre == null || !IDENTIFICADOR.matcher(nombre).matches()) {
+            throw new IllegalArgumentException("Nombre de tabla o columna inválido: " + nombre);
+        }
+        return nombre;
+    }
+
+    @FunctionalInterface
+    private interface Asignador<V> {
+        void asignar(PreparedStatement stmt, int indice, V valor) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface Lector<V> {
+        V leer(ResultSet rs, String columna) throws SQLException;
+    }
+
+    /**
+     * Columna ya armada: nombre, acceso a la entidad y conversión JDBC del tipo.
+     * asignacion y lectura devuelven la columna como MethodHandle para que DAOGenerico las encadene
+     * en un único handle por operación (ver DAOGenerico).
+     */
+    static final class Columna<T> {
+
+        private static final MethodHandle ACEPTAR;
+        private static final MethodHandle APLICAR;
+        private static final MethodHandle ASIGNAR;
+        private static final MethodHandle LEER;
+        private static final MethodHandle OBTENER;
+
+        static {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            try {
+                ACEPTAR = lookup.findVirtual(BiConsumer.class, "accept", MethodType.methodType(void.class, Object.class, Object.class));
+                APLICAR = lookup.findVirtual(Function.class, "apply", MethodType.methodType(Object.class, Object.class));
+                ASIGNAR = lookup.findVirtual(Asignador.class, "asignar",
+                        MethodType.methodType(void.class, PreparedStatement.class, int.class, Object.class));
+                LEER = lookup.findVirtual(Lector.class, "leer", MethodType.methodType(Object.class, ResultSet.class, String.class));
+                OBTENER = lookup.findVirtual(Supplier.class, "get", MethodType.methodType(Object.class));
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private final String nombre;
+        private final Function<T, ?> getter;
+        private final BiConsumer<T, ?> setter;
+        private final Asignador<?> asignador;
+        private final Lector<?> lector;
+
+        private Columna(String nombre, Function<T, ?> getter, BiConsumer<T, ?> setter,
+                        Asignador<?> asignador, Lector<?> lector) {
+            this.nombre = nombre;
+            this.getter = getter;
+            this.setter = setter;
+            this.asignador = asignador;
+            this.lector = lector;
+        }
+
+        String nombre() {
+            return nombre;
+        }
+
+        Object valor(T entidad) {
+            return getter.apply(entidad);
+        }
+
+        /**
+         * (PreparedStatement stmt, Object entidad)void: asigna el valor de la entidad al parámetro indicado.
+         */
+        MethodHandle asignacion(int indice) {
+            MethodHandle asignar = MethodHandles.insertArguments(ASIGNAR.bindTo(asignador), 1, indice);
+            return MethodHandles.filterArguments(asignar, 1, APLICAR.bindTo(getter));
+        }
+
+        /**
+         * (Object entidad, ResultSet rs)void: lee la columna de la fila actual y la asigna a la entidad.
+         */
+        MethodHandle lectura() {
+            MethodHandle leer = MethodHandles.insertArguments(LEER.bindTo(lector), 1, nombre);
+            return MethodHandles.filterArguments(ACEPTAR.bindTo(setter), 1, leer);
+        }
+    }
+}
@@ -7,12 +7,20 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.sql.Types;
 import tpiprogramacionii.entities.Empleado;
 import tpiprogramacionii.entities.Estado;
 import tpiprogramacionii.entities.Legajo;
 import tpiprogramacionii.utils.DataBaseConnection;
+import tpiprogramacionii.utils.Fragmentos;
+import tpiprogramacionii.utils.RegistroConsultasLentas;
 
 public class EmpleadoDAO implements GenericDAO<Empleado> {
    
@@ -22,11 +30,11 @@ public class EmpleadoDAO implements GenericDAO<Empleado> {
     private static final String INSERT_SQL = "INSERT INTO empleado (nombre, apellido, dni, email, fecha_ingreso, area) VALUES (?, ?, ?, ?, ?, ?)";
     
     //Actualizar area del empleado 
-    private static final String UPDATE_AREA = "UPDATE empleado SET area = ? WHERE id = ?";
+    private static final String UPDATE_AREA = "UPDATE empleado SET area = ?, actualizado_en = CURRENT_TIMESTAMP(6) WHERE id = ?";
     
     //Eliminar empleado (marca eliminado = TRUE)
     private static final String DELETE_SQL = "UPDATE empleado "+
-                                             "SET eliminado = TRUE "+
+                                             "SET eliminado = TRUE, actualizado_en = CURRENT_TIMESTAMP(6) "+
                                              "WHERE id = ? AND eliminado = FALSE";
     
     //Buscar empleado por ID
@@ -48,11 +56,94 @@ public class EmpleadoDAO implements GenericDAO<Empleado> {
                                                     "l.id AS legajo_id, l.nro_legajo, l.categoria, l.estado, l.fecha_alta, l.observaciones " +
                                                     "FROM empleado AS e " +
                                                     "LEFT JOIN legajo AS l ON e.legajo_id = l.id " +
-                                                    "WHERE e.eliminado = FALSE AND UPPER(l.estado) = 'ACTIVO'";
+                                                    "WHERE e.eliminado = FALSE AND l.estado = 'ACTIVO'";
 
+    //Variantes sin las columnas del legajo (PlanCarga.PEREZOSO): el legajo se carga después por su ID
+    private static final String SELECT_PEREZOSO = "SELECT e.id, e.nombre, e.apellido, e.dni, e.email, e.fecha_ingreso, e.area, e.legajo_id " +
+                                                  "FROM empleado e ";
+    private static final String SEARCH_BY_ID_PEREZOSO = SELECT_PEREZOSO + "WHERE e.id = ? AND e.eliminado = FALSE";
+    private static final String SEARCH_BY_DNI_PEREZOSO = SELECT_PEREZOSO + "WHERE e.eliminado = FALSE AND e.dni = ?";
+    //El listado filtra por el estado del legajo: mantiene el JOIN pero no lee sus columnas
+    private static final String SELECT_ALL_ACTIVE_PEREZOSO = SELECT_PEREZOSO + "JOIN legajo l ON e.legajo_id = l.id " +
+                                                             "WHERE e.eliminado = FALSE AND l.estado = 'ACTIVO'";
+
+    //Página de empleados activos posteriores a un id (paginación por clave)
+    private static final String SELECT_PAGE_ACTIVE = SELECT_ALL_ACTIVE + " AND e.id > ? ORDER BY e.id LIMIT ?";
+    
+    private static final String UPDATE_LEGAJO_ID = "UPDATE empleado SET legajo_id = ?, actualizado_en = CURRENT_TIMESTAMP(6) WHERE id = ?";
+    
+    //Actualizar area de un empleado activo (operaciones por lotes)
+    private static final String UPDATE_AREA_ACTIVO = "UPDATE empleado SET area = ?, actualizado_en = CURRENT_TIMESTAMP(6) WHERE id = ? AND eliminado = FALSE";
+    
+    //Buscar empleados activos por una lista de IDs (se completa con un marcador por ID)
+    private static final String SEARCH_BY_IDS = "SELECT e.id, e.nombre, e.apellido, e.dni, e.email, e.fecha_ingreso, e.area, " +
+                                                "l.id AS legajo_id, l.nro_legajo, l.categoria, l.estado, l.fecha_alta, l.observaciones " +
+                                                "FROM empleado e " +
+                                                "LEFT JOIN legajo l ON e.legajo_id = l.id " +
+                                                "WHERE e.eliminado = FALSE AND e.id IN (";
+    
+    //Empleados modificados después de una marca (actualizado_en, id), incluidas las bajas lógicas.
+    //Las filas de los últimos segundos se dejan para la próxima lectura (ver MarcaCambios.MARGEN_SEGUNDOS)
+    private static final String SELECT_CAMBIADOS = "SELECT e.id, e.nombre, e.apellido, e.dni, e.email, e.fecha_ingreso, e.area, " +
+                                                   "e.eliminado, e.actualizado_en, " +
+                                                   "l.id AS legajo_id, l.nro_legajo, l.categoria, l.estado, l.fecha_alta, l.observaciones " +
+                                                   "FROM empleado e " +
+                                                   "LEFT JOIN legajo l ON e.legajo_id = l.id " +
+                                                   "WHERE (e.actualizado_en > ? OR (e.actualizado_en = ? AND e.id > ?)) " +
+                                                   "AND e.actualizado_en < CURRENT_TIMESTAMP(6) - INTERVAL '" + MarcaCambios.MARGEN_SEGUNDOS + "' SECOND " +
+                                                   "ORDER BY e.actualizado_en, e.id LIMIT ?";
+    
+    //Página de ID, nombre y apellido de empleados activos (carga de índices en memoria)
+    private static final String SELECT_NOMBRES_PAGE = "SELECT id, nombre, apellido, area FROM empleado " +
+                                                      "WHERE eliminado = FALSE AND id > ? ORDER BY id LIMIT ?";
+    
+    //Página de área, categoría y estado de empleados activos (carga de los agregados de dotación).
+    //Un legajo dado de baja cuenta como si el empleado no tuviera legajo
+    private static final String SELECT_DOTACION_PAGE = "SELECT e.id, e.area, l.id AS legajo_id, l.categoria, l.estado " +
+                                                       "FROM empleado e " +
+                                                       "LEFT JOIN legajo l ON e.legajo_id = l.id AND l.eliminado = FALSE " +
+                                                       "WHERE e.eliminado = FALSE AND e.id > ? ORDER BY e.id LIMIT ?";
+    
+    //Dotación agrupada por área, categoría y estado (reconciliación de los agregados en memoria)
+    private static final String COUNT_BY_AREA = "SELECT area AS valor, COUNT(*) AS cantidad FROM empleado " +
+                                                "WHERE eliminado = FALSE GROUP BY area";
+    private static final String COUNT_BY_CATEGORIA = "SELECT l.categoria AS valor, COUNT(*) AS cantidad FROM empleado e " +
+                                                     "JOIN legajo l ON e.legajo_id = l.id AND l.eliminado = FALSE " +
+                                                     "WHERE e.eliminado = FALSE GROUP BY l.categoria";
+    private static final String COUNT_BY_ESTADO = "SELECT l.estado AS valor, COUNT(*) AS cantidad FROM empleado e " +
+                                                  "JOIN legajo l ON e.legajo_id = l.id AND l.eliminado = FALSE " +
+                                                  "WHERE e.eliminado = FALSE GROUP BY l.estado";
     
-    private static final String UPDATE_LEGAJO_ID = "UPDATE empleado SET legajo_id = ? WHERE id = ?";
+    //DNIs ya registrados dentro de una lista (incluye bajas lógicas: la columna dni es UNIQUE)
+    private static final String SEARCH_DNIS = "SELECT dni FROM empleado WHERE dni IN (";
+
+    //Empleado (activo, dado de baja o archivado) con su legajo. El filtro se agrega en cada parte del UNION
+    private static final String SELECT_CON_BAJAS = "SELECT e.id, e.nombre, e.apellido, e.dni, e.email, e.fecha_ingreso, e.area, " +
+                                                   "e.eliminado, e.actualizado_en, " +
+                                                   "l.id AS legajo_id, l.nro_legajo, l.categoria, l.estado, l.fecha_alta, l.observaciones, " +
+                                                   "l.eliminado AS legajo_eliminado " +
+                                                   "FROM empleado e " +
+                                                   "LEFT JOIN legajo l ON e.legajo_id = l.id ";
+    private static final String SELECT_ARCHIVADOS = "SELECT a.id, a.nombre, a.apellido, a.dni, a.email, a.fecha_ingreso, a.area, " +
+                                                    "TRUE AS eliminado, a.actualizado_en, " +
+                                                    "la.id AS legajo_id, la.nro_legajo, la.categoria, la.estado, la.fecha_alta, la.observaciones, " +
+                                                    "TRUE AS legajo_eliminado " +
+                                                    "FROM empleado_archivado a " +
+                                                    "LEFT JOIN legajo_archivado la ON a.legajo_id = la.id ";
+
+    //Buscar empleado por ID incluyendo bajas lógicas y archivo (el ID no se repite entre las dos tablas)
+    private static final String SEARCH_BY_ID_CON_BAJAS = SELECT_CON_BAJAS + "WHERE e.id = ? " +
+                                                         "UNION ALL " + SELECT_ARCHIVADOS + "WHERE a.id = ?";
+
+    //Buscar por DNI incluyendo bajas lógicas y archivo: primero el activo, si no la baja más reciente
+    //(después de archivar, el DNI se puede volver a registrar)
+    private static final String SEARCH_BY_DNI_CON_BAJAS = SELECT_CON_BAJAS + "WHERE e.dni = ? " +
+                                                          "UNION ALL " + SELECT_ARCHIVADOS + "WHERE a.dni = ? " +
+                                                          "ORDER BY eliminado, actualizado_en DESC LIMIT 1";
+
     
+    //Orden por ID para combinar las páginas de varios fragmentos
+    private static final Comparator<Empleado> POR_ID = Comparator.comparing(Empleado::getId);
     
     private final LegajoDAO legajoDAO; 
 
@@ -70,13 +161,14 @@ public class EmpleadoDAO implements GenericDAO<Empleado> {
    /**
     * Inserta un empleado y crea automáticamente su legajo asociado en la misma transacción   
     * Primero inserta el empleado y obtiene su ID generado, con el cual genera el numero de legajo
+    * Con varios fragmentos se inserta en el que corresponde a su DNI
     * @param empleado a insertar (nombre, apellido y DNI requeridos).
     * @throws Exception Si falla la inserción del empleado o del legajo.
     */
     
     @Override
     public void insertar(Empleado empleado) throws Exception {
-        try (Connection conex = DataBaseConnection.getConnection()){
+        try (Connection conex = DataBaseConnection.getConnection(Fragmentos.deClave(empleado.getDni()))){
             insertTx(empleado, conex);
         }
     }    
@@ -95,7 +187,11 @@ public class EmpleadoDAO implements GenericDAO<Empleado> {
     public void insertTx(Empleado empleado, Connection conex) throws Exception {
         try (PreparedStatement stmt = conex.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
             setEmpleadoParameters(stmt, empleado);
-            stmt.executeUpdate();
+            long inicio = RegistroConsultasLentas.iniciar();
+            int filas = stmt.executeUpdate();
+            RegistroConsultasLentas.registrar("EmpleadoDAO.INSERT_SQL", inicio, filas,
+                    empleado.getNombre(), empleado.getApellido(), empleado.getDni(),
+                    empleado.getEmail(), empleado.getFechaIngreso(), empleado.getArea());
             setIdGenerado(stmt, empleado);
         }
     }
@@ -110,7 +206,7 @@ public class EmpleadoDAO implements GenericDAO<Empleado> {
     
     @Override
     public void actualizar(Empleado empleado) throws Exception {
-        try (Connection conn = DataBaseConnection.getConnection()) {
+        try (Connection conn = DataBaseConnection.getConnection(Fragmentos.deId(empleado.getId()))) {
             actualizarTx(empleado, conn);
         }
     }
@@ -130,7 +226,10 @@ public class EmpleadoDAO implements GenericDAO<Empleado> {
             stmtArea.setString(1, empleado.getArea());
             stmtArea.setLong(2, empleado.getId());
                         
+            long inicio = RegistroConsultasLentas.iniciar();
             int rowsAffected = stmtArea.executeUpdate();
+            RegistroConsultasLentas.registrar("EmpleadoDAO.UPDATE_AREA", inicio, rowsAffected,
+                    empleado.getArea(), empleado.getId());
             if (rowsAffected == 0) {
                 throw new SQLException("No se pudo actualizar el área de empleado con ID: " + empleado.getId());
             }
@@ -148,7 +247,7 @@ public class EmpleadoDAO implements GenericDAO<Empleado> {
     
     @Override
     public void eliminar(Long id) throws Exception {
-        try (Connection conex = DataBaseConnection.getConnection()) {
+        try (Connection conex = DataBaseConnection.getConnection(Fragmentos.deId(id))) {
             eliminarTx(id, conex);
         }
     }
@@ -167,7 +266,9 @@ public class EmpleadoDAO implements GenericDAO<Empleado> {
     public void eliminarTx(Long id, Connection conex) throws Exception {
         try (PreparedStatement stmt = conex.prepareStatement(DELETE_SQL)) {
             stmt.setLong(1, id);
+            long inicio = RegistroConsultasLentas.iniciar();
             int rowsAffected = stmt.executeUpdate();
+            RegistroConsultasLentas.registrar("EmpleadoDAO.DELETE_SQL", inicio, rowsAffected, id);
             if (rowsAffected == 0) {
                 throw new SQLException("El empleado con ID " + id + " ya estaba eliminado o no existe.");
             }
@@ -186,19 +287,48 @@ public class EmpleadoDAO implements GenericDAO<Empleado> {
     
     @Override
     public Empleado leer(Long id) throws Exception {
-        try (Connection conex = DataBaseConnection.getConnection();
+        try (Connection conex = DataBaseConnection.getConnection(Fragmentos.deId(id));
                 PreparedStatement stmt = conex.prepareStatement(SEARCH_BY_ID)) {
             stmt.setLong(1, id);
             
+            long inicio = RegistroConsultasLentas.iniciar();
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return mapResultSetToEmpleado(rs);
-                }
+                Empleado empleado = rs.next() ? mapResultSetToEmpleado(rs) : null;
+                RegistroConsultasLentas.registrar("EmpleadoDAO.SEARCH_BY_ID", inicio, empleado != null ? 1 : 0, id);
+                return empleado;
+            }
+        } catch (SQLException e) {
+            throw new Exception("Error al obtener empleado por ID: " + e.getMessage(), e);
+        }
+    }
+
+    //--------------------------------------------------------------------------------------------------------------
+
+    /**
+    * Recupera un empleado activo por su ID con el plan de carga indicado para su legajo.
+    * @param id del empleado a buscar
+    * @param plan COMPLETO (igual que leer(id)) o PEREZOSO (el legajo se carga al usarlo)
+    * @return objeto Empleado si se encuentra, o null si no existe
+    * @throws Exception en caso de error de conexión o de ejecución de la consulta
+    */
+
+    public Empleado leer(Long id, PlanCarga plan) throws Exception {
+        if (plan != PlanCarga.PEREZOSO) {
+            return leer(id);
+        }
+        try (Connection conex = DataBaseConnection.getConnection(Fragmentos.deId(id));
+                PreparedStatement stmt = conex.prepareStatement(SEARCH_BY_ID_PEREZOSO)) {
+            stmt.setLong(1, id);
+
+            long inicio = RegistroConsultasLentas.iniciar();
+            try (ResultSet rs = stmt.executeQuery()) {
+                Empleado empleado = rs.next() ? mapResultSetToEmpleadoPerezoso(rs, new LegajoPerezoso.Grupo(legajoDAO)) : null;
+                RegistroConsultasLentas.registrar("EmpleadoDAO.SEARCH_BY_ID_PEREZOSO", inicio, empleado != null ? 1 : 0, id);
+                return empleado;
             }
         } catch (SQLException e) {
             throw new Exception("Error al obtener empleado por ID: " + e.getMessage(), e);
         }
-        return null;
     }
 
     //--------------------------------------------------------------------------------------------------------------    
@@ -207,6 +337,7 @@ public class EmpleadoDAO implements GenericDAO<Empleado> {
     * Recupera todos los empleados activos de la base de datos
     * Para cada empleado, se recuperan los campos: Id (empleado), nombre, apellido, dni, 
     * Id del legajo, nro_legajo y área.
+    * Con varios fragmentos consulta todos en paralelo y une los resultados.
     * @return lista de los empleados activos
     * @throws Exception en caso de error de conexión o de ejecución de la consulta
     */
@@ -214,21 +345,196 @@ public class EmpleadoDAO implements GenericDAO<Empleado> {
     @Override
     public List<Empleado> leerTodos() throws Exception {
         List<Empleado> listaEmpleados = new ArrayList<>();
-        try(Connection conex = DataBaseConnection.getConnection();
-               PreparedStatement stmt = conex.prepareStatement(SELECT_ALL_ACTIVE);
-               ResultSet rs = stmt.executeQuery()){
-               
-            while (rs.next()) {
-                listaEmpleados.add(mapResultSetToEmpleado(rs));
+        try {
+            for (List<Empleado> parte : Fragmentos.enTodos(this::leerTodosFragmento)) {
+                listaEmpleados.addAll(parte);
+            }
+        } catch (SQLException e) {
+            throw new Exception("Error al obtener el listado de empleados: " + e.getMessage(), e);
+        }
+        return listaEmpleados;
+    }
+    
+    private List<Empleado> leerTodosFragmento(int fragmento) throws SQLException {
+        List<Empleado> listaEmpleados = new ArrayList<>();
+        try(Connection conex = DataBaseConnection.getConnection(fragmento);
+               PreparedStatement stmt = conex.prepareStatement(SELECT_ALL_ACTIVE)) {
+            long inicio = RegistroConsultasLentas.iniciar();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    listaEmpleados.add(mapResultSetToEmpleado(rs));
+                }
+            }
+            RegistroConsultasLentas.registrar("EmpleadoDAO.SELECT_ALL_ACTIVE", inicio, listaEmpleados.size());
+        }
+        return listaEmpleados;
+    }
+
+    //--------------------------------------------------------------------------------------------------------------
+
+    /**
+    * Recupera todos los empleados activos con el plan de carga indicado para sus legajos.
+    * Con PEREZOSO todos los legajos de la lista forman un mismo grupo: recorrerla hace una consulta
+    * por cada LegajoPerezoso.TAMANIO_LOTE legajos usados, no una por empleado.
+    * @param plan COMPLETO (igual que leerTodos()) o PEREZOSO
+    * @return lista de los empleados activos
+    * @throws Exception en caso de error de conexión o de ejecución de la consulta
+    */
+
+    public List<Empleado> leerTodos(PlanCarga plan) throws Exception {
+        if (plan != PlanCarga.PEREZOSO) {
+            return leerTodos();
+        }
+        LegajoPerezoso.Grupo grupo = new LegajoPerezoso.Grupo(legajoDAO);
+        List<Empleado> listaEmpleados = new ArrayList<>();
+        try {
+            for (List<Empleado> parte : Fragmentos.enTodos(fragmento -> leerTodosPerezosoFragmento(fragmento, grupo))) {
+                listaEmpleados.addAll(parte);
             }
         } catch (SQLException e) {
             throw new Exception("Error al obtener el listado de empleados: " + e.getMessage(), e);
         }
         return listaEmpleados;
     }
+
+    private List<Empleado> leerTodosPerezosoFragmento(int fragmento, LegajoPerezoso.Grupo grupo) throws SQLException {
+        List<Empleado> listaEmpleados = new ArrayList<>();
+        try (Connection conex = DataBaseConnection.getConnection(fragmento);
+                PreparedStatement stmt = conex.prepareStatement(SELECT_ALL_ACTIVE_PEREZOSO)) {
+            long inicio = RegistroConsultasLentas.iniciar();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    listaEmpleados.add(mapResultSetToEmpleadoPerezoso(rs, grupo));
+                }
+            }
+            RegistroConsultasLentas.registrar("EmpleadoDAO.SELECT_ALL_ACTIVE_PEREZOSO", inicio, listaEmpleados.size());
+        }
+        return listaEmpleados;
+    }
+        
+    //--------------------------------------------------------------------------------------------------------------    
+    
+    /**
+    * Recupera una página de empleados activos ordenada por id.
+    * Usa paginación por clave (id > despuesDeId) en lugar de OFFSET, así cada página
+    * cuesta lo mismo sin importar cuán avanzado esté el recorrido.
+    * Con varios fragmentos pide la página a cada uno y se queda con los primeros por id.
+    * @param despuesDeId id del último empleado de la página anterior (0 para la primera)
+    * @param limite cantidad máxima de empleados a devolver
+    * @return lista de empleados activos con id mayor a despuesDeId
+    * @throws Exception en caso de error de conexión o de ejecución de la consulta
+    */
+    
+    public List<Empleado> leerPagina(long despuesDeId, int limite) throws Exception {
+        try {
+            return Fragmentos.intercalar(Fragmentos.enTodos(fragmento -> leerPaginaFragmento(fragmento, despuesDeId, limite)),
+                    POR_ID, limite);
+        } catch (SQLException e) {
+            throw new Exception("Error al obtener la página de empleados: " + e.getMessage(), e);
+        }
+    }
+    
+    private List<Empleado> leerPaginaFragmento(int fragmento, long despuesDeId, int limite) throws SQLException {
+        List<Empleado> pagina = new ArrayList<>(limite);
+        try (Connection conex = DataBaseConnection.getConnection(fragmento);
+                PreparedStatement stmt = conex.prepareStatement(SELECT_PAGE_ACTIVE)) {
+            stmt.setLong(1, despuesDeId);
+            stmt.setInt(2, limite);
+
+            long inicio = RegistroConsultasLentas.iniciar();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    pagina.add(mapResultSetToEmpleado(rs));
+                }
+            }
+            RegistroConsultasLentas.registrar("EmpleadoDAO.SELECT_PAGE_ACTIVE", inicio, pagina.size(), despuesDeId, limite);
+        }
+        return pagina;
+    }
+        
+    //--------------------------------------------------------------------------------------------------------------    
+    
+    /**
+    * Recupera los empleados modificados después de la marca, incluidos los dados de baja (con eliminado = true),
+    * en orden de modificación. Todas las escrituras del DAO actualizan actualizado_en, así que una
+    * sincronización incremental lee solo lo que cambió desde la pasada anterior.
+    * @param marca marca de la última fila ya procesada (MarcaCambios.INICIO para empezar)
+    * @param limite cantidad máxima de empleados a devolver
+    * @return empleados modificados y la marca desde la que continuar
+    * @throws Exception en caso de error de conexión o de ejecución de la consulta
+    */
+    
+    public PaginaCambios<Empleado> leerCambiadosDesde(MarcaCambios marca, int limite) throws Exception {
+        try {
+            return PaginaCambios.unir(Fragmentos.enTodos(fragmento -> leerCambiadosFragmento(fragmento, marca, limite)),
+                    marca, limite);
+        } catch (SQLException e) {
+            throw new Exception("Error al obtener los empleados modificados: " + e.getMessage(), e);
+        }
+    }
+    
+    private List<PaginaCambios.Fila<Empleado>> leerCambiadosFragmento(int fragmento, MarcaCambios marca, int limite) throws SQLException {
+        List<PaginaCambios.Fila<Empleado>> cambiados = new ArrayList<>(Math.min(limite, 1000));
+        try (Connection conex = DataBaseConnection.getConnection(fragmento);
+                PreparedStatement stmt = conex.prepareStatement(SELECT_CAMBIADOS)) {
+            stmt.setTimestamp(1, marca.instante());
+            stmt.setTimestamp(2, marca.instante());
+            stmt.setLong(3, marca.id());
+            stmt.setInt(4, limite);
+            
+            long inicio = RegistroConsultasLentas.iniciar();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Empleado empleado = mapResultSetToEmpleado(rs);
+                    empleado.setEliminado(rs.getBoolean("eliminado"));
+                    cambiados.add(new PaginaCambios.Fila<>(empleado,
+                            new MarcaCambios(rs.getTimestamp("actualizado_en"), empleado.getId())));
+                }
+            }
+            RegistroConsultasLentas.registrar("EmpleadoDAO.SELECT_CAMBIADOS", inicio, cambiados.size(), marca.aTexto(), limite);
+        }
+        return cambiados;
+    }
+    
+    //--------------------------------------------------------------------------------------------------------------    
+
+    /**
+    * Recupera los empleados que cumplen el criterio (filtros, orden y página).
+    * El SQL lo arma el criterio a partir de campos y columnas fijos; los valores van como parámetros.
+    * Con varios fragmentos la consulta va a todos y los resultados se combinan con criterio.comparador().
+    * @param criterio filtros, orden, cursor y límite de la consulta
+    * @return empleados encontrados, en el orden pedido
+    * @throws Exception en caso de error de conexión o de ejecución de la consulta
+    */
+    
+    public List<Empleado> buscar(CriterioEmpleado criterio) throws Exception {
+        try {
+            return Fragmentos.intercalar(Fragmentos.enTodos(fragmento -> buscarFragmento(fragmento, criterio)),
+                    criterio.comparador(), criterio.getLimite());
+        } catch (SQLException e) {
+            throw new Exception("Error al buscar empleados por criterio: " + e.getMessage(), e);
+        }
+    }
+    
+    private List<Empleado> buscarFragmento(int fragmento, CriterioEmpleado criterio) throws SQLException {
+        List<Empleado> resultado = new ArrayList<>(criterio.getLimite());
+        try (Connection conex = DataBaseConnection.getConnection(fragmento);
+                PreparedStatement stmt = conex.prepareStatement(criterio.getSql())) {
+            Object[] parametros = criterio.asignarParametros(stmt);
+
+            long inicio = RegistroConsultasLentas.iniciar();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    resultado.add(mapResultSetToEmpleado(rs));
+                }
+            }
+            RegistroConsultasLentas.registrar("EmpleadoDAO." + criterio.getForma(), inicio, resultado.size(), parametros);
+        }
+        return resultado;
+    }
         
     //--------------------------------------------------------------------------------------------------------------    
-         
+    
     /**
      * Asigna los valores de un empleado a los parámetros del PreparedStatement
      * Verifica los campos nulos antes de asignarlos.
@@ -285,20 +591,14 @@ public class EmpleadoDAO implements GenericDAO<Empleado> {
     * Crea una instancia de empleado a partir de ResultSet
     * Asigna al objeto los valores Id, nombre, apellido y dni de ResultSet
     * Se recupera su id_legajo, nro_legajo y categoria y se asocia esta info al objeto
+    * Es público para poder medirlo desde los benchmarks.
     * @param rs ResultSet obtenido de la consulta a la base de datos.
     * @return empleado con su info
     * @throws Exception en caso de error de conexión o de ejecución de la consulta.
     */
     
-    private Empleado mapResultSetToEmpleado(ResultSet rs) throws SQLException {
-        Empleado empleado = new Empleado();
-        empleado.setId(rs.getLong("id"));
-        empleado.setNombre(rs.getString("nombre"));
-        empleado.setApellido(rs.getString("apellido"));
-        empleado.setDni(rs.getString("dni"));
-        empleado.setEmail(rs.getString("email"));
-        empleado.setFechaIngreso(rs.getDate("fecha_ingreso"));
-        empleado.setArea(rs.getString("area"));
+    public Empleado mapResultSetToEmpleado(ResultSet rs) throws SQLException {
+        Empleado empleado = mapColumnasEmpleado(rs);
         
         long idLegajo = rs.getLong("legajo_id");
 
@@ -319,7 +619,7 @@ public class EmpleadoDAO implements GenericDAO<Empleado> {
                 legajo.setFechaAlta(null);
             }
 
-            legajo.setObservaciones(rs.getString("observaciones"));
+            CompresionObservaciones.asignar(legajo, rs.getString("observaciones"));
             
             empleado.setLegajo(legajo);
         }
@@ -327,6 +627,30 @@ public class EmpleadoDAO implements GenericDAO<Empleado> {
         return empleado;
     }
     
+    /**
+    * Empleado con su legajo perezoso (PlanCarga.PEREZOSO): el ResultSet trae legajo_id pero no las columnas del legajo.
+    */
+    private Empleado mapResultSetToEmpleadoPerezoso(ResultSet rs, LegajoPerezoso.Grupo grupo) throws SQLException {
+        Empleado empleado = mapColumnasEmpleado(rs);
+        long idLegajo = rs.getLong("legajo_id");
+        if (idLegajo > 0 && !rs.wasNull()) {
+            empleado.setLegajo(grupo.crear(idLegajo));
+        }
+        return empleado;
+    }
+
+    private Empleado mapColumnasEmpleado(ResultSet rs) throws SQLException {
+        Empleado empleado = new Empleado();
+        empleado.setId(rs.getLong("id"));
+        empleado.setNombre(rs.getString("nombre"));
+        empleado.setApellido(rs.getString("apellido"));
+        empleado.setDni(rs.getString("dni"));
+        empleado.setEmail(rs.getString("email"));
+        empleado.setFechaIngreso(rs.getDate("fecha_ingreso"));
+        empleado.setArea(rs.getString("area"));
+        return empleado;
+    }
+    
     //--------------------------------------------------------------------------------------------------------------    
     
     /**
@@ -340,20 +664,115 @@ public class EmpleadoDAO implements GenericDAO<Empleado> {
         if (dni == null || dni.trim().isEmpty()) {
             throw new IllegalArgumentException("Debe ingresar un DNI.");
         }
-        try(Connection conex = DataBaseConnection.getConnection();
+        try(Connection conex = DataBaseConnection.getConnection(Fragmentos.deClave(dni));
             PreparedStatement stmt = conex.prepareStatement(SEARCH_BY_DNI)) {
                    
             stmt.setString(1, dni.trim());
 
+            long inicio = RegistroConsultasLentas.iniciar();
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return mapResultSetToEmpleado(rs);
-                }
+                Empleado empleado = rs.next() ? mapResultSetToEmpleado(rs) : null;
+                RegistroConsultasLentas.registrar("EmpleadoDAO.SEARCH_BY_DNI", inicio, empleado != null ? 1 : 0, dni.trim());
+                return empleado;
             }
         }
-        return null;
     }
-    
+
+    //--------------------------------------------------------------------------------------------------------------
+
+    /**
+    * Busca un empleado activo por su DNI con el plan de carga indicado para su legajo.
+    * @param dni del empleado a buscar.
+    * @param plan COMPLETO (igual que buscarPorDni(dni)) o PEREZOSO (el legajo se carga al usarlo)
+    * @return objeto Empleado si se encuentra, o null si no existe.
+    * @throws SQLException en caso de error de conexión o ejecución de la consulta.
+    */
+
+    public Empleado buscarPorDni(String dni, PlanCarga plan) throws SQLException {
+        if (plan != PlanCarga.PEREZOSO) {
+            return buscarPorDni(dni);
+        }
+        if (dni == null || dni.trim().isEmpty()) {
+            throw new IllegalArgumentException("Debe ingresar un DNI.");
+        }
+        try (Connection conex = DataBaseConnection.getConnection(Fragmentos.deClave(dni));
+                PreparedStatement stmt = conex.prepareStatement(SEARCH_BY_DNI_PEREZOSO)) {
+            stmt.setString(1, dni.trim());
+
+            long inicio = RegistroConsultasLentas.iniciar();
+            try (ResultSet rs = stmt.executeQuery()) {
+                Empleado empleado = rs.next() ? mapResultSetToEmpleadoPerezoso(rs, new LegajoPerezoso.Grupo(legajoDAO)) : null;
+                RegistroConsultasLentas.registrar("EmpleadoDAO.SEARCH_BY_DNI_PEREZOSO", inicio, empleado != null ? 1 : 0, dni.trim());
+                return empleado;
+            }
+        }
+    }
+
+    //--------------------------------------------------------------------------------------------------------------
+
+    /**
+    * Busca un empleado por su ID aunque esté dado de baja o ya archivado (ver Archivador).
+    * Las bajas se devuelven con eliminado = true (también en el legajo).
+    * @param id del empleado a buscar
+    * @return objeto Empleado si se encuentra, o null si no existe en ninguna de las tablas
+    * @throws Exception en caso de error de conexión o de ejecución de la consulta
+    */
+
+    public Empleado leerConBajas(Long id) throws Exception {
+        try (Connection conex = DataBaseConnection.getConnection(Fragmentos.deId(id));
+                PreparedStatement stmt = conex.prepareStatement(SEARCH_BY_ID_CON_BAJAS)) {
+            stmt.setLong(1, id);
+            stmt.setLong(2, id);
+
+            long inicio = RegistroConsultasLentas.iniciar();
+            try (ResultSet rs = stmt.executeQuery()) {
+                Empleado empleado = rs.next() ? mapResultSetToEmpleadoConBajas(rs) : null;
+                RegistroConsultasLentas.registrar("EmpleadoDAO.SEARCH_BY_ID_CON_BAJAS", inicio, empleado != null ? 1 : 0, id);
+                return empleado;
+            }
+        } catch (SQLException e) {
+            throw new Exception("Error al obtener empleado por ID: " + e.getMessage(), e);
+        }
+    }
+
+    //--------------------------------------------------------------------------------------------------------------
+
+    /**
+    * Busca un empleado por su DNI aunque esté dado de baja o ya archivado.
+    * Si hay uno activo se devuelve ese; si no, la baja modificada más recientemente
+    * (un DNI archivado se puede volver a registrar, así que puede haber varias).
+    * @param dni del empleado a buscar.
+    * @return objeto Empleado si se encuentra, o null si no existe en ninguna de las tablas.
+    * @throws SQLException en caso de error de conexión o ejecución de la consulta.
+    */
+
+    public Empleado buscarPorDniConBajas(String dni) throws SQLException {
+        if (dni == null || dni.trim().isEmpty()) {
+            throw new IllegalArgumentException("Debe ingresar un DNI.");
+        }
+        try (Connection conex = DataBaseConnection.getConnection(Fragmentos.deClave(dni));
+                PreparedStatement stmt = conex.prepareStatement(SEARCH_BY_DNI_CON_BAJAS)) {
+            stmt.setString(1, dni.trim());
+            stmt.setString(2, dni.trim());
+
+            long inicio = RegistroConsultasLentas.iniciar();
+            try (ResultSet rs = stmt.executeQuery()) {
+                Empleado empleado = rs.next() ? mapResultSetToEmpleadoConBajas(rs) : null;
+                RegistroConsultasLentas.registrar("EmpleadoDAO.SEARCH_BY_DNI_CON_BAJAS", inicio, empleado != null ? 1 : 0, dni.trim());
+                return empleado;
+            }
+        }
+    }
+
+    private Empleado mapResultSetToEmpleadoConBajas(ResultSet rs) throws SQLException {
+        Empleado empleado = mapResultSetToEmpleado(rs);
+        empleado.setEliminado(rs.getBoolean("eliminado"));
+        if (empleado.getLegajo() != null) {
+            empleado.getLegajo().setEliminado(rs.getBoolean("legajo_eliminado"));
+        }
+        return empleado;
+    }
+
     //--------------------------------------------------------------------------------------------------------------    
     
     /**
@@ -371,7 +790,359 @@ public class EmpleadoDAO implements GenericDAO<Empleado> {
         try (PreparedStatement stmt = conex.prepareStatement(UPDATE_LEGAJO_ID)){
             stmt.setLong(1, legajoId);
             stmt.setLong(2, empleadoId);
-            stmt.executeUpdate();
+            long inicio = RegistroConsultasLentas.iniciar();
+            int filas = stmt.executeUpdate();
+            RegistroConsultasLentas.registrar("EmpleadoDAO.UPDATE_LEGAJO_ID", inicio, filas, legajoId, empleadoId);
+        }
+    }
+    
+    //OPERACIONES POR LOTES -----------------------------------------------------------------------------------------
+    
+    /**
+    * Inserta varios empleados con un único lote JDBC usando una conexión existente.
+    * Asigna a cada empleado el Id generado, en el mismo orden de la lista.
+    * @param empleados a insertar
+    * @param conex Conexión transaccional activa
+    * @throws SQLException si falla la inserción o no se obtienen todos los Ids
+    */
+    
+    public void insertarLoteTx(List<Empleado> empleados, Connection conex) throws SQLException {
+        try (PreparedStatement stmt = conex.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            for (Empleado empleado : empleados) {
+                setEmpleadoParameters(stmt, empleado);
+                stmt.addBatch();
+            }
+            long inicio = RegistroConsultasLentas.iniciar();
+            stmt.executeBatch();
+            RegistroConsultasLentas.registrar("EmpleadoDAO.INSERT_SQL[lote]", inicio, empleados.size(), empleados.size());
+            
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                for (Empleado empleado : empleados) {
+                    if (!generatedKeys.next()) {
+                        throw new SQLException("La inserción por lotes falló, no se obtuvieron todos los ID generados");
+                    }
+                    empleado.setId(generatedKeys.getLong(1));
+                }
+            }
+        }
+    }
+    
+    //--------------------------------------------------------------------------------------------------------------    
+    
+    /**
+    * Asocia a cada empleado el legajo que tiene asignado (empleado.getLegajo()) con un único lote JDBC.
+    * @param empleados con Id y legajo ya insertado
+    * @param conex Conexión transaccional activa
+    * @throws SQLException si falla la actualización
+    */
+    
+    public void actualizarLegajoIdLoteTx(List<Empleado> empleados, Connection conex) throws SQLException {
+        try (PreparedStatement stmt = conex.prepareStatement(UPDATE_LEGAJO_ID)) {
+            for (Empleado empleado : empleados) {
+                stmt.setLong(1, empleado.getLegajo().getId());
+                stmt.setLong(2, empleado.getId());
+                stmt.addBatch();
+            }
+            long inicio = RegistroConsultasLentas.iniciar();
+            stmt.executeBatch();
+            RegistroConsultasLentas.registrar("EmpleadoDAO.UPDATE_LEGAJO_ID[lote]", inicio, empleados.size(), empleados.size());
+        }
+    }
+    
+    //--------------------------------------------------------------------------------------------------------------    
+    
+    /**
+    * Actualiza el área de varios empleados activos con un único lote JDBC.
+    * @param empleados instancias de las que se extrae el Id y el área
+    * @param conex Conexión transaccional activa
+    * @throws SQLException si falla la actualización o algún empleado no existe o está eliminado
+    */
+    
+    public void actualizarAreaLoteTx(List<Empleado> empleados, Connection conex) throws SQLException {
+        try (PreparedStatement stmt = conex.prepareStatement(UPDATE_AREA_ACTIVO)) {
+            for (Empleado empleado : empleados) {
+                stmt.setString(1, empleado.getArea());
+                stmt.setLong(2, empleado.getId());
+                stmt.addBatch();
+            }
+            long inicio = RegistroConsultasLentas.iniciar();
+            int[] filas = stmt.executeBatch();
+            RegistroConsultasLentas.registrar("EmpleadoDAO.UPDATE_AREA_ACTIVO[lote]", inicio, empleados.size(), empleados.size());
+            for (int i = 0; i < filas.length; i++) {
+                if (filas[i] == 0) {
+                    throw new SQLException("No se pudo actualizar el área de empleado con ID: " + empleados.get(i).getId());
+                }
+            }
+        }
+    }
+    
+    //--------------------------------------------------------------------------------------------------------------    
+    
+    /**
+    * Elimina lógicamente varios empleados con un único lote JDBC.
+    * @param ids de los empleados a eliminar
+    * @param conex Conexión transaccional activa
+    * @throws SQLException si falla la ejecución o algún empleado ya estaba eliminado o no existe
+    */
+    
+    public void eliminarLoteTx(List<Long> ids, Connection conex) throws SQLException {
+        try (PreparedStatement stmt = conex.prepareStatement(DELETE_SQL)) {
+            for (Long id : ids) {
+                stmt.setLong(1, id);
+                stmt.addBatch();
+            }
+            long inicio = RegistroConsultasLentas.iniciar();
+            int[] filas = stmt.executeBatch();
+            RegistroConsultasLentas.registrar("EmpleadoDAO.DELETE_SQL[lote]", inicio, ids.size(), ids.size());
+            for (int i = 0; i < filas.length; i++) {
+                if (filas[i] == 0) {
+                    throw new SQLException("El empleado con ID " + ids.get(i) + " ya estaba eliminado o no existe.");
+                }
+            }
+        }
+    }
+    
+    //--------------------------------------------------------------------------------------------------------------    
+    
+    /**
+    * Recupera en una sola consulta los empleados activos (con su legajo) de una lista de Ids.
+    * Los Ids que no existen o están eliminados no aparecen en el resultado.
+    * Con varios fragmentos hace una consulta por fragmento involucrado, en paralelo.
+    * @param ids de los empleados a buscar
+    * @return empleados encontrados, sin un orden garantizado
+    * @throws Exception en caso de error de conexión o de ejecución de la consulta
+    */
+    
+    public List<Empleado> leerPorIds(Collection<Long> ids) throws Exception {
+        List<Empleado> empleados = new ArrayList<>(ids.size());
+        if (ids.isEmpty()) {
+            return empleados;
+        }
+        Map<Integer, List<Long>> porFragmento = Fragmentos.agrupar(ids, Fragmentos::deId);
+        try {
+            for (List<Empleado> parte : Fragmentos.enFragmentos(porFragmento.keySet(),
+                    fragmento -> leerPorIdsFragmento(fragmento, porFragmento.get(fragmento)))) {
+                empleados.addAll(parte);
+            }
+        } catch (SQLException e) {
+            throw new Exception("Error al obtener empleados por ID: " + e.getMessage(), e);
+        }
+        return empleados;
+    }
+    
+    private List<Empleado> leerPorIdsFragmento(int fragmento, List<Long> ids) throws SQLException {
+        List<Empleado> empleados = new ArrayList<>(ids.size());
+        try (Connection conex = DataBaseConnection.getConnection(fragmento);
+                PreparedStatement stmt = conex.prepareStatement(SEARCH_BY_IDS + marcadores(ids.size()))) {
+            int i = 1;
+            for (Long id : ids) {
+                stmt.setLong(i++, id);
+            }
+            
+            long inicio = RegistroConsultasLentas.iniciar();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    empleados.add(mapResultSetToEmpleado(rs));
+                }
+            }
+            RegistroConsultasLentas.registrar("EmpleadoDAO.SEARCH_BY_IDS", inicio, empleados.size(), ids.size());
+        }
+        return empleados;
+    }
+    
+    //--------------------------------------------------------------------------------------------------------------    
+    
+    /**
+    * Recupera una página liviana de empleados activos (solo ID, nombre, apellido y área) ordenada por id.
+    * Permite recorrer la tabla completa para armar índices en memoria sin el costo del JOIN con legajo.
+    * @param despuesDeId id del último empleado de la página anterior (0 para la primera)
+    * @param limite cantidad máxima de empleados a devolver
+    * @return empleados con ID, nombre, apellido y área cargados
+    * @throws Exception en caso de error de conexión o de ejecución de la consulta
+    */
+    
+    public List<Empleado> leerNombresPagina(long despuesDeId, int limite) throws Exception {
+        try {
+            return Fragmentos.intercalar(Fragmentos.enTodos(fragmento -> leerNombresFragmento(fragmento, despuesDeId, limite)),
+                    POR_ID, limite);
+        } catch (SQLException e) {
+            throw new Exception("Error al obtener la página de nombres: " + e.getMessage(), e);
+        }
+    }
+    
+    private List<Empleado> leerNombresFragmento(int fragmento, long despuesDeId, int limite) throws SQLException {
+        List<Empleado> pagina = new ArrayList<>(limite);
+        try (Connection conex = DataBaseConnection.getConnection(fragmento);
+                PreparedStatement stmt = conex.prepareStatement(SELECT_NOMBRES_PAGE)) {
+            stmt.setLong(1, despuesDeId);
+            stmt.setInt(2, limite);
+            
+            long inicio = RegistroConsultasLentas.iniciar();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Empleado empleado = new Empleado(rs.getLong("id"), rs.getString("nombre"), rs.getString("apellido"), null);
+                    empleado.setArea(rs.getString("area"));
+                    pagina.add(empleado);
+                }
+            }
+            RegistroConsultasLentas.registrar("EmpleadoDAO.SELECT_NOMBRES_PAGE", inicio, pagina.size(), despuesDeId, limite);
+        }
+        return pagina;
+    }
+    
+    /**
+    * Recupera una página de empleados activos con su área y la categoría y el estado de su legajo, ordenada por id.
+    * Los legajos dados de baja no se cargan (el empleado queda sin legajo).
+    * @param despuesDeId id del último empleado de la página anterior (0 para la primera)
+    * @param limite cantidad máxima de empleados a devolver
+    * @return empleados con ID y área; el legajo, si lo tiene, solo con ID, categoría y estado
+    * @throws Exception en caso de error de conexión o de ejecución de la consulta
+    */
+    
+    public List<Empleado> leerDotacionPagina(long despuesDeId, int limite) throws Exception {
+        try {
+            return Fragmentos.intercalar(Fragmentos.enTodos(fragmento -> leerDotacionFragmento(fragmento, despuesDeId, limite)),
+                    POR_ID, limite);
+        } catch (SQLException e) {
+            throw new Exception("Error al obtener la página de dotación: " + e.getMessage(), e);
+        }
+    }
+    
+    private List<Empleado> leerDotacionFragmento(int fragmento, long despuesDeId, int limite) throws SQLException {
+        List<Empleado> pagina = new ArrayList<>(limite);
+        try (Connection conex = DataBaseConnection.getConnection(fragmento);
+                PreparedStatement stmt = conex.prepareStatement(SELECT_DOTACION_PAGE)) {
+            stmt.setLong(1, despuesDeId);
+            stmt.setInt(2, limite);
+            
+            long inicio = RegistroConsultasLentas.iniciar();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Empleado empleado = new Empleado(rs.getLong("id"), null, null, null);
+                    empleado.setArea(rs.getString("area"));
+                    long legajoId = rs.getLong("legajo_id");
+                    if (!rs.wasNull()) {
+                        Legajo legajo = new Legajo(legajoId, null, rs.getString("categoria"));
+                        legajo.setEstado(Estado.valueOf(rs.getString("estado")));
+                        empleado.setLegajo(legajo);
+                    }
+                    pagina.add(empleado);
+                }
+            }
+            RegistroConsultasLentas.registrar("EmpleadoDAO.SELECT_DOTACION_PAGE", inicio, pagina.size(), despuesDeId, limite);
+        }
+        return pagina;
+    }
+    
+    //--------------------------------------------------------------------------------------------------------------    
+    
+    /**
+    * Cuenta los empleados activos por área (los que no tienen área quedan con clave null).
+    * @return área -> cantidad de empleados
+    * @throws Exception en caso de error de conexión o de ejecución de la consulta
+    */
+    public Map<String, Long> contarPorArea() throws Exception {
+        return contar(COUNT_BY_AREA, "EmpleadoDAO.COUNT_BY_AREA");
+    }
+    
+    /**
+    * Cuenta los empleados activos con legajo activo por categoría del legajo.
+    * @return categoría -> cantidad de empleados
+    * @throws Exception en caso de error de conexión o de ejecución de la consulta
+    */
+    public Map<String, Long> contarPorCategoria() throws Exception {
+        return contar(COUNT_BY_CATEGORIA, "EmpleadoDAO.COUNT_BY_CATEGORIA");
+    }
+    
+    /**
+    * Cuenta los empleados activos con legajo activo por estado del legajo.
+    * @return nombre del estado -> cantidad de empleados
+    * @throws Exception en caso de error de conexión o de ejecución de la consulta
+    */
+    public Map<String, Long> contarPorEstado() throws Exception {
+        return contar(COUNT_BY_ESTADO, "EmpleadoDAO.COUNT_BY_ESTADO");
+    }
+    
+    private Map<String, Long> contar(String sql, String nombre) throws Exception {
+        Map<String, Long> conteos = new HashMap<>();
+        try {
+            for (Map<String, Long> parcial : Fragmentos.enTodos(fragmento -> contarFragmento(fragmento, sql, nombre))) {
+                parcial.forEach((valor, cantidad) -> conteos.merge(valor, cantidad, Long::sum));
+            }
+        } catch (SQLException e) {
+            throw new Exception("Error al contar empleados: " + e.getMessage(), e);
+        }
+        return conteos;
+    }
+    
+    private Map<String, Long> contarFragmento(int fragmento, String sql, String nombre) throws SQLException {
+        Map<String, Long> conteos = new HashMap<>();
+        try (Connection conex = DataBaseConnection.getConnection(fragmento);
+                PreparedStatement stmt = conex.prepareStatement(sql)) {
+            long inicio = RegistroConsultasLentas.iniciar();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    conteos.put(rs.getString("valor"), rs.getLong("cantidad"));
+                }
+            }
+            RegistroConsultasLentas.registrar(nombre, inicio, conteos.size());
+        }
+        return conteos;
+    }
+    
+    //--------------------------------------------------------------------------------------------------------------    
+    
+    /**
+    * Indica cuáles de los DNIs recibidos ya están registrados, en una sola consulta
+    * (una por fragmento si hay varios: cada DNI solo puede estar en el suyo).
+    * @param dnis a verificar
+    * @return DNIs ya existentes
+    * @throws SQLException en caso de error de conexión o de ejecución de la consulta
+    */
+    
+    public Set<String> buscarDnisExistentes(Collection<String> dnis) throws SQLException {
+        Set<String> existentes = new HashSet<>();
+        if (dnis.isEmpty()) {
+            return existentes;
+        }
+        Map<Integer, List<String>> porFragmento = Fragmentos.agrupar(dnis, Fragmentos::deClave);
+        for (Set<String> parte : Fragmentos.enFragmentos(porFragmento.keySet(),
+                fragmento -> buscarDnisFragmento(fragmento, porFragmento.get(fragmento)))) {
+            existentes.addAll(parte);
+        }
+        return existentes;
+    }
+    
+    private Set<String> buscarDnisFragmento(int fragmento, List<String> dnis) throws SQLException {
+        Set<String> existentes = new HashSet<>();
+        try (Connection conex = DataBaseConnection.getConnection(fragmento);
+                PreparedStatement stmt = conex.prepareStatement(SEARCH_DNIS + marcadores(dnis.size()))) {
+            int i = 1;
+            for (String dni : dnis) {
+                stmt.setString(i++, dni);
+            }
+            
+            long inicio = RegistroConsultasLentas.iniciar();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    existentes.add(rs.getString(1));
+                }
+            }
+            RegistroConsultasLentas.registrar("EmpleadoDAO.SEARCH_DNIS", inicio, existentes.size(), dnis.size());
+        }
+        return existentes;
+    }
+    
+    //--------------------------------------------------------------------------------------------------------------    
+    
+    /**
+    * Arma la lista de marcadores de una cláusula IN: "?, ?, ?)".
+    */
+    private static String marcadores(int cantidad) {
+        StringBuilder sb = new StringBuilder(cantidad * 3);
+        for (int i = 0; i < cantidad; i++) {
+            sb.append(i == 0 ? "?" : ", ?");
         }
+        return sb.append(')').toString();
     }
-}
\ No newline at end of file
+}
@@ -4,14 +4,21 @@ package tpiprogramacionii.dao;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.Statement;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import tpiprogramacionii.utils.DataBaseConnection;
+import tpiprogramacionii.utils.Fragmentos;
+import tpiprogramacionii.utils.RegistroConsultasLentas;
 import tpiprogramacionii.entities.Estado;
 import tpiprogramacionii.entities.Legajo;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.sql.Types;
+import java.nio.charset.StandardCharsets;
 
 
 
@@ -23,13 +30,13 @@ public class LegajoDAO implements GenericDAO <Legajo>{
     private static final String INSERT_SQL = "INSERT INTO legajo (nro_legajo, categoria, estado, fecha_alta, observaciones) VALUES (?, ?, ?, ?, ?)";
 
     //Actualizar categoría en legajo 
-    private static final String UPDATE_CATEGORIA = "UPDATE legajo SET categoria = ? WHERE id = ? AND eliminado = FALSE";
+    private static final String UPDATE_CATEGORIA = "UPDATE legajo SET categoria = ?, actualizado_en = CURRENT_TIMESTAMP(6) WHERE id = ? AND eliminado = FALSE";
 
     //Actualizar estado en legajo
-    private static final String UPDATE_ESTADO = "UPDATE legajo SET estado = ? WHERE id = ? AND eliminado = FALSE";
+    private static final String UPDATE_ESTADO = "UPDATE legajo SET estado = ?, actualizado_en = CURRENT_TIMESTAMP(6) WHERE id = ? AND eliminado = FALSE";
 
     //Eliminar legajo (marca eliminado = TRUE)
-    private static final String DELETE_SQL = "UPDATE legajo SET eliminado = TRUE WHERE id = ? AND eliminado = FALSE";
+    private static final String DELETE_SQL = "UPDATE legajo SET eliminado = TRUE, actualizado_en = CURRENT_TIMESTAMP(6) WHERE id = ? AND eliminado = FALSE";
 
     //Buscar legajo por ID
     private static final String SEARCH_BY_ID =  "SELECT id, nro_legajo, categoria, estado, fecha_alta, observaciones " +
@@ -37,7 +44,49 @@ public class LegajoDAO implements GenericDAO <Legajo>{
 
     //Listar todos los legajos activos
     private static final String SELECT_ALL_ACTIVE = "SELECT id, nro_legajo, categoria, estado, fecha_alta, observaciones " +
-                                                    "FROM legajo WHERE eliminado = FALSE AND UPPER(estado) = 'ACTIVO'";
+                                                    "FROM legajo WHERE eliminado = FALSE AND estado = 'ACTIVO'";
+
+    //Página de legajos activos posteriores a un id (paginación por clave)
+    private static final String SELECT_PAGE_ACTIVE = SELECT_ALL_ACTIVE + " AND id > ? ORDER BY id LIMIT ?";
+    
+    //Eliminar el legajo asociado a un empleado activo (operaciones por lotes)
+    private static final String DELETE_BY_EMPLEADO = "UPDATE legajo SET eliminado = TRUE, actualizado_en = CURRENT_TIMESTAMP(6) " +
+                                                     "WHERE eliminado = FALSE AND id = (SELECT legajo_id FROM empleado WHERE id = ? AND eliminado = FALSE)";
+
+    //Legajos modificados después de una marca (actualizado_en, id), incluidas las bajas lógicas.
+    //Las filas de los últimos segundos se dejan para la próxima lectura (ver MarcaCambios.MARGEN_SEGUNDOS)
+    private static final String SELECT_CAMBIADOS = "SELECT id, nro_legajo, categoria, estado, fecha_alta, observaciones, eliminado, actualizado_en " +
+                                                   "FROM legajo WHERE (actualizado_en > ? OR (actualizado_en = ? AND id > ?)) " +
+                                                   "AND actualizado_en < CURRENT_TIMESTAMP(6) - INTERVAL '" + MarcaCambios.MARGEN_SEGUNDOS + "' SECOND " +
+                                                   "ORDER BY actualizado_en, id LIMIT ?";
+
+    //Legajos activos de una lista de IDs (se completa con un marcador por ID)
+    private static final String SEARCH_BY_IDS = "SELECT id, nro_legajo, categoria, estado, fecha_alta, observaciones " +
+                                                "FROM legajo WHERE eliminado = FALSE AND id IN (";
+
+    //Legajos de una lista de IDs, sin observaciones (carga perezosa, ver LegajoPerezoso; se completa con un marcador por ID)
+    private static final String SEARCH_BY_IDS_SIN_OBSERVACIONES = "SELECT id, nro_legajo, categoria, estado, fecha_alta " +
+                                                                  "FROM legajo WHERE id IN (";
+
+    //Observaciones de una lista de legajos (carga perezosa)
+    private static final String SEARCH_OBSERVACIONES_BY_IDS = "SELECT id, observaciones FROM legajo WHERE id IN (";
+
+    //Compresión de las observaciones existentes (ver CompresorObservaciones): próximas filas sin comprimir desde un ID
+    private static final String SELECT_SIN_COMPRIMIR = "SELECT id, observaciones, actualizado_en FROM legajo " +
+                                                       "WHERE id > ? AND CHAR_LENGTH(observaciones) >= ? AND observaciones NOT LIKE ? " +
+                                                       "ORDER BY id LIMIT ?";
+    //Sin tocar actualizado_en: el contenido no cambia y no tiene que aparecer en la sincronización incremental.
+    //Si la fila cambió desde la lectura (actualizado_en distinto) no se actualiza. No se compara el texto: la
+    //intercalación de la columna lo iguala aunque difieran mayúsculas, acentos o espacios finales
+    private static final String UPDATE_OBSERVACIONES = "UPDATE legajo SET observaciones = ? WHERE id = ? AND actualizado_en = ?";
+
+    //Largo guardado de las observaciones y cabecera de las comprimidas (informe de compresión)
+    private static final String SELECT_LARGOS_OBSERVACIONES = "SELECT LENGTH(observaciones) AS bytes, " +
+                                                              "CASE WHEN observaciones LIKE ? THEN SUBSTRING(observaciones, 1, 32) END AS cabecera " +
+                                                              "FROM legajo WHERE observaciones IS NOT NULL";
+
+    //Orden por ID para combinar las páginas de varios fragmentos
+    private static final Comparator<Legajo> POR_ID = Comparator.comparing(Legajo::getId);
 
     //CONSTRUCTOR ---------------------------------------------------------------------------------------------------
     public LegajoDAO() {} 
@@ -47,13 +96,14 @@ public class LegajoDAO implements GenericDAO <Legajo>{
     /**
     * Inserta un legajo en la base de datos.
     * Crea y cierra la conexión automáticamente y llama a insertTx para realizar la inserción.
+    * Con varios fragmentos se inserta en el que corresponde a su número de legajo.
     * @param legajo El legajo a insertar.
     * @throws Exception Si ocurre un error al conectar o ejecutar la inserción.
     */
     
     @Override
     public void insertar(Legajo legajo) throws Exception {
-        try (Connection conex = DataBaseConnection.getConnection()) {
+        try (Connection conex = DataBaseConnection.getConnection(Fragmentos.deClave(legajo.getNroLegajo()))) {
             insertTx(legajo, conex);
         }
     }
@@ -71,7 +121,10 @@ public class LegajoDAO implements GenericDAO <Legajo>{
     public void insertTx(Legajo legajo, Connection conex) throws Exception {
         try (PreparedStatement stmt = conex.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
             setLegajoParameters(stmt, legajo);   
-            stmt.executeUpdate();
+            long inicio = RegistroConsultasLentas.iniciar();
+            int filas = stmt.executeUpdate();
+            RegistroConsultasLentas.registrar("LegajoDAO.INSERT_SQL", inicio, filas,
+                    legajo.getNroLegajo(), legajo.getCategoria(), legajo.getEstado(), legajo.getFechaAlta());
             legajo.setId(recuperarIdGenerado(stmt));
         }
     }
@@ -87,7 +140,7 @@ public class LegajoDAO implements GenericDAO <Legajo>{
     
     @Override
     public void actualizar(Legajo legajo) throws Exception {
-         try (Connection conex = DataBaseConnection.getConnection()) {
+         try (Connection conex = DataBaseConnection.getConnection(Fragmentos.deId(legajo.getId()))) {
             actualizarTx(legajo, conex);
         }
     }
@@ -107,7 +160,10 @@ public class LegajoDAO implements GenericDAO <Legajo>{
             stmt.setString(1, legajo.getCategoria());
             stmt.setLong(2, legajo.getId());
             
+            long inicio = RegistroConsultasLentas.iniciar();
             int rows = stmt.executeUpdate();
+            RegistroConsultasLentas.registrar("LegajoDAO.UPDATE_CATEGORIA", inicio, rows,
+                    legajo.getCategoria(), legajo.getId());
             if (rows == 0) {
                 throw new SQLException("No se pudo actualizar la categoria del legajo con ID: " + legajo.getId());
             }
@@ -125,7 +181,7 @@ public class LegajoDAO implements GenericDAO <Legajo>{
     
     @Override
     public void eliminar(Long id) throws Exception {
-        try (Connection conex = DataBaseConnection.getConnection()) {
+        try (Connection conex = DataBaseConnection.getConnection(Fragmentos.deId(id))) {
             eliminarTx(id, conex);
         }
     }
@@ -144,7 +200,9 @@ public class LegajoDAO implements GenericDAO <Legajo>{
     public void eliminarTx(Long id, Connection conex) throws Exception {
         try (PreparedStatement stmt = conex.prepareStatement(DELETE_SQL)) {
             stmt.setLong(1, id);
+            long inicio = RegistroConsultasLentas.iniciar();
             int rowsAffected = stmt.executeUpdate();
+            RegistroConsultasLentas.registrar("LegajoDAO.DELETE_SQL", inicio, rowsAffected, id);
 
             if (rowsAffected == 0) {
                 throw new IllegalStateException("El legajo con ID " + id + " ya estaba eliminado o no existe.");
@@ -164,21 +222,21 @@ public class LegajoDAO implements GenericDAO <Legajo>{
     @Override
     public Legajo leer(Long id) throws Exception {
        
-        try (Connection conex = DataBaseConnection.getConnection();
+        try (Connection conex = DataBaseConnection.getConnection(Fragmentos.deId(id));
                 PreparedStatement stmt = conex.prepareStatement(SEARCH_BY_ID)) {
 
             stmt.setLong(1, id);
 
+            long inicio = RegistroConsultasLentas.iniciar();
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return mapResultSetToLegajo(rs);
-                }
+                Legajo legajo = rs.next() ? mapResultSetToLegajo(rs) : null;
+                RegistroConsultasLentas.registrar("LegajoDAO.SEARCH_BY_ID", inicio, legajo != null ? 1 : 0, id);
+                return legajo;
             }
             
         } catch (SQLException e) {
             throw new Exception("Error al obtener legajo por ID: " + e.getMessage(), e);
         } 
-        return null;
     }
 
     //--------------------------------------------------------------------------------------------------------------    
@@ -186,6 +244,7 @@ public class LegajoDAO implements GenericDAO <Legajo>{
     /**
     * Lista todos los legajos activos en la base de datos.
     * Solo devuelve legajos donde eliminado = FALSE y estado = ACTIVO.
+    * Con varios fragmentos consulta todos en paralelo y une los resultados.
     * @return Lista de objetos Legajo.
     * @throws Exception si ocurre un error de conexión o ejecución de la consulta.
     */
@@ -193,23 +252,151 @@ public class LegajoDAO implements GenericDAO <Legajo>{
     @Override
     public List<Legajo> leerTodos() throws Exception {
         List<Legajo> listaLegajos = new ArrayList<>();
-        try(Connection conex = DataBaseConnection.getConnection(); 
-                PreparedStatement stmt = conex.prepareStatement(SELECT_ALL_ACTIVE);
-                ResultSet rs = stmt.executeQuery()){
-               
-            while (rs.next()) {
-                listaLegajos.add(mapResultSetToLegajo(rs));
+        try {
+            for (List<Legajo> parte : Fragmentos.enTodos(this::leerTodosFragmento)) {
+                listaLegajos.addAll(parte);
             }
-            
         } catch (SQLException e) {
             throw new Exception("Error al obtener el listado de legajos: " + e.getMessage(), e);
         }
         return listaLegajos;
     }
     
+    private List<Legajo> leerTodosFragmento(int fragmento) throws SQLException {
+        List<Legajo> listaLegajos = new ArrayList<>();
+        try(Connection conex = DataBaseConnection.getConnection(fragmento);
+                PreparedStatement stmt = conex.prepareStatement(SELECT_ALL_ACTIVE)) {
+            long inicio = RegistroConsultasLentas.iniciar();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    listaLegajos.add(mapResultSetToLegajo(rs));
+                }
+            }
+            RegistroConsultasLentas.registrar("LegajoDAO.SELECT_ALL_ACTIVE", inicio, listaLegajos.size());
+        }
+        return listaLegajos;
+    }
+    
     
     //METODOS PROPIOS ----------------------------------------------------------------------------------------------
-         
+    
+    /**
+    * Recupera una página de legajos activos ordenada por id (paginación por clave).
+    * @param despuesDeId id del último legajo de la página anterior (0 para la primera)
+    * @param limite cantidad máxima de legajos a devolver
+    * @return lista de legajos activos con id mayor a despuesDeId
+    * @throws Exception si ocurre un error de conexión o ejecución de la consulta.
+    */
+    
+    public List<Legajo> leerPagina(long despuesDeId, int limite) throws Exception {
+        try {
+            return Fragmentos.intercalar(Fragmentos.enTodos(fragmento -> leerPaginaFragmento(fragmento, despuesDeId, limite)),
+                    POR_ID, limite);
+        } catch (SQLException e) {
+            throw new Exception("Error al obtener la página de legajos: " + e.getMessage(), e);
+        }
+    }
+    
+    private List<Legajo> leerPaginaFragmento(int fragmento, long despuesDeId, int limite) throws SQLException {
+        List<Legajo> pagina = new ArrayList<>(limite);
+        try (Connection conex = DataBaseConnection.getConnection(fragmento);
+                PreparedStatement stmt = conex.prepareStatement(SELECT_PAGE_ACTIVE)) {
+            stmt.setLong(1, despuesDeId);
+            stmt.setInt(2, limite);
+
+            long inicio = RegistroConsultasLentas.iniciar();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    pagina.add(mapResultSetToLegajo(rs));
+                }
+            }
+            RegistroConsultasLentas.registrar("LegajoDAO.SELECT_PAGE_ACTIVE", inicio, pagina.size(), despuesDeId, limite);
+        }
+        return pagina;
+    }
+    
+    //--------------------------------------------------------------------------------------------------------------    
+
+    /**
+    * Recupera los legajos modificados después de la marca, incluidos los dados de baja (con eliminado = true),
+    * en orden de modificación.
+    * @param marca marca de la última fila ya procesada (MarcaCambios.INICIO para empezar)
+    * @param limite cantidad máxima de legajos a devolver
+    * @return legajos modificados y la marca desde la que continuar
+    * @throws Exception si ocurre un error de conexión o ejecución de la consulta.
+    */
+    
+    public PaginaCambios<Legajo> leerCambiadosDesde(MarcaCambios marca, int limite) throws Exception {
+        try {
+            return PaginaCambios.unir(Fragmentos.enTodos(fragmento -> leerCambiadosFragmento(fragmento, marca, limite)),
+                    marca, limite);
+        } catch (SQLException e) {
+            throw new Exception("Error al obtener los legajos modificados: " + e.getMessage(), e);
+        }
+    }
+    
+    private List<PaginaCambios.Fila<Legajo>> leerCambiadosFragmento(int fragmento, MarcaCambios marca, int limite) throws SQLException {
+        List<PaginaCambios.Fila<Legajo>> cambiados = new ArrayList<>(Math.min(limite, 1000));
+        try (Connection conex = DataBaseConnection.getConnection(fragmento);
+                PreparedStatement stmt = conex.prepareStatement(SELECT_CAMBIADOS)) {
+            stmt.setTimestamp(1, marca.instante());
+            stmt.setTimestamp(2, marca.instante());
+            stmt.setLong(3, marca.id());
+            stmt.setInt(4, limite);
+
+            long inicio = RegistroConsultasLentas.iniciar();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Legajo legajo = mapResultSetToLegajo(rs);
+                    legajo.setEliminado(rs.getBoolean("eliminado"));
+                    cambiados.add(new PaginaCambios.Fila<>(legajo,
+                            new MarcaCambios(rs.getTimestamp("actualizado_en"), legajo.getId())));
+                }
+            }
+            RegistroConsultasLentas.registrar("LegajoDAO.SELECT_CAMBIADOS", inicio, cambiados.size(), marca.aTexto(), limite);
+        }
+        return cambiados;
+    }
+    
+    //--------------------------------------------------------------------------------------------------------------    
+
+    /**
+    * Recupera los legajos que cumplen el criterio (filtros, orden y página).
+    * El SQL lo arma el criterio a partir de campos y columnas fijos; los valores van como parámetros.
+    * Con varios fragmentos la consulta va a todos y los resultados se combinan con criterio.comparador().
+    * @param criterio filtros, orden, cursor y límite de la consulta
+    * @return legajos encontrados, en el orden pedido
+    * @throws Exception en caso de error de conexión o de ejecución de la consulta
+    */
+    
+    public List<Legajo> buscar(CriterioLegajo criterio) throws Exception {
+        try {
+            return Fragmentos.intercalar(Fragmentos.enTodos(fragmento -> buscarFragmento(fragmento, criterio)),
+                    criterio.comparador(), criterio.getLimite());
+        } catch (SQLException e) {
+            throw new Exception("Error al buscar legajos por criterio: " + e.getMessage(), e);
+        }
+    }
+    
+    private List<Legajo> buscarFragmento(int fragmento, CriterioLegajo criterio) throws SQLException {
+        List<Legajo> resultado = new ArrayList<>(criterio.getLimite());
+        try (Connection conex = DataBaseConnection.getConnection(fragmento);
+                PreparedStatement stmt = conex.prepareStatement(criterio.getSql())) {
+            Object[] parametros = criterio.asignarParametros(stmt);
+
+            long inicio = RegistroConsultasLentas.iniciar();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    resultado.add(mapResultSetToLegajo(rs));
+                }
+            }
+            RegistroConsultasLentas.registrar("LegajoDAO." + criterio.getForma(), inicio, resultado.size(), parametros);
+        }
+        return resultado;
+    }
+        
+    //--------------------------------------------------------------------------------------------------------------    
+    
     /**
      * Asigna los valores de un legajo a los parámetros del PreparedStatement
      * Verifica los campos nulos antes de asignarlos.
@@ -237,7 +424,7 @@ public class LegajoDAO implements GenericDAO <Legajo>{
         }
         
         if (legajo.getObservaciones() != null) {
-            stmt.setString(5, legajo.getObservaciones());
+            stmt.setString(5, CompresionObservaciones.paraGuardar(legajo.getObservaciones()));
         } else {
             stmt.setNull(5, Types.VARCHAR);
         }
@@ -266,12 +453,25 @@ public class LegajoDAO implements GenericDAO <Legajo>{
        
     /**
     * Crea una instancia de legajo a partir de los valores de ResultSet
+    * Es público para poder medirlo desde los benchmarks.
     * @param rs ResultSet obtenido de la consulta a la base de datos.
     * @return legajo
     * @throws Exception en caso de error de conexión o de ejecución de la consulta.
     */
         
-    private Legajo mapResultSetToLegajo(ResultSet rs) throws SQLException {
+    public Legajo mapResultSetToLegajo(ResultSet rs) throws SQLException {
+        Legajo legajo = mapResultSetToLegajoSinObservaciones(rs);
+        
+        String observaciones = rs.getString("observaciones");
+        if (observaciones != null) {
+            // Si están comprimidas se descomprimen en el primer getObservaciones
+            CompresionObservaciones.asignar(legajo, observaciones);
+        }
+
+        return legajo;        
+    }
+    
+    private Legajo mapResultSetToLegajoSinObservaciones(ResultSet rs) throws SQLException {
         Legajo legajo = new Legajo(
             rs.getLong("id"),
             rs.getString("nro_legajo"),
@@ -289,14 +489,8 @@ public class LegajoDAO implements GenericDAO <Legajo>{
         if (fechaAltaSql != null) {
             legajo.setFechaAlta(new java.util.Date(fechaAltaSql.getTime()));
         }
-        
-        
-        String observaciones = rs.getString("observaciones");
-        if (observaciones != null) {
-            legajo.setObservaciones(observaciones);
-        }
 
-        return legajo;        
+        return legajo;
     }
     
     
@@ -311,16 +505,376 @@ public class LegajoDAO implements GenericDAO <Legajo>{
     */
     public void cambiarEstado(Long id, Estado nuevoEstado) throws SQLException {
       
-       try (Connection conex = DataBaseConnection.getConnection();
+       try (Connection conex = DataBaseConnection.getConnection(Fragmentos.deId(id));
                PreparedStatement stmt = conex.prepareStatement(UPDATE_ESTADO)) {
 
             stmt.setString(1, nuevoEstado.name());
             stmt.setLong(2, id);
 
+            long inicio = RegistroConsultasLentas.iniciar();
             int rowsAffected = stmt.executeUpdate();
+            RegistroConsultasLentas.registrar("LegajoDAO.UPDATE_ESTADO", inicio, rowsAffected, nuevoEstado, id);
             if (rowsAffected == 0) {
                 throw new SQLException("No se pudo actualizar el estado del legajo. Puede que no exista o esté eliminado.");
             }
         }
     }    
-}
\ No newline at end of file
+    
+    //--------------------------------------------------------------------------------------------------------------    
+    
+    /**
+    * Cambia el estado de un legajo usando una conexión existente (dentro de la transacción del servicio).
+    * @param id Id del legajo a modificar
+    * @param nuevoEstado Estado deseado (ACTIVO o INACTIVO)
+    * @param conex Conexión transaccional activa
+    * @throws SQLException si falla la ejecución o el legajo no existe o está eliminado
+    */
+    public void cambiarEstadoTx(Long id, Estado nuevoEstado, Connection conex) throws SQLException {
+        try (PreparedStatement stmt = conex.prepareStatement(UPDATE_ESTADO)) {
+            stmt.setString(1, nuevoEstado.name());
+            stmt.setLong(2, id);
+
+            long inicio = RegistroConsultasLentas.iniciar();
+            int rowsAffected = stmt.executeUpdate();
+            RegistroConsultasLentas.registrar("LegajoDAO.UPDATE_ESTADO", inicio, rowsAffected, nuevoEstado, id);
+            if (rowsAffected == 0) {
+                throw new SQLException("No se pudo actualizar el estado del legajo. Puede que no exista o esté eliminado.");
+            }
+        }
+    }
+    
+    //--------------------------------------------------------------------------------------------------------------    
+    
+    /**
+    * Inserta varios legajos con un único lote JDBC usando una conexión existente.
+    * Asigna a cada legajo el Id generado, en el mismo orden de la lista.
+    * @param legajos a insertar
+    * @param conex Conexión transaccional activa
+    * @throws SQLException si falla la inserción o no se obtienen todos los Ids
+    */
+    public void insertarLoteTx(List<Legajo> legajos, Connection conex) throws SQLException {
+        try (PreparedStatement stmt = conex.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            for (Legajo legajo : legajos) {
+                setLegajoParameters(stmt, legajo);
+                stmt.addBatch();
+            }
+            long inicio = RegistroConsultasLentas.iniciar();
+            stmt.executeBatch();
+            RegistroConsultasLentas.registrar("LegajoDAO.INSERT_SQL[lote]", inicio, legajos.size(), legajos.size());
+            
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                for (Legajo legajo : legajos) {
+                    if (!generatedKeys.next()) {
+                        throw new SQLException("No se pudieron obtener todos los ID de los legajos insertados");
+                    }
+                    legajo.setId(generatedKeys.getLong(1));
+                }
+            }
+        }
+    }
+    
+    //--------------------------------------------------------------------------------------------------------------    
+    
+    /**
+    * Cambia el estado de varios legajos con un único lote JDBC usando una conexión existente.
+    * @param cambios Id de legajo y estado deseado
+    * @param conex Conexión transaccional activa
+    * @throws SQLException si falla la ejecución o algún legajo no existe o está eliminado
+    */
+    public void cambiarEstadoLoteTx(Map<Long, Estado> cambios, Connection conex) throws SQLException {
+        try (PreparedStatement stmt = conex.prepareStatement(UPDATE_ESTADO)) {
+            for (Map.Entry<Long, Estado> cambio : cambios.entrySet()) {
+                stmt.setString(1, cambio.getValue().name());
+                stmt.setLong(2, cambio.getKey());
+                stmt.addBatch();
+            }
+            long inicio = RegistroConsultasLentas.iniciar();
+            int[] filas = stmt.executeBatch();
+            RegistroConsultasLentas.registrar("LegajoDAO.UPDATE_ESTADO[lote]", inicio, cambios.size(), cambios.size());
+            
+            int i = 0;
+            for (Long id : cambios.keySet()) {
+                if (filas[i++] == 0) {
+                    throw new SQLException("No se pudo actualizar el estado del legajo ID " + id + ". Puede que no exista o esté eliminado.");
+                }
+            }
+        }
+    }
+    
+    //--------------------------------------------------------------------------------------------------------------    
+    
+    /**
+    * Elimina lógicamente los legajos asociados a varios empleados activos con un único lote JDBC.
+    * Los empleados sin legajo se ignoran.
+    * @param idsEmpleado Ids de los empleados cuyo legajo se elimina
+    * @param conex Conexión transaccional activa
+    * @throws SQLException si falla la ejecución
+    */
+    public void eliminarPorEmpleadoLoteTx(List<Long> idsEmpleado, Connection conex) throws SQLException {
+        try (PreparedStatement stmt = conex.prepareStatement(DELETE_BY_EMPLEADO)) {
+            for (Long id : idsEmpleado) {
+                stmt.setLong(1, id);
+                stmt.addBatch();
+            }
+            long inicio = RegistroConsultasLentas.iniciar();
+            stmt.executeBatch();
+            RegistroConsultasLentas.registrar("LegajoDAO.DELETE_BY_EMPLEADO[lote]", inicio, idsEmpleado.size(), idsEmpleado.size());
+        }
+    }
+
+    //--------------------------------------------------------------------------------------------------------------
+
+    /**
+    * Recupera en una sola consulta los legajos activos de una lista de Ids (mismo criterio que leer).
+    * Los Ids que no existen o están eliminados no aparecen en el resultado.
+    * Con varios fragmentos hace una consulta por fragmento involucrado, en paralelo.
+    * @param ids de los legajos a buscar
+    * @return legajos encontrados, sin un orden garantizado
+    * @throws Exception en caso de error de conexión o de ejecución de la consulta
+    */
+    public List<Legajo> leerPorIds(Collection<Long> ids) throws Exception {
+        List<Legajo> legajos = new ArrayList<>(ids.size());
+        if (ids.isEmpty()) {
+            return legajos;
+        }
+        Map<Integer, List<Long>> porFragmento = Fragmentos.agrupar(ids, Fragmentos::deId);
+        try {
+            for (List<Legajo> parte : Fragmentos.enFragmentos(porFragmento.keySet(),
+                    fragmento -> leerPorIdsFragmento(fragmento, porFragmento.get(fragmento)))) {
+                legajos.addAll(parte);
+            }
+        } catch (SQLException e) {
+            throw new Exception("Error al obtener legajos por ID: " + e.getMessage(), e);
+        }
+        return legajos;
+    }
+
+    private List<Legajo> leerPorIdsFragmento(int fragmento, List<Long> ids) throws SQLException {
+        List<Legajo> legajos = new ArrayList<>(ids.size());
+        try (Connection conex = DataBaseConnection.getConnection(fragmento);
+                PreparedStatement stmt = conex.prepareStatement(SEARCH_BY_IDS + marcadores(ids.size()))) {
+            int i = 1;
+            for (Long id : ids) {
+                stmt.setLong(i++, id);
+            }
+
+            long inicio = RegistroConsultasLentas.iniciar();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    legajos.add(mapResultSetToLegajo(rs));
+                }
+            }
+            RegistroConsultasLentas.registrar("LegajoDAO.SEARCH_BY_IDS", inicio, legajos.size(), ids.size());
+        }
+        return legajos;
+    }
+
+    //--------------------------------------------------------------------------------------------------------------
+
+    /**
+    * Recupera los legajos de una lista de Ids sin la columna observaciones (carga perezosa de LegajoPerezoso).
+    * Incluye los dados de baja, igual que el JOIN de EmpleadoDAO.
+    * @param ids de los legajos a buscar
+    * @return legajos encontrados, sin un orden garantizado
+    * @throws SQLException si ocurre un error de conexión o ejecución de la consulta
+    */
+    List<Legajo> leerSinObservacionesPorIds(Collection<Long> ids) throws SQLException {
+        Map<Integer, List<Long>> porFragmento = Fragmentos.agrupar(ids, Fragmentos::deId);
+        List<Legajo> legajos = new ArrayList<>(ids.size());
+        for (List<Legajo> parte : Fragmentos.enFragmentos(porFragmento.keySet(),
+                fragmento -> leerSinObservacionesFragmento(fragmento, porFragmento.get(fragmento)))) {
+            legajos.addAll(parte);
+        }
+        return legajos;
+    }
+
+    private List<Legajo> leerSinObservacionesFragmento(int fragmento, List<Long> ids) throws SQLException {
+        List<Legajo> legajos = new ArrayList<>(ids.size());
+        try (Connection conex = DataBaseConnection.getConnection(fragmento);
+                PreparedStatement stmt = conex.prepareStatement(SEARCH_BY_IDS_SIN_OBSERVACIONES + marcadores(ids.size()))) {
+            int i = 1;
+            for (Long id : ids) {
+                stmt.setLong(i++, id);
+            }
+
+            long inicio = RegistroConsultasLentas.iniciar();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    legajos.add(mapResultSetToLegajoSinObservaciones(rs));
+                }
+            }
+            RegistroConsultasLentas.registrar("LegajoDAO.SEARCH_BY_IDS_SIN_OBSERVACIONES", inicio, legajos.size(), ids.size());
+        }
+        return legajos;
+    }
+
+    //--------------------------------------------------------------------------------------------------------------
+
+    /**
+    * Recupera las observaciones de una lista de legajos (carga perezosa de LegajoPerezoso).
+    * @param ids de los legajos
+    * @return id del legajo -> observaciones (sin entrada para los Ids que no existen)
+    * @throws SQLException si ocurre un error de conexión o ejecución de la consulta
+    */
+    Map<Long, String> leerObservacionesPorIds(Collection<Long> ids) throws SQLException {
+        Map<Integer, List<Long>> porFragmento = Fragmentos.agrupar(ids, Fragmentos::deId);
+        Map<Long, String> observaciones = new HashMap<>();
+        for (Map<Long, String> parte : Fragmentos.enFragmentos(porFragmento.keySet(),
+                fragmento -> leerObservacionesFragmento(fragmento, porFragmento.get(fragmento)))) {
+            observaciones.putAll(parte);
+        }
+        return observaciones;
+    }
+
+    private Map<Long, String> leerObservacionesFragmento(int fragmento, List<Long> ids) throws SQLException {
+        Map<Long, String> observaciones = new HashMap<>();
+        try (Connection conex = DataBaseConnection.getConnection(fragmento);
+                PreparedStatement stmt = conex.prepareStatement(SEARCH_OBSERVACIONES_BY_IDS + marcadores(ids.size()))) {
+            int i = 1;
+            for (Long id : ids) {
+                stmt.setLong(i++, id);
+            }
+
+            long inicio = RegistroConsultasLentas.iniciar();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    observaciones.put(rs.getLong("id"), rs.getString("observaciones"));
+                }
+            }
+            RegistroConsultasLentas.registrar("LegajoDAO.SEARCH_OBSERVACIONES_BY_IDS", inicio, observaciones.size(), ids.size());
+        }
+        return observaciones;
+    }
+
+    //--------------------------------------------------------------------------------------------------------------
+
+    /**
+    * Comprime en una transacción las observaciones sin comprimir de hasta limite legajos de un fragmento,
+    * en orden de ID a partir de despuesDeId. Las que no se achican al comprimirlas quedan como están, y las que
+    * cambiaron entre la lectura y la escritura no se tocan ni se cuentan como comprimidas.
+    * @param fragmento fragmento a procesar
+    * @param despuesDeId ID del último legajo del lote anterior (0 para el primero)
+    * @param limite cantidad máxima de legajos revisados
+    * @param umbral caracteres mínimos de las observaciones a comprimir
+    * @return legajos revisados y comprimidos, bytes antes y después, y último ID revisado; con menos de limite revisados no quedan más
+    * @throws SQLException en caso de error de conexión o de ejecución
+    */
+    public CompresionObservaciones.Lote comprimirObservacionesLote(int fragmento, long despuesDeId, int limite, int umbral) throws SQLException {
+        try (Connection conex = DataBaseConnection.getConnection(fragmento)) {
+            conex.setAutoCommit(false);
+            try {
+                int revisados = 0;
+                int comprimidos = 0;
+                long bytesAntes = 0;
+                long bytesDespues = 0;
+                int pendientes = 0;
+                long ultimoId = 0;
+                // Tamaños de cada fila agregada al lote; se suman solo las que executeBatch actualizó
+                List<long[]> tamanios = new ArrayList<>();
+                try (PreparedStatement select = conex.prepareStatement(SELECT_SIN_COMPRIMIR);
+                        PreparedStatement update = conex.prepareStatement(UPDATE_OBSERVACIONES)) {
+                    select.setLong(1, despuesDeId);
+                    select.setInt(2, umbral);
+                    select.setString(3, CompresionObservaciones.MARCA + "%");
+                    select.setInt(4, limite);
+                    long inicio = RegistroConsultasLentas.iniciar();
+                    try (ResultSet rs = select.executeQuery()) {
+                        while (rs.next()) {
+                            revisados++;
+                            ultimoId = rs.getLong("id");
+                            String observaciones = rs.getString("observaciones");
+                            String comprimidas = CompresionObservaciones.comprimir(observaciones);
+                            if (comprimidas.length() < observaciones.length()) {
+                                update.setString(1, comprimidas);
+                                update.setLong(2, ultimoId);
+                                update.setTimestamp(3, rs.getTimestamp("actualizado_en"));
+                                update.addBatch();
+                                pendientes++;
+                                tamanios.add(new long[] {observaciones.getBytes(StandardCharsets.UTF_8).length, comprimidas.length()});
+                            }
+                        }
+                    }
+                    RegistroConsultasLentas.registrar("LegajoDAO.SELECT_SIN_COMPRIMIR", inicio, revisados, despuesDeId, limite);
+                    if (pendientes > 0) {
+                        inicio = RegistroConsultasLentas.iniciar();
+                        int[] filas = update.executeBatch();
+                        RegistroConsultasLentas.registrar("LegajoDAO.UPDATE_OBSERVACIONES[lote]", inicio, pendientes, pendientes);
+                        for (int i = 0; i < filas.length; i++) {
+                            // SUCCESS_NO_INFO: el driver no informa las filas, la sentencia se ejecutó
+                            if (filas[i] > 0 || filas[i] == Statement.SUCCESS_NO_INFO) {
+                                comprimidos++;
+                                bytesAntes += tamanios.get(i)[0];
+                                bytesDespues += tamanios.get(i)[1];
+                            }
+                        }
+                    }
+                }
+                conex.commit();
+                return new CompresionObservaciones.Lote(revisados, comprimidos, bytesAntes, bytesDespues, ultimoId);
+            } catch (SQLException e) {
+                conex.rollback();
+                throw e;
+            }
+        }
+    }
+
+    //--------------------------------------------------------------------------------------------------------------
+
+    /**
+    * Recorre las observaciones de todos los fragmentos leyendo solo su largo y la cabecera de las comprimidas
+    * (no transfiere ni descomprime el texto).
+    * @return filas con observaciones, cuántas están comprimidas y bytes guardados y originales
+    * @throws Exception en caso de error de conexión o de ejecución de la consulta
+    */
+    public CompresionObservaciones.Informe informeObservaciones() throws Exception {
+        try {
+            CompresionObservaciones.Informe total = new CompresionObservaciones.Informe(0, 0, 0, 0);
+            for (CompresionObservaciones.Informe parte : Fragmentos.enTodos(this::informeObservacionesFragmento)) {
+                total = total.sumar(parte);
+            }
+            return total;
+        } catch (SQLException e) {
+            throw new Exception("Error al calcular el informe de compresión de observaciones: " + e.getMessage(), e);
+        }
+    }
+
+    private CompresionObservaciones.Informe informeObservacionesFragmento(int fragmento) throws SQLException {
+        long filas = 0;
+        long comprimidas = 0;
+        long bytesGuardados = 0;
+        long bytesOriginales = 0;
+        try (Connection conex = DataBaseConnection.getConnection(fragmento);
+                PreparedStatement stmt = conex.prepareStatement(SELECT_LARGOS_OBSERVACIONES)) {
+            stmt.setString(1, CompresionObservaciones.MARCA + "%");
+            long inicio = RegistroConsultasLentas.iniciar();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    long bytes = rs.getLong("bytes");
+                    String cabecera = rs.getString("cabecera");
+                    long original = cabecera != null ? CompresionObservaciones.largoOriginal(cabecera) : -1;
+                    filas++;
+                    bytesGuardados += bytes;
+                    if (original >= 0) {
+                        comprimidas++;
+                        bytesOriginales += original;
+                    } else {
+                        bytesOriginales += bytes;
+                    }
+                }
+            }
+            RegistroConsultasLentas.registrar("LegajoDAO.SELECT_LARGOS_OBSERVACIONES", inicio, (int) Math.min(filas, Integer.MAX_VALUE), fragmento);
+        }
+        return new CompresionObservaciones.Informe(filas, comprimidas, bytesGuardados, bytesOriginales);
+    }
+
+    /**
+    * Arma la lista de marcadores de una cláusula IN: "?, ?, ?)".
+    */
+    private static String marcadores(int cantidad) {
+        StringBuilder sb = new StringBuilder(cantidad * 3);
+        for (int i = 0; i < cantidad; i++) {
+            sb.append(i == 0 ? "?" : ", ?");
+        }
+        return sb.append(')').toString();
+    }
+}
@@ -0,0 +1,241 @@
+package tpiprogramacionii.dao;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import tpiprogramacionii.entities.Estado;
+import tpiprogramacionii.entities.Legajo;
+
+/**
+ * Legajo de un empleado leído con PlanCarga.PEREZOSO: solo conoce su ID hasta que se usa.
+ * El primer getter (o setter) carga los datos de este legajo y de los siguientes del mismo Grupo que
+ * todavía no se cargaron, hasta TAMANIO_LOTE por consulta; recorrer una lista de empleados hace así
+ * una consulta cada TAMANIO_LOTE legajos en lugar de una por empleado.
+ * Las observaciones (TEXT) se cargan aparte, con el mismo criterio, la primera vez que se piden.
+ */
+final class LegajoPerezoso extends Legajo {
+
+    /** Legajos cargados por consulta. */
+    static final int TAMANIO_LOTE = 500;
+
+    private final Grupo grupo;
+    // Se escriben con el lock del grupo; volatile para poder leerlos sin tomarlo
+    private volatile boolean cargado;
+    private volatile boolean observacionesCargadas;
+
+    private LegajoPerezoso(long id, Grupo grupo) {
+        super();
+        setId(id);
+        this.grupo = grupo;
+    }
+
+    @Override
+    public String getNroLegajo() {
+        cargar();
+        return super.getNroLegajo();
+    }
+
+    @Override
+    public void setNroLegajo(String nroLegajo) {
+        cargar();
+        super.setNroLegajo(nroLegajo);
+    }
+
+    @Override
+    public String getCategoria() {
+        cargar();
+        return super.getCategoria();
+    }
+
+    @Override
+    public void setCategoria(String categoria) {
+        cargar();
+        super.setCategoria(categoria);
+    }
+
+    @Override
+    public Estado getEstado() {
+        cargar();
+        return super.getEstado();
+    }
+
+    @Override
+    public void setEstado(Estado estado) {
+        cargar();
+        super.setEstado(estado);
+    }
+
+    @Override
+    public Date getFechaAlta() {
+        cargar();
+        return super.getFechaAlta();
+    }
+
+    @Override
+    public void setFechaAlta(Date fechaAlta) {
+        cargar();
+        super.setFechaAlta(fechaAlta);
+    }
+
+    @Override
+    public String getObservaciones() {
+        if (!observacionesCargadas) {
+            grupo.cargarObservaciones(this);
+        }
+        return super.getObservaciones();
+    }
+
+    @Override
+    public void setObservaciones(String observaciones) {
+        synchronized (grupo) {
+            super.setObservaciones(observaciones);
+            observacionesCargadas = true;
+        }
+    }
+
+    @Override
+    public void setObservacionesDiferidas(Supplier<String> observacionesDiferidas) {
+        synchronized (grupo) {
+            super.setObservacionesDiferidas(observacionesDiferidas);
+            observacionesCargadas = true;
+        }
+    }
+
+    @Override
+    public String toString() {
+        cargar();
+        getObservaciones();
+        return super.toString();
+    }
+
+    private void cargar() {
+        if (!cargado) {
+            grupo.cargar(this);
+        }
+    }
+
+    private void completar(Legajo datos) {
+        if (datos != null) {
+            super.setNroLegajo(datos.getNroLegajo());
+            super.setCategoria(datos.getCategoria());
+            super.setEstado(datos.getEstado());
+            super.setFechaAlta(datos.getFechaAlta());
+        }
+        cargado = true;
+    }
+
+    private void completarObservaciones(String observaciones) {
+        if (observaciones != null && CompresionObservaciones.esComprimido(observaciones)) {
+            super.setObservacionesDiferidas(() -> CompresionObservaciones.descomprimir(observaciones));
+        } else {
+            super.setObservaciones(observaciones);
+        }
+        observacionesCargadas = true;
+    }
+
+    /**
+     * Legajos perezosos de una misma lectura, en el orden en que se leyeron los empleados.
+     */
+    static final class Grupo {
+
+        private final LegajoDAO legajoDAO;
+        private final List<LegajoPerezoso> legajos = new ArrayList<>();
+        // Antes de estas posiciones todos los legajos ya están cargados (datos y observaciones)
+        private int siguiente;
+        private int siguienteObservaciones;
+
+        Grupo(LegajoDAO legajoDAO) {
+            this.legajoDAO = legajoDAO;
+        }
+
+        /**
+         * Crea el legajo perezoso de un empleado de la lectura.
+         */
+        synchronized LegajoPerezoso crear(long id) {
+            LegajoPerezoso legajo = new LegajoPerezoso(id, this);
+            legajos.add(legajo);
+            return legajo;
+        }
+
+        private synchronized void cargar(LegajoPerezoso pedido) {
+            if (pedido.cargado) {
+                return;
+            }
+            List<LegajoPerezoso> lote = lote(pedido, false);
+            Map<Long, Legajo> datos = new HashMap<>();
+            try {
+                for (Legajo legajo : legajoDAO.leerSinObservacionesPorIds(ids(lote))) {
+                    datos.put(legajo.getId(), legajo);
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException("No se pudo cargar el legajo " + pedido.getId() + ": " + e.getMessage(), e);
+            }
+            for (LegajoPerezoso legajo : lote) {
+                legajo.completar(datos.get(legajo.getId()));
+            }
+            liberarSiTerminado();
+        }
+
+        private synchronized void cargarObservaciones(LegajoPerezoso pedido) {
+            if (pedido.observacionesCargadas) {
+                return;
+            }
+            List<LegajoPerezoso> lote = lote(pedido, true);
+            Map<Long, String> observaciones;
+            try {
+                observaciones = legajoDAO.leerObservacionesPorIds(ids(lote));
+            } catch (SQLException e) {
+                throw new IllegalStateException("No se pudieron cargar las observaciones del legajo " + pedido.getId()
+                        + ": " + e.getMessage(), e);
+            }
+            for (LegajoPerezoso legajo : lote) {
+                legajo.completarObservaciones(observaciones.get(legajo.getId()));
+            }
+            liberarSiTerminado();
+        }
+
+        /**
+         * El legajo pedido más los siguientes sin cargar, hasta TAMANIO_LOTE.
+         * Se compara por identidad: equals y hashCode de Legajo cargarían los datos.
+         */
+        private List<LegajoPerezoso> lote(LegajoPerezoso pedido, boolean observaciones) {
+            List<LegajoPerezoso> lote = new ArrayList<>(Math.min(TAMANIO_LOTE, legajos.size()));
+            lote.add(pedido);
+            int i = observaciones ? siguienteObservaciones : siguiente;
+            for (; i < legajos.size() && lote.size() < TAMANIO_LOTE; i++) {
+                LegajoPerezoso legajo = legajos.get(i);
+                boolean listo = observaciones ? legajo.observacionesCargadas : legajo.cargado;
+                if (legajo != pedido && !listo) {
+                    lote.add(legajo);
+                }
+            }
+            if (observaciones) {
+                siguienteObservaciones = i;
+            } else {
+                siguiente = i;
+            }
+            return lote;
+        }
+
+        // Con todo cargado la lista ya no hace falta: no retener todos los legajos de la lectura por uno que siga en uso
+        private void liberarSiTerminado() {
+            if (siguiente >= legajos.size() && siguienteObservaciones >= legajos.size()) {
+                legajos.clear();
+                siguiente = 0;
+                siguienteObservaciones = 0;
+            }
+        }
+
+        private static List<Long> ids(List<LegajoPerezoso> lote) {
+            List<Long> ids = new ArrayList<>(lote.size());
+            for (LegajoPerezoso legajo : lote) {
+                ids.add(legajo.getId());
+            }
+            return ids;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package tpiprogramacionii.dao;
+
+import java.lang.constant.ConstantDescs;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import tpiprogramacionii.entities.Base;
+
+/**
+ * Plantilla del mapeo de DAOGenerico. No se usa directamente: DAOGenerico define una clase oculta
+ * (Lookup.defineHiddenClassWithClassData) con estos bytes por cada descriptor, y cada una toma sus handles
+ * de los datos de su clase. Como quedan en campos static final de una clase propia, el JIT los trata como
+ * constantes e inlinea la cadena completa (fábrica, getters, setters y conversiones JDBC) en asignar y mapear,
+ * igual que en un DAO escrito a mano.
+ * Datos de la clase: List.of(creacion, asignacion, mapeo), ver DAOGenerico.
+ */
+final class MapeoGenerado implements DAOGenerico.Mapeo {
+
+    // ()Object: entidad vacía
+    private static final MethodHandle CREACION;
+    // (PreparedStatement stmt, Object entidad)void: parámetros 1..n con las columnas del descriptor
+    private static final MethodHandle ASIGNACION;
+    // (Object entidad, ResultSet rs)void: columnas del descriptor de la fila actual
+    private static final MethodHandle MAPEO;
+
+    static {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            CREACION = MethodHandles.classDataAt(lookup, ConstantDescs.DEFAULT_NAME, MethodHandle.class, 0);
+            ASIGNACION = MethodHandles.classDataAt(lookup, ConstantDescs.DEFAULT_NAME, MethodHandle.class, 1);
+            MAPEO = MethodHandles.classDataAt(lookup, ConstantDescs.DEFAULT_NAME, MethodHandle.class, 2);
+        } catch (IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    MapeoGenerado() {}
+
+    @Override
+    public void asignar(PreparedStatement stmt, Object entidad) throws Throwable {
+        ASIGNACION.invokeExact(stmt, entidad);
+    }
+
+    @Override
+    public Object mapear(ResultSet rs) throws Throwable {
+        Object entidad = (Object) CREACION.invokeExact();
+        ((Base) entidad).setId(rs.getLong("id"));
+        MAPEO.invokeExact(entidad, rs);
+        return entidad;
+    }
+}
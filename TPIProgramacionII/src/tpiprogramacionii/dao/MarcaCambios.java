@@ -0,0 +1,59 @@
+package tpiprogramacionii.dao;
+
+import java.sql.Timestamp;
+
+/**
+ * Marca de agua de la sincronización incremental: fecha de modificación e ID de la última fila entregada.
+ * Las filas cambiadas se recorren en orden (actualizado_en, id), así que la marca indica exactamente
+ * dónde seguir aunque varias filas tengan la misma fecha de modificación.
+ *
+ * @param instante actualizado_en de la última fila entregada
+ * @param id ID de la última fila entregada
+ */
+public record MarcaCambios(Timestamp instante, long id) {
+
+    /** Marca inicial: la primera sincronización recorre todas las filas. */
+    public static final MarcaCambios INICIO = new MarcaCambios(new Timestamp(0), 0);
+
+    /**
+     * Solo se entregan filas modificadas hace más de estos segundos. Una transacción puede confirmarse
+     * después de otra más nueva; el margen evita pasar de largo sus filas (si dura menos que el margen).
+     */
+    public static final int MARGEN_SEGUNDOS = 5;
+
+    public MarcaCambios {
+        if (instante == null) {
+            throw new IllegalArgumentException("El instante de la marca no puede ser null");
+        }
+        if (id < 0) {
+            throw new IllegalArgumentException("El ID de la marca no puede ser negativo");
+        }
+    }
+
+    /**
+     * Texto opaco ("microsegundos-id") para guardar la marca o pasarla por HTTP.
+     */
+    public String aTexto() {
+        long micros = Math.floorDiv(instante.getTime(), 1000L) * 1_000_000L + instante.getNanos() / 1000;
+        return micros + "-" + id;
+    }
+
+    /**
+     * Reconstruye una marca a partir de aTexto().
+     * @throws IllegalArgumentException si el texto no es una marca válida
+     */
+    public static MarcaCambios desdeTexto(String texto) {
+        int guion = texto == null ? -1 : texto.lastIndexOf('-');
+        if (guion <= 0) {
+            throw new IllegalArgumentException("Marca de cambios inválida: " + texto);
+        }
+        try {
+            long micros = Long.parseLong(texto.substring(0, guion));
+            Timestamp instante = new Timestamp(Math.floorDiv(micros, 1_000_000L) * 1000L);
+            instante.setNanos((int) Math.floorMod(micros, 1_000_000L) * 1000);
+            return new MarcaCambios(instante, Long.parseLong(texto.substring(guion + 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Marca de cambios inválida: " + texto);
+        }
+    }
+}
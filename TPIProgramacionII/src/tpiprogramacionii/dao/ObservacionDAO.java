@@ -0,0 +1,257 @@
+package tpiprogramacionii.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import tpiprogramacionii.entities.Observacion;
+import tpiprogramacionii.utils.DataBaseConnection;
+import tpiprogramacionii.utils.Fragmentos;
+import tpiprogramacionii.utils.RegistroConsultasLentas;
+
+/**
+ * Acceso a la tabla legajo_observacion (historial de notas de cada legajo, solo se inserta).
+ * Agregar una nota es un INSERT y leer las últimas usa el índice (legajo_id, id) con paginación por clave,
+ * así ninguna de las dos operaciones depende del largo del historial.
+ *
+ * Reemplaza a legajo.observaciones: el texto de esa columna se mueve al historial como una nota
+ * (con la fecha de la última modificación del legajo) y la columna queda en NULL, con actualizado_en al día para que
+ * la sincronización incremental y la instantánea vean el cambio. Lo hace migrarLote por lotes
+ * (ver MigradorObservaciones) y, para no dejar esa nota después de las nuevas, también agregarTx
+ * antes de insertar la primera nota de un legajo. Las notas se guardan con CompresionObservaciones, así que
+ * una columna ya comprimida se mueve tal cual.
+ * Cada nota queda en el fragmento de su legajo.
+ */
+public class ObservacionDAO {
+
+    //QUERYS: --------------------------------------------------------------------------------------------------
+
+    //Agregar una nota (id y creado_en los asigna la base)
+    private static final String INSERT_SQL = "INSERT INTO legajo_observacion (legajo_id, texto) VALUES (?, ?)";
+
+    //Nota migrada de legajo.observaciones, con la fecha de la última modificación del legajo
+    private static final String INSERT_MIGRADA = "INSERT INTO legajo_observacion (legajo_id, texto, creado_en) VALUES (?, ?, ?)";
+
+    //Últimas notas de un legajo anteriores a un id (paginación por clave sobre idx_legajo_observacion_legajo)
+    private static final String SELECT_ULTIMAS = "SELECT id, legajo_id, texto, creado_en FROM legajo_observacion " +
+                                                 "WHERE legajo_id = ? AND id < ? ORDER BY id DESC LIMIT ?";
+
+    //Bloquea el legajo activo mientras se agrega la nota y trae las observaciones que falten migrar
+    private static final String SELECT_LEGAJO_PARA_NOTA = "SELECT observaciones, actualizado_en FROM legajo " +
+                                                          "WHERE id = ? AND eliminado = FALSE FOR UPDATE";
+
+    //Próximos legajos con observaciones sin migrar desde un ID (paginación por clave)
+    private static final String SELECT_SIN_MIGRAR = "SELECT id, observaciones, actualizado_en FROM legajo " +
+                                                    "WHERE id > ? AND observaciones IS NOT NULL ORDER BY id LIMIT ?";
+
+    //Vaciar la columna migrada; actualizado_en cambia para que los lectores incrementales vean la columna vacía.
+    //Si la fila cambió desde la lectura (actualizado_en distinto) no se actualiza
+    private static final String UPDATE_VACIAR = "UPDATE legajo SET observaciones = NULL, actualizado_en = CURRENT_TIMESTAMP(6) " +
+                                                "WHERE id = ? AND actualizado_en = ?";
+
+    /**
+     * Resultado de un lote de migración.
+     * @param revisados legajos con observaciones leídos en el lote
+     * @param migrados legajos cuyas observaciones pasaron al historial
+     * @param ultimoId ID del último legajo revisado (desde dónde sigue el próximo lote); 0 si no hubo ninguno
+     */
+    public record Lote(int revisados, int migrados, long ultimoId) {}
+
+    //CONSTRUCTOR ---------------------------------------------------------------------------------------------------
+    public ObservacionDAO() {}
+
+    //--------------------------------------------------------------------------------------------------------------
+
+    /**
+    * Agrega una nota al historial de un legajo activo usando la conexión (y la transacción) del servicio.
+    * Bloquea la fila del legajo hasta el fin de la transacción; si todavía tiene observaciones en la columna
+    * las mueve antes al historial, así quedan como la nota más antigua.
+    * @param legajoId ID del legajo (la conexión tiene que ser la de su fragmento)
+    * @param texto texto de la nota
+    * @param conex Conexión transaccional activa
+    * @return ID de la nota, o 0 si el legajo no existe o está eliminado (no se agrega nada)
+    * @throws SQLException si falla alguna sentencia
+    */
+    public long agregarTx(long legajoId, String texto, Connection conex) throws SQLException {
+        try (PreparedStatement stmt = conex.prepareStatement(SELECT_LEGAJO_PARA_NOTA)) {
+            stmt.setLong(1, legajoId);
+            long inicio = RegistroConsultasLentas.iniciar();
+            String observaciones;
+            Timestamp actualizadoEn;
+            try (ResultSet rs = stmt.executeQuery()) {
+                boolean existe = rs.next();
+                RegistroConsultasLentas.registrar("ObservacionDAO.SELECT_LEGAJO_PARA_NOTA", inicio, existe ? 1 : 0, legajoId);
+                if (!existe) {
+                    return 0;
+                }
+                observaciones = rs.getString("observaciones");
+                actualizadoEn = rs.getTimestamp("actualizado_en");
+            }
+            if (observaciones != null) {
+                migrarTx(legajoId, observaciones, actualizadoEn, conex);
+            }
+        }
+
+        try (PreparedStatement stmt = conex.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setLong(1, legajoId);
+            stmt.setString(2, CompresionObservaciones.paraGuardar(texto));
+            long inicio = RegistroConsultasLentas.iniciar();
+            int filas = stmt.executeUpdate();
+            RegistroConsultasLentas.registrar("ObservacionDAO.INSERT_SQL", inicio, filas, legajoId);
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    return generatedKeys.getLong(1);
+                }
+                throw new SQLException("No pudo obtener el ID de la nota");
+            }
+        }
+    }
+
+    //--------------------------------------------------------------------------------------------------------------
+
+    /**
+    * Recupera las últimas notas de un legajo, de la más nueva a la más vieja.
+    * @param legajoId ID del legajo
+    * @param antesDeId ID de la última nota de la página anterior (0 para empezar por la más nueva)
+    * @param limite cantidad máxima de notas
+    * @return notas con ID menor a antesDeId, en orden descendente de ID
+    * @throws Exception en caso de error de conexión o de ejecución de la consulta
+    */
+    public List<Observacion> leerUltimas(long legajoId, long antesDeId, int limite) throws Exception {
+        List<Observacion> notas = new ArrayList<>(Math.min(limite, 100));
+        try (Connection conex = DataBaseConnection.getConnection(Fragmentos.deId(legajoId));
+                PreparedStatement stmt = conex.prepareStatement(SELECT_ULTIMAS)) {
+            stmt.setLong(1, legajoId);
+            stmt.setLong(2, antesDeId > 0 ? antesDeId : Long.MAX_VALUE);
+            stmt.setInt(3, limite);
+
+            long inicio = RegistroConsultasLentas.iniciar();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    notas.add(mapResultSetToObservacion(rs));
+                }
+            }
+            RegistroConsultasLentas.registrar("ObservacionDAO.SELECT_ULTIMAS", inicio, notas.size(), legajoId, antesDeId, limite);
+        } catch (SQLException e) {
+            throw new Exception("Error al obtener las observaciones del legajo: " + e.getMessage(), e);
+        }
+        return notas;
+    }
+
+    //--------------------------------------------------------------------------------------------------------------
+
+    /**
+    * Mueve al historial, en una transacción, las observaciones de hasta limite legajos de un fragmento
+    * en orden de ID a partir de despuesDeId (también las de legajos dados de baja).
+    * El texto se copia tal cual está guardado (comprimido o no): no se descomprime ni se vuelve a comprimir.
+    * @param fragmento fragmento a procesar
+    * @param despuesDeId ID del último legajo del lote anterior (0 para el primero)
+    * @param limite cantidad máxima de legajos revisados
+    * @return legajos revisados y migrados, y último ID revisado; con menos de limite revisados no quedan más
+    * @throws SQLException en caso de error de conexión o de ejecución
+    */
+    public Lote migrarLote(int fragmento, long despuesDeId, int limite) throws SQLException {
+        try (Connection conex = DataBaseConnection.getConnection(fragmento)) {
+            conex.setAutoCommit(false);
+            try {
+                List<Long> ids = new ArrayList<>(limite);
+                List<String> textos = new ArrayList<>(limite);
+                List<Timestamp> fechas = new ArrayList<>(limite);
+                try (PreparedStatement stmt = conex.prepareStatement(SELECT_SIN_MIGRAR)) {
+                    stmt.setLong(1, despuesDeId);
+                    stmt.setInt(2, limite);
+                    long inicio = RegistroConsultasLentas.iniciar();
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            ids.add(rs.getLong("id"));
+                            textos.add(rs.getString("observaciones"));
+                            fechas.add(rs.getTimestamp("actualizado_en"));
+                        }
+                    }
+                    RegistroConsultasLentas.registrar("ObservacionDAO.SELECT_SIN_MIGRAR", inicio, ids.size(), despuesDeId, limite);
+                }
+                if (ids.isEmpty()) {
+                    conex.commit();
+                    return new Lote(0, 0, 0);
+                }
+
+                // Primero se vacía la columna: solo se copian las filas que no cambiaron desde la lectura
+                int[] vaciadas;
+                try (PreparedStatement update = conex.prepareStatement(UPDATE_VACIAR)) {
+                    for (int i = 0; i < ids.size(); i++) {
+                        update.setLong(1, ids.get(i));
+                        update.setTimestamp(2, fechas.get(i));
+                        update.addBatch();
+                    }
+                    long inicio = RegistroConsultasLentas.iniciar();
+                    vaciadas = update.executeBatch();
+                    RegistroConsultasLentas.registrar("ObservacionDAO.UPDATE_VACIAR[lote]", inicio, ids.size(), ids.size());
+                }
+                int migrados = 0;
+                try (PreparedStatement insert = conex.prepareStatement(INSERT_MIGRADA)) {
+                    for (int i = 0; i < ids.size(); i++) {
+                        // SUCCESS_NO_INFO: el driver no informa las filas, la sentencia se ejecutó
+                        if (vaciadas[i] > 0 || vaciadas[i] == Statement.SUCCESS_NO_INFO) {
+                            setMigradaParameters(insert, ids.get(i), textos.get(i), fechas.get(i));
+                            insert.addBatch();
+                            migrados++;
+                        }
+                    }
+                    if (migrados > 0) {
+                        long inicio = RegistroConsultasLentas.iniciar();
+                        insert.executeBatch();
+                        RegistroConsultasLentas.registrar("ObservacionDAO.INSERT_MIGRADA[lote]", inicio, migrados, migrados);
+                    }
+                }
+                conex.commit();
+                return new Lote(ids.size(), migrados, ids.get(ids.size() - 1));
+            } catch (SQLException e) {
+                conex.rollback();
+                throw e;
+            }
+        }
+    }
+
+    //--------------------------------------------------------------------------------------------------------------
+
+    // Migra las observaciones de un legajo ya bloqueado por agregarTx
+    private void migrarTx(long legajoId, String observaciones, Timestamp actualizadoEn, Connection conex) throws SQLException {
+        try (PreparedStatement update = conex.prepareStatement(UPDATE_VACIAR);
+                PreparedStatement insert = conex.prepareStatement(INSERT_MIGRADA)) {
+            update.setLong(1, legajoId);
+            update.setTimestamp(2, actualizadoEn);
+            long inicio = RegistroConsultasLentas.iniciar();
+            int filas = update.executeUpdate();
+            RegistroConsultasLentas.registrar("ObservacionDAO.UPDATE_VACIAR", inicio, filas, legajoId);
+            if (filas == 0) {
+                throw new SQLException("Las observaciones del legajo " + legajoId + " cambiaron durante la migración");
+            }
+            setMigradaParameters(insert, legajoId, observaciones, actualizadoEn);
+            inicio = RegistroConsultasLentas.iniciar();
+            filas = insert.executeUpdate();
+            RegistroConsultasLentas.registrar("ObservacionDAO.INSERT_MIGRADA", inicio, filas, legajoId);
+        }
+    }
+
+    private void setMigradaParameters(PreparedStatement stmt, long legajoId, String guardadas, Timestamp actualizadoEn) throws SQLException {
+        stmt.setLong(1, legajoId);
+        stmt.setString(2, guardadas);
+        stmt.setTimestamp(3, actualizadoEn != null ? actualizadoEn : new Timestamp(System.currentTimeMillis()));
+    }
+
+    private Observacion mapResultSetToObservacion(ResultSet rs) throws SQLException {
+        String texto = rs.getString("texto");
+        Timestamp creadoEn = rs.getTimestamp("creado_en");
+        return new Observacion(
+            rs.getLong("id"),
+            rs.getLong("legajo_id"),
+            texto != null && CompresionObservaciones.esComprimido(texto) ? CompresionObservaciones.descomprimir(texto) : texto,
+            creadoEn != null ? new Date(creadoEn.getTime()) : null
+        );
+    }
+}
@@ -0,0 +1,43 @@
+package tpiprogramacionii.dao;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import tpiprogramacionii.utils.Fragmentos;
+
+/**
+ * Resultado de una lectura incremental: filas modificadas (incluidas las dadas de baja, con eliminado = true)
+ * en orden de modificación, y la marca desde la que pedir la próxima página.
+ * Si no hubo cambios la lista está vacía y la marca es la misma que se pidió.
+ *
+ * @param <E> entidad leída
+ * @param filas filas modificadas en orden (actualizado_en, id)
+ * @param siguiente marca de la última fila (o la recibida si no hubo filas)
+ */
+public record PaginaCambios<E>(List<E> filas, MarcaCambios siguiente) {
+
+    // Orden de la lectura incremental: (actualizado_en, id)
+    private static final Comparator<Fila<?>> ORDEN = Comparator.comparing((Fila<?> fila) -> fila.marca().instante())
+                                                               .thenComparingLong(fila -> fila.marca().id());
+
+    /**
+     * Fila modificada con su propia marca, para combinar las lecturas de varios fragmentos.
+     */
+    record Fila<E>(E valor, MarcaCambios marca) {}
+
+    /**
+     * Arma la página con las primeras filas (en orden de marca) de las lecturas de cada fragmento.
+     * Como los ID no se repiten entre fragmentos, la marca de la última fila sigue siendo exacta.
+     * @param porFragmento filas de cada fragmento, cada lista en orden de marca
+     * @param desde marca recibida (se devuelve si no hubo filas)
+     * @param limite cantidad máxima de filas
+     */
+    static <E> PaginaCambios<E> unir(List<List<Fila<E>>> porFragmento, MarcaCambios desde, int limite) {
+        List<Fila<E>> filas = Fragmentos.intercalar(porFragmento, ORDEN, limite);
+        List<E> valores = new ArrayList<>(filas.size());
+        for (Fila<E> fila : filas) {
+            valores.add(fila.valor());
+        }
+        return new PaginaCambios<>(valores, filas.isEmpty() ? desde : filas.get(filas.size() - 1).marca());
+    }
+}
@@ -0,0 +1,20 @@
+package tpiprogramacionii.dao;
+
+/**
+ * Cómo cargar el legajo de los empleados leídos (ver EmpleadoDAO.leer, buscarPorDni y leerTodos).
+ */
+public enum PlanCarga {
+
+    /** El legajo completo, observaciones incluidas, en la misma consulta del empleado (JOIN). */
+    COMPLETO,
+
+    /**
+     * Solo las columnas del empleado y el ID del legajo. getLegajo() devuelve un legajo que se carga al
+     * usarlo por primera vez, junto con los de los otros empleados de la misma lectura que todavía no se
+     * usaron (de a LegajoPerezoso.TAMANIO_LOTE, una consulta por lote). Las observaciones se cargan
+     * aparte, del mismo modo, recién cuando se piden.
+     * La carga usa su propia conexión: un legajo perezoso no ve los cambios sin confirmar de la transacción
+     * que leyó al empleado, y si la consulta falla el getter lanza IllegalStateException.
+     */
+    PEREZOSO
+}
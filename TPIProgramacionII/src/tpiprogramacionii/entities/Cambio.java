@@ -0,0 +1,34 @@
+package tpiprogramacionii.entities;
+
+import java.util.Date;
+
+/**
+ * Registro compacto de una modificación de empleado o legajo (tabla cambio, la "bandeja de salida").
+ * Se escribe en la misma transacción que la modificación y un relevo lo publica después,
+ * así quien consume los cambios procesa solo las novedades en lugar de volver a leer los listados.
+ * Solo lleva qué entidad cambió, cómo y el valor nuevo cuando es un único campo: el resto se lee por ID.
+ *
+ * @param id orden de escritura (autoincremental; 0 mientras no se guardó)
+ * @param entidad tipo de entidad modificada
+ * @param entidadId ID del empleado o del legajo
+ * @param operacion tipo de modificación
+ * @param dato valor nuevo en AREA, CATEGORIA y ESTADO, ID de la nota en OBSERVACION (null en ALTA y BAJA)
+ * @param creadoEn momento de la escritura (null mientras no se guardó)
+ */
+public record Cambio(long id, Entidad entidad, long entidadId, Operacion operacion, String dato, Date creadoEn) {
+
+    public enum Entidad { EMPLEADO, LEGAJO }
+
+    /**
+     * La BAJA de un empleado implica la de su legajo (no se registra aparte).
+     * OBSERVACION es una nota agregada al historial del legajo (ver ObservacionDAO).
+     */
+    public enum Operacion { ALTA, AREA, CATEGORIA, ESTADO, BAJA, OBSERVACION }
+
+    /**
+     * Crea un cambio todavía no guardado.
+     */
+    public static Cambio de(Entidad entidad, long entidadId, Operacion operacion, String dato) {
+        return new Cambio(0, entidad, entidadId, operacion, dato, null);
+    }
+}
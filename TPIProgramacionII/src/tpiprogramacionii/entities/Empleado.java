@@ -24,6 +24,18 @@ public class Empleado extends Base {
         this.apellido = apellido;
         this.dni = dni;  
     }
+
+    //Copia de otro empleado, con una copia de su legajo (cada llamador recibe su propio objeto)
+    public Empleado(Empleado otro) {
+        super(otro.getId(), otro.isEliminado());
+        this.nombre = otro.getNombre();
+        this.apellido = otro.getApellido();
+        this.dni = otro.getDni();
+        this.email = otro.getEmail();
+        this.fechaIngreso = otro.getFechaIngreso();
+        this.area = otro.getArea();
+        this.legajo = otro.getLegajo() != null ? new Legajo(otro.getLegajo()) : null;
+    }
      
     public String getNombre() {
         return nombre;
@@ -3,6 +3,7 @@ package tpiprogramacionii.entities;
 
 import java.util.Date;
 import java.util.Objects;
+import java.util.function.Supplier;
 
 public class Legajo extends Base  {
     private String nroLegajo;
@@ -10,6 +11,8 @@ public class Legajo extends Base  {
     private Estado estado;
     private Date fechaAlta;
     private String observaciones;
+    // Cálculo de las observaciones pendiente hasta el primer getObservaciones (por ejemplo, descomprimirlas)
+    private volatile Supplier<String> observacionesDiferidas;
 
     public Legajo() {
         super();
@@ -22,6 +25,16 @@ public class Legajo extends Base  {
         this.estado = Estado.ACTIVO;
     }
 
+    //Copia de otro legajo (por getters: copiar un legajo de carga perezosa lo carga)
+    public Legajo(Legajo otro) {
+        super(otro.getId(), otro.isEliminado());
+        this.nroLegajo = otro.getNroLegajo();
+        this.categoria = otro.getCategoria();
+        this.estado = otro.getEstado();
+        this.fechaAlta = otro.getFechaAlta();
+        this.observaciones = otro.getObservaciones();
+    }
+
     public String getNroLegajo() {
         return nroLegajo;
     }
@@ -55,13 +68,26 @@ public class Legajo extends Base  {
     }
 
     public String getObservaciones() {
+        Supplier<String> diferidas = observacionesDiferidas;
+        if (diferidas != null) {
+            // Dos lecturas simultáneas pueden calcularlas las dos; el resultado es el mismo
+            observaciones = diferidas.get();
+            observacionesDiferidas = null;
+        }
         return observaciones;
     }
 
     public void setObservaciones(String observaciones) {
+        this.observacionesDiferidas = null;
         this.observaciones = observaciones;
     }
 
+    //Observaciones que se calculan recién en el primer getObservaciones (las comprimidas en la base se descomprimen ahí)
+    public void setObservacionesDiferidas(Supplier<String> observacionesDiferidas) {
+        this.observaciones = null;
+        this.observacionesDiferidas = observacionesDiferidas;
+    }
+
     @Override
     public String toString() {
         return "Legajo {"+
@@ -70,13 +96,13 @@ public class Legajo extends Base  {
                 "\ncategoria= " + categoria + 
                 "\nestado= " + estado + 
                 "\nfechaAlta= " + fechaAlta + 
-                "\nobservaciones= " + observaciones + '}';
+                "\nobservaciones= " + getObservaciones() + '}';
     }
 
     @Override
     public int hashCode() {
         int hash = 7;
-        hash = 59 * hash + Objects.hashCode(this.nroLegajo);
+        hash = 59 * hash + Objects.hashCode(getNroLegajo());
         return hash;
     }
 
@@ -88,11 +114,12 @@ public class Legajo extends Base  {
         if (obj == null) {
             return false;
         }
-        if (getClass() != obj.getClass()) {
+        // instanceof y getters: un legajo de carga perezosa (subclase) es igual al legajo que representa
+        if (!(obj instanceof Legajo)) {
             return false;
         }
         final Legajo other = (Legajo) obj;
-        return this.nroLegajo == other.nroLegajo;
+        return Objects.equals(getNroLegajo(), other.getNroLegajo());
     }
         
 }
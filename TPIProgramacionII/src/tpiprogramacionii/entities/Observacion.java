@@ -0,0 +1,16 @@
+package tpiprogramacionii.entities;
+
+import java.util.Date;
+
+/**
+ * Nota del historial de observaciones de un legajo (tabla legajo_observacion).
+ * El historial solo crece: cada nota se agrega con un INSERT y no se modifica después,
+ * así agregar una nota no depende de cuántas tiene el legajo.
+ *
+ * @param id orden de escritura dentro del legajo (autoincremental; 0 mientras no se guardó)
+ * @param legajoId ID del legajo
+ * @param texto texto de la nota
+ * @param creadoEn momento de la escritura (null mientras no se guardó); en las notas migradas de
+ *                 legajo.observaciones, la última modificación del legajo
+ */
+public record Observacion(long id, long legajoId, String texto, Date creadoEn) {}
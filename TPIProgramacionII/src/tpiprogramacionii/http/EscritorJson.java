@@ -0,0 +1,195 @@
+package tpiprogramacionii.http;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Date;
+import tpiprogramacionii.entities.Empleado;
+import tpiprogramacionii.entities.Legajo;
+
+/**
+ * Codificador JSON escrito a mano que escribe directamente sobre un Writer.
+ * No arma el documento en memoria: cada entidad se escribe a medida que se recorre,
+ * así un listado grande sale por la red sin construir un String intermedio.
+ * Lleva la cuenta de las comas entre elementos de objetos y arreglos.
+ */
+public class EscritorJson {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Writer out;
+    // true si el próximo elemento del nivel actual necesita una coma antes
+    private boolean necesitaComa;
+
+    public EscritorJson(Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * Empieza un documento nuevo e independiente del anterior (por ejemplo, una línea de JSON Lines):
+     * el próximo elemento no lleva coma.
+     */
+    public EscritorJson nuevoDocumento() {
+        necesitaComa = false;
+        return this;
+    }
+
+    public EscritorJson inicioObjeto() throws IOException {
+        separador();
+        out.write('{');
+        necesitaComa = false;
+        return this;
+    }
+
+    public EscritorJson finObjeto() throws IOException {
+        out.write('}');
+        necesitaComa = true;
+        return this;
+    }
+
+    public EscritorJson inicioArreglo() throws IOException {
+        separador();
+        out.write('[');
+        necesitaComa = false;
+        return this;
+    }
+
+    public EscritorJson finArreglo() throws IOException {
+        out.write(']');
+        necesitaComa = true;
+        return this;
+    }
+
+    /**
+     * Escribe el nombre de un campo; el próximo valor escrito será su valor.
+     */
+    public EscritorJson nombre(String nombre) throws IOException {
+        separador();
+        cadena(nombre);
+        out.write(':');
+        necesitaComa = false;
+        return this;
+    }
+
+    public EscritorJson valor(String valor) throws IOException {
+        separador();
+        if (valor == null) {
+            out.write("null");
+        } else {
+            cadena(valor);
+        }
+        necesitaComa = true;
+        return this;
+    }
+
+    public EscritorJson valor(long valor) throws IOException {
+        separador();
+        out.write(Long.toString(valor));
+        necesitaComa = true;
+        return this;
+    }
+
+    public EscritorJson valor(Long valor) throws IOException {
+        return valor == null ? valor((String) null) : valor(valor.longValue());
+    }
+
+    public EscritorJson valor(boolean valor) throws IOException {
+        separador();
+        out.write(valor ? "true" : "false");
+        necesitaComa = true;
+        return this;
+    }
+
+    /**
+     * Las fechas se escriben como texto yyyy-MM-dd (o null).
+     */
+    public EscritorJson valor(Date fecha) throws IOException {
+        return valor(fecha == null ? null : new java.sql.Date(fecha.getTime()).toString());
+    }
+
+    public EscritorJson campo(String nombre, String valor) throws IOException {
+        return nombre(nombre).valor(valor);
+    }
+
+    public EscritorJson campo(String nombre, Long valor) throws IOException {
+        return nombre(nombre).valor(valor);
+    }
+
+    public EscritorJson campo(String nombre, Date valor) throws IOException {
+        return nombre(nombre).valor(valor);
+    }
+
+    public EscritorJson campo(String nombre, boolean valor) throws IOException {
+        return nombre(nombre).valor(valor);
+    }
+
+    /**
+     * Escribe un empleado con su legajo anidado (si tiene).
+     */
+    public EscritorJson empleado(Empleado e) throws IOException {
+        inicioObjeto()
+            .campo("id", e.getId())
+            .campo("nombre", e.getNombre())
+            .campo("apellido", e.getApellido())
+            .campo("dni", e.getDni())
+            .campo("email", e.getEmail())
+            .campo("fechaIngreso", e.getFechaIngreso())
+            .campo("area", e.getArea());
+        if (e.isEliminado()) {
+            campo("eliminado", true);
+        }
+        nombre("legajo");
+        if (e.getLegajo() != null) {
+            legajo(e.getLegajo());
+        } else {
+            valor((String) null);
+        }
+        return finObjeto();
+    }
+
+    public EscritorJson legajo(Legajo l) throws IOException {
+        inicioObjeto()
+            .campo("id", l.getId())
+            .campo("nroLegajo", l.getNroLegajo())
+            .campo("categoria", l.getCategoria())
+            .campo("estado", l.getEstado() != null ? l.getEstado().name() : null)
+            .campo("fechaAlta", l.getFechaAlta())
+            .campo("observaciones", l.getObservaciones());
+        if (l.isEliminado()) {
+            campo("eliminado", true);
+        }
+        return finObjeto();
+    }
+
+    private void separador() throws IOException {
+        if (necesitaComa) {
+            out.write(',');
+            necesitaComa = false;
+        }
+    }
+
+    private void cadena(String s) throws IOException {
+        out.write('"');
+        int desde = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\' || c < 0x20) {
+                out.write(s, desde, i - desde);
+                switch (c) {
+                    case '"' -> out.write("\\\"");
+                    case '\\' -> out.write("\\\\");
+                    case '\n' -> out.write("\\n");
+                    case '\r' -> out.write("\\r");
+                    case '\t' -> out.write("\\t");
+                    default -> {
+                        out.write("\\u00");
+                        out.write(HEX[c >> 4]);
+                        out.write(HEX[c & 0xF]);
+                    }
+                }
+                desde = i + 1;
+            }
+        }
+        out.write(s, desde, s.length() - desde);
+        out.write('"');
+    }
+}
@@ -0,0 +1,141 @@
+package tpiprogramacionii.http;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Lector de JSON mínimo para los cuerpos de las peticiones.
+ * Solo acepta un objeto plano cuyos valores son cadenas, números, booleanos o null;
+ * devuelve todos los valores como texto (null para null).
+ */
+public class LectorJson {
+
+    private final String texto;
+    private int pos;
+
+    private LectorJson(String texto) {
+        this.texto = texto;
+    }
+
+    /**
+     * @param texto cuerpo de la petición
+     * @return campos del objeto
+     * @throws IllegalArgumentException si el texto no es un objeto JSON plano válido
+     */
+    public static Map<String, String> leerObjeto(String texto) {
+        LectorJson lector = new LectorJson(texto);
+        Map<String, String> campos = lector.objeto();
+        lector.espacios();
+        if (lector.pos != texto.length()) {
+            throw lector.error("contenido después del objeto");
+        }
+        return campos;
+    }
+
+    private Map<String, String> objeto() {
+        Map<String, String> campos = new HashMap<>();
+        espacios();
+        esperar('{');
+        espacios();
+        if (mirar() == '}') {
+            pos++;
+            return campos;
+        }
+        while (true) {
+            espacios();
+            String nombre = cadena();
+            espacios();
+            esperar(':');
+            espacios();
+            campos.put(nombre, valor());
+            espacios();
+            char c = siguiente();
+            if (c == '}') {
+                return campos;
+            }
+            if (c != ',') {
+                throw error("se esperaba ',' o '}'");
+            }
+        }
+    }
+
+    private String valor() {
+        char c = mirar();
+        if (c == '"') {
+            return cadena();
+        }
+        int inicio = pos;
+        while (pos < texto.length() && ",} \t\r\n".indexOf(texto.charAt(pos)) < 0) {
+            pos++;
+        }
+        String literal = texto.substring(inicio, pos);
+        if (literal.equals("null")) {
+            return null;
+        }
+        if (literal.equals("true") || literal.equals("false") || literal.matches("-?[0-9]+(\\.[0-9]+)?([eE][-+]?[0-9]+)?")) {
+            return literal;
+        }
+        throw error("valor no soportado: " + literal);
+    }
+
+    private String cadena() {
+        esperar('"');
+        StringBuilder sb = new StringBuilder();
+        while (true) {
+            char c = siguiente();
+            if (c == '"') {
+                return sb.toString();
+            }
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            char e = siguiente();
+            switch (e) {
+                case '"', '\\', '/' -> sb.append(e);
+                case 'n' -> sb.append('\n');
+                case 'r' -> sb.append('\r');
+                case 't' -> sb.append('\t');
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'u' -> {
+                    if (pos + 4 > texto.length()) {
+                        throw error("escape unicode incompleto");
+                    }
+                    sb.append((char) Integer.parseInt(texto.substring(pos, pos + 4), 16));
+                    pos += 4;
+                }
+                default -> throw error("escape inválido");
+            }
+        }
+    }
+
+    private void espacios() {
+        while (pos < texto.length() && Character.isWhitespace(texto.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private char mirar() {
+        if (pos >= texto.length()) {
+            throw error("fin inesperado");
+        }
+        return texto.charAt(pos);
+    }
+
+    private char siguiente() {
+        char c = mirar();
+        pos++;
+        return c;
+    }
+
+    private void esperar(char esperado) {
+        if (siguiente() != esperado) {
+            throw error("se esperaba '" + esperado + "'");
+        }
+    }
+
+    private IllegalArgumentException error(String detalle) {
+        return new IllegalArgumentException("JSON inválido en la posición " + pos + ": " + detalle);
+    }
+}
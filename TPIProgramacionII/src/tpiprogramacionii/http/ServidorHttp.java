@@ -0,0 +1,650 @@
+package tpiprogramacionii.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import tpiprogramacionii.agregados.AgregadosDotacion;
+import tpiprogramacionii.archivo.Archivador;
+import tpiprogramacionii.archivo.CompresorObservaciones;
+import tpiprogramacionii.archivo.MigradorObservaciones;
+import tpiprogramacionii.cambios.RelevoCambios;
+import tpiprogramacionii.dao.ArchivoDAO;
+import tpiprogramacionii.dao.CambioDAO;
+import tpiprogramacionii.dao.CompresionObservaciones;
+import tpiprogramacionii.dao.EmpleadoDAO;
+import tpiprogramacionii.dao.LegajoDAO;
+import tpiprogramacionii.dao.MarcaCambios;
+import tpiprogramacionii.dao.ObservacionDAO;
+import tpiprogramacionii.dao.PaginaCambios;
+import tpiprogramacionii.entities.Base;
+import tpiprogramacionii.entities.Empleado;
+import tpiprogramacionii.entities.Estado;
+import tpiprogramacionii.entities.Legajo;
+import tpiprogramacionii.entities.Observacion;
+import tpiprogramacionii.instantanea.EmpleadoServiceInstantaneo;
+import tpiprogramacionii.service.CargadorLotes;
+import tpiprogramacionii.service.Compartimento;
+import tpiprogramacionii.service.EmpleadoService;
+import tpiprogramacionii.service.EntidadNoEncontrada;
+import tpiprogramacionii.service.LegajoService;
+import tpiprogramacionii.service.VueloUnico;
+
+/**
+ * Servidor HTTP/JSON embebido que expone EmpleadoService y LegajoService.
+ * Usa com.sun.net.httpserver con un ejecutor de hilos virtuales: cada petición corre
+ * en su propio hilo virtual, así las esperas de JDBC no bloquean hilos de plataforma.
+ *
+ * Endpoints:
+ * GET    /empleados?despuesDe=ID&limite=N   página de empleados activos (paginación por clave)
+ * GET    /empleados/cambios?desde=MARCA&limite=N   modificados desde la marca (sincronización incremental)
+ * GET    /empleados/{id}?archivados=true       con archivados=true también bajas y archivo ("eliminado": true)
+ * GET    /empleados/dni/{dni}?archivados=true
+ * POST   /empleados                          alta (nombre, apellido, dni, email, area, fechaIngreso, categoria, estado, observaciones)
+ * PUT    /empleados/{id}/area                {"area": "..."}
+ * PUT    /empleados/{id}/categoria           {"categoria": "..."}
+ * DELETE /empleados/{id}
+ * GET    /legajos?despuesDe=ID&limite=N
+ * GET    /legajos/cambios?desde=MARCA&limite=N
+ * GET    /legajos/{id}
+ * GET    /legajos/{id}/observaciones?antesDe=ID&limite=N   últimas notas del historial (de la más nueva a la más vieja)
+ * POST   /legajos/{id}/observaciones        {"texto": "..."} agrega una nota
+ * PUT    /legajos/{id}/estado                {"estado": "ACTIVO" | "INACTIVO"}
+ * DELETE /legajos/{id}
+ * GET    /dotacion                           empleados activos por área, categoría y estado (si se configuró)
+ * GET    /compartimentos                     límite, cola y rechazos de los compartimentos y lecturas compartidas
+ * GET    /observaciones                      espacio de las observaciones: comprimidas, bytes guardados y ahorrados
+ *
+ * Una operación rechazada por un compartimento saturado (ver Compartimento) responde 503 con Retry-After.
+ * Un PUT, POST o DELETE sobre un ID que no existe responde 404 (ver EntidadNoEncontrada).
+ */
+public class ServidorHttp {
+
+    private static final Logger LOGGER = Logger.getLogger(ServidorHttp.class.getName());
+    private static final int PUERTO_POR_DEFECTO = 8080;
+    private static final int LIMITE_POR_DEFECTO = 100;
+    private static final String JSON = "application/json; charset=utf-8";
+    private static final long MINUTOS_RECONCILIACION = 10;
+    private static final long HORAS_ARCHIVO = 1;
+    private static final long HORAS_COMPRESION = 1;
+    private static final long HORAS_MIGRACION = 1;
+    private static final long SEGUNDOS_INSTANTANEA = 5;
+
+    private final HttpServer servidor;
+    private final ExecutorService ejecutor;
+    private final EmpleadoService empleadoService;
+    private final LegajoService legajoService;
+    private final AgregadosDotacion dotacion;
+
+    /**
+     * Crea el servidor (no lo inicia).
+     * @param puerto puerto TCP (0 para elegir uno libre)
+     * @param empleadoService servicio de empleados
+     * @param legajoService servicio de legajos
+     * @throws IOException si no se puede abrir el puerto
+     */
+    public ServidorHttp(int puerto, EmpleadoService empleadoService, LegajoService legajoService) throws IOException {
+        this(puerto, empleadoService, legajoService, null);
+    }
+
+    /**
+     * Crea el servidor (no lo inicia) exponiendo también la dotación en GET /dotacion.
+     * @param puerto puerto TCP (0 para elegir uno libre)
+     * @param empleadoService servicio de empleados
+     * @param legajoService servicio de legajos
+     * @param dotacion dotación ya registrada como observador de los servicios (null para no exponerla)
+     * @throws IOException si no se puede abrir el puerto
+     */
+    public ServidorHttp(int puerto, EmpleadoService empleadoService, LegajoService legajoService,
+                        AgregadosDotacion dotacion) throws IOException {
+        if (empleadoService == null) {
+            throw new IllegalArgumentException("EmpleadoService no puede ser null");
+        }
+        if (legajoService == null) {
+            throw new IllegalArgumentException("LegajoService no puede ser null");
+        }
+        this.empleadoService = empleadoService;
+        this.legajoService = legajoService;
+        this.dotacion = dotacion;
+        this.ejecutor = Executors.newVirtualThreadPerTaskExecutor();
+        this.servidor = HttpServer.create(new InetSocketAddress(puerto), 0);
+        this.servidor.setExecutor(ejecutor);
+        this.servidor.createContext("/empleados", ex -> atender(ex, this::atenderEmpleados));
+        this.servidor.createContext("/legajos", ex -> atender(ex, this::atenderLegajos));
+        if (dotacion != null) {
+            this.servidor.createContext("/dotacion", ex -> atender(ex, this::atenderDotacion));
+        }
+        this.servidor.createContext("/compartimentos", ex -> atender(ex, this::atenderCompartimentos));
+        this.servidor.createContext("/observaciones", ex -> atender(ex, this::atenderObservaciones));
+    }
+
+    /**
+     * Inicia el servidor con los DAOs y servicios por defecto.
+     * Argumento opcional: puerto (por defecto 8080).
+     */
+    public static void main(String[] args) throws IOException {
+        int puerto = args.length > 0 ? Integer.parseInt(args[0]) : PUERTO_POR_DEFECTO;
+
+        LegajoDAO legajoDAO = new LegajoDAO();
+        EmpleadoDAO empleadoDAO = new EmpleadoDAO(legajoDAO);
+        CambioDAO cambioDAO = new CambioDAO();
+        ObservacionDAO observacionDAO = new ObservacionDAO();
+        LegajoService legajoService = new LegajoService(legajoDAO, cambioDAO, observacionDAO);
+        boolean instantaneo = EmpleadoServiceInstantaneo.activado();
+        EmpleadoService empleadoService;
+        if (instantaneo) {
+            // GET de empleados desde la instantánea local hasta que la base responda
+            EmpleadoServiceInstantaneo servicio = EmpleadoServiceInstantaneo.desdeArchivo(empleadoDAO, legajoDAO, cambioDAO, legajoService);
+            servicio.iniciar(SEGUNDOS_INSTANTANEA, TimeUnit.SECONDS);
+            empleadoService = servicio;
+        } else {
+            empleadoService = new EmpleadoService(empleadoDAO, legajoDAO, cambioDAO);
+        }
+        // Los GET por ID concurrentes de las peticiones se agrupan en consultas por lotes
+        long ventanaLotes = CargadorLotes.ventanaPorDefecto();
+        if (ventanaLotes > 0) {
+            empleadoService.agruparLecturasPorId(ventanaLotes, CargadorLotes.tamanioMaximoPorDefecto());
+            legajoService.agruparLecturasPorId(ventanaLotes, CargadorLotes.tamanioMaximoPorDefecto());
+        }
+        new RelevoCambios(cambioDAO, RelevoCambios.archivoPorDefecto()).iniciar(1, TimeUnit.SECONDS);
+        new Archivador(new ArchivoDAO(), Archivador.retencionPorDefecto()).iniciar(HORAS_ARCHIVO, TimeUnit.HOURS);
+        if (CompresionObservaciones.activada()) {
+            // Comprime las observaciones guardadas antes de activar la compresión
+            new CompresorObservaciones(legajoDAO).iniciar(HORAS_COMPRESION, TimeUnit.HOURS);
+        }
+        if (MigradorObservaciones.activado()) {
+            // Mueve legajo.observaciones al historial de notas
+            new MigradorObservaciones(observacionDAO).iniciar(HORAS_MIGRACION, TimeUnit.HOURS);
+        }
+
+        AgregadosDotacion dotacion = new AgregadosDotacion();
+        empleadoService.agregarObservador(dotacion);
+        legajoService.agregarObservador(dotacion);
+        Runnable cargaDotacion = () -> {
+            try {
+                System.out.println("Dotación cargada: " + dotacion.construir(empleadoDAO) + " empleados");
+            } catch (Exception e) {
+                System.out.println("No se pudo cargar la dotación (se corrige en la reconciliación): " + e.getMessage());
+            }
+        };
+        if (instantaneo) {
+            // El servidor empieza a escuchar sin esperar a la base
+            Thread.ofVirtual().name("carga-dotacion").start(cargaDotacion);
+        } else {
+            cargaDotacion.run();
+        }
+        dotacion.iniciarReconciliacion(empleadoDAO, MINUTOS_RECONCILIACION, TimeUnit.MINUTES);
+
+        ServidorHttp servidor = new ServidorHttp(puerto, empleadoService, legajoService, dotacion);
+        servidor.iniciar();
+        System.out.println("Servidor HTTP escuchando en el puerto " + servidor.getPuerto());
+    }
+
+    public void iniciar() {
+        servidor.start();
+    }
+
+    /**
+     * Detiene el servidor esperando hasta un segundo a que terminen las peticiones en curso.
+     */
+    public void detener() {
+        servidor.stop(1);
+        ejecutor.close();
+    }
+
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+
+    /**
+     * Atiende la petición e informa sus excepciones (ver responderExcepcion). Si la falla llega con los encabezados
+     * ya enviados (a mitad de una respuesta en streaming) no se puede cambiar el estado: se relanza sin cerrar el
+     * intercambio y HttpServer corta la conexión sin el bloque final, así el cliente ve la respuesta incompleta
+     * en vez de un JSON truncado que parece terminado.
+     */
+    private void atender(HttpExchange ex, Atencion atencion) throws IOException {
+        try {
+            atencion.atender(ex);
+        } catch (Exception e) {
+            if (ex.getResponseCode() != -1) {
+                LOGGER.log(Level.SEVERE, "Respuesta interrumpida en " + ex.getRequestMethod() + " " + ex.getRequestURI(), e);
+                throw e instanceof IOException io ? io : new IOException(e);
+            }
+            responderExcepcion(ex, e);
+        }
+        ex.close();
+    }
+
+    private interface Atencion {
+        void atender(HttpExchange ex) throws Exception;
+    }
+
+    //EMPLEADOS ----------------------------------------------------------------------------------------------------
+
+    private void atenderEmpleados(HttpExchange ex) throws Exception {
+        String[] partes = segmentos(ex, "/empleados");
+        String metodo = ex.getRequestMethod();
+
+        if (partes.length == 0 && metodo.equals("GET")) {
+            Map<String, String> query = parametros(ex.getRequestURI());
+            List<Empleado> pagina = empleadoService.getPagina(parsearLong(query.getOrDefault("despuesDe", "0")),
+                    (int) parsearLong(query.getOrDefault("limite", String.valueOf(LIMITE_POR_DEFECTO))));
+            responderPagina(ex, pagina, pagina.isEmpty() ? null : pagina.get(pagina.size() - 1).getId(), true);
+
+        } else if (partes.length == 1 && partes[0].equals("cambios") && metodo.equals("GET")) {
+            Map<String, String> query = parametros(ex.getRequestURI());
+            responderCambios(ex, empleadoService.leerCambiadosDesde(marca(query),
+                    (int) parsearLong(query.getOrDefault("limite", String.valueOf(LIMITE_POR_DEFECTO)))), true);
+
+        } else if (partes.length == 0 && metodo.equals("POST")) {
+            Empleado empleado = empleadoDesdeJson(leerCuerpo(ex));
+            empleadoService.insertar(empleado);
+            responderEntidad(ex, 201, empleado);
+
+        } else if (partes.length == 1 && metodo.equals("GET")) {
+            responderEntidad(ex, 200, empleadoService.getById(parsearLong(partes[0]), incluirArchivados(ex)));
+
+        } else if (partes.length == 2 && partes[0].equals("dni") && metodo.equals("GET")) {
+            responderEntidad(ex, 200, empleadoService.buscarPorDni(partes[1], incluirArchivados(ex)));
+
+        } else if (partes.length == 2 && partes[1].equals("area") && metodo.equals("PUT")) {
+            Empleado empleado = new Empleado(parsearLong(partes[0]), null, null, null);
+            empleado.setArea(requerido(leerCuerpo(ex), "area").trim().toUpperCase());
+            empleadoService.actualizar(empleado);
+            responderVacio(ex);
+
+        } else if (partes.length == 2 && partes[1].equals("categoria") && metodo.equals("PUT")) {
+            empleadoService.actualizarCategoriaLegajo(parsearLong(partes[0]), requerido(leerCuerpo(ex), "categoria"));
+            responderVacio(ex);
+
+        } else if (partes.length == 1 && metodo.equals("DELETE")) {
+            empleadoService.eliminar(parsearLong(partes[0]));
+            responderVacio(ex);
+
+        } else {
+            responderError(ex, 404, "Ruta no encontrada");
+        }
+    }
+
+    //LEGAJOS ------------------------------------------------------------------------------------------------------
+
+    private void atenderLegajos(HttpExchange ex) throws Exception {
+        String[] partes = segmentos(ex, "/legajos");
+        String metodo = ex.getRequestMethod();
+
+        if (partes.length == 0 && metodo.equals("GET")) {
+            Map<String, String> query = parametros(ex.getRequestURI());
+            List<Legajo> pagina = legajoService.getPagina(parsearLong(query.getOrDefault("despuesDe", "0")),
+                    (int) parsearLong(query.getOrDefault("limite", String.valueOf(LIMITE_POR_DEFECTO))));
+            responderPagina(ex, pagina, pagina.isEmpty() ? null : pagina.get(pagina.size() - 1).getId(), false);
+
+        } else if (partes.length == 1 && partes[0].equals("cambios") && metodo.equals("GET")) {
+            Map<String, String> query = parametros(ex.getRequestURI());
+            responderCambios(ex, legajoService.leerCambiadosDesde(marca(query),
+                    (int) parsearLong(query.getOrDefault("limite", String.valueOf(LIMITE_POR_DEFECTO)))), false);
+
+        } else if (partes.length == 1 && metodo.equals("GET")) {
+            responderEntidad(ex, 200, legajoService.getById(parsearLong(partes[0])));
+
+        } else if (partes.length == 2 && partes[1].equals("observaciones") && metodo.equals("GET")) {
+            Map<String, String> query = parametros(ex.getRequestURI());
+            responderObservaciones(ex, legajoService.getObservaciones(parsearLong(partes[0]),
+                    parsearLong(query.getOrDefault("antesDe", "0")),
+                    (int) parsearLong(query.getOrDefault("limite", String.valueOf(LIMITE_POR_DEFECTO)))));
+
+        } else if (partes.length == 2 && partes[1].equals("observaciones") && metodo.equals("POST")) {
+            long id = legajoService.agregarObservacion(parsearLong(partes[0]), requerido(leerCuerpo(ex), "texto"));
+            responderJson(ex, 201, json -> json.inicioObjeto().campo("id", id).finObjeto());
+
+        } else if (partes.length == 2 && partes[1].equals("estado") && metodo.equals("PUT")) {
+            Estado estado = parsearEstado(requerido(leerCuerpo(ex), "estado"));
+            legajoService.cambiarEstado(parsearLong(partes[0]), estado);
+            responderVacio(ex);
+
+        } else if (partes.length == 1 && metodo.equals("DELETE")) {
+            legajoService.eliminar(parsearLong(partes[0]));
+            responderVacio(ex);
+
+        } else {
+            responderError(ex, 404, "Ruta no encontrada");
+        }
+    }
+
+    //DOTACIÓN -----------------------------------------------------------------------------------------------------
+
+    /**
+     * Responde {"total": N, "area": {...}, "categoria": {...}, "estado": {...}} con los totales en memoria.
+     */
+    private void atenderDotacion(HttpExchange ex) throws Exception {
+        if (segmentos(ex, "/dotacion").length != 0 || !ex.getRequestMethod().equals("GET")) {
+            responderError(ex, 404, "Ruta no encontrada");
+            return;
+        }
+        responderJson(ex, 200, json -> {
+            json.inicioObjeto().campo("total", dotacion.getTotal());
+            for (AgregadosDotacion.Dimension dimension : AgregadosDotacion.Dimension.values()) {
+                json.nombre(dimension.name().toLowerCase()).inicioObjeto();
+                for (Map.Entry<String, Long> total : dotacion.getTotales(dimension).entrySet()) {
+                    json.campo(total.getKey(), total.getValue());
+                }
+                json.finObjeto();
+            }
+            json.finObjeto();
+        });
+    }
+
+    //COMPARTIMENTOS -----------------------------------------------------------------------------------------------
+
+    private void atenderCompartimentos(HttpExchange ex) throws Exception {
+        if (segmentos(ex, "/compartimentos").length != 0 || !ex.getRequestMethod().equals("GET")) {
+            responderError(ex, 404, "Ruta no encontrada");
+            return;
+        }
+        responderJson(ex, 200, json -> {
+            json.inicioObjeto();
+            for (Compartimento compartimento : Compartimento.todos()) {
+                Compartimento.Estadisticas e = compartimento.getEstadisticas();
+                json.nombre(e.nombre()).inicioObjeto()
+                    .campo("limite", (long) e.limite())
+                    .campo("enEjecucion", (long) e.enEjecucion())
+                    .campo("enCola", (long) e.enCola())
+                    .campo("admitidas", e.admitidas())
+                    .campo("rechazadasPorCola", e.rechazadasPorCola())
+                    .campo("rechazadasPorEspera", e.rechazadasPorEspera())
+                    .campo("microsMedioEnCola", e.microsMedioEnCola())
+                    .campo("microsMedioEnEjecucion", e.microsMedioEnEjecucion())
+                    .finObjeto();
+            }
+            json.nombre("lecturasCompartidas").inicioObjeto();
+            List<VueloUnico.Estadisticas> lecturas = new ArrayList<>(empleadoService.getEstadisticasLecturas());
+            lecturas.add(legajoService.getEstadisticasLecturas());
+            for (VueloUnico.Estadisticas l : lecturas) {
+                json.nombre(l.nombre()).inicioObjeto()
+                    .campo("llamadas", l.llamadas())
+                    .campo("compartidas", l.compartidas())
+                    .finObjeto();
+            }
+            json.finObjeto();
+            json.nombre("lecturasPorLotes").inicioObjeto();
+            List<CargadorLotes.Estadisticas> lotes = new ArrayList<>();
+            lotes.add(empleadoService.getEstadisticasLotes());
+            lotes.add(legajoService.getEstadisticasLotes());
+            for (CargadorLotes.Estadisticas l : lotes) {
+                if (l != null) {
+                    json.nombre(l.nombre()).inicioObjeto()
+                        .campo("pedidos", l.pedidos())
+                        .campo("lotes", l.lotes())
+                        .finObjeto();
+                }
+            }
+            json.finObjeto();
+            json.finObjeto();
+        });
+    }
+
+    private void atenderObservaciones(HttpExchange ex) throws Exception {
+        if (segmentos(ex, "/observaciones").length != 0 || !ex.getRequestMethod().equals("GET")) {
+            responderError(ex, 404, "Ruta no encontrada");
+            return;
+        }
+        CompresionObservaciones.Informe informe = legajoService.getInformeObservaciones();
+        responderJson(ex, 200, json -> {
+            json.inicioObjeto()
+                .campo("filas", informe.filas())
+                .campo("comprimidas", informe.comprimidas())
+                .campo("bytesGuardados", informe.bytesGuardados())
+                .campo("bytesOriginales", informe.bytesOriginales())
+                .campo("bytesAhorrados", informe.ahorrados())
+                .finObjeto();
+        });
+    }
+
+    //RESPUESTAS ---------------------------------------------------------------------------------------------------
+
+    /**
+     * Envía los encabezados y escribe el cuerpo en streaming. Si la escritura falla el cuerpo queda sin cerrar
+     * (cerrarlo enviaría el bloque final) y la excepción llega a atender, que corta la conexión.
+     */
+    private void responderJson(HttpExchange ex, int estado, CuerpoJson cuerpo) throws IOException {
+        ex.getResponseHeaders().set("Content-Type", JSON);
+        ex.sendResponseHeaders(estado, 0);
+        Writer out = escritor(ex);
+        cuerpo.escribir(new EscritorJson(out));
+        out.close();
+    }
+
+    private interface CuerpoJson {
+        void escribir(EscritorJson json) throws IOException;
+    }
+
+    /**
+     * Escribe la página en streaming (transferencia por bloques): cada entidad se codifica
+     * directamente sobre el cuerpo de la respuesta.
+     */
+    private void responderPagina(HttpExchange ex, List<?> pagina, Long siguiente, boolean empleados) throws IOException {
+        responderJson(ex, 200, json -> {
+            json.inicioObjeto().nombre("items").inicioArreglo();
+            for (Object entidad : pagina) {
+                if (empleados) {
+                    json.empleado((Empleado) entidad);
+                } else {
+                    json.legajo((Legajo) entidad);
+                }
+            }
+            json.finArreglo().campo("siguiente", siguiente).finObjeto();
+        });
+    }
+
+    /**
+     * Escribe una página de la lectura incremental. Las bajas lógicas salen como {"id": N, "eliminado": true};
+     * "siguiente" es la marca a enviar en la próxima llamada.
+     */
+    private void responderCambios(HttpExchange ex, PaginaCambios<? extends Base> cambios, boolean empleados) throws IOException {
+        responderJson(ex, 200, json -> {
+            json.inicioObjeto().nombre("items").inicioArreglo();
+            for (Base entidad : cambios.filas()) {
+                if (entidad.isEliminado()) {
+                    json.inicioObjeto().campo("id", entidad.getId()).campo("eliminado", true).finObjeto();
+                } else if (empleados) {
+                    json.empleado((Empleado) entidad);
+                } else {
+                    json.legajo((Legajo) entidad);
+                }
+            }
+            json.finArreglo().campo("siguiente", cambios.siguiente().aTexto()).finObjeto();
+        });
+    }
+
+    /**
+     * Escribe una página del historial de observaciones; "siguiente" es el antesDe de la próxima página.
+     */
+    private void responderObservaciones(HttpExchange ex, List<Observacion> notas) throws IOException {
+        responderJson(ex, 200, json -> {
+            json.inicioObjeto().nombre("items").inicioArreglo();
+            for (Observacion nota : notas) {
+                json.inicioObjeto()
+                    .campo("id", nota.id())
+                    .campo("texto", nota.texto())
+                    .campo("creadoEn", nota.creadoEn() != null ? nota.creadoEn().toInstant().toString() : null)
+                    .finObjeto();
+            }
+            json.finArreglo().campo("siguiente", notas.isEmpty() ? null : notas.get(notas.size() - 1).id()).finObjeto();
+        });
+    }
+
+    private void responderEntidad(HttpExchange ex, int estado, Object entidad) throws IOException {
+        if (entidad == null) {
+            responderError(ex, 404, "No encontrado");
+            return;
+        }
+        responderJson(ex, estado, json -> {
+            if (entidad instanceof Empleado empleado) {
+                json.empleado(empleado);
+            } else {
+                json.legajo((Legajo) entidad);
+            }
+        });
+    }
+
+    private void responderVacio(HttpExchange ex) throws IOException {
+        ex.sendResponseHeaders(204, -1);
+    }
+
+    private void responderError(HttpExchange ex, int estado, String mensaje) throws IOException {
+        responderJson(ex, estado, json -> json.inicioObjeto().campo("error", mensaje).finObjeto());
+    }
+
+    /**
+     * Las validaciones de los servicios (IllegalArgumentException, aunque venga envuelta) se informan como 400,
+     * salvo una entidad inexistente (EntidadNoEncontrada) que es 404; un compartimento saturado como 503
+     * (con Retry-After); el resto como 500. Solo antes de enviar los encabezados (ver atender).
+     */
+    private void responderExcepcion(HttpExchange ex, Exception e) throws IOException {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof EntidadNoEncontrada) {
+                responderError(ex, 404, t.getMessage());
+                return;
+            }
+            if (t instanceof IllegalArgumentException) {
+                responderError(ex, 400, t.getMessage());
+                return;
+            }
+            if (t instanceof Compartimento.Saturado) {
+                ex.getResponseHeaders().set("Retry-After", "1");
+                responderError(ex, 503, t.getMessage());
+                return;
+            }
+        }
+        LOGGER.log(Level.SEVERE, "Error al atender " + ex.getRequestMethod() + " " + ex.getRequestURI(), e);
+        responderError(ex, 500, e.getMessage());
+    }
+
+    private Writer escritor(HttpExchange ex) {
+        return new BufferedWriter(new OutputStreamWriter(ex.getResponseBody(), StandardCharsets.UTF_8), 16 * 1024);
+    }
+
+    //AUXILIARES ---------------------------------------------------------------------------------------------------
+
+    // Se separa la ruta y la consulta sin decodificar y se decodifica cada parte (un %2F o un %26 codificado
+    // no separa segmentos ni parámetros)
+    private static String[] segmentos(HttpExchange ex, String contexto) {
+        String resto = ex.getRequestURI().getRawPath().substring(contexto.length());
+        resto = resto.startsWith("/") ? resto.substring(1) : resto;
+        resto = resto.endsWith("/") ? resto.substring(0, resto.length() - 1) : resto;
+        if (resto.isEmpty()) {
+            return new String[0];
+        }
+        String[] partes = resto.split("/");
+        for (int i = 0; i < partes.length; i++) {
+            // En la ruta '+' es un carácter común, no un espacio
+            partes[i] = decodificar(partes[i].replace("+", "%2B"));
+        }
+        return partes;
+    }
+
+    private static Map<String, String> parametros(URI uri) {
+        Map<String, String> parametros = new HashMap<>();
+        String query = uri.getRawQuery();
+        if (query != null) {
+            for (String par : query.split("&")) {
+                int igual = par.indexOf('=');
+                if (igual > 0) {
+                    parametros.put(decodificar(par.substring(0, igual)), decodificar(par.substring(igual + 1)));
+                }
+            }
+        }
+        return parametros;
+    }
+
+    private static String decodificar(String texto) {
+        try {
+            return URLDecoder.decode(texto, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Codificación inválida en la URL: " + texto);
+        }
+    }
+
+    private static long parsearLong(String texto) {
+        try {
+            return Long.parseLong(texto.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Se esperaba un número y se recibió: " + texto);
+        }
+    }
+
+    private static MarcaCambios marca(Map<String, String> query) {
+        String desde = query.get("desde");
+        return desde == null || desde.isBlank() ? MarcaCambios.INICIO : MarcaCambios.desdeTexto(desde);
+    }
+
+    private static boolean incluirArchivados(HttpExchange ex) {
+        return Boolean.parseBoolean(parametros(ex.getRequestURI()).get("archivados"));
+    }
+
+    private static Estado parsearEstado(String texto) {
+        try {
+            return Estado.valueOf(texto.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Estado inválido: " + texto + " (ACTIVO o INACTIVO)");
+        }
+    }
+
+    private static Map<String, String> leerCuerpo(HttpExchange ex) throws IOException {
+        return LectorJson.leerObjeto(new String(ex.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    private static String requerido(Map<String, String> campos, String nombre) {
+        String valor = campos.get(nombre);
+        if (valor == null || valor.isBlank()) {
+            throw new IllegalArgumentException("El campo '" + nombre + "' es obligatorio");
+        }
+        return valor;
+    }
+
+    /**
+     * Arma el empleado del alta con los mismos criterios que MenuController.crearEmpleado
+     * (nombre, apellido y área en mayúsculas; opcionales vacíos como null).
+     */
+    private static Empleado empleadoDesdeJson(Map<String, String> campos) {
+        Empleado empleado = new Empleado(0L,
+                mayusculas(campos.get("nombre")), mayusculas(campos.get("apellido")),
+                campos.get("dni") != null ? campos.get("dni").trim() : null);
+        empleado.setEmail(vacioComoNull(campos.get("email")));
+        empleado.setArea(mayusculas(vacioComoNull(campos.get("area"))));
+        String fecha = vacioComoNull(campos.get("fechaIngreso"));
+        if (fecha != null) {
+            empleado.setFechaIngreso(java.sql.Date.valueOf(fecha.trim()));
+        }
+
+        Legajo legajo = new Legajo();
+        legajo.setCategoria(mayusculas(vacioComoNull(campos.get("categoria"))));
+        String estado = vacioComoNull(campos.get("estado"));
+        legajo.setEstado(estado != null ? parsearEstado(estado) : null);
+        legajo.setObservaciones(vacioComoNull(campos.get("observaciones")));
+        empleado.setLegajo(legajo);
+        return empleado;
+    }
+
+    private static String vacioComoNull(String valor) {
+        return valor == null || valor.trim().isEmpty() ? null : valor.trim();
+    }
+
+    private static String mayusculas(String valor) {
+        return valor == null ? null : valor.trim().toUpperCase();
+    }
+}
@@ -0,0 +1,286 @@
+package tpiprogramacionii.instantanea;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import tpiprogramacionii.dao.CambioDAO;
+import tpiprogramacionii.dao.EmpleadoDAO;
+import tpiprogramacionii.dao.LegajoDAO;
+import tpiprogramacionii.entities.Empleado;
+import tpiprogramacionii.service.Compartimento;
+import tpiprogramacionii.service.EmpleadoService;
+import tpiprogramacionii.service.LegajoService;
+
+/**
+ * EmpleadoService para el arranque instantáneo: getById, buscarPorDni, getAll y getPagina se atienden
+ * desde una Instantanea local mientras la base no responde, y desde la base cuando ya responde.
+ * Las escrituras y el resto de las consultas van siempre a la base.
+ *
+ * Un hilo daemon sincroniza la instantánea periódicamente (cambios desde su marca) y la guarda en el archivo.
+ * La primera sincronización que funciona pasa las lecturas a la base; si después falla una lectura contra la
+ * base, esa lectura y las siguientes se atienden desde la instantánea hasta que otra sincronización funcione.
+ * Un rechazo por compartimento saturado (Compartimento.Saturado) se relanza sin pasar a la instantánea.
+ * Sin instantánea cargada (primer arranque, sin archivo) las lecturas van a la base como en EmpleadoService.
+ *
+ * Se mide el tiempo hasta la primera respuesta (desde la creación del servicio) y se registra en el log.
+ */
+public class EmpleadoServiceInstantaneo extends EmpleadoService {
+
+    private static final Logger LOGGER = Logger.getLogger(EmpleadoServiceInstantaneo.class.getName());
+
+    private final Instantanea instantanea;
+    private final Path archivo;
+    private final LegajoService legajoService;
+    private final long inicio = System.nanoTime();
+    private final AtomicBoolean respondio = new AtomicBoolean();
+    private volatile long msPrimeraRespuesta = -1;
+    // true mientras la base responde: las lecturas van a la base
+    private volatile boolean enVivo;
+    // true desde que falla una sincronización periódica hasta que una vuelve a funcionar (para no repetir el aviso)
+    private volatile boolean fallando;
+    private ScheduledExecutorService ejecutor;
+
+    /**
+     * @param empleadoDAO DAO de Empleado
+     * @param legajoDAO DAO de Legajo
+     * @param cambioDAO DAO de la bandeja de salida
+     * @param legajoService servicio de legajos (sus cambios también se aplican a la instantánea)
+     * @param instantanea instantánea inicial (ver Instantanea.leer)
+     * @param archivo archivo donde se guarda la instantánea después de cada sincronización; null para no guardarla
+     */
+    public EmpleadoServiceInstantaneo(EmpleadoDAO empleadoDAO, LegajoDAO legajoDAO, CambioDAO cambioDAO,
+                                      LegajoService legajoService, Instantanea instantanea, Path archivo) {
+        super(empleadoDAO, legajoDAO, cambioDAO);
+        if (legajoService == null) {
+            throw new IllegalArgumentException("LegajoService no puede ser null");
+        }
+        if (instantanea == null) {
+            throw new IllegalArgumentException("La instantánea no puede ser null");
+        }
+        this.legajoService = legajoService;
+        this.instantanea = instantanea;
+        this.archivo = archivo;
+    }
+
+    /**
+     * Servicio con la instantánea guardada en Instantanea.archivoPorDefecto(). Si el archivo no se puede leer
+     * se arranca sin instantánea (las lecturas van a la base hasta completar la primera sincronización).
+     * La sincronización periódica no se inicia: ver iniciar.
+     */
+    public static EmpleadoServiceInstantaneo desdeArchivo(EmpleadoDAO empleadoDAO, LegajoDAO legajoDAO, CambioDAO cambioDAO,
+                                                          LegajoService legajoService) {
+        Path archivo = Instantanea.archivoPorDefecto();
+        Instantanea instantanea;
+        try {
+            instantanea = Instantanea.leer(archivo);
+            LOGGER.log(Level.INFO, "Instantánea leída de {0}: {1} empleados", new Object[]{archivo, instantanea.cantidad()});
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "No se pudo leer la instantánea " + archivo + " (se arranca sin ella)", e);
+            instantanea = new Instantanea();
+        }
+        return new EmpleadoServiceInstantaneo(empleadoDAO, legajoDAO, cambioDAO, legajoService, instantanea, archivo);
+    }
+
+    /**
+     * Arranque instantáneo activado con la propiedad del sistema arranque.instantaneo (o con --instantaneo en Main).
+     */
+    public static boolean activado() {
+        return Boolean.getBoolean("arranque.instantaneo");
+    }
+
+    @Override
+    public Empleado getById(Long id) throws Exception {
+        if (usarInstantanea()) {
+            if (id <= 0) {
+                throw new IllegalArgumentException("El ID del empleado debe ser mayor a 0");
+            }
+            return respuesta(instantanea.leer(id), false);
+        }
+        try {
+            return respuesta(super.getById(id), true);
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            if (!pasarAInstantanea(e)) {
+                throw e;
+            }
+            return respuesta(instantanea.leer(id), false);
+        }
+    }
+
+    @Override
+    public Empleado buscarPorDni(String dni) throws Exception {
+        if (usarInstantanea()) {
+            if (dni == null || dni.trim().isEmpty()) {
+                throw new IllegalArgumentException("El DNI no puede estar vacío");
+            }
+            return respuesta(instantanea.buscarPorDni(dni), false);
+        }
+        try {
+            return respuesta(super.buscarPorDni(dni), true);
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            if (!pasarAInstantanea(e)) {
+                throw e;
+            }
+            return respuesta(instantanea.buscarPorDni(dni), false);
+        }
+    }
+
+    @Override
+    public List<Empleado> getAll() throws Exception {
+        if (usarInstantanea()) {
+            return respuesta(instantanea.todos(), false);
+        }
+        try {
+            return respuesta(super.getAll(), true);
+        } catch (Exception e) {
+            if (!pasarAInstantanea(e)) {
+                throw e;
+            }
+            return respuesta(instantanea.todos(), false);
+        }
+    }
+
+    @Override
+    public List<Empleado> getPagina(long despuesDeId, int limite) throws Exception {
+        if (usarInstantanea()) {
+            if (despuesDeId < 0) {
+                throw new IllegalArgumentException("El ID de inicio no puede ser negativo");
+            }
+            if (limite <= 0 || limite > 1000) {
+                throw new IllegalArgumentException("El límite de la página debe estar entre 1 y 1000");
+            }
+            return respuesta(instantanea.pagina(despuesDeId, limite), false);
+        }
+        try {
+            return respuesta(super.getPagina(despuesDeId, limite), true);
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            if (!pasarAInstantanea(e)) {
+                throw e;
+            }
+            return respuesta(instantanea.pagina(despuesDeId, limite), false);
+        }
+    }
+
+    /**
+     * Sincroniza la instantánea con la base y la guarda en el archivo.
+     * Si funciona, las lecturas pasan (o siguen yendo) a la base.
+     * @return cantidad de filas aplicadas
+     * @throws Exception si falla la sincronización o la escritura del archivo
+     */
+    public int sincronizar() throws Exception {
+        int aplicados = instantanea.sincronizar(this, legajoService);
+        if (!enVivo) {
+            enVivo = true;
+            LOGGER.log(Level.INFO, "La base responde: las lecturas pasan a la base ({0} ms desde el arranque)",
+                    (System.nanoTime() - inicio) / 1_000_000);
+        }
+        if (archivo != null && aplicados > 0) {
+            instantanea.guardar(archivo);
+        }
+        return aplicados;
+    }
+
+    /**
+     * Sincroniza periódicamente en un hilo daemon, empezando ahora. Mientras la base no responde cada pasada
+     * es también el reintento de conexión; el error se registra la primera vez, no en cada reintento.
+     * @param periodo tiempo entre el fin de una pasada y el inicio de la siguiente
+     * @param unidad unidad del período
+     */
+    public synchronized void iniciar(long periodo, TimeUnit unidad) {
+        if (periodo <= 0) {
+            throw new IllegalArgumentException("El período de sincronización debe ser mayor a 0");
+        }
+        if (ejecutor != null) {
+            throw new IllegalStateException("La sincronización de la instantánea ya está iniciada");
+        }
+        ejecutor = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "instantanea-empleados");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        ejecutor.scheduleWithFixedDelay(() -> {
+            try {
+                int aplicados = sincronizar();
+                fallando = false;
+                if (aplicados > 0) {
+                    LOGGER.log(Level.INFO, "Instantánea sincronizada: {0} cambios ({1} empleados)",
+                            new Object[]{aplicados, instantanea.cantidad()});
+                }
+            } catch (Exception e) {
+                enVivo = false;
+                if (!fallando) {
+                    fallando = true;
+                    LOGGER.log(Level.WARNING, "No se pudo sincronizar la instantánea (se reintenta): las lecturas van a la instantánea", e);
+                }
+            }
+        }, 0, periodo, unidad);
+    }
+
+    /**
+     * Detiene la sincronización periódica (si estaba iniciada).
+     */
+    public synchronized void detener() {
+        if (ejecutor != null) {
+            ejecutor.shutdownNow();
+            ejecutor = null;
+        }
+    }
+
+    /**
+     * @return true mientras las lecturas van a la base
+     */
+    public boolean isEnVivo() {
+        return enVivo;
+    }
+
+    /**
+     * @return milisegundos desde la creación del servicio hasta la primera lectura respondida, o -1 si todavía no hubo
+     */
+    public long getMsPrimeraRespuesta() {
+        return msPrimeraRespuesta;
+    }
+
+    //--------------------------------------------------------------------------------------------------------------
+
+    private boolean usarInstantanea() {
+        return !enVivo && instantanea.isCargada();
+    }
+
+    // Falla una lectura contra la base: si hay instantánea se atiende desde ella hasta la próxima sincronización.
+    // Un rechazo del compartimento (Saturado, aunque venga envuelto) no es una falla de la base: se relanza
+    // y las lecturas siguen en vivo
+    private boolean pasarAInstantanea(Exception e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof Compartimento.Saturado) {
+                return false;
+            }
+        }
+        if (!instantanea.isCargada()) {
+            return false;
+        }
+        if (enVivo) {
+            enVivo = false;
+            LOGGER.log(Level.WARNING, "Falló una lectura contra la base: las lecturas pasan a la instantánea", e);
+        }
+        return true;
+    }
+
+    private <R> R respuesta(R resultado, boolean desdeBase) {
+        if (!respondio.get() && respondio.compareAndSet(false, true)) {
+            msPrimeraRespuesta = (System.nanoTime() - inicio) / 1_000_000;
+            LOGGER.log(Level.INFO, "Primera respuesta a los {0} ms del arranque (desde {1})",
+                    new Object[]{msPrimeraRespuesta, desdeBase ? "la base" : "la instantánea"});
+        }
+        return resultado;
+    }
+}
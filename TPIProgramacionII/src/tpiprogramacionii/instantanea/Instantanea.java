@@ -0,0 +1,280 @@
+package tpiprogramacionii.instantanea;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import tpiprogramacionii.dao.MarcaCambios;
+import tpiprogramacionii.dao.PaginaCambios;
+import tpiprogramacionii.entities.Empleado;
+import tpiprogramacionii.entities.Estado;
+import tpiprogramacionii.entities.Legajo;
+import tpiprogramacionii.http.EscritorJson;
+import tpiprogramacionii.http.LectorJson;
+import tpiprogramacionii.service.EmpleadoService;
+import tpiprogramacionii.service.LegajoService;
+
+/**
+ * Copia local del directorio de empleados activos (con sus legajos) para atender lecturas sin la base.
+ * Se mantiene con la sincronización incremental (leerCambiadosDesde de empleados y de legajos) y se guarda
+ * en un archivo JSON Lines: una primera línea con las marcas de las dos sincronizaciones y después una
+ * línea plana por empleado. Al arrancar se lee el archivo y solo se piden a la base los cambios posteriores.
+ *
+ * Las lecturas devuelven copias: quien modifique el empleado leído no altera la instantánea.
+ */
+public class Instantanea {
+
+    /** Filas pedidas por página al sincronizar. */
+    public static final int TAMANIO_PAGINA = 1000;
+
+    private static final String VERSION = "1";
+
+    // Empleados activos por ID (ordenados, para las páginas) y sus índices por DNI y por legajo
+    private final ConcurrentSkipListMap<Long, Empleado> empleados = new ConcurrentSkipListMap<>();
+    private final Map<String, Long> porDni = new ConcurrentHashMap<>();
+    private final Map<Long, Long> porLegajo = new ConcurrentHashMap<>();
+    private volatile MarcaCambios marcaEmpleados = MarcaCambios.INICIO;
+    private volatile MarcaCambios marcaLegajos = MarcaCambios.INICIO;
+    // Leída de un archivo o sincronizada completa al menos una vez (una primera carga cortada no cuenta)
+    private volatile boolean cargada;
+
+    /**
+     * Archivo configurado con la propiedad del sistema instantanea.archivo (por defecto instantanea.jsonl).
+     */
+    public static Path archivoPorDefecto() {
+        return Path.of(System.getProperty("instantanea.archivo", "instantanea.jsonl"));
+    }
+
+    /**
+     * Lee una instantánea guardada con guardar().
+     * @param archivo archivo de la instantánea
+     * @return la instantánea leída, o una vacía (marcas en INICIO) si el archivo no existe
+     * @throws IOException si el archivo no se puede leer
+     * @throws IllegalArgumentException si el archivo no tiene el formato esperado
+     */
+    public static Instantanea leer(Path archivo) throws IOException {
+        Instantanea instantanea = new Instantanea();
+        if (!Files.exists(archivo)) {
+            return instantanea;
+        }
+        try (BufferedReader in = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            String linea = in.readLine();
+            if (linea == null) {
+                return instantanea;
+            }
+            Map<String, String> cabecera = LectorJson.leerObjeto(linea);
+            if (!VERSION.equals(cabecera.get("version"))) {
+                throw new IllegalArgumentException("Versión de instantánea no soportada: " + cabecera.get("version"));
+            }
+            instantanea.marcaEmpleados = MarcaCambios.desdeTexto(cabecera.get("marcaEmpleados"));
+            instantanea.marcaLegajos = MarcaCambios.desdeTexto(cabecera.get("marcaLegajos"));
+            instantanea.cargada = true;
+            while ((linea = in.readLine()) != null) {
+                if (!linea.isBlank()) {
+                    instantanea.guardarEmpleado(desdeCampos(LectorJson.leerObjeto(linea)));
+                }
+            }
+        }
+        return instantanea;
+    }
+
+    /**
+     * Escribe la instantánea en un archivo temporal y lo mueve sobre el destino, así un corte a mitad
+     * de la escritura deja el archivo anterior entero.
+     * @param archivo archivo de la instantánea
+     * @throws IOException si falla la escritura
+     */
+    public void guardar(Path archivo) throws IOException {
+        Path absoluto = archivo.toAbsolutePath();
+        Path temporal = absoluto.resolveSibling(absoluto.getFileName() + ".tmp");
+        // Las marcas se toman antes que las filas: si un cambio entra durante la escritura se vuelve a aplicar
+        MarcaCambios empleadosHasta = marcaEmpleados;
+        MarcaCambios legajosHasta = marcaLegajos;
+        try (BufferedWriter out = Files.newBufferedWriter(temporal, StandardCharsets.UTF_8)) {
+            EscritorJson json = new EscritorJson(out);
+            json.nuevoDocumento().inicioObjeto()
+                .campo("version", VERSION)
+                .campo("marcaEmpleados", empleadosHasta.aTexto())
+                .campo("marcaLegajos", legajosHasta.aTexto())
+                .finObjeto();
+            out.newLine();
+            for (Empleado e : empleados.values()) {
+                Legajo l = e.getLegajo();
+                json.nuevoDocumento().inicioObjeto()
+                    .campo("id", e.getId())
+                    .campo("nombre", e.getNombre())
+                    .campo("apellido", e.getApellido())
+                    .campo("dni", e.getDni())
+                    .campo("email", e.getEmail())
+                    .campo("fechaIngreso", e.getFechaIngreso())
+                    .campo("area", e.getArea())
+                    .campo("legajoId", l != null ? l.getId() : null)
+                    .campo("nroLegajo", l != null ? l.getNroLegajo() : null)
+                    .campo("categoria", l != null ? l.getCategoria() : null)
+                    .campo("estado", l != null && l.getEstado() != null ? l.getEstado().name() : null)
+                    .campo("fechaAlta", l != null ? l.getFechaAlta() : null)
+                    .campo("observaciones", l != null ? l.getObservaciones() : null)
+                    .finObjeto();
+                out.newLine();
+            }
+        }
+        Files.move(temporal, absoluto, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Aplica los cambios de empleados y de legajos posteriores a las marcas, hasta recibir una página incompleta.
+     * @return cantidad de filas aplicadas
+     * @throws Exception si falla alguna lectura (lo aplicado hasta ese momento se conserva, con su marca)
+     */
+    public synchronized int sincronizar(EmpleadoService empleadoService, LegajoService legajoService) throws Exception {
+        int aplicados = 0;
+        PaginaCambios<Empleado> empleadosCambiados;
+        do {
+            empleadosCambiados = empleadoService.leerCambiadosDesde(marcaEmpleados, TAMANIO_PAGINA);
+            for (Empleado empleado : empleadosCambiados.filas()) {
+                if (empleado.isEliminado()) {
+                    quitarEmpleado(empleado.getId());
+                } else {
+                    guardarEmpleado(new Empleado(empleado));
+                }
+            }
+            aplicados += empleadosCambiados.filas().size();
+            marcaEmpleados = empleadosCambiados.siguiente();
+        } while (empleadosCambiados.filas().size() == TAMANIO_PAGINA);
+
+        PaginaCambios<Legajo> legajosCambiados;
+        do {
+            legajosCambiados = legajoService.leerCambiadosDesde(marcaLegajos, TAMANIO_PAGINA);
+            for (Legajo legajo : legajosCambiados.filas()) {
+                actualizarLegajo(legajo);
+            }
+            aplicados += legajosCambiados.filas().size();
+            marcaLegajos = legajosCambiados.siguiente();
+        } while (legajosCambiados.filas().size() == TAMANIO_PAGINA);
+        cargada = true;
+        return aplicados;
+    }
+
+    /**
+     * @return true si la instantánea se leyó de un archivo o terminó de sincronizarse al menos una vez
+     */
+    public boolean isCargada() {
+        return cargada;
+    }
+
+    public int cantidad() {
+        return empleados.size();
+    }
+
+    /**
+     * Empleado activo por ID (copia), o null si no está.
+     */
+    public Empleado leer(long id) {
+        Empleado empleado = empleados.get(id);
+        return empleado != null ? new Empleado(empleado) : null;
+    }
+
+    /**
+     * Empleado activo por DNI (copia), o null si no está.
+     */
+    public Empleado buscarPorDni(String dni) {
+        Long id = porDni.get(dni.trim());
+        return id != null ? leer(id) : null;
+    }
+
+    /**
+     * Empleados activos con legajo ACTIVO y ID mayor a despuesDeId, ordenados por ID (mismo criterio que EmpleadoDAO.leerPagina).
+     */
+    public List<Empleado> pagina(long despuesDeId, int limite) {
+        List<Empleado> pagina = new ArrayList<>(Math.min(limite, TAMANIO_PAGINA));
+        for (Empleado empleado : empleados.tailMap(despuesDeId, false).values()) {
+            if (pagina.size() == limite) {
+                break;
+            }
+            if (conLegajoActivo(empleado)) {
+                pagina.add(new Empleado(empleado));
+            }
+        }
+        return pagina;
+    }
+
+    /**
+     * Empleados activos con legajo ACTIVO ordenados por ID (mismo criterio que EmpleadoDAO.leerTodos).
+     */
+    public List<Empleado> todos() {
+        List<Empleado> todos = new ArrayList<>();
+        for (Empleado empleado : empleados.values()) {
+            if (conLegajoActivo(empleado)) {
+                todos.add(new Empleado(empleado));
+            }
+        }
+        return todos;
+    }
+
+    //--------------------------------------------------------------------------------------------------------------
+
+    private void guardarEmpleado(Empleado empleado) {
+        quitarEmpleado(empleado.getId());
+        empleados.put(empleado.getId(), empleado);
+        porDni.put(empleado.getDni(), empleado.getId());
+        if (empleado.getLegajo() != null) {
+            porLegajo.put(empleado.getLegajo().getId(), empleado.getId());
+        }
+    }
+
+    private void quitarEmpleado(long id) {
+        Empleado anterior = empleados.remove(id);
+        if (anterior != null) {
+            porDni.remove(anterior.getDni(), id);
+            if (anterior.getLegajo() != null) {
+                porLegajo.remove(anterior.getLegajo().getId(), id);
+            }
+        }
+    }
+
+    // El legajo cambiado reemplaza al del empleado que lo tiene (si el empleado está en la instantánea)
+    private void actualizarLegajo(Legajo legajo) {
+        Long idEmpleado = porLegajo.get(legajo.getId());
+        Empleado empleado = idEmpleado != null ? empleados.get(idEmpleado) : null;
+        if (empleado != null) {
+            Legajo copia = new Legajo(legajo);
+            // Como las lecturas de la base, que no informan la baja del legajo de un empleado activo
+            copia.setEliminado(false);
+            Empleado actualizado = new Empleado(empleado);
+            actualizado.setLegajo(copia);
+            empleados.put(idEmpleado, actualizado);
+        }
+    }
+
+    private static boolean conLegajoActivo(Empleado empleado) {
+        return empleado.getLegajo() != null && empleado.getLegajo().getEstado() == Estado.ACTIVO;
+    }
+
+    private static Empleado desdeCampos(Map<String, String> campos) {
+        Empleado empleado = new Empleado(Long.valueOf(campos.get("id")), campos.get("nombre"),
+                campos.get("apellido"), campos.get("dni"));
+        empleado.setEmail(campos.get("email"));
+        empleado.setFechaIngreso(fecha(campos.get("fechaIngreso")));
+        empleado.setArea(campos.get("area"));
+        if (campos.get("legajoId") != null) {
+            Legajo legajo = new Legajo(Long.valueOf(campos.get("legajoId")), campos.get("nroLegajo"), campos.get("categoria"));
+            legajo.setEstado(campos.get("estado") != null ? Estado.valueOf(campos.get("estado")) : null);
+            legajo.setFechaAlta(fecha(campos.get("fechaAlta")));
+            legajo.setObservaciones(campos.get("observaciones"));
+            empleado.setLegajo(legajo);
+        }
+        return empleado;
+    }
+
+    private static java.sql.Date fecha(String texto) {
+        return texto != null ? java.sql.Date.valueOf(texto) : null;
+    }
+}
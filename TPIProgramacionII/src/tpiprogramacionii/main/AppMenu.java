@@ -2,8 +2,22 @@
 package tpiprogramacionii.main;
 
 import java.util.Scanner;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import tpiprogramacionii.agregados.AgregadosDotacion;
+import tpiprogramacionii.archivo.Archivador;
+import tpiprogramacionii.archivo.CompresorObservaciones;
+import tpiprogramacionii.archivo.MigradorObservaciones;
+import tpiprogramacionii.busqueda.IndiceDifuso;
+import tpiprogramacionii.busqueda.IndiceNombres;
+import tpiprogramacionii.cambios.RelevoCambios;
+import tpiprogramacionii.dao.ArchivoDAO;
+import tpiprogramacionii.dao.CambioDAO;
+import tpiprogramacionii.dao.CompresionObservaciones;
 import tpiprogramacionii.dao.EmpleadoDAO;
 import tpiprogramacionii.dao.LegajoDAO;
+import tpiprogramacionii.dao.ObservacionDAO;
+import tpiprogramacionii.instantanea.EmpleadoServiceInstantaneo;
 import tpiprogramacionii.service.EmpleadoService;
 import tpiprogramacionii.service.LegajoService;
 
@@ -18,12 +32,26 @@ class AppMenu {
         private final LegajoService legajoService;
         // Bandera para controlar el ciclo principal de la aplicación
         private boolean running;
+        // Minutos entre reconciliaciones de la dotación en memoria con la base
+        private static final long MINUTOS_RECONCILIACION = 10;
+        // Segundos entre pasadas del relevo de cambios
+        private static final long SEGUNDOS_RELEVO = 1;
+        // Horas entre pasadas del archivador de bajas (la retención se configura con archivo.retencion.dias)
+        private static final long HORAS_ARCHIVO = 1;
+        // Horas entre pasadas del compresor de observaciones (con observaciones.comprimir)
+        private static final long HORAS_COMPRESION = 1;
+        // Horas entre pasadas de la migración de observaciones al historial de notas
+        private static final long HORAS_MIGRACION = 1;
+        // Segundos entre sincronizaciones de la instantánea (arranque instantáneo)
+        private static final long SEGUNDOS_INSTANTANEA = 5;
 
         /**
         * Clase principal de la aplicación de consola.
         * Se encarga de:
         * - Crear los DAOs y Services (cadena de dependencias).
         * - Crear el MenuController, que maneja la lógica del menú.
+        * Con el arranque instantáneo (-Darranque.instantaneo=true o --instantaneo) las lecturas de empleados
+        * se atienden desde la instantánea local hasta que la base responde, y los índices se cargan en segundo plano.
         * - Mostrar el menú principal en un bucle hasta que el usuario elija salir.
         */
         public AppMenu() {
@@ -35,19 +63,83 @@ class AppMenu {
             LegajoDAO legajoDAO = new LegajoDAO();
             EmpleadoDAO empleadoDAO = new EmpleadoDAO(legajoDAO);
             
+            // DAO de la bandeja de salida (cada modificación registra su cambio en la misma transacción)
+            CambioDAO cambioDAO = new CambioDAO();
+            
+            // DAO del historial de observaciones de los legajos (solo se agregan notas)
+            ObservacionDAO observacionDAO = new ObservacionDAO();
+            
             // Services 
             // Servicio que encapsula la lógica de negocio de legajos
-            this.legajoService = new LegajoService(legajoDAO);
-            this.empleadoService = new EmpleadoService(empleadoDAO, legajoDAO);
+            this.legajoService = new LegajoService(legajoDAO, cambioDAO, observacionDAO);
+            boolean instantaneo = EmpleadoServiceInstantaneo.activado();
+            if (instantaneo) {
+                // Lecturas desde la instantánea local hasta que la base responda
+                EmpleadoServiceInstantaneo servicio = EmpleadoServiceInstantaneo.desdeArchivo(empleadoDAO, legajoDAO, cambioDAO, legajoService);
+                servicio.iniciar(SEGUNDOS_INSTANTANEA, TimeUnit.SECONDS);
+                this.empleadoService = servicio;
+            } else {
+                this.empleadoService = new EmpleadoService(empleadoDAO, legajoDAO, cambioDAO);
+            }
+            
+            // Relevo que publica los cambios confirmados en el archivo de cambios
+            new RelevoCambios(cambioDAO, RelevoCambios.archivoPorDefecto()).iniciar(SEGUNDOS_RELEVO, TimeUnit.SECONDS);
+            new Archivador(new ArchivoDAO(), Archivador.retencionPorDefecto()).iniciar(HORAS_ARCHIVO, TimeUnit.HOURS);
+            if (CompresionObservaciones.activada()) {
+                // Comprime las observaciones guardadas antes de activar la compresión
+                new CompresorObservaciones(legajoDAO).iniciar(HORAS_COMPRESION, TimeUnit.HOURS);
+            }
+            if (MigradorObservaciones.activado()) {
+                // Mueve legajo.observaciones al historial de notas
+                new MigradorObservaciones(observacionDAO).iniciar(HORAS_MIGRACION, TimeUnit.HOURS);
+            }
+            
+            // Índices de búsqueda por nombre (exacto y aproximado): se registran antes de cargarlos para no perder cambios
+            IndiceNombres indiceNombres = new IndiceNombres();
+            IndiceDifuso indiceDifuso = new IndiceDifuso();
+            this.empleadoService.agregarObservador(indiceNombres);
+            this.empleadoService.agregarObservador(indiceDifuso);
+            
+            // Dotación por área, categoría y estado: escucha a los dos servicios y se compara con la base periódicamente
+            AgregadosDotacion dotacion = new AgregadosDotacion();
+            this.empleadoService.agregarObservador(dotacion);
+            this.legajoService.agregarObservador(dotacion);
+            Runnable cargaIndices = () -> {
+                cargarIndice("nombres", () -> indiceNombres.construir(empleadoDAO));
+                cargarIndice("búsqueda aproximada", () -> indiceDifuso.construir(empleadoDAO));
+                cargarIndice("dotación", () -> dotacion.construir(empleadoDAO));
+            };
+            if (instantaneo) {
+                // El menú no espera a la base: los índices quedan vacíos hasta que termina la carga
+                Thread.ofVirtual().name("carga-indices").start(cargaIndices);
+            } else {
+                cargaIndices.run();
+            }
+            dotacion.iniciarReconciliacion(empleadoDAO, MINUTOS_RECONCILIACION, TimeUnit.MINUTES);
             
             // Controller
             // Controlador del menú, que usará los servicios para atender las opciones del usuario
-            this.menuController = new MenuController(scanner, empleadoService, legajoService);
+            this.menuController = new MenuController(scanner, empleadoService, legajoService, indiceNombres, indiceDifuso, dotacion);
             
             // La aplicación comienza en estado "ejecutándose"
             this.running = true;
         }
 
+        /**
+        * Carga un índice de búsqueda recorriendo la tabla de empleados.
+        * Si la base no está disponible se sigue sin índice (la búsqueda por nombre no devolverá resultados).
+        */
+        private static void cargarIndice(String nombre, Callable<Long> carga) {
+            long inicio = System.nanoTime();
+            try {
+                long cargados = carga.call();
+                System.out.printf("Índice de %s cargado: %d empleados en %d ms%n",
+                        nombre, cargados, (System.nanoTime() - inicio) / 1_000_000);
+            } catch (Exception e) {
+                System.out.println("No se pudo cargar el índice de " + nombre + ": " + e.getMessage());
+            }
+        }
+
         /**
         * Punto de entrada de la aplicación.
         * Crea una instancia de AppMenu y ejecuta el bucle principal.
@@ -94,6 +186,11 @@ class AppMenu {
                   case 9 -> menuController.actualizarCategoriaLegajo();
                   case 10 -> menuController.actualizarEstadoLegajo();
                   case 11 -> menuController.eliminarLegajoPorId();
+                  case 12 -> menuController.mostrarConsultasLentas();
+                  case 13 -> menuController.exportarListado();
+                  case 14 -> menuController.buscarEmpleadosPorNombre();
+                  case 15 -> menuController.mostrarDotacion();
+                  case 16 -> menuController.observacionesLegajo();
                   case 0 -> {
                   System.out.println("Saliendo...");
                   running = false;  // Se corta el bucle principal en run()
@@ -1,14 +1,30 @@
-
 package tpiprogramacionii.main;
 
+import tpiprogramacionii.http.ServidorHttp;
+
 /**
  * Punto de entrada de la aplicación.
  * Solo delega la ejecución a la clase AppMenu, que contiene
  * el bucle principal del programa y el manejo del menú.
+ * Con el argumento "--http [puerto]" levanta en cambio el servidor HTTP/JSON
+ * y con "--script [archivo]" ejecuta un script de comandos sin menú (ver ModoScript).
+ * Antes de cualquiera de ellos, "--instantaneo" activa el arranque instantáneo (ver EmpleadoServiceInstantaneo).
  */
 public class Main {
     
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--instantaneo")) {
+            System.setProperty("arranque.instantaneo", "true"); // Lecturas desde la instantánea local hasta que responda la base
+            args = java.util.Arrays.copyOfRange(args, 1, args.length);
+        }
+        if (args.length > 0 && args[0].equals("--http")) {
+            ServidorHttp.main(java.util.Arrays.copyOfRange(args, 1, args.length)); // Servidor HTTP en lugar del menú
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--script")) {
+            ModoScript.main(java.util.Arrays.copyOfRange(args, 1, args.length)); // Comandos por lotes sin menú
+            return;
+        }
         AppMenu app = new AppMenu(); // Crear la aplicación de menú
         app.run(); // Iniciar el bucle principal (mostrar menú y procesar opciones)
         
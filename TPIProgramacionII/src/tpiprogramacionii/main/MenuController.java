@@ -1,14 +1,25 @@
 
 package tpiprogramacionii.main;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import tpiprogramacionii.agregados.AgregadosDotacion;
+import tpiprogramacionii.busqueda.IndiceDifuso;
+import tpiprogramacionii.busqueda.IndiceNombres;
 import tpiprogramacionii.entities.Empleado;
 import tpiprogramacionii.entities.Estado;
 import tpiprogramacionii.entities.Legajo;
+import tpiprogramacionii.entities.Observacion;
+import tpiprogramacionii.service.Compartimento;
 import tpiprogramacionii.service.EmpleadoService;
 import tpiprogramacionii.service.LegajoService;
+import tpiprogramacionii.service.VueloUnico;
+import tpiprogramacionii.utils.RegistroConsultasLentas;
 
 /**
 * Controlador principal del menú de la aplicación.
@@ -18,6 +29,17 @@ public class MenuController {
          private final Scanner scanner;  
          private EmpleadoService empleadoService;
          private LegajoService legajoService;
+         private final IndiceNombres indiceNombres;
+         // Índice tolerante a errores de tipeo, para cuando la búsqueda exacta no encuentra nada
+         private final IndiceDifuso indiceDifuso;
+         // Dotación por área, categoría y estado, mantenida en memoria
+         private final AgregadosDotacion dotacion;
+         // Filas por página en los listados por consola
+         private static final int FILAS_POR_PAGINA = 50;
+         // Resultados máximos de la búsqueda por nombre
+         private static final int RESULTADOS_BUSQUEDA = 20;
+         // Notas del historial de observaciones mostradas por página
+         private static final int NOTAS_POR_PAGINA = 10;
 /**
 * Constructor del controlador del menú.
 * Valida que los servicios y el scanner no sean null.
@@ -27,15 +49,66 @@ public class MenuController {
 */  
          
          public MenuController(Scanner scanner, EmpleadoService empleadoService,LegajoService legajoService) {
+             this(scanner, empleadoService, legajoService, new IndiceNombres());
+         }
+         
+/**
+* Constructor con el índice de búsqueda por nombre ya cargado.
+* @param scanner
+* @param empleadoService
+* @param legajoService
+* @param indiceNombres
+*/
+         public MenuController(Scanner scanner, EmpleadoService empleadoService,LegajoService legajoService,
+                               IndiceNombres indiceNombres) {
+             this(scanner, empleadoService, legajoService, indiceNombres, new IndiceDifuso());
+         }
+         
+/**
+* Constructor con los índices de búsqueda por nombre (exacto y aproximado) ya cargados.
+* @param scanner
+* @param empleadoService
+* @param legajoService
+* @param indiceNombres
+* @param indiceDifuso
+*/
+         public MenuController(Scanner scanner, EmpleadoService empleadoService,LegajoService legajoService,
+                               IndiceNombres indiceNombres, IndiceDifuso indiceDifuso) {
+             this(scanner, empleadoService, legajoService, indiceNombres, indiceDifuso, new AgregadosDotacion());
+         }
+         
+/**
+* Constructor con los índices de búsqueda y la dotación ya cargados.
+* @param scanner
+* @param empleadoService
+* @param legajoService
+* @param indiceNombres
+* @param indiceDifuso
+* @param dotacion
+*/
+         public MenuController(Scanner scanner, EmpleadoService empleadoService,LegajoService legajoService,
+                               IndiceNombres indiceNombres, IndiceDifuso indiceDifuso, AgregadosDotacion dotacion) {
               if (scanner == null) {
                  throw new IllegalArgumentException("Scanner no puede ser null");
               }
              if (empleadoService == null) {
                  throw new IllegalArgumentException("EmpleadoService no puede ser null");
                }
+             if (indiceNombres == null) {
+                 throw new IllegalArgumentException("IndiceNombres no puede ser null");
+               }
+             if (indiceDifuso == null) {
+                 throw new IllegalArgumentException("IndiceDifuso no puede ser null");
+               }
+             if (dotacion == null) {
+                 throw new IllegalArgumentException("AgregadosDotacion no puede ser null");
+               }
              this.scanner = scanner;
              this.empleadoService = empleadoService;
              this.legajoService= legajoService;
+             this.indiceNombres = indiceNombres;
+             this.indiceDifuso = indiceDifuso;
+             this.dotacion = dotacion;
         }
          
          
@@ -151,37 +224,13 @@ public class MenuController {
     
   /**
  * Listado de todos los empleados activos.
- * Obtiene la lista desde EmpleadoService y la muestra
- * en consola, incluyendo datos básicos y legajo si aplica.
+ * Muestra una tabla paginada: cada página se pide a EmpleadoService
+ * recién cuando el usuario avanza.
  */
     public void listarEmpleados(){
         try {
-            List<Empleado> empleados = empleadoService.getAll();  
-        
-            if(empleados.isEmpty()){
-                System.out.println("No se encontró ninguna lista de empleados.");
-            }
-        
-            for (Empleado e : empleados) {
-                System.out.println("==================================");
-                System.out.println("ID: " + e.getId() +
-                      "\nnombre= " + e.getNombre() + 
-                      "\napellido= " + e.getApellido() + 
-                      "\ndni= " + e.getDni() + 
-                      "\nemail= " + e.getEmail() + 
-                      "\nfecha_ingreso= " + e.getFechaIngreso() + 
-                      "\narea= " + e.getArea());
-               
-            if (e.getLegajo() != null) {
-                  System.out.println("\nnroLegajo= " + e.getLegajo().getNroLegajo() +
-                     "\ncategoria= " + e.getLegajo().getCategoria() + 
-                     "\nestado= " + e.getLegajo().getEstado() + 
-                     "\nfechaAlta= " + e.getLegajo().getFechaAlta() +
-                     "\nobservaciones= " + e.getLegajo().getObservaciones());
-
-                }
-            }   
-         } catch (Exception e) {
+            RenderizadorTabla.empleados(empleadoService).mostrarPaginado(scanner, FILAS_POR_PAGINA);
+        } catch (Exception e) {
             System.out.println("Error al listar empleados: " + e.getMessage());
         }
     }
@@ -402,28 +451,15 @@ public class MenuController {
     
    /**
  * Listado de legajos activos.
- * Recupera todos los legajos no eliminados desde
- * LegajoService y los muestra por consola.
+ * Muestra una tabla paginada de los legajos no eliminados,
+ * pidiendo cada página a LegajoService a medida que se avanza.
  */
     public void listarLegajos(){
         try {
-        List<Legajo> legajos = legajoService.getAll(); 
-
-        if (legajos == null || legajos.isEmpty()) {
-            System.out.println("No hay legajos activos.");
-            return;
-        }
-
-        for (Legajo l : legajos) {
-            System.out.println("==================================");
-            System.out.println("ID: " + l.getId()
-                    + "\nNro legajo: " + l.getNroLegajo()
-                    + "\nCategoría: " + l.getCategoria());
-            
+            RenderizadorTabla.legajos(legajoService).mostrarPaginado(scanner, FILAS_POR_PAGINA);
+        } catch (Exception e) {
+            System.err.println("Error al listar legajos: " + e.getMessage());
         }
-    } catch (Exception e) {
-        System.err.println("Error al listar legajos: " + e.getMessage());
-    }
     }
     
   /**
@@ -580,12 +616,202 @@ public class MenuController {
          }
     }
       
+  /**
+ * Búsqueda de empleados por nombre y/o apellido.
+ * Consulta el índice en memoria (prefijo o parte del nombre, sin distinguir
+ * mayúsculas ni tildes) y luego trae los empleados encontrados en una sola consulta.
+ * Si no hay coincidencias exactas, busca palabras parecidas en nombre, apellido y área
+ * (por ejemplo "GONZALES" encuentra "GONZALEZ").
+ */
+    public void buscarEmpleadosPorNombre() {
+        try {
+            System.out.print("Ingrese nombre y/o apellido (o parte): ");
+            String consulta = scanner.nextLine().trim();
+            if (consulta.isEmpty()) {
+                System.out.println("Debe ingresar al menos un carácter.");
+                return;
+            }
+
+            long inicio = System.nanoTime();
+            long[] ids = indiceNombres.buscar(consulta, RESULTADOS_BUSQUEDA);
+            long micros = (System.nanoTime() - inicio) / 1_000;
+
+            if (ids.length > 0) {
+                System.out.println(ids.length + " resultado(s) (búsqueda en " + micros + " µs):");
+                mostrarEmpleados(ids);
+                return;
+            }
+
+            // Sin coincidencias exactas: se prueba con palabras parecidas (errores de tipeo)
+            inicio = System.nanoTime();
+            ids = indiceDifuso.buscar(consulta, RESULTADOS_BUSQUEDA);
+            long microsDifusa = (System.nanoTime() - inicio) / 1_000;
+            if (ids.length == 0) {
+                System.out.println("No se encontraron empleados (búsqueda en " + (micros + microsDifusa) + " µs).");
+                return;
+            }
+            System.out.println("No hubo coincidencias exactas. " + ids.length
+                    + " resultado(s) parecido(s) (búsqueda aproximada en " + microsDifusa + " µs):");
+            mostrarEmpleados(ids);
+        } catch (Exception e) {
+            System.err.println("Error al buscar empleados por nombre: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Muestra los empleados de los IDs recibidos, en ese orden, leyéndolos en una sola consulta.
+     */
+    private void mostrarEmpleados(long[] ids) throws Exception {
+        List<Long> listaIds = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            listaIds.add(id);
+        }
+        Map<Long, Empleado> porId = new HashMap<>();
+        for (Empleado e : empleadoService.getByIds(listaIds)) {
+            porId.put(e.getId(), e);
+        }
+        for (long id : ids) {
+            Empleado e = porId.get(id);
+            if (e != null) {
+                System.out.println("ID: " + e.getId() + " - " + e.getApellido() + ", " + e.getNombre()
+                        + " - DNI: " + e.getDni() + (e.getArea() != null ? " - Área: " + e.getArea() : ""));
+            }
+        }
+    }
+    
+  /**
+ * Exportación de un listado completo a un archivo de texto.
+ * Pide qué listar (empleados o legajos) y la ruta del archivo;
+ * las filas se escriben página por página sin cargar todo el listado.
+ */
+    public void exportarListado() {
+        try {
+            System.out.print("¿Qué desea exportar? (E = empleados / L = legajos): ");
+            String tipo = leerOpcion();
+            if (!tipo.equals("E") && !tipo.equals("L")) {
+                System.out.println("Opción no válida.");
+                return;
+            }
+            System.out.print("Ruta del archivo de salida: ");
+            String ruta = scanner.nextLine().trim();
+            if (ruta.isEmpty()) {
+                System.out.println("La ruta no puede estar vacía.");
+                return;
+            }
+
+            long filas = tipo.equals("E")
+                    ? RenderizadorTabla.empleados(empleadoService).volcar(Path.of(ruta))
+                    : RenderizadorTabla.legajos(legajoService).volcar(Path.of(ruta));
+            System.out.println("Se exportaron " + filas + " registros a " + ruta);
+        } catch (Exception e) {
+            System.err.println("Error al exportar el listado: " + e.getMessage());
+        }
+    }
+    
+  /**
+ * Volcado del registro de consultas lentas.
+ * Muestra las consultas SQL que superaron el umbral configurado,
+ * de la más reciente a la más antigua, el estado de los compartimentos de acceso a la base
+ * y las lecturas compartidas.
+ */
+    public void mostrarConsultasLentas() {
+        List<RegistroConsultasLentas.ConsultaLenta> consultas = RegistroConsultasLentas.obtenerRegistros();
+
+        if (consultas.isEmpty()) {
+            System.out.println("No hay consultas que superen el umbral de " + RegistroConsultasLentas.getUmbralMs() + " ms.");
+        } else {
+            System.out.println("Consultas lentas (umbral " + RegistroConsultasLentas.getUmbralMs() + " ms):");
+            for (RegistroConsultasLentas.ConsultaLenta consulta : consultas) {
+                System.out.println(consulta);
+            }
+        }
+
+        System.out.println("\nCompartimentos de acceso a la base:");
+        for (Compartimento compartimento : Compartimento.todos()) {
+            System.out.println(compartimento.getEstadisticas());
+        }
+
+        System.out.println("\nLecturas compartidas (consultas concurrentes iguales resueltas con una sola):");
+        for (VueloUnico.Estadisticas lecturas : empleadoService.getEstadisticasLecturas()) {
+            System.out.println(lecturas);
+        }
+        System.out.println(legajoService.getEstadisticasLecturas());
+    }
+
+/**
+ * Muestra la dotación de empleados activos por área, por categoría y por estado del legajo.
+ * Los totales se leen de memoria (no consultan la base).
+ */
+    public void mostrarDotacion() {
+        System.out.println("Empleados activos: " + dotacion.getTotal());
+        for (AgregadosDotacion.Dimension dimension : AgregadosDotacion.Dimension.values()) {
+            System.out.println("\nPor " + dimension.name().toLowerCase() + ":");
+            dotacion.getTotales(dimension).forEach((valor, cantidad) ->
+                    System.out.printf("  %-30s %8d%n", valor, cantidad));
+        }
+    }
+      
+/**
+ * Historial de observaciones de un legajo.
+ * Muestra las últimas notas (de la más nueva a la más vieja), permite ver las anteriores
+ * y agregar una nota nueva sin reescribir las existentes.
+ */
+    public void observacionesLegajo() {
+        try {
+            System.out.print("Ingrese el ID del legajo: ");
+            long legajoId = Long.parseLong(scanner.nextLine().trim());
+
+            long antesDeId = 0;
+            List<Observacion> notas;
+            do {
+                notas = legajoService.getObservaciones(legajoId, antesDeId, NOTAS_POR_PAGINA);
+                if (notas.isEmpty()) {
+                    System.out.println(antesDeId == 0 ? "El legajo no tiene observaciones." : "No hay observaciones anteriores.");
+                    break;
+                }
+                for (Observacion nota : notas) {
+                    System.out.println("[" + nota.creadoEn() + "] " + nota.texto());
+                }
+                antesDeId = notas.get(notas.size() - 1).id();
+                if (notas.size() < NOTAS_POR_PAGINA) {
+                    break;
+                }
+                System.out.print("¿Desea ver las anteriores? (s/n): ");
+            } while ("S".equals(leerSN()));
+
+            System.out.print("¿Desea agregar una observación? (s/n): ");
+            if (!"S".equals(leerSN())) {
+                return;
+            }
+            System.out.print("Observación: ");
+            String texto = scanner.nextLine().trim();
+            if (texto.isEmpty()) {
+                System.out.println("Operación cancelada. No se realizaron cambios.");
+                return;
+            }
+            legajoService.agregarObservacion(legajoId, texto);
+            System.out.println("Observación agregada.");
+
+        } catch (NumberFormatException e) {
+                System.err.println("El ID debe ser un número entero.");
+        } catch (Exception e) {
+                System.err.println("Error con las observaciones del legajo: " + e.getMessage());
+        }
+    }
+
 /**
  * Método utilitario para leer respuestas tipo S/N.
  */
     private String leerSN() {
-    return scanner.nextLine().trim().toUpperCase();
-     }    
+        return leerOpcion();
+    }
+
+/**
+ * Método utilitario para leer una opción de una letra (por ejemplo E/L), en mayúsculas y sin espacios.
+ */
+    private String leerOpcion() {
+        return scanner.nextLine().trim().toUpperCase();
+    }
    
 }
      
@@ -24,6 +24,11 @@ public class MenuDisplay {
         System.out.println("[9] Actualizar Categoria del Empleado");
         System.out.println("[10] Actualizar Estado del Empleado");
         System.out.println("[11] Eliminar Legajo por ID");
+        System.out.println("[12] Ver Consultas Lentas y Compartimentos");
+        System.out.println("[13] Exportar Listado a Archivo");
+        System.out.println("[14] Buscar Empleados por Nombre");
+        System.out.println("[15] Ver Dotacion por Area, Categoria y Estado");
+        System.out.println("[16] Ver y Agregar Observaciones del Legajo");
         System.out.println("[0] Salir");
         System.out.print("Ingrese una opcion: ");
     }
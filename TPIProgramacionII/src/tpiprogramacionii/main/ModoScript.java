@@ -0,0 +1,601 @@
+package tpiprogramacionii.main;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import tpiprogramacionii.dao.EmpleadoDAO;
+import tpiprogramacionii.dao.LegajoDAO;
+import tpiprogramacionii.entities.Empleado;
+import tpiprogramacionii.entities.Estado;
+import tpiprogramacionii.entities.Legajo;
+import tpiprogramacionii.http.EscritorJson;
+import tpiprogramacionii.service.EmpleadoService;
+import tpiprogramacionii.service.LegajoService;
+import tpiprogramacionii.service.LoteIncompleto;
+import tpiprogramacionii.service.MotorValidacion;
+import tpiprogramacionii.service.ResultadoValidacion;
+
+/**
+ * Modo de comandos no interactivo: lee un script (o la entrada estándar) con un comando por línea
+ * y ejecuta las mismas operaciones que el menú, sin prompts.
+ * Los comandos consecutivos del mismo tipo se agrupan en lotes y se envían en una sola llamada
+ * (y transacción) al servicio. Si un lote falla, sus comandos se reintentan de a uno para
+ * informar el resultado de cada línea.
+ *
+ * Formato: campos separados por ';', líneas vacías y las que empiezan con '#' se ignoran.
+ * crear;nombre;apellido;dni[;email;fechaIngreso(yyyy-MM-dd);area;categoria;estado;observaciones]
+ * buscar;idEmpleado
+ * buscar-dni;dni
+ * area;idEmpleado;nuevaArea
+ * categoria;idEmpleado;nuevaCategoria
+ * estado;idLegajo;ACTIVO|INACTIVO
+ * eliminar;idEmpleado
+ * eliminar-legajo;idLegajo
+ *
+ * Por la salida estándar se escribe una línea JSON por comando, en el orden del script;
+ * el resumen de throughput se escribe al final por la salida de errores.
+ */
+public class ModoScript {
+
+    // Referencia fuerte: si el logger se recolecta, se pierde el nivel configurado
+    private static final Logger LOGGER_APLICACION = Logger.getLogger("tpiprogramacionii");
+    private static final int TAMANIO_LOTE = 500;
+
+    /**
+     * Comandos disponibles. Los que admiten lote se acumulan mientras se repitan seguidos.
+     */
+    enum TipoComando {
+        CREAR("crear", 3, true),
+        BUSCAR("buscar", 1, true),
+        BUSCAR_DNI("buscar-dni", 1, false),
+        AREA("area", 2, true),
+        CATEGORIA("categoria", 2, false),
+        ESTADO("estado", 2, true),
+        ELIMINAR("eliminar", 1, true),
+        ELIMINAR_LEGAJO("eliminar-legajo", 1, false);
+
+        private final String nombre;
+        private final int argumentosMinimos;
+        private final boolean admiteLote;
+
+        TipoComando(String nombre, int argumentosMinimos, boolean admiteLote) {
+            this.nombre = nombre;
+            this.argumentosMinimos = argumentosMinimos;
+            this.admiteLote = admiteLote;
+        }
+
+        static TipoComando desdeNombre(String nombre) {
+            for (TipoComando tipo : values()) {
+                if (tipo.nombre.equalsIgnoreCase(nombre)) {
+                    return tipo;
+                }
+            }
+            throw new IllegalArgumentException("Comando desconocido: " + nombre);
+        }
+    }
+
+    private record Comando(int linea, TipoComando tipo, String[] argumentos) {}
+
+    private final EmpleadoService empleadoService;
+    private final LegajoService legajoService;
+    private final Writer out;
+    // Cada resultado se arma en lineaActual y se escribe (o se guarda en resultadosLote) al terminarlo
+    private final StringWriter lineaActual = new StringWriter();
+    private final EscritorJson json;
+    // Mismas reglas (y mensajes) que la validación de EmpleadoService.insertar
+    private final MotorValidacion validacion = new MotorValidacion();
+    private final ResultadoValidacion resultadoValidacion = new ResultadoValidacion();
+    // Resultados del lote en proceso por número de línea, para escribirlos en el orden del script (null fuera de un lote)
+    private Map<Integer, String> resultadosLote;
+
+    private final List<Comando> pendientes = new ArrayList<>();
+    // Clave de los comandos pendientes (DNI en crear, ID en el resto): si se repite se cierra el lote antes (mantiene el orden)
+    private final Set<String> clavesPendientes = new HashSet<>();
+
+    private final Map<TipoComando, long[]> estadisticas = new EnumMap<>(TipoComando.class);
+    private long lotes;
+    private long invalidos;
+
+    public ModoScript(EmpleadoService empleadoService, LegajoService legajoService, Writer out) {
+        if (empleadoService == null) {
+            throw new IllegalArgumentException("EmpleadoService no puede ser null");
+        }
+        if (legajoService == null) {
+            throw new IllegalArgumentException("LegajoService no puede ser null");
+        }
+        this.empleadoService = empleadoService;
+        this.legajoService = legajoService;
+        this.out = out;
+        this.json = new EscritorJson(lineaActual);
+        for (TipoComando tipo : TipoComando.values()) {
+            estadisticas.put(tipo, new long[2]); // {correctos, con error}
+        }
+    }
+
+    /**
+     * Ejecuta el script indicado, o la entrada estándar si no se pasa archivo (o se pasa "-").
+     */
+    public static void main(String[] args) throws IOException {
+        // Los errores se informan en la salida del script: el log por operación solo agregaría ruido
+        LOGGER_APLICACION.setLevel(Level.OFF);
+
+        LegajoDAO legajoDAO = new LegajoDAO();
+        EmpleadoService empleadoService = new EmpleadoService(new EmpleadoDAO(legajoDAO), legajoDAO);
+        LegajoService legajoService = new LegajoService(legajoDAO);
+
+        // No se cierra la salida: cerraría System.out
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 64 * 1024);
+        try (BufferedReader entrada = args.length == 0 || args[0].equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Path.of(args[0]), StandardCharsets.UTF_8)) {
+            new ModoScript(empleadoService, legajoService, out).ejecutar(entrada);
+        }
+    }
+
+    /**
+     * Lee y ejecuta todos los comandos de la entrada y muestra el resumen.
+     * @param entrada script con un comando por línea
+     * @throws IOException si falla la lectura o la escritura de resultados
+     */
+    public void ejecutar(BufferedReader entrada) throws IOException {
+        long inicio = System.nanoTime();
+        String texto;
+        int numeroLinea = 0;
+
+        while ((texto = entrada.readLine()) != null) {
+            numeroLinea++;
+            texto = texto.trim();
+            if (texto.isEmpty() || texto.startsWith("#")) {
+                continue;
+            }
+
+            String[] campos = texto.split(";", -1);
+            for (int i = 0; i < campos.length; i++) {
+                campos[i] = campos[i].trim();
+            }
+            String[] argumentos = java.util.Arrays.copyOfRange(campos, 1, campos.length);
+
+            TipoComando tipo;
+            try {
+                tipo = TipoComando.desdeNombre(campos[0]);
+                if (argumentos.length < tipo.argumentosMinimos) {
+                    throw new IllegalArgumentException("El comando " + tipo.nombre + " requiere al menos "
+                            + tipo.argumentosMinimos + " argumentos");
+                }
+            } catch (IllegalArgumentException e) {
+                procesarPendientes();
+                error(numeroLinea, campos[0], e.getMessage());
+                invalidos++;
+                continue;
+            }
+
+            Comando comando = new Comando(numeroLinea, tipo, argumentos);
+            if (!pendientes.isEmpty() && (pendientes.get(0).tipo() != tipo
+                    || pendientes.size() == TAMANIO_LOTE || clavesPendientes.contains(clave(comando)))) {
+                procesarPendientes();
+            }
+            if (tipo.admiteLote) {
+                pendientes.add(comando);
+                clavesPendientes.add(clave(comando));
+            } else {
+                procesarPendientes();
+                ejecutarIndividual(comando);
+            }
+        }
+        procesarPendientes();
+        out.flush();
+
+        imprimirResumen((System.nanoTime() - inicio) / 1_000_000_000.0);
+    }
+
+    //LOTES ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * Envía los comandos acumulados al servicio en una sola llamada.
+     * Los resultados se escriben al terminar el lote, en el orden de las líneas del script.
+     */
+    private void procesarPendientes() throws IOException {
+        if (pendientes.isEmpty()) {
+            return;
+        }
+        List<Comando> lote = new ArrayList<>(pendientes);
+        pendientes.clear();
+        clavesPendientes.clear();
+        lotes++;
+
+        resultadosLote = new TreeMap<>();
+        try {
+            switch (lote.get(0).tipo()) {
+                case CREAR -> crearLote(lote);
+                case BUSCAR -> buscarLote(lote);
+                case AREA -> actualizarAreaLote(lote);
+                case ESTADO -> cambiarEstadoLote(lote);
+                case ELIMINAR -> eliminarLote(lote);
+                default -> throw new IllegalStateException("El comando no admite lotes: " + lote.get(0).tipo());
+            }
+        } finally {
+            Map<Integer, String> resultados = resultadosLote;
+            resultadosLote = null;
+            for (String resultado : resultados.values()) {
+                out.write(resultado);
+                out.write('\n');
+            }
+        }
+    }
+
+    private void crearLote(List<Comando> lote) throws IOException {
+        // Los comandos con datos inválidos se informan sin enviarlos al servicio
+        Map<Comando, Empleado> validos = new LinkedHashMap<>();
+        Map<Comando, String> errores = new HashMap<>();
+        for (Comando comando : lote) {
+            try {
+                Empleado empleado = empleadoDesdeArgumentos(comando.argumentos());
+                if (validacion.validar(empleado, resultadoValidacion)) {
+                    validos.put(comando, empleado);
+                } else {
+                    errores.put(comando, resultadoValidacion.getErrores().get(0).getMensaje());
+                }
+            } catch (IllegalArgumentException e) {
+                errores.put(comando, e.getMessage());
+            }
+        }
+
+        boolean loteCorrecto = false;
+        // Con varios fragmentos los de los fragmentos que confirmaron antes del error ya están guardados
+        Set<Long> confirmados = Collections.emptySet();
+        if (!validos.isEmpty()) {
+            try {
+                empleadoService.insertarLote(new ArrayList<>(validos.values()));
+                loteCorrecto = true;
+            } catch (LoteIncompleto e) {
+                confirmados = e.getConfirmados();
+            } catch (Exception e) {
+                // Se reintenta de a uno más abajo para saber qué comandos fallan
+            }
+        }
+
+        for (Comando comando : lote) {
+            Empleado empleado = validos.get(comando);
+            if (empleado == null) {
+                error(comando, errores.get(comando));
+                continue;
+            }
+            try {
+                if (!loteCorrecto && !confirmados.contains(empleado.getId())) {
+                    empleadoService.insertar(empleado);
+                }
+                inicioCorrecto(comando).campo("id", empleado.getId())
+                        .campo("nroLegajo", empleado.getLegajo().getNroLegajo()).finObjeto();
+                finResultado(comando, true);
+            } catch (Exception e) {
+                error(comando, mensaje(e));
+            }
+        }
+    }
+
+    private void buscarLote(List<Comando> lote) throws IOException {
+        List<Long> ids = new ArrayList<>(lote.size());
+        for (Comando comando : lote) {
+            Long id = parsearId(comando.argumentos()[0]);
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+
+        Map<Long, Empleado> encontrados = new HashMap<>();
+        String errorLote = null;
+        if (!ids.isEmpty()) {
+            try {
+                for (Empleado empleado : empleadoService.getByIds(ids)) {
+                    encontrados.put(empleado.getId(), empleado);
+                }
+            } catch (Exception e) {
+                errorLote = mensaje(e);
+            }
+        }
+
+        for (Comando comando : lote) {
+            Long id = parsearId(comando.argumentos()[0]);
+            Empleado empleado = id == null ? null : encontrados.get(id);
+            if (id == null) {
+                error(comando, "El ID debe ser un número mayor a 0: " + comando.argumentos()[0]);
+            } else if (errorLote != null) {
+                error(comando, errorLote);
+            } else if (empleado == null) {
+                error(comando, "Empleado no encontrado");
+            } else {
+                inicioCorrecto(comando).nombre("empleado").empleado(empleado).finObjeto();
+                finResultado(comando, true);
+            }
+        }
+    }
+
+    private void actualizarAreaLote(List<Comando> lote) throws IOException {
+        Map<Comando, Empleado> validos = new LinkedHashMap<>();
+        for (Comando comando : lote) {
+            Long id = parsearId(comando.argumentos()[0]);
+            if (id == null) {
+                error(comando, "El ID debe ser un número mayor a 0: " + comando.argumentos()[0]);
+                continue;
+            }
+            Empleado empleado = new Empleado(id, null, null, null);
+            empleado.setArea(comando.argumentos()[1].toUpperCase());
+            validos.put(comando, empleado);
+        }
+        if (validos.isEmpty()) {
+            return;
+        }
+
+        try {
+            empleadoService.actualizarAreaLote(new ArrayList<>(validos.values()));
+            for (Comando comando : validos.keySet()) {
+                correcto(comando);
+            }
+        } catch (Exception e) {
+            Set<Long> confirmados = e instanceof LoteIncompleto incompleto ? incompleto.getConfirmados() : Collections.emptySet();
+            for (Map.Entry<Comando, Empleado> entrada : validos.entrySet()) {
+                try {
+                    if (!confirmados.contains(entrada.getValue().getId())) {
+                        empleadoService.actualizar(entrada.getValue());
+                    }
+                    correcto(entrada.getKey());
+                } catch (Exception individual) {
+                    error(entrada.getKey(), mensaje(individual));
+                }
+            }
+        }
+    }
+
+    private void cambiarEstadoLote(List<Comando> lote) throws IOException {
+        Map<Long, Estado> cambios = new LinkedHashMap<>();
+        Map<Long, Comando> comandos = new LinkedHashMap<>();
+        for (Comando comando : lote) {
+            Long id = parsearId(comando.argumentos()[0]);
+            if (id == null) {
+                error(comando, "El ID debe ser un número mayor a 0: " + comando.argumentos()[0]);
+                continue;
+            }
+            try {
+                cambios.put(id, Estado.valueOf(comando.argumentos()[1].toUpperCase()));
+                comandos.put(id, comando);
+            } catch (IllegalArgumentException e) {
+                error(comando, "Estado inválido (ACTIVO o INACTIVO): " + comando.argumentos()[1]);
+            }
+        }
+        if (cambios.isEmpty()) {
+            return;
+        }
+
+        try {
+            legajoService.cambiarEstadoLote(cambios);
+            for (Comando comando : comandos.values()) {
+                correcto(comando);
+            }
+        } catch (Exception e) {
+            Set<Long> confirmados = e instanceof LoteIncompleto incompleto ? incompleto.getConfirmados() : Collections.emptySet();
+            for (Map.Entry<Long, Estado> cambio : cambios.entrySet()) {
+                try {
+                    if (!confirmados.contains(cambio.getKey())) {
+                        legajoService.cambiarEstado(cambio.getKey(), cambio.getValue());
+                    }
+                    correcto(comandos.get(cambio.getKey()));
+                } catch (Exception individual) {
+                    error(comandos.get(cambio.getKey()), mensaje(individual));
+                }
+            }
+        }
+    }
+
+    private void eliminarLote(List<Comando> lote) throws IOException {
+        Map<Long, Comando> comandos = new LinkedHashMap<>();
+        for (Comando comando : lote) {
+            Long id = parsearId(comando.argumentos()[0]);
+            if (id == null) {
+                error(comando, "El ID debe ser un número mayor a 0: " + comando.argumentos()[0]);
+            } else {
+                comandos.put(id, comando);
+            }
+        }
+        if (comandos.isEmpty()) {
+            return;
+        }
+
+        try {
+            empleadoService.eliminarLote(new ArrayList<>(comandos.keySet()));
+            for (Comando comando : comandos.values()) {
+                correcto(comando);
+            }
+        } catch (Exception e) {
+            Set<Long> confirmados = e instanceof LoteIncompleto incompleto ? incompleto.getConfirmados() : Collections.emptySet();
+            for (Map.Entry<Long, Comando> entrada : comandos.entrySet()) {
+                try {
+                    if (!confirmados.contains(entrada.getKey())) {
+                        empleadoService.eliminar(entrada.getKey());
+                    }
+                    correcto(entrada.getValue());
+                } catch (Exception individual) {
+                    error(entrada.getValue(), mensaje(individual));
+                }
+            }
+        }
+    }
+
+    //COMANDOS INDIVIDUALES ------------------------------------------------------------------------------------------
+
+    private void ejecutarIndividual(Comando comando) throws IOException {
+        String[] args = comando.argumentos();
+        try {
+            switch (comando.tipo()) {
+                case BUSCAR_DNI -> {
+                    Empleado empleado = empleadoService.buscarPorDni(args[0]);
+                    if (empleado == null) {
+                        error(comando, "Empleado no encontrado");
+                    } else {
+                        inicioCorrecto(comando).nombre("empleado").empleado(empleado).finObjeto();
+                        finResultado(comando, true);
+                    }
+                }
+                case CATEGORIA -> {
+                    empleadoService.actualizarCategoriaLegajo(Long.parseLong(args[0]), args[1]);
+                    correcto(comando);
+                }
+                case ELIMINAR_LEGAJO -> {
+                    legajoService.eliminar(Long.parseLong(args[0]));
+                    correcto(comando);
+                }
+                default -> throw new IllegalStateException("El comando admite lotes: " + comando.tipo());
+            }
+        } catch (NumberFormatException e) {
+            error(comando, "El ID debe ser un número entero: " + args[0]);
+        } catch (Exception e) {
+            error(comando, mensaje(e));
+        }
+    }
+
+    //RESULTADOS -----------------------------------------------------------------------------------------------------
+
+    private EscritorJson inicioCorrecto(Comando comando) throws IOException {
+        return json.nuevoDocumento().inicioObjeto()
+                .campo("linea", (long) comando.linea())
+                .campo("comando", comando.tipo().nombre)
+                .campo("ok", true);
+    }
+
+    private void correcto(Comando comando) throws IOException {
+        inicioCorrecto(comando).finObjeto();
+        finResultado(comando, true);
+    }
+
+    private void error(Comando comando, String mensaje) throws IOException {
+        error(comando.linea(), comando.tipo().nombre, mensaje);
+        estadisticas.get(comando.tipo())[1]++;
+    }
+
+    private void error(int linea, String comando, String mensaje) throws IOException {
+        json.nuevoDocumento().inicioObjeto()
+                .campo("linea", (long) linea)
+                .campo("comando", comando)
+                .campo("ok", false)
+                .campo("error", mensaje)
+                .finObjeto();
+        terminarLinea(linea);
+    }
+
+    private void finResultado(Comando comando, boolean ok) throws IOException {
+        terminarLinea(comando.linea());
+        estadisticas.get(comando.tipo())[ok ? 0 : 1]++;
+    }
+
+    /**
+     * Escribe el resultado armado en lineaActual, o lo guarda si hay un lote en proceso.
+     */
+    private void terminarLinea(int linea) throws IOException {
+        String resultado = lineaActual.toString();
+        lineaActual.getBuffer().setLength(0);
+        if (resultadosLote != null) {
+            resultadosLote.put(linea, resultado);
+        } else {
+            out.write(resultado);
+            out.write('\n');
+        }
+    }
+
+    private void imprimirResumen(double segundos) {
+        long correctos = 0;
+        long errores = 0;
+        System.err.println();
+        System.err.println("comando           correctos   errores");
+        for (Map.Entry<TipoComando, long[]> e : estadisticas.entrySet()) {
+            long[] cuenta = e.getValue();
+            if (cuenta[0] + cuenta[1] == 0) {
+                continue;
+            }
+            System.err.printf("%-16s %10d %9d%n", e.getKey().nombre, cuenta[0], cuenta[1]);
+            correctos += cuenta[0];
+            errores += cuenta[1];
+        }
+        if (invalidos > 0) {
+            System.err.printf("%-16s %10d %9d%n", "(inválidos)", 0, invalidos);
+            errores += invalidos;
+        }
+        long total = correctos + errores;
+        System.err.printf("Total: %d comandos (%d correctos, %d con error) en %d llamadas por lote, %.2fs, %.1f comandos/s%n",
+                total, correctos, errores, lotes, segundos, segundos > 0 ? total / segundos : 0.0);
+    }
+
+    //AUXILIARES -----------------------------------------------------------------------------------------------------
+
+    /**
+     * Arma el empleado del comando crear con los mismos criterios que MenuController.crearEmpleado.
+     */
+    private static Empleado empleadoDesdeArgumentos(String[] args) {
+        Empleado empleado = new Empleado(0L, args[0].toUpperCase(), args[1].toUpperCase(), args[2]);
+        empleado.setEmail(opcional(args, 3));
+        String fecha = opcional(args, 4);
+        if (fecha != null) {
+            empleado.setFechaIngreso(java.sql.Date.valueOf(fecha));
+        }
+        String area = opcional(args, 5);
+        empleado.setArea(area != null ? area.toUpperCase() : null);
+
+        Legajo legajo = new Legajo();
+        String categoria = opcional(args, 6);
+        legajo.setCategoria(categoria != null ? categoria.toUpperCase() : null);
+        String estado = opcional(args, 7);
+        legajo.setEstado(estado != null ? Estado.valueOf(estado.toUpperCase()) : null);
+        legajo.setObservaciones(opcional(args, 8));
+        empleado.setLegajo(legajo);
+        return empleado;
+    }
+
+    /**
+     * Clave que no se puede repetir dentro de un lote: el DNI en crear, el ID en los demás comandos.
+     */
+    private static String clave(Comando comando) {
+        return comando.tipo() == TipoComando.CREAR ? comando.argumentos()[2].trim() : comando.argumentos()[0];
+    }
+
+    private static String opcional(String[] args, int indice) {
+        return indice < args.length && !args[indice].isEmpty() ? args[indice] : null;
+    }
+
+    private static Long parsearId(String texto) {
+        try {
+            long id = Long.parseLong(texto);
+            return id > 0 ? id : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Mensaje de la validación original si la hay (los servicios la envuelven en Exception).
+     */
+    private static String mensaje(Exception e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof IllegalArgumentException) {
+                return t.getMessage();
+            }
+        }
+        return e.getMessage();
+    }
+}
@@ -0,0 +1,264 @@
+package tpiprogramacionii.main;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Scanner;
+import java.util.function.Function;
+import tpiprogramacionii.entities.Base;
+import tpiprogramacionii.entities.Empleado;
+import tpiprogramacionii.entities.Legajo;
+import tpiprogramacionii.service.EmpleadoService;
+import tpiprogramacionii.service.LegajoService;
+
+/**
+ * Renderizador de listados en forma de tabla de columnas de ancho fijo.
+ * Cada fila se arma carácter a carácter en un buffer reutilizable (sin concatenar Strings)
+ * y se escribe de una vez sobre un BufferedWriter grande, que solo se vacía al final de cada página.
+ * Las filas se piden al servicio de a una página por vez (paginación por id), así nunca
+ * se tiene el listado completo en memoria.
+ * @param <T> entidad listada
+ */
+public class RenderizadorTabla<T extends Base> {
+
+    private static final int TAMANIO_BUFFER = 64 * 1024;
+    private static final int PAGINA_ARCHIVO = 1000;
+
+    /**
+     * Lectura de una página de entidades activas con id mayor a despuesDeId.
+     */
+    @FunctionalInterface
+    public interface Paginador<T> {
+        List<T> leerPagina(long despuesDeId, int limite) throws Exception;
+    }
+
+    private record Columna<T>(String titulo, int ancho, Function<T, Object> valor) {}
+
+    private final Paginador<T> paginador;
+    private final List<Columna<T>> columnas = new ArrayList<>();
+    private char[] linea = new char[0];
+
+    public RenderizadorTabla(Paginador<T> paginador) {
+        if (paginador == null) {
+            throw new IllegalArgumentException("El paginador no puede ser null");
+        }
+        this.paginador = paginador;
+    }
+
+    /**
+     * Agrega una columna. Los valores pueden ser String, números, fechas o enums;
+     * los que no entran en el ancho se recortan.
+     */
+    public RenderizadorTabla<T> columna(String titulo, int ancho, Function<T, Object> valor) {
+        if (ancho <= 0) {
+            throw new IllegalArgumentException("El ancho de la columna debe ser mayor a 0");
+        }
+        columnas.add(new Columna<>(titulo, ancho, valor));
+        int largo = 0;
+        for (Columna<T> c : columnas) {
+            largo += c.ancho() + 1;
+        }
+        linea = new char[largo];
+        return this;
+    }
+
+    /**
+     * Tabla de empleados activos con los datos principales de su legajo.
+     */
+    public static RenderizadorTabla<Empleado> empleados(EmpleadoService empleadoService) {
+        return new RenderizadorTabla<Empleado>(empleadoService::getPagina)
+                .columna("ID", 8, Empleado::getId)
+                .columna("APELLIDO", 16, Empleado::getApellido)
+                .columna("NOMBRE", 16, Empleado::getNombre)
+                .columna("DNI", 10, Empleado::getDni)
+                .columna("EMAIL", 30, Empleado::getEmail)
+                .columna("INGRESO", 10, Empleado::getFechaIngreso)
+                .columna("AREA", 14, Empleado::getArea)
+                .columna("LEGAJO", 10, e -> e.getLegajo() != null ? e.getLegajo().getNroLegajo() : null)
+                .columna("CATEGORIA", 12, e -> e.getLegajo() != null ? e.getLegajo().getCategoria() : null)
+                .columna("ESTADO", 8, e -> e.getLegajo() != null ? e.getLegajo().getEstado() : null);
+    }
+
+    /**
+     * Tabla de legajos activos.
+     */
+    public static RenderizadorTabla<Legajo> legajos(LegajoService legajoService) {
+        return new RenderizadorTabla<Legajo>(legajoService::getPagina)
+                .columna("ID", 8, Legajo::getId)
+                .columna("NRO LEGAJO", 12, Legajo::getNroLegajo)
+                .columna("CATEGORIA", 14, Legajo::getCategoria)
+                .columna("ESTADO", 8, Legajo::getEstado)
+                .columna("ALTA", 10, Legajo::getFechaAlta)
+                .columna("OBSERVACIONES", 40, Legajo::getObservaciones);
+    }
+
+    /**
+     * Muestra el listado por consola de a una página; la siguiente se pide recién cuando el operador la solicita.
+     * @param scanner entrada del operador
+     * @param tamanioPagina filas por página
+     * @return filas mostradas
+     * @throws Exception si falla la lectura de una página
+     */
+    public long mostrarPaginado(Scanner scanner, int tamanioPagina) throws Exception {
+        // No se cierra: cerraría System.out
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, System.out.charset()), TAMANIO_BUFFER);
+        long despuesDe = 0;
+        long mostradas = 0;
+        int numeroPagina = 1;
+
+        while (true) {
+            List<T> pagina = paginador.leerPagina(despuesDe, tamanioPagina);
+            if (pagina.isEmpty()) {
+                out.write(mostradas == 0 ? "No hay registros activos.\n" : "Fin del listado.\n");
+                out.flush();
+                return mostradas;
+            }
+            escribirEncabezado(out);
+            for (T fila : pagina) {
+                escribirFila(out, fila);
+            }
+            mostradas += pagina.size();
+            despuesDe = pagina.get(pagina.size() - 1).getId();
+
+            if (pagina.size() < tamanioPagina) {
+                out.write("Fin del listado (" + mostradas + " registros).\n");
+                out.flush();
+                return mostradas;
+            }
+            out.write("-- Página " + numeroPagina++ + " (" + mostradas + " registros) -- [Enter] siguiente, [Q] volver: ");
+            out.flush();
+            if (scanner.nextLine().trim().equalsIgnoreCase("Q")) {
+                return mostradas;
+            }
+        }
+    }
+
+    /**
+     * Vuelca el listado completo a un archivo de texto, página por página.
+     * Solo se tiene en memoria una página a la vez.
+     * @param archivo archivo de salida (se sobrescribe)
+     * @return filas escritas
+     * @throws Exception si falla la lectura de una página o la escritura del archivo
+     */
+    public long volcar(Path archivo) throws Exception {
+        long escritas = 0;
+        try (Writer out = new BufferedWriter(Files.newBufferedWriter(archivo, StandardCharsets.UTF_8), TAMANIO_BUFFER)) {
+            escribirEncabezado(out);
+            long despuesDe = 0;
+            List<T> pagina;
+            do {
+                pagina = paginador.leerPagina(despuesDe, PAGINA_ARCHIVO);
+                for (T fila : pagina) {
+                    escribirFila(out, fila);
+                }
+                if (!pagina.isEmpty()) {
+                    escritas += pagina.size();
+                    despuesDe = pagina.get(pagina.size() - 1).getId();
+                }
+            } while (pagina.size() == PAGINA_ARCHIVO);
+        }
+        return escritas;
+    }
+
+    //ESCRITURA DE FILAS -------------------------------------------------------------------------------------------
+
+    private void escribirEncabezado(Writer out) throws IOException {
+        int pos = 0;
+        for (Columna<T> c : columnas) {
+            pos = celdaTexto(c.titulo(), pos, c.ancho());
+        }
+        escribirLinea(out, pos);
+        for (int i = 0; i < pos; i++) {
+            linea[i] = '-';
+        }
+        escribirLinea(out, pos);
+    }
+
+    private void escribirFila(Writer out, T fila) throws IOException {
+        int pos = 0;
+        for (Columna<T> c : columnas) {
+            Object valor = c.valor().apply(fila);
+            if (valor instanceof Number numero) {
+                pos = celdaNumero(numero.longValue(), pos, c.ancho());
+            } else if (valor instanceof Date fecha) {
+                pos = celdaFecha(fecha, pos, c.ancho());
+            } else if (valor instanceof Enum<?> constante) {
+                pos = celdaTexto(constante.name(), pos, c.ancho());
+            } else {
+                pos = celdaTexto(valor == null ? "" : valor.toString(), pos, c.ancho());
+            }
+        }
+        escribirLinea(out, pos);
+    }
+
+    /**
+     * Quita los espacios finales de la fila y la escribe con su salto de línea.
+     */
+    private void escribirLinea(Writer out, int largo) throws IOException {
+        while (largo > 0 && linea[largo - 1] == ' ') {
+            largo--;
+        }
+        out.write(linea, 0, largo);
+        out.write('\n');
+    }
+
+    private int celdaTexto(String texto, int pos, int ancho) {
+        int largo = Math.min(texto.length(), ancho);
+        texto.getChars(0, largo, linea, pos);
+        return rellenar(pos + largo, pos + ancho + 1);
+    }
+
+    private int celdaNumero(long numero, int pos, int ancho) {
+        if (numero < 0 || digitos(numero) > ancho) {
+            return celdaTexto(Long.toString(numero), pos, ancho);
+        }
+        int fin = pos + digitos(numero);
+        for (int i = fin - 1; i >= pos; i--) {
+            linea[i] = (char) ('0' + numero % 10);
+            numero /= 10;
+        }
+        return rellenar(fin, pos + ancho + 1);
+    }
+
+    private int celdaFecha(Date fecha, int pos, int ancho) {
+        if (ancho < 10) {
+            return rellenar(pos, pos + ancho + 1);
+        }
+        LocalDate dia = fecha instanceof java.sql.Date sql
+                ? sql.toLocalDate()
+                : fecha.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        celdaNumero(dia.getYear(), pos, 4);
+        linea[pos + 4] = '-';
+        linea[pos + 5] = (char) ('0' + dia.getMonthValue() / 10);
+        linea[pos + 6] = (char) ('0' + dia.getMonthValue() % 10);
+        linea[pos + 7] = '-';
+        linea[pos + 8] = (char) ('0' + dia.getDayOfMonth() / 10);
+        linea[pos + 9] = (char) ('0' + dia.getDayOfMonth() % 10);
+        return rellenar(pos + 10, pos + ancho + 1);
+    }
+
+    private int rellenar(int desde, int hasta) {
+        for (int i = desde; i < hasta; i++) {
+            linea[i] = ' ';
+        }
+        return hasta;
+    }
+
+    private static int digitos(long numero) {
+        int digitos = 1;
+        while (numero >= 10) {
+            numero /= 10;
+            digitos++;
+        }
+        return digitos;
+    }
+}
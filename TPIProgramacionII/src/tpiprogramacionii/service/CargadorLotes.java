@@ -0,0 +1,246 @@
+package tpiprogramacionii.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * Cargador por lotes (estilo DataLoader): junta los pedidos por clave que llegan dentro de una ventana corta
+ * y los resuelve con una sola consulta (IN-list). El primer pedido de un lote abre la ventana; el lote se
+ * despacha cuando vence la ventana o cuando llega a tamanioMaximo, lo que ocurra primero.
+ * Cada lote se consulta en su propio hilo virtual, así un lote lento no demora la ventana del siguiente.
+ *
+ * Los pedidos repetidos de una clave dentro del mismo lote se consultan una vez; el primero recibe la entidad
+ * leída y los demás una copia (hecha antes de entregársela al primero). Una clave que la consulta no devuelve
+ * se completa con null. Después de detener, los pedidos nuevos fallan con Detenido.
+ *
+ * @param <K> clave (por ejemplo el ID)
+ * @param <V> entidad cargada
+ */
+public final class CargadorLotes<K, V> {
+
+    /** Ventana por defecto, en microsegundos (propiedad del sistema lotes.ventana.micros). */
+    public static final long VENTANA_MICROS = 200;
+
+    /** Tamaño máximo de lote por defecto (propiedad del sistema lotes.maximo). */
+    public static final int TAMANIO_MAXIMO = 100;
+
+    /**
+     * Consulta de un lote: devuelve las entidades encontradas por clave (las que falten se completan con null).
+     */
+    @FunctionalInterface
+    public interface Consulta<K, V> {
+        Map<K, V> cargar(List<K> claves) throws Exception;
+    }
+
+    private final String nombre;
+    private final Consulta<K, V> consulta;
+    private final UnaryOperator<V> copia;
+    private final long ventanaNanos;
+    private final int tamanioMaximo;
+    private final ScheduledExecutorService temporizador;
+
+    // Lote que está juntando pedidos (null si no hay ninguno abierto); protegido por this
+    private Lote<K, V> abierto;
+    // true después de detener (protegido por this): no se abren lotes nuevos
+    private boolean detenido;
+
+    private final LongAdder pedidos = new LongAdder();
+    private final LongAdder lotes = new LongAdder();
+
+    /**
+     * @param nombre nombre del hilo temporizador y de las estadísticas
+     * @param consulta consulta de un lote de claves
+     * @param copia copia que reciben los pedidos repetidos de una clave dentro del lote
+     * @param ventanaMicros espera máxima desde el primer pedido de un lote hasta despacharlo, en microsegundos
+     * @param tamanioMaximo claves distintas por lote (al llegar se despacha sin esperar la ventana)
+     */
+    public CargadorLotes(String nombre, Consulta<K, V> consulta, UnaryOperator<V> copia,
+                         long ventanaMicros, int tamanioMaximo) {
+        if (consulta == null || copia == null) {
+            throw new IllegalArgumentException("La consulta y la copia no pueden ser null");
+        }
+        if (ventanaMicros < 0) {
+            throw new IllegalArgumentException("La ventana no puede ser negativa");
+        }
+        if (tamanioMaximo <= 0) {
+            throw new IllegalArgumentException("El tamaño máximo del lote debe ser mayor a 0");
+        }
+        this.nombre = nombre;
+        this.consulta = consulta;
+        this.copia = copia;
+        this.ventanaNanos = TimeUnit.MICROSECONDS.toNanos(ventanaMicros);
+        this.tamanioMaximo = tamanioMaximo;
+        this.temporizador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "cargador-" + nombre);
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    /**
+     * Pedido rechazado porque el cargador ya se detuvo (por ejemplo, porque se reemplazó por otro):
+     * quien lo recibe puede leer la clave sin el cargador.
+     */
+    public static final class Detenido extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        private Detenido(String mensaje) {
+            super(mensaje);
+        }
+    }
+
+    /**
+     * Ventana configurada con la propiedad del sistema lotes.ventana.micros (por defecto VENTANA_MICROS; 0 desactiva el agrupamiento).
+     */
+    public static long ventanaPorDefecto() {
+        return Long.getLong("lotes.ventana.micros", VENTANA_MICROS);
+    }
+
+    /**
+     * Tamaño máximo configurado con la propiedad del sistema lotes.maximo (por defecto TAMANIO_MAXIMO).
+     */
+    public static int tamanioMaximoPorDefecto() {
+        return Integer.getInteger("lotes.maximo", TAMANIO_MAXIMO);
+    }
+
+    /**
+     * Agrega la clave al lote abierto (o abre uno) sin esperar el resultado.
+     * @return futuro que se completa con la entidad (o null si no existe), con el error de la consulta
+     *         o con Detenido si el cargador ya se detuvo
+     */
+    public CompletableFuture<V> cargar(K clave) {
+        pedidos.increment();
+        CompletableFuture<V> futuro = new CompletableFuture<>();
+        Lote<K, V> despachar = null;
+        synchronized (this) {
+            if (detenido) {
+                futuro.completeExceptionally(new Detenido("El cargador " + nombre + " está detenido"));
+                return futuro;
+            }
+            if (abierto == null) {
+                abierto = new Lote<>();
+                Lote<K, V> nuevo = abierto;
+                temporizador.schedule(() -> vencer(nuevo), ventanaNanos, TimeUnit.NANOSECONDS);
+            }
+            abierto.pedidos.computeIfAbsent(clave, c -> new ArrayList<>(1)).add(futuro);
+            if (abierto.pedidos.size() >= tamanioMaximo) {
+                despachar = abierto;
+                abierto = null;
+            }
+        }
+        if (despachar != null) {
+            despachar(despachar);
+        }
+        return futuro;
+    }
+
+    /**
+     * Carga la clave esperando a que se resuelva su lote.
+     * @return la entidad, o null si no existe
+     * @throws Detenido si el cargador ya se detuvo
+     * @throws Exception el error de la consulta del lote
+     */
+    public V obtener(K clave) throws Exception {
+        try {
+            return cargar(clave).get();
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof Exception excepcion) {
+                throw excepcion;
+            }
+            throw (Error) causa;
+        }
+    }
+
+    /**
+     * @return pedidos recibidos y lotes consultados desde la creación
+     */
+    public Estadisticas getEstadisticas() {
+        return new Estadisticas(nombre, pedidos.sum(), lotes.sum());
+    }
+
+    /**
+     * Detiene el temporizador. Los pedidos de un lote todavía abierto se despachan enseguida;
+     * los que lleguen después fallan con Detenido.
+     */
+    public void detener() {
+        Lote<K, V> pendiente;
+        synchronized (this) {
+            detenido = true;
+            pendiente = abierto;
+            abierto = null;
+        }
+        if (pendiente != null) {
+            despachar(pendiente);
+        }
+        temporizador.shutdownNow();
+    }
+
+    private void vencer(Lote<K, V> lote) {
+        synchronized (this) {
+            // Si ya se despachó por tamaño el temporizador no tiene nada que hacer
+            if (abierto != lote) {
+                return;
+            }
+            abierto = null;
+        }
+        despachar(lote);
+    }
+
+    private void despachar(Lote<K, V> lote) {
+        lotes.increment();
+        Thread.ofVirtual().name("cargador-" + nombre + "-lote").start(() -> resolver(lote));
+    }
+
+    private void resolver(Lote<K, V> lote) {
+        Map<K, V> encontrados;
+        try {
+            encontrados = consulta.cargar(new ArrayList<>(lote.pedidos.keySet()));
+        } catch (Exception | Error e) {
+            for (List<CompletableFuture<V>> futuros : lote.pedidos.values()) {
+                for (CompletableFuture<V> futuro : futuros) {
+                    futuro.completeExceptionally(e);
+                }
+            }
+            return;
+        }
+        for (Map.Entry<K, List<CompletableFuture<V>>> pedido : lote.pedidos.entrySet()) {
+            V valor = encontrados.get(pedido.getKey());
+            List<CompletableFuture<V>> futuros = pedido.getValue();
+            // Las copias se hacen antes de entregar la entidad al primero, que puede modificarla
+            for (int i = 1; i < futuros.size(); i++) {
+                futuros.get(i).complete(valor != null ? copia.apply(valor) : null);
+            }
+            futuros.get(0).complete(valor);
+        }
+    }
+
+    // Pedidos de un lote por clave, en orden de llegada
+    private static final class Lote<K, V> {
+        private final Map<K, List<CompletableFuture<V>>> pedidos = new LinkedHashMap<>();
+    }
+
+    /**
+     * @param nombre nombre del cargador
+     * @param pedidos claves pedidas desde la creación
+     * @param lotes consultas hechas (una por lote)
+     */
+    public record Estadisticas(String nombre, long pedidos, long lotes) {
+
+        @Override
+        public String toString() {
+            return String.format("%-20s pedidos=%d lotes=%d (%.1f por lote)", nombre, pedidos, lotes,
+                    lotes > 0 ? (double) pedidos / lotes : 0.0);
+        }
+    }
+}
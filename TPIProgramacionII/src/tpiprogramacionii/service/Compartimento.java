@@ -0,0 +1,275 @@
+package tpiprogramacionii.service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Compartimento (bulkhead) de acceso a la base: limita cuántas operaciones de un tipo corren a la vez
+ * y cuántas esperan turno, para que una ráfaga de listados o de lotes no deje sin conexiones a las lecturas simples.
+ * Los servicios usan tres compartimentos independientes: LECTURAS (por ID o DNI), ESCRITURAS (una entidad por
+ * transacción) y LOTES (listados, búsquedas, sincronización y operaciones por lotes).
+ *
+ * Admisión:
+ * - si hay lugar (en ejecución por debajo del límite) la operación entra enseguida;
+ * - si no, espera en la cola hasta esperaMaxima; si la cola está llena o se vence la espera se rechaza con
+ *   Saturado sin tocar la base (falla rápido en lugar de sumar carga).
+ *
+ * El límite se adapta con AIMD a la latencia medida de las operaciones: cada operación que termina por debajo de
+ * la latencia objetivo con el compartimento lleno suma 1/límite (aproximadamente +1 por ronda); una que la supera
+ * lo multiplica por FACTOR_REDUCCION, como mucho una vez por latencia objetivo para que una ráfaga de respuestas
+ * lentas no lo lleve al mínimo de golpe.
+ */
+public final class Compartimento {
+
+    private static final Logger LOGGER = Logger.getLogger(Compartimento.class.getName());
+
+    /** Factor de la reducción multiplicativa del límite. */
+    public static final double FACTOR_REDUCCION = 0.9;
+
+    /** Lecturas puntuales (getById, buscarPorDni, getByIds). */
+    public static final Compartimento LECTURAS = new Compartimento("lecturas", 4, 32, 64, 256, 100, 50);
+
+    /** Escrituras de una entidad (altas, cambios y bajas de a uno). */
+    public static final Compartimento ESCRITURAS = new Compartimento("escrituras", 2, 16, 32, 128, 500, 200);
+
+    /** Listados, búsquedas, sincronización incremental y operaciones por lotes. */
+    public static final Compartimento LOTES = new Compartimento("lotes", 1, 4, 8, 16, 1000, 2000);
+
+    private final String nombre;
+    private final int limiteMinimo;
+    private final int limiteMaximo;
+    private final int colaMaxima;
+    private final long esperaMaximaNanos;
+    private final long latenciaObjetivoNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition hayLugar = lock.newCondition();
+    // Protegidos por lock
+    private double limite;
+    private int enEjecucion;
+    private int enCola;
+    private long ultimaReduccion;
+
+    private final LongAdder admitidas = new LongAdder();
+    private final LongAdder rechazadasPorCola = new LongAdder();
+    private final LongAdder rechazadasPorEspera = new LongAdder();
+    private final LongAdder nanosEnCola = new LongAdder();
+    private final LongAdder nanosEnEjecucion = new LongAdder();
+
+    /**
+     * @param nombre nombre para los mensajes y las estadísticas
+     * @param limiteMinimo límite de concurrencia mínimo (el AIMD no baja de acá)
+     * @param limiteInicial límite de concurrencia al arrancar
+     * @param limiteMaximo límite de concurrencia máximo (el AIMD no sube de acá)
+     * @param colaMaxima operaciones que pueden esperar turno (0 para rechazar enseguida si está lleno)
+     * @param esperaMaximaMs espera máxima en la cola, en milisegundos
+     * @param latenciaObjetivoMs latencia de la base por encima de la cual se reduce el límite, en milisegundos
+     */
+    public Compartimento(String nombre, int limiteMinimo, int limiteInicial, int limiteMaximo, int colaMaxima,
+                         long esperaMaximaMs, long latenciaObjetivoMs) {
+        if (limiteMinimo <= 0 || limiteInicial < limiteMinimo || limiteMaximo < limiteInicial) {
+            throw new IllegalArgumentException("Los límites deben cumplir 0 < mínimo <= inicial <= máximo");
+        }
+        if (colaMaxima < 0) {
+            throw new IllegalArgumentException("La cola máxima no puede ser negativa");
+        }
+        if (esperaMaximaMs < 0 || latenciaObjetivoMs <= 0) {
+            throw new IllegalArgumentException("La espera no puede ser negativa y la latencia objetivo debe ser mayor a 0");
+        }
+        this.nombre = nombre;
+        this.limiteMinimo = limiteMinimo;
+        this.limiteMaximo = limiteMaximo;
+        this.colaMaxima = colaMaxima;
+        this.esperaMaximaNanos = TimeUnit.MILLISECONDS.toNanos(esperaMaximaMs);
+        this.latenciaObjetivoNanos = TimeUnit.MILLISECONDS.toNanos(latenciaObjetivoMs);
+        this.limite = limiteInicial;
+    }
+
+    /**
+     * Operación que se ejecuta dentro del compartimento.
+     */
+    @FunctionalInterface
+    public interface Operacion<R> {
+        R ejecutar() throws Exception;
+    }
+
+    /**
+     * La operación no entró al compartimento: cola llena o espera vencida. No llegó a la base.
+     */
+    public static final class Saturado extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        private Saturado(String mensaje) {
+            super(mensaje);
+        }
+    }
+
+    /**
+     * Lugar ocupado en el compartimento; se devuelve con liberar() (en un finally).
+     */
+    public final class Permiso {
+
+        private final long inicio = System.nanoTime();
+        private boolean liberado;
+
+        private Permiso() {
+        }
+
+        /**
+         * Devuelve el lugar y registra la duración de la operación para ajustar el límite.
+         * Llamarlo más de una vez no tiene efecto.
+         */
+        public void liberar() {
+            if (!liberado) {
+                liberado = true;
+                salir(System.nanoTime() - inicio);
+            }
+        }
+    }
+
+    /**
+     * Ejecuta la operación dentro del compartimento.
+     * @throws Saturado si no hay lugar y la cola está llena o la espera se vence
+     * @throws Exception la que lance la operación
+     */
+    public <R> R ejecutar(Operacion<R> operacion) throws Exception {
+        Permiso permiso = entrar();
+        try {
+            return operacion.ejecutar();
+        } finally {
+            permiso.liberar();
+        }
+    }
+
+    /**
+     * Ocupa un lugar, esperando en la cola si hace falta.
+     * @return el permiso a liberar al terminar
+     * @throws Saturado si la cola está llena o la espera se vence (también si se interrumpe la espera)
+     */
+    public Permiso entrar() throws Saturado {
+        long llegada = System.nanoTime();
+        lock.lock();
+        try {
+            // Si ya hay operaciones esperando, la que llega se pone detrás aunque justo se haya liberado un lugar
+            if (enCola == 0 && enEjecucion < (int) limite) {
+                enEjecucion++;
+            } else {
+                if (enCola >= colaMaxima) {
+                    rechazadasPorCola.increment();
+                    throw new Saturado("Compartimento de " + nombre + " saturado: " + enCola + " operaciones en espera");
+                }
+                enCola++;
+                try {
+                    long restante = esperaMaximaNanos;
+                    while (enEjecucion >= (int) limite) {
+                        if (restante <= 0) {
+                            rechazadasPorEspera.increment();
+                            throw new Saturado("Compartimento de " + nombre + " saturado: sin lugar después de "
+                                    + TimeUnit.NANOSECONDS.toMillis(esperaMaximaNanos) + " ms de espera");
+                        }
+                        restante = hayLugar.awaitNanos(restante);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    rechazadasPorEspera.increment();
+                    throw new Saturado("Espera interrumpida en el compartimento de " + nombre);
+                } finally {
+                    enCola--;
+                }
+                enEjecucion++;
+            }
+        } finally {
+            lock.unlock();
+        }
+        admitidas.increment();
+        nanosEnCola.add(System.nanoTime() - llegada);
+        return new Permiso();
+    }
+
+    private void salir(long nanosOperacion) {
+        nanosEnEjecucion.add(nanosOperacion);
+        lock.lock();
+        try {
+            boolean lleno = enEjecucion >= (int) limite;
+            enEjecucion--;
+            long ahora = System.nanoTime();
+            if (nanosOperacion > latenciaObjetivoNanos) {
+                if (ahora - ultimaReduccion >= latenciaObjetivoNanos && limite > limiteMinimo) {
+                    ultimaReduccion = ahora;
+                    limite = Math.max(limiteMinimo, limite * FACTOR_REDUCCION);
+                    LOGGER.log(Level.FINE, "Límite de {0} reducido a {1}", new Object[]{nombre, (int) limite});
+                }
+            } else if (lleno && limite < limiteMaximo) {
+                limite = Math.min(limiteMaximo, limite + 1.0 / limite);
+            }
+            // Se avisa a todos: si el límite subió puede haber lugar para más de uno
+            hayLugar.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return los compartimentos que usan los servicios
+     */
+    public static List<Compartimento> todos() {
+        return List.of(LECTURAS, ESCRITURAS, LOTES);
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * @return estado actual y contadores desde el arranque
+     */
+    public Estadisticas getEstadisticas() {
+        int limiteActual;
+        int ejecutando;
+        int esperando;
+        lock.lock();
+        try {
+            limiteActual = (int) limite;
+            ejecutando = enEjecucion;
+            esperando = enCola;
+        } finally {
+            lock.unlock();
+        }
+        long cantidad = admitidas.sum();
+        return new Estadisticas(nombre, limiteActual, ejecutando, esperando, cantidad,
+                rechazadasPorCola.sum(), rechazadasPorEspera.sum(),
+                cantidad > 0 ? nanosEnCola.sum() / cantidad / 1000 : 0,
+                cantidad > 0 ? nanosEnEjecucion.sum() / cantidad / 1000 : 0);
+    }
+
+    /**
+     * Estadísticas de un compartimento.
+     *
+     * @param nombre nombre del compartimento
+     * @param limite límite de concurrencia actual
+     * @param enEjecucion operaciones en curso
+     * @param enCola operaciones esperando turno
+     * @param admitidas operaciones admitidas desde el arranque
+     * @param rechazadasPorCola rechazadas por cola llena
+     * @param rechazadasPorEspera rechazadas por espera vencida
+     * @param microsMedioEnCola espera media en la cola de las admitidas, en microsegundos
+     * @param microsMedioEnEjecucion duración media de las operaciones terminadas, en microsegundos
+     */
+    public record Estadisticas(String nombre, int limite, int enEjecucion, int enCola, long admitidas,
+                               long rechazadasPorCola, long rechazadasPorEspera,
+                               long microsMedioEnCola, long microsMedioEnEjecucion) {
+
+        @Override
+        public String toString() {
+            return String.format("%-10s límite=%d enEjecución=%d enCola=%d admitidas=%d rechazadas(cola)=%d "
+                    + "rechazadas(espera)=%d esperaMedia=%dµs duraciónMedia=%dµs", nombre, limite, enEjecucion, enCola,
+                    admitidas, rechazadasPorCola, rechazadasPorEspera, microsMedioEnCola, microsMedioEnEjecucion);
+        }
+    }
+}
@@ -2,16 +2,28 @@ package tpiprogramacionii.service;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Pattern;
+import tpiprogramacionii.dao.CambioDAO;
+import tpiprogramacionii.dao.CriterioEmpleado;
 import tpiprogramacionii.dao.EmpleadoDAO;
 import tpiprogramacionii.dao.LegajoDAO;
+import tpiprogramacionii.dao.MarcaCambios;
+import tpiprogramacionii.dao.PaginaCambios;
+import tpiprogramacionii.entities.Cambio;
 import tpiprogramacionii.entities.Empleado;
 import tpiprogramacionii.entities.Estado;
 import tpiprogramacionii.entities.Legajo;
 import tpiprogramacionii.utils.DataBaseConnection;
+import tpiprogramacionii.utils.Fragmentos;
 
 public class EmpleadoService implements GenericService<Empleado> {
     
@@ -21,6 +33,15 @@ public class EmpleadoService implements GenericService<Empleado> {
     
     private final EmpleadoDAO empleadoDAO;
     private final LegajoDAO legajoDAO;
+    // Bandeja de salida: cada modificación registra su cambio en la misma transacción
+    private final CambioDAO cambioDAO;
+    // Observadores avisados después de cada commit (índices, agregados)
+    private final List<ObservadorEmpleado> observadores = new CopyOnWriteArrayList<>();
+    // Lecturas concurrentes del mismo empleado (por ID o por DNI) comparten una sola consulta
+    private final VueloUnico<Long, Empleado> lecturasPorId = new VueloUnico<>("empleado.id", Empleado::new);
+    // getById concurrentes de distintos IDs agrupados en una consulta por lotes (null hasta llamar a agruparLecturasPorId)
+    private volatile CargadorLotes<Long, Empleado> cargadorPorId;
+    private final VueloUnico<String, Empleado> lecturasPorDni = new VueloUnico<>("empleado.dni", Empleado::new);
     
     /**
      * Constructor con inyección de dependencias
@@ -28,20 +49,35 @@ public class EmpleadoService implements GenericService<Empleado> {
      * @param legajoDAO DAO de Legajo
      */
     public EmpleadoService(EmpleadoDAO empleadoDAO, LegajoDAO legajoDAO) {
+        this(empleadoDAO, legajoDAO, new CambioDAO());
+    }
+    
+    /**
+     * Constructor con inyección de dependencias, incluida la bandeja de salida de cambios
+     * @param empleadoDAO DAO de Empleado
+     * @param legajoDAO DAO de Legajo
+     * @param cambioDAO DAO de la bandeja de salida
+     */
+    public EmpleadoService(EmpleadoDAO empleadoDAO, LegajoDAO legajoDAO, CambioDAO cambioDAO) {
         if (empleadoDAO == null) {
             throw new IllegalArgumentException("EmpleadoDAO no puede ser null");
         }
         if (legajoDAO == null) {
             throw new IllegalArgumentException("LegajoDAO no puede ser null");
         }
+        if (cambioDAO == null) {
+            throw new IllegalArgumentException("CambioDAO no puede ser null");
+        }
         this.empleadoDAO = empleadoDAO;
         this.legajoDAO = legajoDAO;
+        this.cambioDAO = cambioDAO;
     }
     
     /**
      * Inserta un nuevo empleado junto con su legajo en una transacción atómica
      * Garantiza la relación 1:1 (un empleado tiene exactamente un legajo)
      * Secuencia: 1) Insertar Empleado, 2) Crear Legajo con ID del empleado, 3) Asociar
+     * Con varios fragmentos todo se hace en el fragmento del DNI, así el par queda en la misma base
      * 
      * @param empleado Empleado a insertar (debe tener nombre, apellido y DNI)
      * @throws Exception Si falla la validación o la transacción
@@ -52,9 +88,11 @@ public class EmpleadoService implements GenericService<Empleado> {
         validarEmpleado(empleado);
         validarDniUnico(empleado.getDni());
         
+        int fragmento = Fragmentos.deClave(empleado.getDni());
+        Compartimento.Permiso permiso = Compartimento.ESCRITURAS.entrar();
         Connection conn = null;
         try {
-            conn = DataBaseConnection.getConnection();
+            conn = DataBaseConnection.getConnection(fragmento);
             conn.setAutoCommit(false);
             
             LOGGER.log(Level.INFO, "Iniciando transacción para insertar empleado: {0} {1}", 
@@ -62,30 +100,17 @@ public class EmpleadoService implements GenericService<Empleado> {
             
             // 1. Insertar Empleado (obtiene ID autogenerado)
             empleadoDAO.insertTx(empleado, conn);
+            Fragmentos.verificarId(empleado.getId(), fragmento);
             LOGGER.log(Level.INFO, "Empleado insertado con ID: {0}", empleado.getId());
             
             // 2. Crear Legajo automáticamente con el ID del empleado
           
-            Legajo legajo = empleado.getLegajo();
-            legajo = (legajo == null) ? new Legajo() : legajo;
-
-            legajo.setNroLegajo("LEG" + String.format("%06d", empleado.getId()));
-
-            legajo.setCategoria(
-                (legajo.getCategoria() == null) ? "JUNIOR" : legajo.getCategoria()
-            );
-
-            legajo.setEstado(
-                (legajo.getEstado() == null) ? Estado.ACTIVO : legajo.getEstado()
-            );
-
-            legajo.setFechaAlta(
-                (legajo.getFechaAlta() == null) ? new java.util.Date() : legajo.getFechaAlta()
-            );
+            Legajo legajo = prepararLegajo(empleado);
             
             
             // 3. Insertar Legajo
             legajoDAO.insertTx(legajo, conn);
+            Fragmentos.verificarId(legajo.getId(), fragmento);
             LOGGER.log(Level.INFO, "Legajo creado con número: {0}", legajo.getNroLegajo());
                         
             
@@ -95,9 +120,14 @@ public class EmpleadoService implements GenericService<Empleado> {
             // 5. Asociar legajo al empleado (relación 1:1)
             empleado.setLegajo(legajo);
             
+            // 6. Registrar el alta en la bandeja de salida
+            cambioDAO.insertarTx(Cambio.de(Cambio.Entidad.EMPLEADO, empleado.getId(), Cambio.Operacion.ALTA, null), conn);
+            
             // Commit exitoso
             conn.commit();
+            olvidarLecturas(List.of(empleado.getId()));
             LOGGER.log(Level.INFO, "Empleado y Legajo insertados exitosamente - Transacción completada");
+            notificarInsertados(List.of(empleado));
             
         } catch (SQLException e) {
             if (conn != null) {
@@ -130,6 +160,7 @@ public class EmpleadoService implements GenericService<Empleado> {
                     LOGGER.log(Level.WARNING, "Error al cerrar conexión", e);
                 }
             }
+            permiso.liberar();
         }
     }
     
@@ -143,9 +174,10 @@ public class EmpleadoService implements GenericService<Empleado> {
         // Validaciones de negocio
         validarEmpleadoParaActualizar(empleado);
         
+        Compartimento.Permiso permiso = Compartimento.ESCRITURAS.entrar();
         Connection conn = null;
         try {
-            conn = DataBaseConnection.getConnection();
+            conn = DataBaseConnection.getConnection(Fragmentos.deId(empleado.getId()));
             conn.setAutoCommit(false);
             
             LOGGER.log(Level.INFO, "Iniciando transacción para actualizar empleado ID: {0}", empleado.getId());
@@ -153,15 +185,19 @@ public class EmpleadoService implements GenericService<Empleado> {
             // Verificar que el empleado existe
             Empleado empleadoExistente = empleadoDAO.leer(empleado.getId());
             if (empleadoExistente == null) {
-                throw new IllegalArgumentException("El empleado con ID " + empleado.getId() + " no existe");
+                throw new EntidadNoEncontrada("El empleado con ID " + empleado.getId() + " no existe");
             }
             
             // Ejecutar actualización
             empleadoDAO.actualizarTx(empleado, conn);
+            cambioDAO.insertarTx(Cambio.de(Cambio.Entidad.EMPLEADO, empleado.getId(), Cambio.Operacion.AREA,
+                    empleado.getArea()), conn);
                   
             // Commit exitoso
             conn.commit();
+            olvidarLecturas(List.of(empleado.getId()));
             LOGGER.log(Level.INFO, "Empleado actualizado exitosamente ID: {0}", empleado.getId());
+            notificarAreas(List.of(empleado));
             
         } catch (SQLException e) {
             if (conn != null) {
@@ -194,6 +230,7 @@ public class EmpleadoService implements GenericService<Empleado> {
                     LOGGER.log(Level.WARNING, "Error al cerrar conexión", e);
                 }
             }
+            permiso.liberar();
         }
     }
     
@@ -210,9 +247,10 @@ public class EmpleadoService implements GenericService<Empleado> {
             throw new IllegalArgumentException("El ID del empleado debe ser mayor a 0");
         }
         
+        Compartimento.Permiso permiso = Compartimento.ESCRITURAS.entrar();
         Connection conn = null;
         try {
-            conn = DataBaseConnection.getConnection();
+            conn = DataBaseConnection.getConnection(Fragmentos.deId(id));
             conn.setAutoCommit(false);
             
             LOGGER.log(Level.INFO, "Iniciando transacción para eliminar empleado ID: {0}", id);
@@ -220,7 +258,7 @@ public class EmpleadoService implements GenericService<Empleado> {
             // Verificar que el empleado existe
             Empleado empleadoExistente = empleadoDAO.leer(id);
             if (empleadoExistente == null) {
-                throw new IllegalArgumentException("El empleado con ID " + id + " no existe o ya está eliminado");
+                throw new EntidadNoEncontrada("El empleado con ID " + id + " no existe o ya está eliminado");
             }
             
             // Obtener el legajo asociado para eliminarlo también
@@ -236,9 +274,14 @@ public class EmpleadoService implements GenericService<Empleado> {
                 LOGGER.log(Level.INFO, "Legajo asociado marcado como eliminado ID: {0}", legajoAsociado.getId());
             }
             
+            // 3. Registrar la baja en la bandeja de salida (incluye la del legajo)
+            cambioDAO.insertarTx(Cambio.de(Cambio.Entidad.EMPLEADO, id, Cambio.Operacion.BAJA, null), conn);
+            
             // Commit exitoso
             conn.commit();
+            olvidarLecturas(List.of(id));
             LOGGER.log(Level.INFO, "Empleado y Legajo eliminados exitosamente - Transacción completada");
+            notificarEliminados(List.of(id));
             
         } catch (SQLException e) {
             if (conn != null) {
@@ -271,6 +314,7 @@ public class EmpleadoService implements GenericService<Empleado> {
                     LOGGER.log(Level.WARNING, "Error al cerrar conexión", e);
                 }
             }
+            permiso.liberar();
         }
     }
     
@@ -288,7 +332,32 @@ public class EmpleadoService implements GenericService<Empleado> {
         
         try {
             LOGGER.log(Level.INFO, "Consultando empleado ID: {0}", id);
-            return empleadoDAO.leer(id);
+            return lecturasPorId.ejecutar(id, () -> leerPorId(id));
+            
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al consultar empleado por ID", e);
+            throw new Exception("Error al obtener empleado: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Obtiene un empleado por su ID, opcionalmente aunque esté dado de baja o archivado
+     * @param id ID del empleado a buscar
+     * @param incluirArchivados true para buscar también entre las bajas lógicas y el archivo
+     * @return Empleado encontrado (las bajas con eliminado = true), o null si no existe
+     * @throws Exception Si ocurre un error al consultar
+     */
+    public Empleado getById(Long id, boolean incluirArchivados) throws Exception {
+        if (!incluirArchivados) {
+            return getById(id);
+        }
+        if (id <= 0) {
+            throw new IllegalArgumentException("El ID del empleado debe ser mayor a 0");
+        }
+        
+        try {
+            LOGGER.log(Level.INFO, "Consultando empleado ID (incluidas bajas y archivo): {0}", id);
+            return Compartimento.LECTURAS.ejecutar(() -> empleadoDAO.leerConBajas(id));
             
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error al consultar empleado por ID", e);
@@ -305,7 +374,7 @@ public class EmpleadoService implements GenericService<Empleado> {
     public List<Empleado> getAll() throws Exception {
         try {
             LOGGER.log(Level.INFO, "Consultando todos los empleados activos");
-            return empleadoDAO.leerTodos();
+            return Compartimento.LOTES.ejecutar(() -> empleadoDAO.leerTodos());
             
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error al consultar todos los empleados", e);
@@ -330,7 +399,37 @@ public class EmpleadoService implements GenericService<Empleado> {
         
         try {
             LOGGER.log(Level.INFO, "Buscando empleado por DNI: {0}", dni);
-            return empleadoDAO.buscarPorDni(dni);
+            return lecturasPorDni.ejecutar(dni, () -> Compartimento.LECTURAS.ejecutar(() -> empleadoDAO.buscarPorDni(dni)));
+            
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al buscar empleado por DNI", e);
+            throw new Exception("Error al buscar empleado por DNI: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Busca un empleado por DNI, opcionalmente aunque esté dado de baja o archivado.
+     * Si hay uno activo devuelve ese; si no, la baja más reciente con ese DNI
+     * @param dni DNI del empleado a buscar
+     * @param incluirArchivados true para buscar también entre las bajas lógicas y el archivo
+     * @return Empleado encontrado (las bajas con eliminado = true), o null si no existe
+     * @throws Exception Si ocurre un error al buscar
+     */
+    public Empleado buscarPorDni(String dni, boolean incluirArchivados) throws Exception {
+        if (!incluirArchivados) {
+            return buscarPorDni(dni);
+        }
+        if (dni == null || dni.trim().isEmpty()) {
+            throw new IllegalArgumentException("El DNI no puede estar vacío");
+        }
+        
+        if (!DNI_PATTERN.matcher(dni.trim()).matches()) {
+            throw new IllegalArgumentException("El DNI debe tener 7 u 8 dígitos numéricos");
+        }
+        
+        try {
+            LOGGER.log(Level.INFO, "Buscando empleado por DNI (incluidas bajas y archivo): {0}", dni);
+            return Compartimento.LECTURAS.ejecutar(() -> empleadoDAO.buscarPorDniConBajas(dni));
             
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error al buscar empleado por DNI", e);
@@ -354,9 +453,10 @@ public class EmpleadoService implements GenericService<Empleado> {
             throw new IllegalArgumentException("La categoría no puede estar vacía");
         }
         
+        Compartimento.Permiso permiso = Compartimento.ESCRITURAS.entrar();
         Connection conn = null;
         try {
-            conn = DataBaseConnection.getConnection();
+            conn = DataBaseConnection.getConnection(Fragmentos.deId(idEmpleado));
             conn.setAutoCommit(false);
             
             LOGGER.log(Level.INFO, "Iniciando transacción para actualizar categoría de legajo del empleado ID: {0}", 
@@ -365,7 +465,7 @@ public class EmpleadoService implements GenericService<Empleado> {
             // Obtener el empleado con su legajo
             Empleado empleado = empleadoDAO.leer(idEmpleado);
             if (empleado == null) {
-                throw new IllegalArgumentException("El empleado con ID " + idEmpleado + " no existe");
+                throw new EntidadNoEncontrada("El empleado con ID " + idEmpleado + " no existe");
             }
             
             if (empleado.getLegajo() == null) {
@@ -376,10 +476,14 @@ public class EmpleadoService implements GenericService<Empleado> {
             Legajo legajo = empleado.getLegajo();
             legajo.setCategoria(nuevaCategoria.trim().toUpperCase());
             legajoDAO.actualizarTx(legajo, conn);
+            cambioDAO.insertarTx(Cambio.de(Cambio.Entidad.LEGAJO, legajo.getId(), Cambio.Operacion.CATEGORIA,
+                    legajo.getCategoria()), conn);
             
             // Commit exitoso
             conn.commit();
+            olvidarLecturas(List.of(idEmpleado));
             LOGGER.log(Level.INFO, "Categoría de legajo actualizada exitosamente");
+            notificarCategoria(idEmpleado, legajo.getCategoria());
             
         } catch (SQLException e) {
             if (conn != null) {
@@ -412,6 +516,437 @@ public class EmpleadoService implements GenericService<Empleado> {
                     LOGGER.log(Level.WARNING, "Error al cerrar conexión", e);
                 }
             }
+            permiso.liberar();
+        }
+    }
+    
+    /**
+     * Obtiene una página de empleados activos ordenada por ID
+     * @param despuesDeId ID del último elemento de la página anterior (0 para la primera página)
+     * @param limite Cantidad máxima de elementos (entre 1 y 1000)
+     * @return Lista de empleados activos con ID mayor a despuesDeId
+     * @throws Exception Si ocurre un error al consultar
+     */
+    public List<Empleado> getPagina(long despuesDeId, int limite) throws Exception {
+        if (despuesDeId < 0) {
+            throw new IllegalArgumentException("El ID de inicio no puede ser negativo");
+        }
+        if (limite <= 0 || limite > 1000) {
+            throw new IllegalArgumentException("El límite de la página debe estar entre 1 y 1000");
+        }
+        
+        try {
+            LOGGER.log(Level.INFO, "Consultando página de empleados posteriores al ID: {0}", despuesDeId);
+            return Compartimento.LOTES.ejecutar(() -> empleadoDAO.leerPagina(despuesDeId, limite));
+            
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al consultar página de empleados", e);
+            throw new Exception("Error al obtener página de empleados: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Busca empleados con filtros, orden y paginación por clave
+     * @param criterio Criterio de búsqueda (para la página siguiente usar criterio.despuesDe(ultimo))
+     * @return Lista de empleados que cumplen el criterio, en el orden pedido
+     * @throws Exception Si ocurre un error al consultar
+     */
+    public List<Empleado> buscar(CriterioEmpleado criterio) throws Exception {
+        if (criterio == null) {
+            throw new IllegalArgumentException("El criterio de búsqueda no puede ser null");
+        }
+        
+        try {
+            LOGGER.log(Level.INFO, "Buscando empleados con criterio: {0}", criterio.getForma());
+            return Compartimento.LOTES.ejecutar(() -> empleadoDAO.buscar(criterio));
+            
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al buscar empleados por criterio", e);
+            throw new Exception("Error al buscar empleados: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Obtiene los empleados modificados después de la marca, incluidos los dados de baja (eliminado = true)
+     * Pensado para sincronizaciones incrementales: se pide con la marca devuelta por la llamada anterior
+     * hasta recibir una página vacía
+     * @param marca Marca de la última fila procesada (MarcaCambios.INICIO para la primera sincronización)
+     * @param limite Cantidad máxima de elementos (entre 1 y 1000)
+     * @return Empleados modificados en orden de modificación y la marca para la próxima llamada
+     * @throws Exception Si ocurre un error al consultar
+     */
+    public PaginaCambios<Empleado> leerCambiadosDesde(MarcaCambios marca, int limite) throws Exception {
+        if (marca == null) {
+            throw new IllegalArgumentException("La marca de cambios no puede ser null");
+        }
+        if (limite <= 0 || limite > 1000) {
+            throw new IllegalArgumentException("El límite de la página debe estar entre 1 y 1000");
+        }
+        
+        try {
+            LOGGER.log(Level.INFO, "Consultando empleados modificados desde la marca: {0}", marca.aTexto());
+            return Compartimento.LOTES.ejecutar(() -> empleadoDAO.leerCambiadosDesde(marca, limite));
+            
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al consultar empleados modificados", e);
+            throw new Exception("Error al obtener empleados modificados: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Registra un observador que será avisado de las altas, bajas y cambios de área y de categoría confirmados
+     * @param observador Observador a registrar
+     */
+    public void agregarObservador(ObservadorEmpleado observador) {
+        if (observador == null) {
+            throw new IllegalArgumentException("El observador no puede ser null");
+        }
+        observadores.add(observador);
+    }
+    
+    /**
+     * Agrupa los getById concurrentes: los que llegan dentro de la ventana (o hasta completar tamanioMaximo)
+     * se resuelven con una sola consulta por lotes (IN-list) en lugar de una por ID.
+     * Pensado para el servidor HTTP, donde llegan muchos getById a la vez; cada getById espera hasta la ventana.
+     * @param ventanaMicros espera máxima para juntar un lote, en microsegundos (0 desactiva el agrupamiento)
+     * @param tamanioMaximo IDs por lote
+     */
+    public synchronized void agruparLecturasPorId(long ventanaMicros, int tamanioMaximo) {
+        CargadorLotes<Long, Empleado> anterior = cargadorPorId;
+        cargadorPorId = ventanaMicros > 0
+                ? new CargadorLotes<>("empleado.id", ids -> Compartimento.LECTURAS.ejecutar(() -> porId(empleadoDAO.leerPorIds(ids))),
+                                      Empleado::new, ventanaMicros, tamanioMaximo)
+                : null;
+        if (anterior != null) {
+            anterior.detener();
+        }
+    }
+    
+    /**
+     * Estadísticas del agrupamiento de getById
+     * @return pedidos y consultas por lotes, o null si el agrupamiento no está activado
+     */
+    public CargadorLotes.Estadisticas getEstadisticasLotes() {
+        CargadorLotes<Long, Empleado> cargador = cargadorPorId;
+        return cargador != null ? cargador.getEstadisticas() : null;
+    }
+    
+    /**
+     * Estadísticas de las lecturas compartidas (getById y buscarPorDni)
+     * @return llamadas recibidas y consultas ahorradas por cada tipo de lectura
+     */
+    public List<VueloUnico.Estadisticas> getEstadisticasLecturas() {
+        return List.of(lecturasPorId.getEstadisticas(), lecturasPorDni.getEstadisticas());
+    }
+    
+    // ============= OPERACIONES POR LOTES =============
+    
+    /**
+     * Inserta varios empleados con sus legajos en una única transacción
+     * Cada paso (empleados, legajos, asociación) se envía como un lote JDBC
+     * Si algún empleado no es válido o su DNI ya existe no se inserta ninguno
+     * Con varios fragmentos hay una transacción por fragmento: si falla una, las de los
+     * fragmentos anteriores ya quedaron confirmadas
+     * 
+     * @param empleados Empleados a insertar (deben tener nombre, apellido y DNI)
+     * @throws LoteIncompleto Si falla un fragmento después de que otros confirmaron (con los ID guardados)
+     * @throws Exception Si falla la validación o la transacción
+     */
+    public void insertarLote(List<Empleado> empleados) throws Exception {
+        if (empleados == null || empleados.isEmpty()) {
+            throw new IllegalArgumentException("El lote de empleados no puede estar vacío");
+        }
+        Set<String> dnis = new HashSet<>();
+        for (Empleado empleado : empleados) {
+            validarEmpleado(empleado);
+            if (!dnis.add(empleado.getDni().trim())) {
+                throw new IllegalArgumentException("El DNI " + empleado.getDni() + " está repetido en el lote");
+            }
+        }
+        Set<String> existentes = empleadoDAO.buscarDnisExistentes(dnis);
+        if (!existentes.isEmpty()) {
+            throw new IllegalArgumentException("Ya existen empleados con los DNI " + existentes);
+        }
+        
+        List<Long> confirmados = new ArrayList<>();
+        for (Map.Entry<Integer, List<Empleado>> grupo : Fragmentos.agrupar(empleados, e -> Fragmentos.deClave(e.getDni())).entrySet()) {
+            try {
+                insertarLote(grupo.getKey(), grupo.getValue());
+            } catch (Exception e) {
+                throw LoteIncompleto.de(confirmados, e);
+            }
+            confirmados.addAll(idsDe(grupo.getValue()));
+        }
+    }
+    
+    private void insertarLote(int fragmento, List<Empleado> empleados) throws Exception {
+        Compartimento.Permiso permiso = Compartimento.LOTES.entrar();
+        Connection conn = null;
+        try {
+            conn = DataBaseConnection.getConnection(fragmento);
+            conn.setAutoCommit(false);
+            
+            LOGGER.log(Level.INFO, "Iniciando transacción para insertar lote de {0} empleados", empleados.size());
+            
+            // 1. Insertar Empleados (obtiene los ID autogenerados)
+            empleadoDAO.insertarLoteTx(empleados, conn);
+            for (Empleado empleado : empleados) {
+                Fragmentos.verificarId(empleado.getId(), fragmento);
+            }
+            
+            // 2. Crear los Legajos con el ID de cada empleado e insertarlos
+            List<Legajo> legajos = new ArrayList<>(empleados.size());
+            for (Empleado empleado : empleados) {
+                Legajo legajo = prepararLegajo(empleado);
+                empleado.setLegajo(legajo);
+                legajos.add(legajo);
+            }
+            legajoDAO.insertarLoteTx(legajos, conn);
+            
+            // 3. Actualizar FK de cada Empleado
+            empleadoDAO.actualizarLegajoIdLoteTx(empleados, conn);
+            
+            // 4. Registrar las altas en la bandeja de salida
+            List<Cambio> cambios = new ArrayList<>(empleados.size());
+            for (Empleado empleado : empleados) {
+                cambios.add(Cambio.de(Cambio.Entidad.EMPLEADO, empleado.getId(), Cambio.Operacion.ALTA, null));
+            }
+            cambioDAO.insertarLoteTx(cambios, conn);
+            
+            conn.commit();
+            olvidarLecturas(idsDe(empleados));
+            LOGGER.log(Level.INFO, "Lote de {0} empleados insertado exitosamente", empleados.size());
+            notificarInsertados(empleados);
+            
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                    LOGGER.log(Level.SEVERE, "Rollback ejecutado por error SQL en inserción por lotes", e);
+                } catch (SQLException rollbackEx) {
+                    LOGGER.log(Level.SEVERE, "Error crítico al hacer rollback", rollbackEx);
+                }
+            }
+            throw new Exception("Error al insertar lote de empleados: " + e.getMessage(), e);
+            
+        } catch (Exception e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                    LOGGER.log(Level.SEVERE, "Rollback ejecutado por error inesperado", e);
+                } catch (SQLException rollbackEx) {
+                    LOGGER.log(Level.SEVERE, "Error crítico al hacer rollback", rollbackEx);
+                }
+            }
+            throw new Exception("Error inesperado al insertar lote de empleados: " + e.getMessage(), e);
+            
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    LOGGER.log(Level.WARNING, "Error al cerrar conexión", e);
+                }
+            }
+            permiso.liberar();
+        }
+    }
+    
+    /**
+     * Actualiza el área de varios empleados en una única transacción
+     * Si algún empleado no existe o está eliminado no se actualiza ninguno
+     * (con varios fragmentos, ninguno de su fragmento: hay una transacción por fragmento)
+     * @param empleados Empleados con ID y nueva área
+     * @throws LoteIncompleto Si falla un fragmento después de que otros confirmaron (con los ID actualizados)
+     * @throws Exception Si falla la validación o la transacción
+     */
+    public void actualizarAreaLote(List<Empleado> empleados) throws Exception {
+        if (empleados == null || empleados.isEmpty()) {
+            throw new IllegalArgumentException("El lote de empleados no puede estar vacío");
+        }
+        for (Empleado empleado : empleados) {
+            validarEmpleadoParaActualizar(empleado);
+        }
+        
+        List<Long> confirmados = new ArrayList<>();
+        for (Map.Entry<Integer, List<Empleado>> grupo : Fragmentos.agrupar(empleados, e -> Fragmentos.deId(e.getId())).entrySet()) {
+            try {
+                actualizarAreaLote(grupo.getKey(), grupo.getValue());
+            } catch (Exception e) {
+                throw LoteIncompleto.de(confirmados, e);
+            }
+            confirmados.addAll(idsDe(grupo.getValue()));
+        }
+    }
+    
+    private void actualizarAreaLote(int fragmento, List<Empleado> empleados) throws Exception {
+        Compartimento.Permiso permiso = Compartimento.LOTES.entrar();
+        Connection conn = null;
+        try {
+            conn = DataBaseConnection.getConnection(fragmento);
+            conn.setAutoCommit(false);
+            
+            LOGGER.log(Level.INFO, "Iniciando transacción para actualizar área de {0} empleados", empleados.size());
+            empleadoDAO.actualizarAreaLoteTx(empleados, conn);
+            List<Cambio> cambios = new ArrayList<>(empleados.size());
+            for (Empleado empleado : empleados) {
+                cambios.add(Cambio.de(Cambio.Entidad.EMPLEADO, empleado.getId(), Cambio.Operacion.AREA, empleado.getArea()));
+            }
+            cambioDAO.insertarLoteTx(cambios, conn);
+            
+            conn.commit();
+            olvidarLecturas(idsDe(empleados));
+            LOGGER.log(Level.INFO, "Área de {0} empleados actualizada exitosamente", empleados.size());
+            notificarAreas(empleados);
+            
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                    LOGGER.log(Level.SEVERE, "Rollback ejecutado por error SQL en actualización por lotes", e);
+                } catch (SQLException rollbackEx) {
+                    LOGGER.log(Level.SEVERE, "Error crítico al hacer rollback", rollbackEx);
+                }
+            }
+            throw new Exception("Error al actualizar lote de empleados: " + e.getMessage(), e);
+            
+        } catch (Exception e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                    LOGGER.log(Level.SEVERE, "Rollback ejecutado por error inesperado", e);
+                } catch (SQLException rollbackEx) {
+                    LOGGER.log(Level.SEVERE, "Error crítico al hacer rollback", rollbackEx);
+                }
+            }
+            throw new Exception("Error inesperado al actualizar lote de empleados: " + e.getMessage(), e);
+            
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    LOGGER.log(Level.WARNING, "Error al cerrar conexión", e);
+                }
+            }
+            permiso.liberar();
+        }
+    }
+    
+    /**
+     * Elimina lógicamente varios empleados y sus legajos en una única transacción
+     * Si algún empleado no existe o ya está eliminado no se elimina ninguno
+     * (con varios fragmentos, ninguno de su fragmento: hay una transacción por fragmento)
+     * @param ids IDs de los empleados a eliminar
+     * @throws LoteIncompleto Si falla un fragmento después de que otros confirmaron (con los ID eliminados)
+     * @throws Exception Si falla la validación o la transacción
+     */
+    public void eliminarLote(List<Long> ids) throws Exception {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("El lote de IDs no puede estar vacío");
+        }
+        for (Long id : ids) {
+            if (id == null || id <= 0) {
+                throw new IllegalArgumentException("El ID del empleado debe ser mayor a 0");
+            }
+        }
+        if (new HashSet<>(ids).size() != ids.size()) {
+            throw new IllegalArgumentException("El lote contiene IDs de empleado repetidos");
+        }
+        
+        List<Long> confirmados = new ArrayList<>();
+        for (Map.Entry<Integer, List<Long>> grupo : Fragmentos.agrupar(ids, Fragmentos::deId).entrySet()) {
+            try {
+                eliminarLote(grupo.getKey(), grupo.getValue());
+            } catch (Exception e) {
+                throw LoteIncompleto.de(confirmados, e);
+            }
+            confirmados.addAll(grupo.getValue());
+        }
+    }
+    
+    private void eliminarLote(int fragmento, List<Long> ids) throws Exception {
+        Compartimento.Permiso permiso = Compartimento.LOTES.entrar();
+        Connection conn = null;
+        try {
+            conn = DataBaseConnection.getConnection(fragmento);
+            conn.setAutoCommit(false);
+            
+            LOGGER.log(Level.INFO, "Iniciando transacción para eliminar lote de {0} empleados", ids.size());
+            
+            // 1. Eliminar los legajos asociados (mientras los empleados siguen activos)
+            legajoDAO.eliminarPorEmpleadoLoteTx(ids, conn);
+            
+            // 2. Eliminar los empleados (baja lógica)
+            empleadoDAO.eliminarLoteTx(ids, conn);
+            
+            // 3. Registrar las bajas en la bandeja de salida
+            List<Cambio> cambios = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                cambios.add(Cambio.de(Cambio.Entidad.EMPLEADO, id, Cambio.Operacion.BAJA, null));
+            }
+            cambioDAO.insertarLoteTx(cambios, conn);
+            
+            conn.commit();
+            olvidarLecturas(ids);
+            LOGGER.log(Level.INFO, "Lote de {0} empleados eliminado exitosamente", ids.size());
+            notificarEliminados(ids);
+            
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                    LOGGER.log(Level.SEVERE, "Rollback ejecutado por error SQL en eliminación por lotes", e);
+                } catch (SQLException rollbackEx) {
+                    LOGGER.log(Level.SEVERE, "Error crítico al hacer rollback", rollbackEx);
+                }
+            }
+            throw new Exception("Error al eliminar lote de empleados: " + e.getMessage(), e);
+            
+        } catch (Exception e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                    LOGGER.log(Level.SEVERE, "Rollback ejecutado por error inesperado", e);
+                } catch (SQLException rollbackEx) {
+                    LOGGER.log(Level.SEVERE, "Error crítico al hacer rollback", rollbackEx);
+                }
+            }
+            throw new Exception("Error inesperado al eliminar lote de empleados: " + e.getMessage(), e);
+            
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    LOGGER.log(Level.WARNING, "Error al cerrar conexión", e);
+                }
+            }
+            permiso.liberar();
+        }
+    }
+    
+    /**
+     * Obtiene varios empleados por ID con una sola consulta
+     * @param ids IDs de los empleados a buscar
+     * @return Empleados activos encontrados (los IDs inexistentes se omiten)
+     * @throws Exception Si ocurre un error al consultar
+     */
+    public List<Empleado> getByIds(List<Long> ids) throws Exception {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("La lista de IDs no puede estar vacía");
+        }
+        
+        try {
+            LOGGER.log(Level.INFO, "Consultando {0} empleados por ID", ids.size());
+            return Compartimento.LECTURAS.ejecutar(() -> empleadoDAO.leerPorIds(ids));
+            
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al consultar empleados por ID", e);
+            throw new Exception("Error al obtener empleados: " + e.getMessage(), e);
         }
     }
     
@@ -502,4 +1037,130 @@ public class EmpleadoService implements GenericService<Empleado> {
             throw new IllegalArgumentException("Ya existe un empleado con el DNI " + dni);
         }
     }
+    
+    /**
+     * Completa el legajo que se crea junto con un empleado recién insertado
+     * Número LEG + ID del empleado; categoría, estado y fecha de alta por defecto si no vienen
+     * @param empleado Empleado con ID ya asignado
+     * @return Legajo listo para insertar
+     */
+    private Legajo prepararLegajo(Empleado empleado) {
+        Legajo legajo = empleado.getLegajo();
+        legajo = (legajo == null) ? new Legajo() : legajo;
+
+        legajo.setNroLegajo("LEG" + String.format("%06d", empleado.getId()));
+
+        legajo.setCategoria(
+            (legajo.getCategoria() == null) ? "JUNIOR" : legajo.getCategoria()
+        );
+
+        legajo.setEstado(
+            (legajo.getEstado() == null) ? Estado.ACTIVO : legajo.getEstado()
+        );
+
+        legajo.setFechaAlta(
+            (legajo.getFechaAlta() == null) ? new java.util.Date() : legajo.getFechaAlta()
+        );
+        return legajo;
+    }
+    
+    /**
+     * Después del commit de una escritura: las lecturas que lleguen desde ahora no se suman a una consulta
+     * empezada antes de la escritura. Las de DNI se olvidan todas (la escritura por ID no conoce el DNI).
+     */
+    private void olvidarLecturas(List<Long> ids) {
+        for (Long id : ids) {
+            lecturasPorId.olvidar(id);
+        }
+        lecturasPorDni.olvidarTodas();
+    }
+    
+    private static List<Long> idsDe(List<Empleado> empleados) {
+        List<Long> ids = new ArrayList<>(empleados.size());
+        for (Empleado empleado : empleados) {
+            ids.add(empleado.getId());
+        }
+        return ids;
+    }
+    
+    /**
+     * Avisa las altas a los observadores. Se llama después del commit: un error
+     * en un observador se registra pero no afecta a la operación ya confirmada.
+     */
+    private void notificarInsertados(List<Empleado> empleados) {
+        for (ObservadorEmpleado observador : observadores) {
+            try {
+                for (Empleado empleado : empleados) {
+                    observador.empleadoInsertado(empleado);
+                }
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Error al notificar alta de empleados a un observador", e);
+            }
+        }
+    }
+    
+    /**
+     * Avisa las bajas a los observadores (después del commit, igual que las altas).
+     */
+    private void notificarEliminados(List<Long> ids) {
+        for (ObservadorEmpleado observador : observadores) {
+            try {
+                for (Long id : ids) {
+                    observador.empleadoEliminado(id);
+                }
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Error al notificar baja de empleados a un observador", e);
+            }
+        }
+    }
+    
+    /**
+     * Avisa los cambios de área a los observadores (después del commit, igual que las altas).
+     */
+    private void notificarAreas(List<Empleado> empleados) {
+        for (ObservadorEmpleado observador : observadores) {
+            try {
+                for (Empleado empleado : empleados) {
+                    observador.areaActualizada(empleado.getId(), empleado.getArea());
+                }
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Error al notificar cambio de área a un observador", e);
+            }
+        }
+    }
+    
+    /**
+     * Avisa el cambio de categoría del legajo de un empleado (después del commit, igual que las altas).
+     */
+    private void notificarCategoria(Long idEmpleado, String categoria) {
+        for (ObservadorEmpleado observador : observadores) {
+            try {
+                observador.categoriaLegajoActualizada(idEmpleado, categoria);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Error al notificar cambio de categoría a un observador", e);
+            }
+        }
+    }
+    
+    // Lectura de un ID: por el cargador de lotes si está activado, si no con su propia consulta
+    // (también si el cargador se detuvo porque agruparLecturasPorId lo reemplazó mientras tanto)
+    private Empleado leerPorId(Long id) throws Exception {
+        CargadorLotes<Long, Empleado> cargador = cargadorPorId;
+        if (cargador != null) {
+            try {
+                return cargador.obtener(id);
+            } catch (CargadorLotes.Detenido e) {
+                // Se lee sin el cargador
+            }
+        }
+        return Compartimento.LECTURAS.ejecutar(() -> empleadoDAO.leer(id));
+    }
+    
+    private static Map<Long, Empleado> porId(List<Empleado> encontrados) {
+        Map<Long, Empleado> porId = new HashMap<>(encontrados.size() * 2);
+        for (Empleado encontrado : encontrados) {
+            porId.put(encontrado.getId(), encontrado);
+        }
+        return porId;
+    }
 }
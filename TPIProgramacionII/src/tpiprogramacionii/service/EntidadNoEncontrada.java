@@ -0,0 +1,14 @@
+package tpiprogramacionii.service;
+
+/**
+ * La entidad pedida por ID no existe o está eliminada. Es una IllegalArgumentException (los llamadores que ya
+ * tratan las validaciones la siguen tratando igual), pero el servidor HTTP la distingue para responder 404.
+ */
+public class EntidadNoEncontrada extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    public EntidadNoEncontrada(String mensaje) {
+        super(mensaje);
+    }
+}
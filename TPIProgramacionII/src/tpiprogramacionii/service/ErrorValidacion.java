@@ -0,0 +1,35 @@
+package tpiprogramacionii.service;
+
+/**
+ * Errores que detecta el motor de validación de empleados.
+ * Los mensajes son los mismos que usa la validación de EmpleadoService.insertar.
+ * Cada error ocupa un bit, así un registro puede acumular varios en un int.
+ */
+public enum ErrorValidacion {
+    EMPLEADO_NULL("El empleado no puede ser null"),
+    NOMBRE_OBLIGATORIO("El nombre del empleado es obligatorio"),
+    NOMBRE_CORTO("El nombre debe tener al menos 2 caracteres"),
+    APELLIDO_OBLIGATORIO("El apellido del empleado es obligatorio"),
+    APELLIDO_CORTO("El apellido debe tener al menos 2 caracteres"),
+    DNI_OBLIGATORIO("El DNI del empleado es obligatorio"),
+    DNI_FORMATO("El DNI debe contener 7 u 8 dígitos numéricos"),
+    EMAIL_FORMATO("El formato del email no es válido"),
+    AREA_CORTA("El área debe tener al menos 2 caracteres");
+
+    private final String mensaje;
+
+    ErrorValidacion(String mensaje) {
+        this.mensaje = mensaje;
+    }
+
+    public String getMensaje() {
+        return mensaje;
+    }
+
+    /**
+     * @return bit que representa a este error dentro de una máscara
+     */
+    public int bit() {
+        return 1 << ordinal();
+    }
+}
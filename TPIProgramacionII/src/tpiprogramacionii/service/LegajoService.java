@@ -2,13 +2,28 @@ package tpiprogramacionii.service;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import tpiprogramacionii.dao.CambioDAO;
+import tpiprogramacionii.dao.CompresionObservaciones;
+import tpiprogramacionii.dao.CriterioLegajo;
 import tpiprogramacionii.dao.LegajoDAO;
+import tpiprogramacionii.dao.MarcaCambios;
+import tpiprogramacionii.dao.ObservacionDAO;
+import tpiprogramacionii.dao.PaginaCambios;
+import tpiprogramacionii.entities.Cambio;
 import tpiprogramacionii.entities.Estado;
 import tpiprogramacionii.entities.Legajo;
+import tpiprogramacionii.entities.Observacion;
 import tpiprogramacionii.utils.DataBaseConnection;
+import tpiprogramacionii.utils.Fragmentos;
 
 /**
  * Servicio para la gestión de Legajos
@@ -20,20 +35,58 @@ public class LegajoService implements GenericService<Legajo> {
     
     private static final Logger LOGGER = Logger.getLogger(LegajoService.class.getName());
     private final LegajoDAO legajoDAO;
+    // Bandeja de salida: cada modificación registra su cambio en la misma transacción
+    private final CambioDAO cambioDAO;
+    // Historial de observaciones de cada legajo (solo se agregan notas)
+    private final ObservacionDAO observacionDAO;
+    // Componentes que mantienen datos derivados (agregados, etc.); se avisan después de cada commit
+    private final List<ObservadorLegajo> observadores = new CopyOnWriteArrayList<>();
+    // Lecturas concurrentes del mismo legajo comparten una sola consulta (las escrituras la olvidan después del commit)
+    private final VueloUnico<Long, Legajo> lecturasPorId = new VueloUnico<>("legajo.id", Legajo::new);
+    // getById concurrentes de distintos IDs agrupados en una consulta por lotes (null hasta llamar a agruparLecturasPorId)
+    private volatile CargadorLotes<Long, Legajo> cargadorPorId;
     
     /**
      * Constructor con inyección de dependencia
      * @param legajoDAO DAO de Legajo para acceso a datos
      */
     public LegajoService(LegajoDAO legajoDAO) {
+        this(legajoDAO, new CambioDAO());
+    }
+    
+    /**
+     * Constructor con inyección de dependencias, incluida la bandeja de salida de cambios
+     * @param legajoDAO DAO de Legajo para acceso a datos
+     * @param cambioDAO DAO de la bandeja de salida
+     */
+    public LegajoService(LegajoDAO legajoDAO, CambioDAO cambioDAO) {
+        this(legajoDAO, cambioDAO, new ObservacionDAO());
+    }
+    
+    /**
+     * Constructor con inyección de dependencias, incluido el historial de observaciones
+     * @param legajoDAO DAO de Legajo para acceso a datos
+     * @param cambioDAO DAO de la bandeja de salida
+     * @param observacionDAO DAO del historial de observaciones
+     */
+    public LegajoService(LegajoDAO legajoDAO, CambioDAO cambioDAO, ObservacionDAO observacionDAO) {
         if (legajoDAO == null) {
             throw new IllegalArgumentException("LegajoDAO no puede ser null");
         }
+        if (cambioDAO == null) {
+            throw new IllegalArgumentException("CambioDAO no puede ser null");
+        }
+        if (observacionDAO == null) {
+            throw new IllegalArgumentException("ObservacionDAO no puede ser null");
+        }
         this.legajoDAO = legajoDAO;
+        this.cambioDAO = cambioDAO;
+        this.observacionDAO = observacionDAO;
     }
     
     /**
      * Inserta un nuevo legajo con validaciones y control transaccional
+     * Con varios fragmentos se inserta en el que corresponde a su número de legajo
      * @param legajo Legajo a insertar
      * @throws Exception Si falla la validación o la transacción
      */
@@ -42,15 +95,19 @@ public class LegajoService implements GenericService<Legajo> {
         // Validaciones de negocio
         validarLegajo(legajo);
         
+        int fragmento = Fragmentos.deClave(legajo.getNroLegajo());
+        Compartimento.Permiso permiso = Compartimento.ESCRITURAS.entrar();
         Connection conn = null;
         try {
-            conn = DataBaseConnection.getConnection();
+            conn = DataBaseConnection.getConnection(fragmento);
             conn.setAutoCommit(false);
             
             LOGGER.log(Level.INFO, "Iniciando transacción para insertar legajo: {0}", legajo.getNroLegajo());
             
             // Ejecutar inserción
             legajoDAO.insertTx(legajo, conn);
+            Fragmentos.verificarId(legajo.getId(), fragmento);
+            cambioDAO.insertarTx(Cambio.de(Cambio.Entidad.LEGAJO, legajo.getId(), Cambio.Operacion.ALTA, null), conn);
             
             // Commit exitoso
             conn.commit();
@@ -90,6 +147,7 @@ public class LegajoService implements GenericService<Legajo> {
                     LOGGER.log(Level.WARNING, "Error al cerrar conexión", e);
                 }
             }
+            permiso.liberar();
         }
     }
     
@@ -103,9 +161,10 @@ public class LegajoService implements GenericService<Legajo> {
         // Validaciones de negocio
         validarLegajoParaActualizar(legajo);
         
+        Compartimento.Permiso permiso = Compartimento.ESCRITURAS.entrar();
         Connection conn = null;
         try {
-            conn = DataBaseConnection.getConnection();
+            conn = DataBaseConnection.getConnection(Fragmentos.deId(legajo.getId()));
             conn.setAutoCommit(false);
             
             LOGGER.log(Level.INFO, "Iniciando transacción para actualizar legajo ID: {0}", legajo.getId());
@@ -113,15 +172,19 @@ public class LegajoService implements GenericService<Legajo> {
             // Verificar que el legajo existe
             Legajo legajoExistente = legajoDAO.leer(legajo.getId());
             if (legajoExistente == null) {
-                throw new IllegalArgumentException("El legajo con ID " + legajo.getId() + " no existe");
+                throw new EntidadNoEncontrada("El legajo con ID " + legajo.getId() + " no existe");
             }
             
             // Ejecutar actualización
             legajoDAO.actualizarTx(legajo, conn);
+            cambioDAO.insertarTx(Cambio.de(Cambio.Entidad.LEGAJO, legajo.getId(), Cambio.Operacion.CATEGORIA,
+                    legajo.getCategoria()), conn);
             
             // Commit exitoso
             conn.commit();
+            lecturasPorId.olvidar(legajo.getId());
             LOGGER.log(Level.INFO, "Legajo actualizado exitosamente ID: {0}", legajo.getId());
+            notificar(observador -> observador.categoriaActualizada(legajo.getId(), legajo.getCategoria()));
             
         } catch (SQLException e) {
             if (conn != null) {
@@ -154,6 +217,7 @@ public class LegajoService implements GenericService<Legajo> {
                     LOGGER.log(Level.WARNING, "Error al cerrar conexión", e);
                 }
             }
+            permiso.liberar();
         }
     }
     
@@ -168,9 +232,10 @@ public class LegajoService implements GenericService<Legajo> {
             throw new IllegalArgumentException("El ID del legajo debe ser mayor a 0");
         }
         
+        Compartimento.Permiso permiso = Compartimento.ESCRITURAS.entrar();
         Connection conn = null;
         try {
-            conn = DataBaseConnection.getConnection();
+            conn = DataBaseConnection.getConnection(Fragmentos.deId(id));
             conn.setAutoCommit(false);
             
             LOGGER.log(Level.INFO, "Iniciando transacción para eliminar legajo ID: {0}", id);
@@ -178,15 +243,18 @@ public class LegajoService implements GenericService<Legajo> {
             // Verificar que el legajo existe
             Legajo legajoExistente = legajoDAO.leer(id);
             if (legajoExistente == null) {
-                throw new IllegalArgumentException("El legajo con ID " + id + " no existe o ya está eliminado");
+                throw new EntidadNoEncontrada("El legajo con ID " + id + " no existe o ya está eliminado");
             }
             
             // Ejecutar eliminación lógica
             legajoDAO.eliminarTx(id, conn);
+            cambioDAO.insertarTx(Cambio.de(Cambio.Entidad.LEGAJO, id, Cambio.Operacion.BAJA, null), conn);
             
             // Commit exitoso
             conn.commit();
+            lecturasPorId.olvidar(id);
             LOGGER.log(Level.INFO, "Legajo eliminado exitosamente ID: {0}", id);
+            notificar(observador -> observador.legajoEliminado(id));
             
         } catch (SQLException e) {
             if (conn != null) {
@@ -219,6 +287,7 @@ public class LegajoService implements GenericService<Legajo> {
                     LOGGER.log(Level.WARNING, "Error al cerrar conexión", e);
                 }
             }
+            permiso.liberar();
         }
     }
     
@@ -236,7 +305,7 @@ public class LegajoService implements GenericService<Legajo> {
         
         try {
             LOGGER.log(Level.INFO, "Consultando legajo ID: {0}", id);
-            return legajoDAO.leer(id);
+            return lecturasPorId.ejecutar(id, () -> leerPorId(id));
             
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error al consultar legajo por ID", e);
@@ -253,7 +322,7 @@ public class LegajoService implements GenericService<Legajo> {
     public List<Legajo> getAll() throws Exception {
         try {
             LOGGER.log(Level.INFO, "Consultando todos los legajos activos");
-            return legajoDAO.leerTodos();
+            return Compartimento.LOTES.ejecutar(() -> legajoDAO.leerTodos());
             
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error al consultar todos los legajos", e);
@@ -275,9 +344,10 @@ public class LegajoService implements GenericService<Legajo> {
             throw new IllegalArgumentException("El estado no puede ser null");
         }
         
+        Compartimento.Permiso permiso = Compartimento.ESCRITURAS.entrar();
         Connection conn = null;
         try {
-            conn = DataBaseConnection.getConnection();
+            conn = DataBaseConnection.getConnection(Fragmentos.deId(id));
             conn.setAutoCommit(false);
             
             LOGGER.log(Level.INFO, "Iniciando transacción para cambiar estado de legajo ID: {0} a {1}", 
@@ -286,15 +356,18 @@ public class LegajoService implements GenericService<Legajo> {
             // Verificar que el legajo existe
             Legajo legajoExistente = legajoDAO.leer(id);
             if (legajoExistente == null) {
-                throw new IllegalArgumentException("El legajo con ID " + id + " no existe");
+                throw new EntidadNoEncontrada("El legajo con ID " + id + " no existe");
             }
             
-            // Cambiar estado
-            legajoDAO.cambiarEstado(id, nuevoEstado);
+            // Cambiar estado (en la transacción, junto con su registro en la bandeja de salida)
+            legajoDAO.cambiarEstadoTx(id, nuevoEstado, conn);
+            cambioDAO.insertarTx(Cambio.de(Cambio.Entidad.LEGAJO, id, Cambio.Operacion.ESTADO, nuevoEstado.name()), conn);
             
             // Commit exitoso
             conn.commit();
+            lecturasPorId.olvidar(id);
             LOGGER.log(Level.INFO, "Estado de legajo cambiado exitosamente ID: {0}", id);
+            notificar(observador -> observador.estadoActualizado(id, nuevoEstado));
             
         } catch (SQLException e) {
             if (conn != null) {
@@ -327,6 +400,350 @@ public class LegajoService implements GenericService<Legajo> {
                     LOGGER.log(Level.WARNING, "Error al cerrar conexión", e);
                 }
             }
+            permiso.liberar();
+        }
+    }
+    
+    /**
+     * Obtiene una página de legajos activos ordenada por ID
+     * @param despuesDeId ID del último elemento de la página anterior (0 para la primera página)
+     * @param limite Cantidad máxima de elementos (entre 1 y 1000)
+     * @return Lista de legajos activos con ID mayor a despuesDeId
+     * @throws Exception Si ocurre un error al consultar
+     */
+    public List<Legajo> getPagina(long despuesDeId, int limite) throws Exception {
+        if (despuesDeId < 0) {
+            throw new IllegalArgumentException("El ID de inicio no puede ser negativo");
+        }
+        if (limite <= 0 || limite > 1000) {
+            throw new IllegalArgumentException("El límite de la página debe estar entre 1 y 1000");
+        }
+        
+        try {
+            LOGGER.log(Level.INFO, "Consultando página de legajos posteriores al ID: {0}", despuesDeId);
+            return Compartimento.LOTES.ejecutar(() -> legajoDAO.leerPagina(despuesDeId, limite));
+            
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al consultar página de legajos", e);
+            throw new Exception("Error al obtener página de legajos: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Agrega una nota al historial de observaciones de un legajo activo, con control transaccional
+     * Es un INSERT: no lee ni reescribe las notas anteriores (ver ObservacionDAO)
+     * @param legajoId ID del legajo
+     * @param texto Texto de la nota
+     * @return ID de la nota agregada
+     * @throws Exception Si falla la validación o la transacción
+     */
+    public long agregarObservacion(Long legajoId, String texto) throws Exception {
+        if (legajoId == null || legajoId <= 0) {
+            throw new IllegalArgumentException("El ID del legajo debe ser mayor a 0");
+        }
+        if (texto == null || texto.trim().isEmpty()) {
+            throw new IllegalArgumentException("El texto de la observación es obligatorio");
+        }
+        
+        Compartimento.Permiso permiso = Compartimento.ESCRITURAS.entrar();
+        Connection conn = null;
+        try {
+            conn = DataBaseConnection.getConnection(Fragmentos.deId(legajoId));
+            conn.setAutoCommit(false);
+            
+            LOGGER.log(Level.INFO, "Iniciando transacción para agregar una observación al legajo ID: {0}", legajoId);
+            
+            // Agregar la nota (bloquea el legajo y verifica que exista)
+            long id = observacionDAO.agregarTx(legajoId, texto.trim(), conn);
+            if (id == 0) {
+                throw new EntidadNoEncontrada("El legajo con ID " + legajoId + " no existe o está eliminado");
+            }
+            cambioDAO.insertarTx(Cambio.de(Cambio.Entidad.LEGAJO, legajoId, Cambio.Operacion.OBSERVACION, String.valueOf(id)), conn);
+            
+            // Commit exitoso
+            conn.commit();
+            lecturasPorId.olvidar(legajoId);
+            LOGGER.log(Level.INFO, "Observación agregada exitosamente al legajo ID: {0}", legajoId);
+            return id;
+            
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                    LOGGER.log(Level.SEVERE, "Rollback ejecutado por error al agregar una observación", e);
+                } catch (SQLException rollbackEx) {
+                    LOGGER.log(Level.SEVERE, "Error al hacer rollback", rollbackEx);
+                }
+            }
+            throw new Exception("Error al agregar la observación: " + e.getMessage(), e);
+            
+        } catch (Exception e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                    LOGGER.log(Level.SEVERE, "Rollback ejecutado por error inesperado", e);
+                } catch (SQLException rollbackEx) {
+                    LOGGER.log(Level.SEVERE, "Error al hacer rollback", rollbackEx);
+                }
+            }
+            throw new Exception("Error inesperado al agregar la observación: " + e.getMessage(), e);
+            
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    LOGGER.log(Level.WARNING, "Error al cerrar conexión", e);
+                }
+            }
+            permiso.liberar();
+        }
+    }
+    
+    /**
+     * Obtiene las últimas notas del historial de observaciones de un legajo, de la más nueva a la más vieja
+     * Para la página siguiente se pide con el ID de la última nota recibida
+     * @param legajoId ID del legajo
+     * @param antesDeId ID de la última nota de la página anterior (0 para la primera página)
+     * @param limite Cantidad máxima de notas (entre 1 y 1000)
+     * @return Notas con ID menor a antesDeId
+     * @throws Exception Si ocurre un error al consultar
+     */
+    public List<Observacion> getObservaciones(Long legajoId, long antesDeId, int limite) throws Exception {
+        if (legajoId == null || legajoId <= 0) {
+            throw new IllegalArgumentException("El ID del legajo debe ser mayor a 0");
+        }
+        if (antesDeId < 0) {
+            throw new IllegalArgumentException("El ID de inicio no puede ser negativo");
+        }
+        if (limite <= 0 || limite > 1000) {
+            throw new IllegalArgumentException("El límite de la página debe estar entre 1 y 1000");
+        }
+        
+        try {
+            LOGGER.log(Level.INFO, "Consultando observaciones del legajo ID: {0}", legajoId);
+            return Compartimento.LECTURAS.ejecutar(() -> observacionDAO.leerUltimas(legajoId, antesDeId, limite));
+            
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al consultar observaciones del legajo", e);
+            throw new Exception("Error al obtener las observaciones del legajo: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Informe del espacio que ocupan las observaciones: filas comprimidas y bytes guardados contra originales.
+     * Recorre la tabla leyendo solo largos y cabeceras (ver LegajoDAO.informeObservaciones).
+     * @return el informe
+     * @throws Exception Si ocurre un error al consultar
+     */
+    public CompresionObservaciones.Informe getInformeObservaciones() throws Exception {
+        try {
+            LOGGER.log(Level.INFO, "Calculando el informe de compresión de observaciones");
+            return Compartimento.LOTES.ejecutar(() -> legajoDAO.informeObservaciones());
+            
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al calcular el informe de compresión de observaciones", e);
+            throw new Exception("Error al obtener el informe de observaciones: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Busca legajos con filtros, orden y paginación por clave
+     * @param criterio Criterio de búsqueda (para la página siguiente usar criterio.despuesDe(ultimo))
+     * @return Lista de legajos que cumplen el criterio, en el orden pedido
+     * @throws Exception Si ocurre un error al consultar
+     */
+    public List<Legajo> buscar(CriterioLegajo criterio) throws Exception {
+        if (criterio == null) {
+            throw new IllegalArgumentException("El criterio de búsqueda no puede ser null");
+        }
+        
+        try {
+            LOGGER.log(Level.INFO, "Buscando legajos con criterio: {0}", criterio.getForma());
+            return Compartimento.LOTES.ejecutar(() -> legajoDAO.buscar(criterio));
+            
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al buscar legajos por criterio", e);
+            throw new Exception("Error al buscar legajos: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Obtiene los legajos modificados después de la marca, incluidos los dados de baja (eliminado = true)
+     * Pensado para sincronizaciones incrementales: se pide con la marca devuelta por la llamada anterior
+     * hasta recibir una página vacía
+     * @param marca Marca de la última fila procesada (MarcaCambios.INICIO para la primera sincronización)
+     * @param limite Cantidad máxima de elementos (entre 1 y 1000)
+     * @return Legajos modificados en orden de modificación y la marca para la próxima llamada
+     * @throws Exception Si ocurre un error al consultar
+     */
+    public PaginaCambios<Legajo> leerCambiadosDesde(MarcaCambios marca, int limite) throws Exception {
+        if (marca == null) {
+            throw new IllegalArgumentException("La marca de cambios no puede ser null");
+        }
+        if (limite <= 0 || limite > 1000) {
+            throw new IllegalArgumentException("El límite de la página debe estar entre 1 y 1000");
+        }
+        
+        try {
+            LOGGER.log(Level.INFO, "Consultando legajos modificados desde la marca: {0}", marca.aTexto());
+            return Compartimento.LOTES.ejecutar(() -> legajoDAO.leerCambiadosDesde(marca, limite));
+            
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al consultar legajos modificados", e);
+            throw new Exception("Error al obtener legajos modificados: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Cambia el estado de varios legajos en una única transacción (un lote JDBC)
+     * Si algún legajo no existe o está eliminado no se modifica ninguno
+     * (con varios fragmentos, ninguno de su fragmento: hay una transacción por fragmento)
+     * @param cambios ID de legajo y nuevo estado, en el orden en que se aplican
+     * @throws LoteIncompleto Si falla un fragmento después de que otros confirmaron (con los ID cambiados)
+     * @throws Exception Si falla la validación o la transacción
+     */
+    public void cambiarEstadoLote(Map<Long, Estado> cambios) throws Exception {
+        if (cambios == null || cambios.isEmpty()) {
+            throw new IllegalArgumentException("El lote de cambios de estado no puede estar vacío");
+        }
+        for (Map.Entry<Long, Estado> cambio : cambios.entrySet()) {
+            if (cambio.getKey() == null || cambio.getKey() <= 0) {
+                throw new IllegalArgumentException("El ID del legajo debe ser mayor a 0");
+            }
+            if (cambio.getValue() == null) {
+                throw new IllegalArgumentException("El estado no puede ser null");
+            }
+        }
+        
+        List<Long> confirmados = new ArrayList<>();
+        for (Map.Entry<Integer, List<Long>> grupo : Fragmentos.agrupar(cambios.keySet(), Fragmentos::deId).entrySet()) {
+            Map<Long, Estado> delFragmento = new LinkedHashMap<>();
+            for (Long id : grupo.getValue()) {
+                delFragmento.put(id, cambios.get(id));
+            }
+            try {
+                cambiarEstadoLote(grupo.getKey(), delFragmento);
+            } catch (Exception e) {
+                throw LoteIncompleto.de(confirmados, e);
+            }
+            confirmados.addAll(grupo.getValue());
+        }
+    }
+    
+    private void cambiarEstadoLote(int fragmento, Map<Long, Estado> cambios) throws Exception {
+        Compartimento.Permiso permiso = Compartimento.LOTES.entrar();
+        Connection conn = null;
+        try {
+            conn = DataBaseConnection.getConnection(fragmento);
+            conn.setAutoCommit(false);
+            
+            LOGGER.log(Level.INFO, "Iniciando transacción para cambiar estado de {0} legajos", cambios.size());
+            legajoDAO.cambiarEstadoLoteTx(cambios, conn);
+            List<Cambio> registros = new ArrayList<>(cambios.size());
+            for (Map.Entry<Long, Estado> cambio : cambios.entrySet()) {
+                registros.add(Cambio.de(Cambio.Entidad.LEGAJO, cambio.getKey(), Cambio.Operacion.ESTADO, cambio.getValue().name()));
+            }
+            cambioDAO.insertarLoteTx(registros, conn);
+            
+            conn.commit();
+            cambios.keySet().forEach(lecturasPorId::olvidar);
+            LOGGER.log(Level.INFO, "Estado de {0} legajos cambiado exitosamente", cambios.size());
+            notificar(observador -> cambios.forEach(observador::estadoActualizado));
+            
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                    LOGGER.log(Level.SEVERE, "Rollback ejecutado por error al cambiar estado por lotes", e);
+                } catch (SQLException rollbackEx) {
+                    LOGGER.log(Level.SEVERE, "Error al hacer rollback", rollbackEx);
+                }
+            }
+            throw new Exception("Error al cambiar estado del lote de legajos: " + e.getMessage(), e);
+            
+        } catch (Exception e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                    LOGGER.log(Level.SEVERE, "Rollback ejecutado por error inesperado", e);
+                } catch (SQLException rollbackEx) {
+                    LOGGER.log(Level.SEVERE, "Error al hacer rollback", rollbackEx);
+                }
+            }
+            throw new Exception("Error inesperado al cambiar estado del lote: " + e.getMessage(), e);
+            
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    LOGGER.log(Level.WARNING, "Error al cerrar conexión", e);
+                }
+            }
+            permiso.liberar();
+        }
+    }
+    
+    /**
+     * Registra un observador que será avisado de los cambios de categoría, de estado y de las bajas confirmados
+     * @param observador Observador a registrar
+     */
+    public void agregarObservador(ObservadorLegajo observador) {
+        if (observador == null) {
+            throw new IllegalArgumentException("El observador no puede ser null");
+        }
+        observadores.add(observador);
+    }
+    
+    /**
+     * Agrupa los getById concurrentes: los que llegan dentro de la ventana (o hasta completar tamanioMaximo)
+     * se resuelven con una sola consulta por lotes (IN-list) en lugar de una por ID.
+     * Pensado para el servidor HTTP, donde llegan muchos getById a la vez; cada getById espera hasta la ventana.
+     * @param ventanaMicros espera máxima para juntar un lote, en microsegundos (0 desactiva el agrupamiento)
+     * @param tamanioMaximo IDs por lote
+     */
+    public synchronized void agruparLecturasPorId(long ventanaMicros, int tamanioMaximo) {
+        CargadorLotes<Long, Legajo> anterior = cargadorPorId;
+        cargadorPorId = ventanaMicros > 0
+                ? new CargadorLotes<>("legajo.id", ids -> Compartimento.LECTURAS.ejecutar(() -> porId(legajoDAO.leerPorIds(ids))),
+                                      Legajo::new, ventanaMicros, tamanioMaximo)
+                : null;
+        if (anterior != null) {
+            anterior.detener();
+        }
+    }
+    
+    /**
+     * Estadísticas del agrupamiento de getById
+     * @return pedidos y consultas por lotes, o null si el agrupamiento no está activado
+     */
+    public CargadorLotes.Estadisticas getEstadisticasLotes() {
+        CargadorLotes<Long, Legajo> cargador = cargadorPorId;
+        return cargador != null ? cargador.getEstadisticas() : null;
+    }
+    
+    /**
+     * Estadísticas de las lecturas compartidas (getById)
+     * @return llamadas recibidas y consultas ahorradas
+     */
+    public VueloUnico.Estadisticas getEstadisticasLecturas() {
+        return lecturasPorId.getEstadisticas();
+    }
+    
+    /**
+     * Avisa un cambio a los observadores. Se llama después del commit: un error
+     * en un observador se registra pero no afecta a la operación ya confirmada.
+     */
+    private void notificar(Consumer<ObservadorLegajo> aviso) {
+        for (ObservadorLegajo observador : observadores) {
+            try {
+                aviso.accept(observador);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Error al notificar un cambio de legajo a un observador", e);
+            }
         }
     }
     
@@ -373,4 +790,26 @@ public class LegajoService implements GenericService<Legajo> {
             throw new IllegalArgumentException("La categoría del legajo es obligatoria");
         }
     }
+    
+    // Lectura de un ID: por el cargador de lotes si está activado, si no con su propia consulta
+    // (también si el cargador se detuvo porque agruparLecturasPorId lo reemplazó mientras tanto)
+    private Legajo leerPorId(Long id) throws Exception {
+        CargadorLotes<Long, Legajo> cargador = cargadorPorId;
+        if (cargador != null) {
+            try {
+                return cargador.obtener(id);
+            } catch (CargadorLotes.Detenido e) {
+                // Se lee sin el cargador
+            }
+        }
+        return Compartimento.LECTURAS.ejecutar(() -> legajoDAO.leer(id));
+    }
+    
+    private static Map<Long, Legajo> porId(List<Legajo> encontrados) {
+        Map<Long, Legajo> porId = new HashMap<>(encontrados.size() * 2);
+        for (Legajo encontrado : encontrados) {
+            porId.put(encontrado.getId(), encontrado);
+        }
+        return porId;
+    }
 }
@@ -0,0 +1,41 @@
+package tpiprogramacionii.service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Falla de una operación por lotes con varios fragmentos después de que alguno ya confirmó su transacción.
+ * Cada fragmento confirma por separado, así que los elementos de los fragmentos anteriores quedaron guardados:
+ * getConfirmados() dice cuáles, para reintentar solo el resto. Si no se confirmó ninguno, las operaciones por
+ * lotes lanzan el error original.
+ */
+public class LoteIncompleto extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private final HashSet<Long> confirmados;
+
+    private LoteIncompleto(Collection<Long> confirmados, Exception causa) {
+        super("El lote se confirmó solo en parte (" + confirmados.size() + " guardados): " + causa.getMessage(), causa);
+        this.confirmados = new HashSet<>(confirmados);
+    }
+
+    /**
+     * Error a lanzar cuando falla un fragmento.
+     * @param confirmados IDs de los elementos de los fragmentos que ya confirmaron
+     * @param causa error del fragmento que falló
+     * @return la causa si no se confirmó nada, si no un LoteIncompleto con los confirmados
+     */
+    static Exception de(Collection<Long> confirmados, Exception causa) {
+        return confirmados.isEmpty() ? causa : new LoteIncompleto(confirmados, causa);
+    }
+
+    /**
+     * @return IDs (de empleado o de legajo, según la operación) que quedaron guardados
+     */
+    public Set<Long> getConfirmados() {
+        return Collections.unmodifiableSet(confirmados);
+    }
+}
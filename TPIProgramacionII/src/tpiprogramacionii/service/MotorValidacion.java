@@ -0,0 +1,222 @@
+package tpiprogramacionii.service;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import tpiprogramacionii.entities.Empleado;
+
+/**
+ * Motor de validación de empleados pensado para importaciones masivas.
+ * Aplica las mismas reglas que EmpleadoService.validarEmpleado pero:
+ * - no usa expresiones regulares ni trim(): recorre los caracteres una sola vez sin crear objetos
+ * - no corta en el primer error: acumula todos los errores del registro en una máscara de bits
+ * - permite validar un lote completo en paralelo
+ *
+ * Los métodos de validación de un solo registro de EmpleadoService no cambian;
+ * este motor es una alternativa para validar muchos registros a la vez.
+ */
+public class MotorValidacion {
+
+    /**
+     * Valida un empleado y deja los errores en el resultado indicado (que se reinicia antes).
+     * @param empleado empleado a validar
+     * @param resultado objeto reutilizable donde se guardan los errores
+     * @return true si el empleado es válido
+     */
+    public boolean validar(Empleado empleado, ResultadoValidacion resultado) {
+        int mascara = calcularErrores(empleado);
+        resultado.setErrores(mascara);
+        return mascara == 0;
+    }
+
+    /**
+     * Valida un lote de empleados en paralelo.
+     * @param empleados lote a validar
+     * @return máscara de errores por posición del lote (0 = válido)
+     */
+    public ResultadoLote validarLote(List<Empleado> empleados) {
+        int[] mascaras = new int[empleados.size()];
+        IntStream.range(0, mascaras.length).parallel()
+                 .forEach(i -> mascaras[i] = calcularErrores(empleados.get(i)));
+        return new ResultadoLote(mascaras);
+    }
+
+    /**
+     * Calcula la máscara de errores de un empleado sin crear objetos.
+     * @param empleado empleado a validar
+     * @return máscara con un bit por cada ErrorValidacion encontrado
+     */
+    public int calcularErrores(Empleado empleado) {
+        if (empleado == null) {
+            return ErrorValidacion.EMPLEADO_NULL.bit();
+        }
+        int errores = 0;
+
+        int largoNombre = largoSinEspacios(empleado.getNombre());
+        if (largoNombre == 0) {
+            errores |= ErrorValidacion.NOMBRE_OBLIGATORIO.bit();
+        } else if (largoNombre < 2) {
+            errores |= ErrorValidacion.NOMBRE_CORTO.bit();
+        }
+
+        int largoApellido = largoSinEspacios(empleado.getApellido());
+        if (largoApellido == 0) {
+            errores |= ErrorValidacion.APELLIDO_OBLIGATORIO.bit();
+        } else if (largoApellido < 2) {
+            errores |= ErrorValidacion.APELLIDO_CORTO.bit();
+        }
+
+        String dni = empleado.getDni();
+        if (largoSinEspacios(dni) == 0) {
+            errores |= ErrorValidacion.DNI_OBLIGATORIO.bit();
+        } else if (!esDniValido(dni)) {
+            errores |= ErrorValidacion.DNI_FORMATO.bit();
+        }
+
+        String email = empleado.getEmail();
+        if (largoSinEspacios(email) > 0 && !esEmailValido(email)) {
+            errores |= ErrorValidacion.EMAIL_FORMATO.bit();
+        }
+
+        int largoArea = largoSinEspacios(empleado.getArea());
+        if (largoArea > 0 && largoArea < 2) {
+            errores |= ErrorValidacion.AREA_CORTA.bit();
+        }
+        return errores;
+    }
+
+    //VERIFICADORES ----------------------------------------------------------------------------------------------
+
+    /**
+     * Largo que tendría el texto después de trim(), sin crear el String recortado.
+     * @param texto texto a medir (puede ser null)
+     * @return largo sin espacios al principio ni al final (0 si es null)
+     */
+    static int largoSinEspacios(String texto) {
+        if (texto == null) {
+            return 0;
+        }
+        int inicio = inicioSinEspacios(texto);
+        return finSinEspacios(texto, inicio) - inicio;
+    }
+
+    /**
+     * Equivale a DNI_PATTERN (^[0-9]{7,8}$) aplicado sobre el texto recortado.
+     */
+    static boolean esDniValido(String dni) {
+        int inicio = inicioSinEspacios(dni);
+        int fin = finSinEspacios(dni, inicio);
+        int largo = fin - inicio;
+        if (largo < 7 || largo > 8) {
+            return false;
+        }
+        for (int i = inicio; i < fin; i++) {
+            char c = dni.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Equivale a EMAIL_PATTERN (^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\.[A-Za-z]{2,}$) aplicado sobre el texto recortado.
+     * Como el dominio no admite '@' y el sufijo final no admite '.', alcanza con ubicar
+     * la única '@' y el último '.' para decidir sin retroceso.
+     */
+    static boolean esEmailValido(String email) {
+        int inicio = inicioSinEspacios(email);
+        int fin = finSinEspacios(email, inicio);
+
+        int arroba = -1;
+        int ultimoPunto = -1;
+        for (int i = inicio; i < fin; i++) {
+            char c = email.charAt(i);
+            if (c == '@') {
+                if (arroba >= 0) {
+                    return false;
+                }
+                arroba = i;
+            } else if (arroba < 0) {
+                if (!esLetraODigito(c) && c != '+' && c != '_' && c != '.' && c != '-') {
+                    return false;
+                }
+            } else {
+                if (c == '.') {
+                    ultimoPunto = i;
+                } else if (!esLetraODigito(c) && c != '-') {
+                    return false;
+                }
+            }
+        }
+        if (arroba <= inicio || ultimoPunto <= arroba + 1 || fin - ultimoPunto - 1 < 2) {
+            return false;
+        }
+        for (int i = ultimoPunto + 1; i < fin; i++) {
+            char c = email.charAt(i);
+            if (!((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean esLetraODigito(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9');
+    }
+
+    // Mismo criterio que String.trim(): se descartan los caracteres <= ' '
+    private static int inicioSinEspacios(String texto) {
+        int i = 0;
+        while (i < texto.length() && texto.charAt(i) <= ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int finSinEspacios(String texto, int inicio) {
+        int fin = texto.length();
+        while (fin > inicio && texto.charAt(fin - 1) <= ' ') {
+            fin--;
+        }
+        return fin;
+    }
+
+    /**
+     * Resultado de validar un lote: una máscara de errores por registro.
+     */
+    public static final class ResultadoLote {
+        private final int[] mascaras;
+        private final int invalidos;
+
+        ResultadoLote(int[] mascaras) {
+            this.mascaras = mascaras;
+            int n = 0;
+            for (int m : mascaras) {
+                if (m != 0) {
+                    n++;
+                }
+            }
+            this.invalidos = n;
+        }
+
+        public int getCantidad() {
+            return mascaras.length;
+        }
+
+        public int getInvalidos() {
+            return invalidos;
+        }
+
+        public boolean esValido(int posicion) {
+            return mascaras[posicion] == 0;
+        }
+
+        /**
+         * @param posicion posición del registro en el lote
+         * @return errores del registro (lista vacía si es válido)
+         */
+        public List<ErrorValidacion> getErrores(int posicion) {
+            return ResultadoValidacion.decodificar(mascaras[posicion]);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package tpiprogramacionii.service;
+
+import tpiprogramacionii.entities.Empleado;
+
+/**
+ * Interfaz para los componentes que mantienen datos derivados de los empleados
+ * (índices de búsqueda, agregados, etc.) sin volver a leer la tabla.
+ * EmpleadoService avisa a los observadores registrados después de cada commit exitoso,
+ * (altas, bajas y cambios de área y de categoría), tanto en las operaciones individuales como en las por lotes.
+ * Todos los métodos tienen una implementación vacía: cada observador redefine solo los que usa.
+ */
+public interface ObservadorEmpleado {
+
+    /**
+     * Se llama después de insertar un empleado (ya tiene ID y legajo asignados).
+     * @param empleado Empleado insertado
+     */
+    default void empleadoInsertado(Empleado empleado) {}
+
+    /**
+     * Se llama después de eliminar lógicamente un empleado.
+     * @param id ID del empleado eliminado
+     */
+    default void empleadoEliminado(Long id) {}
+
+    /**
+     * Se llama después de cambiar el área de un empleado.
+     * En las actualizaciones por lote se avisa por cada empleado del lote.
+     * @param id ID del empleado
+     * @param area Nueva área
+     */
+    default void areaActualizada(Long id, String area) {}
+
+    /**
+     * Se llama después de cambiar la categoría del legajo de un empleado
+     * (EmpleadoService.actualizarCategoriaLegajo).
+     * @param id ID del empleado
+     * @param categoria Nueva categoría del legajo
+     */
+    default void categoriaLegajoActualizada(Long id, String categoria) {}
+}
@@ -0,0 +1,33 @@
+package tpiprogramacionii.service;
+
+import tpiprogramacionii.entities.Estado;
+
+/**
+ * Interfaz para los componentes que mantienen datos derivados de los legajos sin volver a leer la tabla.
+ * LegajoService avisa a los observadores registrados después de cada commit exitoso
+ * (cambios de categoría, cambios de estado y bajas), también en los cambios de estado por lotes.
+ * Igual que en ObservadorEmpleado, cada observador redefine solo los métodos que usa.
+ */
+public interface ObservadorLegajo {
+
+    /**
+     * Se llama después de cambiar la categoría de un legajo.
+     * @param idLegajo ID del legajo
+     * @param categoria Nueva categoría
+     */
+    default void categoriaActualizada(Long idLegajo, String categoria) {}
+
+    /**
+     * Se llama después de cambiar el estado de un legajo.
+     * En los cambios por lote se avisa por cada legajo del lote.
+     * @param idLegajo ID del legajo
+     * @param estado Nuevo estado
+     */
+    default void estadoActualizado(Long idLegajo, Estado estado) {}
+
+    /**
+     * Se llama después de eliminar lógicamente un legajo.
+     * @param idLegajo ID del legajo eliminado
+     */
+    default void legajoEliminado(Long idLegajo) {}
+}
@@ -0,0 +1,76 @@
+package tpiprogramacionii.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado reutilizable de la validación de un empleado.
+ * Guarda los errores como una máscara de bits: validar no crea objetos,
+ * y la lista de mensajes se arma solo si se pide.
+ */
+public class ResultadoValidacion {
+
+    private static final ErrorValidacion[] ERRORES = ErrorValidacion.values();
+
+    private int errores;
+
+    /**
+     * Deja el resultado listo para validar otro registro.
+     */
+    public void reiniciar() {
+        errores = 0;
+    }
+
+    void setErrores(int mascara) {
+        this.errores = mascara;
+    }
+
+    public boolean esValido() {
+        return errores == 0;
+    }
+
+    public boolean tiene(ErrorValidacion error) {
+        return (errores & error.bit()) != 0;
+    }
+
+    /**
+     * @return máscara de bits con los errores encontrados (ver ErrorValidacion.bit())
+     */
+    public int getMascara() {
+        return errores;
+    }
+
+    /**
+     * @return errores encontrados, en el orden en que los revisa validarEmpleado
+     */
+    public List<ErrorValidacion> getErrores() {
+        return decodificar(errores);
+    }
+
+    /**
+     * Convierte una máscara de errores en la lista de errores que representa.
+     * @param mascara máscara devuelta por el motor de validación
+     * @return lista de errores (vacía si la máscara es 0)
+     */
+    public static List<ErrorValidacion> decodificar(int mascara) {
+        List<ErrorValidacion> lista = new ArrayList<>(Integer.bitCount(mascara));
+        for (ErrorValidacion error : ERRORES) {
+            if ((mascara & error.bit()) != 0) {
+                lista.add(error);
+            }
+        }
+        return lista;
+    }
+
+    @Override
+    public String toString() {
+        if (esValido()) {
+            return "OK";
+        }
+        StringBuilder sb = new StringBuilder();
+        for (ErrorValidacion error : getErrores()) {
+            sb.append(sb.length() > 0 ? "; " : "").append(error.getMensaje());
+        }
+        return sb.toString();
+    }
+}
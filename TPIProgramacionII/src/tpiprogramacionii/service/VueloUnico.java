@@ -0,0 +1,118 @@
+package tpiprogramacionii.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * Vuelo único (single flight): las llamadas concurrentes con la misma clave comparten una sola consulta.
+ * La primera llamada de una clave ejecuta la operación; las que llegan mientras tanto esperan su resultado
+ * (o su excepción) en lugar de consultar otra vez. Una llamada que llega después de que la operación terminó
+ * consulta de nuevo: no es un caché. Las escrituras llaman a olvidar después del commit, así una lectura que llega
+ * después de la escritura no se suma a una consulta empezada antes y no recibe datos viejos.
+ *
+ * Sin concurrencia el costo es un putIfAbsent y un remove sobre un ConcurrentHashMap (sin locks).
+ * Cada llamador recibe su propia copia (ver copia), también el que ejecutó la operación: el resultado original
+ * no sale de esta clase, así un llamador que modifique la entidad leída no altera la de los demás.
+ *
+ * @param <K> clave de la consulta
+ * @param <V> resultado
+ */
+public final class VueloUnico<K, V> {
+
+    private final String nombre;
+    private final UnaryOperator<V> copia;
+    private final ConcurrentHashMap<K, CompletableFuture<V>> enVuelo = new ConcurrentHashMap<>();
+    private final LongAdder llamadas = new LongAdder();
+    private final LongAdder compartidas = new LongAdder();
+
+    /**
+     * @param nombre nombre para las estadísticas
+     * @param copia copia del resultado que reciben los que lo comparten (null se entrega tal cual)
+     */
+    public VueloUnico(String nombre, UnaryOperator<V> copia) {
+        if (copia == null) {
+            throw new IllegalArgumentException("La copia del resultado no puede ser null");
+        }
+        this.nombre = nombre;
+        this.copia = copia;
+    }
+
+    /**
+     * Ejecuta la operación, o espera la que ya está en curso para la misma clave.
+     * @param clave clave de la consulta
+     * @param operacion consulta a ejecutar si no hay una en curso
+     * @return una copia del resultado de la operación
+     * @throws Exception la que lanzó la operación (también a los que la compartieron)
+     */
+    public V ejecutar(K clave, Compartimento.Operacion<V> operacion) throws Exception {
+        llamadas.increment();
+        CompletableFuture<V> propio = new CompletableFuture<>();
+        CompletableFuture<V> enCurso = enVuelo.putIfAbsent(clave, propio);
+        if (enCurso != null) {
+            compartidas.increment();
+            return esperar(enCurso);
+        }
+        try {
+            V resultado = operacion.ejecutar();
+            propio.complete(resultado);
+            return resultado != null ? copia.apply(resultado) : null;
+        } catch (Exception | Error e) {
+            propio.completeExceptionally(e);
+            throw e;
+        } finally {
+            enVuelo.remove(clave, propio);
+        }
+    }
+
+    /**
+     * Las llamadas siguientes con la clave ejecutan una operación nueva, aunque haya una en curso
+     * (la que está en curso termina y entrega su resultado a los que ya la esperaban).
+     * @param clave clave de la consulta
+     */
+    public void olvidar(K clave) {
+        enVuelo.remove(clave);
+    }
+
+    /**
+     * Como olvidar, para todas las claves (cuando la escritura no conoce la clave de las lecturas afectadas).
+     */
+    public void olvidarTodas() {
+        enVuelo.clear();
+    }
+
+    private V esperar(CompletableFuture<V> enCurso) throws Exception {
+        try {
+            V resultado = enCurso.get();
+            return resultado != null ? copia.apply(resultado) : null;
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof Exception excepcion) {
+                throw excepcion;
+            }
+            throw (Error) causa;
+        }
+    }
+
+    /**
+     * @return llamadas recibidas y cuántas compartieron una consulta en curso (consultas ahorradas)
+     */
+    public Estadisticas getEstadisticas() {
+        return new Estadisticas(nombre, llamadas.sum(), compartidas.sum());
+    }
+
+    /**
+     * @param nombre nombre del vuelo único
+     * @param llamadas llamadas recibidas desde el arranque
+     * @param compartidas llamadas que esperaron una consulta en curso en lugar de hacer la suya
+     */
+    public record Estadisticas(String nombre, long llamadas, long compartidas) {
+
+        @Override
+        public String toString() {
+            return String.format("%-20s llamadas=%d compartidas=%d", nombre, llamadas, compartidas);
+        }
+    }
+}
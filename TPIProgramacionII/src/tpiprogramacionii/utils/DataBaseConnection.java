@@ -3,7 +3,9 @@ package tpiprogramacionii.utils;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Properties;
+import java.util.concurrent.atomic.LongAdder;
 import java.io.InputStream;
 import java.io.IOException;
 
@@ -11,7 +13,109 @@ public class DataBaseConnection {
 
     private static final String PROPERTIES_FILE = "tpiprogramacionii/config/db.properties";
 
+    // Métricas de obtención de conexiones (las leen el generador de carga y los benchmarks)
+    private static final LongAdder CONEXIONES_ENTREGADAS = new LongAdder();
+    private static final LongAdder NANOS_ESPERA = new LongAdder();
+
+    /**
+     * Conexión a la base única o, si hay varios fragmentos, al primero
+     * (lo usan las herramientas que trabajan sobre una sola base).
+     */
     public static Connection getConnection() throws SQLException {
+        return getConnection(0);
+    }
+
+    /**
+     * Conexión al fragmento indicado (ver Fragmentos). Con un único fragmento es la base de siempre.
+     * @param fragmento número de fragmento, entre 0 y Fragmentos.cantidad() - 1
+     */
+    public static Connection getConnection(int fragmento) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            return abrirConexion(fragmento);
+        } finally {
+            CONEXIONES_ENTREGADAS.increment();
+            NANOS_ESPERA.add(System.nanoTime() - inicio);
+        }
+    }
+
+    /**
+     * @return cantidad de conexiones pedidas desde el arranque
+     */
+    public static long getConexionesEntregadas() {
+        return CONEXIONES_ENTREGADAS.sum();
+    }
+
+    /**
+     * @return tiempo total (en nanosegundos) que los llamadores esperaron para obtener una conexión
+     */
+    public static long getNanosEsperaConexion() {
+        return NANOS_ESPERA.sum();
+    }
+
+    private static Connection abrirConexion(int fragmento) throws SQLException {
+        Properties props = cargarPropiedades();
+        int fragmentos = Fragmentos.cantidad();
+        if (fragmento < 0 || fragmento >= fragmentos) {
+            throw new IllegalArgumentException("Fragmento inexistente: " + fragmento + " (hay " + fragmentos + ")");
+        }
+        if (fragmentos > 1) {
+            return abrirFragmento(props, fragmento, fragmentos);
+        }
+
+        // Si se define db.url se usa tal cual (por ejemplo, una base embebida para benchmarks)
+        String urlDirecta = props.getProperty("db.url");
+        if (urlDirecta != null && !urlDirecta.isBlank()) {
+            return DriverManager.getConnection(urlDirecta, props.getProperty("db.user"), props.getProperty("db.password"));
+        }
+
+        String host = props.getProperty("db.host");
+        String port = props.getProperty("db.port");
+        String db   = props.getProperty("db.database");
+        String user = props.getProperty("db.user");
+        String pass = props.getProperty("db.password");
+
+        String url = "jdbc:mysql://" + host + ":" + port + "/" + db
+                   + "?useSSL=false&serverTimezone=UTC&rewriteBatchedStatements=true";
+
+        // Cada llamada devuelve una conexión NUEVA
+        return DriverManager.getConnection(url, user, pass);
+    }
+
+    /**
+     * Abre una conexión al fragmento k según db.shard.k.url (usuario y contraseña propios o, si no están, db.user y db.password).
+     * En MySQL ajusta el autoincremento de la sesión para que los ID del fragmento k sean k+1, k+1+N, ...;
+     * las bases embebidas lo configuran al crear las tablas (InicializadorEsquema).
+     */
+    private static Connection abrirFragmento(Properties props, int fragmento, int fragmentos) throws SQLException {
+        String prefijo = "db.shard." + fragmento + ".";
+        String url = props.getProperty(prefijo + "url");
+        if (url == null || url.isBlank()) {
+            throw new SQLException("Falta la propiedad " + prefijo + "url (db.shards=" + fragmentos + ")");
+        }
+        Connection conex = DriverManager.getConnection(url,
+                props.getProperty(prefijo + "user", props.getProperty("db.user")),
+                props.getProperty(prefijo + "password", props.getProperty("db.password")));
+        if (url.startsWith("jdbc:mysql:")) {
+            try (Statement stmt = conex.createStatement()) {
+                stmt.execute("SET SESSION auto_increment_increment = " + fragmentos
+                        + ", auto_increment_offset = " + (fragmento + 1));
+            } catch (SQLException e) {
+                conex.close();
+                throw e;
+            }
+        }
+        return conex;
+    }
+
+    /**
+     * Lee el archivo db.properties desde el classpath.
+     * Las propiedades de sistema con prefijo "db." o "slowquery." pisan los valores del archivo.
+     * Lo usan tanto la conexión como las utilidades que tienen su propia
+     * configuración en el mismo archivo (por ejemplo, el registro de consultas lentas).
+     * @return propiedades cargadas
+     */
+    public static Properties cargarPropiedades() {
         try {
             Properties props = new Properties();
             try (InputStream in = DataBaseConnection.class
@@ -23,18 +127,13 @@ public class DataBaseConnection {
                 }
                 props.load(in);
             }
-
-            String host = props.getProperty("db.host");
-            String port = props.getProperty("db.port");
-            String db   = props.getProperty("db.database");
-            String user = props.getProperty("db.user");
-            String pass = props.getProperty("db.password");
-
-            String url = "jdbc:mysql://" + host + ":" + port + "/" + db
-                       + "?useSSL=false&serverTimezone=UTC";
-
-            // Cada llamada devuelve una conexión NUEVA
-            return DriverManager.getConnection(url, user, pass);
+            // Las propiedades de sistema (-Ddb.url=...) tienen prioridad sobre el archivo
+            for (String clave : System.getProperties().stringPropertyNames()) {
+                if (clave.startsWith("db.") || clave.startsWith("slowquery.")) {
+                    props.setProperty(clave, System.getProperty(clave));
+                }
+            }
+            return props;
 
         } catch (IOException e) {
             throw new RuntimeException("Error al leer archivo de propiedades", e);
@@ -0,0 +1,199 @@
+package tpiprogramacionii.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.ToIntFunction;
+import java.util.zip.CRC32;
+
+/**
+ * Reparto de empleados y legajos entre varias bases de datos (fragmentos).
+ * Con db.shards=N en db.properties cada fragmento k (0..N-1) es una base con el esquema completo
+ * y su propia URL (db.shard.k.url). Sin la propiedad hay un único fragmento: la base de siempre.
+ *
+ * Reglas de ubicación:
+ * - un empleado nuevo va al fragmento que indica el hash de su DNI (deClave), y su legajo se crea
+ *   en la misma transacción y la misma base, así el par 1:1 nunca queda repartido;
+ * - en el fragmento k los ID autoincrementales son k+1, k+1+N, k+1+2N... (ver DataBaseConnection e
+ *   InicializadorEsquema), así que el ID alcanza para encontrar la fila (deId) sin consultar otra base.
+ *
+ * Las lecturas que no conocen el fragmento (listados, páginas, búsquedas por criterio) se ejecutan
+ * en todos en paralelo (enTodos) y se combinan respetando el orden de cada uno (intercalar).
+ */
+public final class Fragmentos {
+
+    private static volatile int cantidad;
+
+    private Fragmentos() {}
+
+    /**
+     * Consulta que se ejecuta sobre un fragmento.
+     * @param <R> resultado de la consulta
+     */
+    @FunctionalInterface
+    public interface ConsultaFragmento<R> {
+        R ejecutar(int fragmento) throws SQLException;
+    }
+
+    /**
+     * @return cantidad de fragmentos configurada (db.shards, 1 si no está definida). Se lee una sola vez.
+     */
+    public static int cantidad() {
+        int n = cantidad;
+        if (n == 0) {
+            String valor = DataBaseConnection.cargarPropiedades().getProperty("db.shards", "1").trim();
+            try {
+                n = Integer.parseInt(valor);
+            } catch (NumberFormatException e) {
+                throw new IllegalStateException("db.shards debe ser un número entero: " + valor);
+            }
+            if (n < 1) {
+                throw new IllegalStateException("db.shards debe ser mayor a 0: " + n);
+            }
+            cantidad = n;
+        }
+        return n;
+    }
+
+    /**
+     * Fragmento que contiene la fila con el ID indicado (empleado, legajo o cambio).
+     */
+    public static int deId(long id) {
+        return (int) Math.floorMod(id - 1, (long) cantidad());
+    }
+
+    /**
+     * Fragmento donde se ubica una fila nueva según su clave natural (DNI del empleado o número de legajo).
+     * Usa CRC32, que no depende de la versión de Java ni de la JVM: la misma clave va siempre al mismo fragmento.
+     */
+    public static int deClave(String clave) {
+        int n = cantidad();
+        if (n == 1 || clave == null) {
+            return 0;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(clave.trim().getBytes(StandardCharsets.UTF_8));
+        return (int) (crc.getValue() % n);
+    }
+
+    /**
+     * Verifica que un ID generado corresponda al fragmento donde se insertó. Si no coincide, la base
+     * no tiene configurado el autoincremento por fragmento y la fila no se podría volver a encontrar.
+     * @throws SQLException si el ID no corresponde al fragmento
+     */
+    public static void verificarId(long id, int fragmento) throws SQLException {
+        if (deId(id) != fragmento) {
+            throw new SQLException("El ID " + id + " generado en el fragmento " + fragmento
+                    + " no corresponde a ese fragmento (revisar el autoincremento de la base)");
+        }
+    }
+
+    /**
+     * Agrupa elementos por fragmento, conservando el orden relativo dentro de cada grupo.
+     * @param elementos elementos a agrupar
+     * @param fragmento fragmento de cada elemento
+     * @return fragmento -> elementos, en orden de fragmento
+     */
+    public static <T> Map<Integer, List<T>> agrupar(Collection<T> elementos, ToIntFunction<? super T> fragmento) {
+        Map<Integer, List<T>> grupos = new TreeMap<>();
+        for (T elemento : elementos) {
+            grupos.computeIfAbsent(fragmento.applyAsInt(elemento), f -> new ArrayList<>()).add(elemento);
+        }
+        return grupos;
+    }
+
+    /**
+     * Ejecuta la consulta en todos los fragmentos en paralelo.
+     * @return un resultado por fragmento, en orden de fragmento
+     * @throws SQLException el primer error encontrado (en orden de fragmento)
+     */
+    public static <R> List<R> enTodos(ConsultaFragmento<R> consulta) throws SQLException {
+        List<Integer> todos = new ArrayList<>(cantidad());
+        for (int f = 0; f < cantidad(); f++) {
+            todos.add(f);
+        }
+        return enFragmentos(todos, consulta);
+    }
+
+    /**
+     * Ejecuta la consulta en los fragmentos indicados, en paralelo si son más de uno.
+     * @return un resultado por fragmento, en el mismo orden
+     * @throws SQLException el primer error encontrado (en el orden de los fragmentos)
+     */
+    public static <R> List<R> enFragmentos(Collection<Integer> fragmentos, ConsultaFragmento<R> consulta) throws SQLException {
+        List<R> resultados = new ArrayList<>(fragmentos.size());
+        if (fragmentos.size() == 1) {
+            resultados.add(consulta.ejecutar(fragmentos.iterator().next()));
+            return resultados;
+        }
+        try (ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<R>> tareas = new ArrayList<>(fragmentos.size());
+            for (int fragmento : fragmentos) {
+                tareas.add(ejecutor.submit(() -> consulta.ejecutar(fragmento)));
+            }
+            for (Future<R> tarea : tareas) {
+                resultados.add(tarea.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Consulta a los fragmentos interrumpida", e);
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof SQLException sql) {
+                throw sql;
+            }
+            if (causa instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (causa instanceof Error error) {
+                throw error;
+            }
+            throw new SQLException("Error al consultar los fragmentos: " + causa.getMessage(), causa);
+        }
+        return resultados;
+    }
+
+    /**
+     * Combina listas ya ordenadas (una por fragmento) en una sola, tomando cada vez el menor de los primeros
+     * elementos. El orden interno de cada lista se conserva aunque el comparador no lo distinga del todo.
+     * @param listas resultados de cada fragmento, cada uno en orden
+     * @param orden orden de la consulta
+     * @param limite cantidad máxima de elementos (Integer.MAX_VALUE para todos)
+     * @return los primeros elementos en orden
+     */
+    public static <T> List<T> intercalar(List<List<T>> listas, Comparator<? super T> orden, int limite) {
+        if (listas.size() == 1) {
+            List<T> unica = listas.get(0);
+            return unica.size() <= limite ? unica : new ArrayList<>(unica.subList(0, limite));
+        }
+        int total = 0;
+        for (List<T> lista : listas) {
+            total += lista.size();
+        }
+        List<T> resultado = new ArrayList<>(Math.min(total, limite));
+        int[] posiciones = new int[listas.size()];
+        while (resultado.size() < limite) {
+            int elegida = -1;
+            for (int i = 0; i < listas.size(); i++) {
+                if (posiciones[i] < listas.get(i).size() && (elegida < 0
+                        || orden.compare(listas.get(i).get(posiciones[i]), listas.get(elegida).get(posiciones[elegida])) < 0)) {
+                    elegida = i;
+                }
+            }
+            if (elegida < 0) {
+                break;
+            }
+            resultado.add(listas.get(elegida).get(posiciones[elegida]++));
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,104 @@
+package tpiprogramacionii.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Crea las tablas de la aplicación ejecutando config/schema.sql.
+ * Se usa para preparar bases embebidas (benchmarks, generadores de carga);
+ * en la base MySQL de producción el esquema se crea a mano como indica el README.
+ */
+public class InicializadorEsquema {
+
+    private static final String SCHEMA_FILE = "tpiprogramacionii/config/schema.sql";
+
+    // Tablas con ID autoincremental: en cada fragmento generan solo los ID que le corresponden
+    private static final String[] TABLAS_CON_ID = {"legajo", "empleado", "cambio", "legajo_observacion"};
+
+    private InicializadorEsquema() {}
+
+    /**
+     * Ejecuta cada sentencia del script sobre la conexión indicada.
+     * Las sentencias usan IF NOT EXISTS, así que se puede llamar más de una vez.
+     * Los comentarios se quitan antes de separar las sentencias, así un ';' en un comentario no corta ninguna.
+     * @param conex Conexión activa
+     * @throws SQLException si falla alguna sentencia
+     */
+    public static void crearTablas(Connection conex) throws SQLException {
+        try (Statement stmt = conex.createStatement()) {
+            for (String sentencia : quitarComentarios(leerScript()).split(";")) {
+                String sql = sentencia.trim();
+                if (!sql.isEmpty()) {
+                    stmt.execute(sql);
+                }
+            }
+        }
+    }
+
+    /**
+     * Crea las tablas en todos los fragmentos configurados (en la base única si no hay fragmentos).
+     * @throws SQLException si falla alguna sentencia
+     */
+    public static void crearTablas() throws SQLException {
+        int fragmentos = Fragmentos.cantidad();
+        for (int f = 0; f < fragmentos; f++) {
+            try (Connection conex = DataBaseConnection.getConnection(f)) {
+                crearTablas(conex, f, fragmentos);
+            }
+        }
+    }
+
+    /**
+     * Crea las tablas en un fragmento. Con más de un fragmento, en las bases que no son MySQL
+     * (las embebidas de las pruebas locales) ajusta las columnas autoincrementales para que generen
+     * fragmento+1, fragmento+1+N, ... a partir del mayor ID existente. MySQL lo hace por sesión (DataBaseConnection).
+     * @param conex Conexión activa al fragmento
+     * @param fragmento número de fragmento de la conexión
+     * @param fragmentos cantidad total de fragmentos
+     * @throws SQLException si falla alguna sentencia
+     */
+    public static void crearTablas(Connection conex, int fragmento, int fragmentos) throws SQLException {
+        crearTablas(conex);
+        if (fragmentos == 1 || conex.getMetaData().getDatabaseProductName().equalsIgnoreCase("MySQL")) {
+            return;
+        }
+        try (Statement stmt = conex.createStatement()) {
+            for (String tabla : TABLAS_CON_ID) {
+                long siguiente;
+                try (ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + tabla)) {
+                    rs.next();
+                    siguiente = rs.getLong(1);
+                }
+                siguiente += Math.floorMod(fragmento + 1 - siguiente, (long) fragmentos);
+                stmt.execute("ALTER TABLE " + tabla + " ALTER COLUMN id RESTART WITH " + siguiente);
+                stmt.execute("ALTER TABLE " + tabla + " ALTER COLUMN id SET INCREMENT BY " + fragmentos);
+            }
+        }
+    }
+
+    private static String leerScript() {
+        try (InputStream in = InicializadorEsquema.class.getClassLoader().getResourceAsStream(SCHEMA_FILE)) {
+            if (in == null) {
+                throw new RuntimeException("No se encontró el archivo " + SCHEMA_FILE);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException("Error al leer el script de esquema", e);
+        }
+    }
+
+    private static String quitarComentarios(String sentencia) {
+        StringBuilder sb = new StringBuilder(sentencia.length());
+        for (String linea : sentencia.split("\n")) {
+            if (!linea.trim().startsWith("--")) {
+                sb.append(linea).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+}
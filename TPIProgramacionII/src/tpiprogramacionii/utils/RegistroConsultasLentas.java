@@ -0,0 +1,198 @@
+package tpiprogramacionii.utils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Registro de consultas lentas de los DAOs.
+ * Cada ejecución SQL de EmpleadoDAO y LegajoDAO informa su duración; las que superan
+ * el umbral configurado se guardan en un buffer circular en memoria (que se puede volcar
+ * desde el menú) y, opcionalmente, se agregan a un archivo que rota al llegar a un tamaño máximo.
+ *
+ * Configuración en db.properties (todas opcionales):
+ * - slowquery.umbral.ms: umbral en milisegundos (por defecto 200)
+ * - slowquery.capacidad: cantidad de registros que guarda el buffer, mayor a 0 (por defecto 256)
+ * - slowquery.archivo: ruta del archivo de log (si no está, no se escribe a disco)
+ * - slowquery.archivo.maxBytes: tamaño a partir del cual el archivo rota a .1 (por defecto 5 MB)
+ */
+public class RegistroConsultasLentas {
+
+    private static final Logger LOGGER = Logger.getLogger(RegistroConsultasLentas.class.getName());
+    private static final String PAQUETE_SERVICIOS = "tpiprogramacionii.service.";
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
+    private static final long UMBRAL_NANOS;
+    private static final ConsultaLenta[] BUFFER;
+    private static final Path ARCHIVO;
+    private static final long ARCHIVO_MAX_BYTES;
+
+    // Próxima posición a escribir en el buffer circular y total de registros desde el arranque
+    private static long escritos = 0;
+
+    static {
+        Properties props = DataBaseConnection.cargarPropiedades();
+        UMBRAL_NANOS = Long.parseLong(props.getProperty("slowquery.umbral.ms", "200")) * 1_000_000L;
+        int capacidad = Integer.parseInt(props.getProperty("slowquery.capacidad", "256").trim());
+        if (capacidad < 1) {
+            throw new IllegalStateException("slowquery.capacidad debe ser mayor a 0: " + capacidad);
+        }
+        BUFFER = new ConsultaLenta[capacidad];
+        String archivo = props.getProperty("slowquery.archivo", "").trim();
+        ARCHIVO = archivo.isEmpty() ? null : Paths.get(archivo);
+        ARCHIVO_MAX_BYTES = Long.parseLong(props.getProperty("slowquery.archivo.maxBytes", "5242880"));
+    }
+
+    private RegistroConsultasLentas() {}
+
+    /**
+     * Marca el inicio de una ejecución SQL. Se llama con la conexión ya obtenida: la espera por una
+     * conexión no es parte de la consulta.
+     * @return instante de inicio en nanosegundos
+     */
+    public static long iniciar() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Registra el fin de una ejecución SQL. Si no superó el umbral no hace nada más
+     * que una resta y una comparación.
+     * @param constante nombre de la constante SQL ejecutada (ej: "EmpleadoDAO.SEARCH_BY_ID")
+     * @param inicioNanos valor devuelto por iniciar()
+     * @param filas filas afectadas o leídas
+     * @param parametros parámetros enlazados al PreparedStatement, en orden
+     */
+    public static void registrar(String constante, long inicioNanos, int filas, Object... parametros) {
+        long nanos = System.nanoTime() - inicioNanos;
+        if (nanos < UMBRAL_NANOS) {
+            return;
+        }
+        ConsultaLenta consulta = new ConsultaLenta(LocalDateTime.now(), constante, Arrays.toString(parametros),
+                nanos / 1_000_000.0, filas, metodoServicioLlamador());
+        agregar(consulta);
+        LOGGER.log(Level.WARNING, "Consulta lenta: {0}", consulta);
+        if (ARCHIVO != null) {
+            escribirEnArchivo(consulta);
+        }
+    }
+
+    /**
+     * Devuelve las consultas lentas guardadas, de la más reciente a la más antigua.
+     * @return copia del contenido del buffer
+     */
+    public static synchronized List<ConsultaLenta> obtenerRegistros() {
+        int cantidad = (int) Math.min(escritos, BUFFER.length);
+        List<ConsultaLenta> registros = new ArrayList<>(cantidad);
+        for (int i = 1; i <= cantidad; i++) {
+            registros.add(BUFFER[(int) ((escritos - i) % BUFFER.length)]);
+        }
+        return registros;
+    }
+
+    /**
+     * @return umbral configurado en milisegundos
+     */
+    public static long getUmbralMs() {
+        return UMBRAL_NANOS / 1_000_000L;
+    }
+
+    private static synchronized void agregar(ConsultaLenta consulta) {
+        BUFFER[(int) (escritos % BUFFER.length)] = consulta;
+        escritos++;
+    }
+
+    /**
+     * Busca en la pila el primer método de la capa de servicios.
+     * Solo se ejecuta para las consultas que superan el umbral.
+     */
+    private static String metodoServicioLlamador() {
+        return WALKER.walk(frames -> frames
+                .filter(f -> f.getClassName().startsWith(PAQUETE_SERVICIOS))
+                .findFirst()
+                .map(f -> f.getClassName().substring(PAQUETE_SERVICIOS.length()) + "." + f.getMethodName())
+                .orElse("-"));
+    }
+
+    private static synchronized void escribirEnArchivo(ConsultaLenta consulta) {
+        try {
+            if (Files.exists(ARCHIVO) && Files.size(ARCHIVO) >= ARCHIVO_MAX_BYTES) {
+                Path rotado = ARCHIVO.resolveSibling(ARCHIVO.getFileName() + ".1");
+                Files.move(ARCHIVO, rotado, StandardCopyOption.REPLACE_EXISTING);
+            }
+            try (Writer out = Files.newBufferedWriter(ARCHIVO, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                out.write(consulta.toString());
+                out.write(System.lineSeparator());
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "No se pudo escribir el log de consultas lentas", e);
+        }
+    }
+
+    /**
+     * Datos de una ejecución que superó el umbral.
+     */
+    public static final class ConsultaLenta {
+        private final LocalDateTime fecha;
+        private final String constante;
+        private final String parametros;
+        private final double milisegundos;
+        private final int filas;
+        private final String metodoServicio;
+
+        ConsultaLenta(LocalDateTime fecha, String constante, String parametros,
+                      double milisegundos, int filas, String metodoServicio) {
+            this.fecha = fecha;
+            this.constante = constante;
+            this.parametros = parametros;
+            this.milisegundos = milisegundos;
+            this.filas = filas;
+            this.metodoServicio = metodoServicio;
+        }
+
+        public LocalDateTime getFecha() {
+            return fecha;
+        }
+
+        public String getConstante() {
+            return constante;
+        }
+
+        public String getParametros() {
+            return parametros;
+        }
+
+        public double getMilisegundos() {
+            return milisegundos;
+        }
+
+        public int getFilas() {
+            return filas;
+        }
+
+        public String getMetodoServicio() {
+            return metodoServicio;
+        }
+
+        @Override
+        public String toString() {
+            return fecha + " " + constante +
+                    " parametros=" + parametros +
+                    " tiempo=" + String.format("%.1f", milisegundos) + "ms" +
+                    " filas=" + filas +
+                    " servicio=" + metodoServicio;
+        }
+    }
+}